@@ -1,5 +1,7 @@
 package com.service.api_gateway;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
@@ -8,11 +10,12 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 @EnableDiscoveryClient  // This allows the gateway to discover other services via Eureka
 public class ApiGatewayApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(ApiGatewayApplication.class);
+
 	public static void main(String[] args) {
-		System.out.println("Starting API Gateway...");
 		SpringApplication.run(ApiGatewayApplication.class, args);
-		System.out.println("API Gateway started successfully!");
-		System.out.println("All API requests should now go through: http://localhost:8080");
-		System.out.println("Available routes will be configured in application.yml");
+		log.info("API Gateway started successfully!");
+		log.info("All API requests should now go through: http://localhost:8080");
+		log.info("Available routes will be configured in application.yml");
 	}
 }
\ No newline at end of file
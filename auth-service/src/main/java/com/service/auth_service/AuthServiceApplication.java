@@ -1,28 +1,39 @@
 package com.service.auth_service;
 
+import com.service.common.events.EventPublishingConfiguration;
+import com.service.common.metrics.QueryMetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient  // Register with Eureka for service discovery
+@EnableScheduling  // Read replica lag checks, event log retention
+@Import({EventPublishingConfiguration.class, QueryMetricsConfig.class})
 public class AuthServiceApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(AuthServiceApplication.class);
+
 	public static void main(String[] args) {
-		System.out.println("Starting Authentication Service...");
 		SpringApplication.run(AuthServiceApplication.class, args);
-		System.out.println("Auth Service started successfully!");
-		System.out.println("Service available at: http://localhost:8081");
-		System.out.println("Access via API Gateway: http://localhost:8080/api/auth/*");
+		log.info("Auth Service started successfully!");
+		log.info("Service available at: http://localhost:8081");
+		log.info("Access via API Gateway: http://localhost:8080/api/auth/*");
 	}
 
 	// Add RestTemplate for inter-service communication
 	@Bean
 	@LoadBalanced
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(RestTemplateBuilder builder) {
+		// Built from Boot's builder so every call is observed (http.client.requests + trace headers)
+		return builder.build();
 	}
 }
\ No newline at end of file
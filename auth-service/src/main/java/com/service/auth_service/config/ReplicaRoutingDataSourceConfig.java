@@ -0,0 +1,77 @@
+package com.service.auth_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Sends @Transactional(readOnly = true) work to a read replica and everything else to the
+// primary. Only active when app.datasource.replica.url is set (see application-replica.yml).
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaRoutingDataSourceConfig {
+
+    enum Route { PRIMARY, REPLICA }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Pool settings for the replica come from app.datasource.replica.hikari
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setJdbcUrl(url);
+        if (!username.isEmpty()) {
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+        }
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new ReplicaLagMonitor(replicaDataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor lagMonitor) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()
+                        ? Route.REPLICA : Route.PRIMARY;
+            }
+        };
+        routing.setTargetDataSources(Map.of(Route.PRIMARY, primaryDataSource, Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        // Defer getConnection() until the first statement, when the transaction's readOnly
+        // flag is already known (JpaTransactionManager otherwise fetches it at begin)
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -30,6 +30,9 @@ public class SecurityConfig {
                         // Allow public access to validation endpoint (for other services)
                         .requestMatchers("/validate").permitAll()
 
+                        // Domain event feed (for other services; not routed by the API gateway)
+                        .requestMatchers("/events").permitAll()
+
                         // Allow public access to actuator endpoints (for monitoring)
                         .requestMatchers("/actuator/**").permitAll()
 
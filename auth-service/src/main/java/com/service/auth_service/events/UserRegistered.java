@@ -0,0 +1,31 @@
+package com.service.auth_service.events;
+
+import com.service.auth_service.entity.User;
+
+// Published once a new account has committed; User Service creates the profile from it.
+// Consumers must tolerate redelivery (userId makes it idempotent).
+public class UserRegistered {
+    public static final String TYPE = "UserRegistered";
+
+    private Long userId;
+    private String email;
+    private String name;
+
+    // Default constructor
+    public UserRegistered() {
+    }
+
+    public UserRegistered(User user) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.name = user.getName();
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
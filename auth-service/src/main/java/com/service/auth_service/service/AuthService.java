@@ -4,17 +4,23 @@ import com.service.auth_service.dto.AuthResponse;
 import com.service.auth_service.dto.LoginRequest;
 import com.service.auth_service.dto.RegisterRequest;
 import com.service.auth_service.entity.User;
+import com.service.auth_service.events.UserRegistered;
 import com.service.auth_service.repository.UserRepository;
+import com.service.common.events.DomainEventPublisher;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 
 @Service
 @Transactional
+@Observed(name = "auth.service")  // Timer + span per public method (tagged with the method name)
 public class AuthService {
 
     @Autowired
@@ -26,18 +32,17 @@ public class AuthService {
     @Autowired
     private JWTService jwtService;
 
-    // RestTemplate for User Service communication
     @Autowired
-    private RestTemplate restTemplate;
+    private DomainEventPublisher eventPublisher;
 
-    private static final String USER_SERVICE_URL = "http://user-service";
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
+    // The password is hashed (deliberately slow) before a pooled connection is taken. UserRegistered
+    // goes into the outbox with the user row, so User Service always gets it and creates the profile
+    // from it; registration doesn't wait for that
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
-        // Check if user already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("User with email " + request.getEmail() + " already exists");
-        }
-
         // Create new user
         User user = new User();
         user.setEmail(request.getEmail().toLowerCase().trim());
@@ -47,10 +52,15 @@ public class AuthService {
         user.setUpdatedAt(LocalDateTime.now());
 
         // Save user to database
-        User savedUser = userRepository.save(user);
-
-        // Automatically create user profile in User Service
-        createUserProfile(savedUser);
+        User savedUser = new TransactionTemplate(transactionManager).execute(status -> {
+            // Check if user already exists
+            if (userRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("User with email " + request.getEmail() + " already exists");
+            }
+            User saved = userRepository.save(user);
+            eventPublisher.publish(UserRegistered.TYPE, String.valueOf(saved.getId()), new UserRegistered(saved));
+            return saved;
+        });
 
         // Generate JWT token
         String token = jwtService.generateToken(
@@ -81,6 +91,7 @@ public class AuthService {
         return new AuthResponse(token, user.getEmail(), user.getName(), user.getId());
     }
 
+    @Transactional(readOnly = true)
     public AuthResponse validateToken(String token) {
         try {
             // Extract user information from token
@@ -102,54 +113,28 @@ public class AuthService {
         }
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
         return userRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
 
+    @Transactional(readOnly = true)
     public boolean userExists(String email) {
         return userRepository.existsByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalUserCount() {
         return userRepository.countAllUsers();
     }
 
-    // Create user profile in User Service
-    private void createUserProfile(User user) {
-        try {
-            UserProfileRequest profileRequest = new UserProfileRequest();
-            profileRequest.setUserId(user.getId());
-            profileRequest.setEmail(user.getEmail());
-            profileRequest.setName(user.getName());
-            String url = USER_SERVICE_URL + "/profiles";
-            restTemplate.postForObject(url, profileRequest, Object.class);
-            System.out.println(" User profile created for user: " + user.getId());
-        } catch (Exception e) {
-            System.err.println(" Failed to create user profile: " + e.getMessage());
-            // Log error but don't fail registration
-        }
-    }
-
-    // DTO for User Service communication
-    public static class UserProfileRequest {
-        private Long userId;
-        private String email;
-        private String name;
-        public UserProfileRequest() {}
-        public Long getUserId() { return userId; }
-        public void setUserId(Long userId) { this.userId = userId; }
-        public String getEmail() { return email; }
-        public void setEmail(String email) { this.email = email; }
-        public String getName() { return name; }
-        public void setName(String name) { this.name = name; }
-    }
-
     public JWTService getJwtService() {
         return jwtService;
     }
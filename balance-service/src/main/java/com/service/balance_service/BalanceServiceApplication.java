@@ -1,19 +1,31 @@
 package com.service.balance_service;
 
+import com.service.common.events.EventConsumingConfiguration;
+import com.service.common.events.EventPublishingConfiguration;
+import com.service.common.idempotency.IdempotencyConfiguration;
+import com.service.common.metrics.QueryMetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient  // Register with Eureka for service discovery
+@EnableScheduling  // Read replica lag checks, pending settlement sync, idempotency key purge, event log/consumers
+@Import({EventConsumingConfiguration.class, EventPublishingConfiguration.class,
+        IdempotencyConfiguration.class, QueryMetricsConfig.class})
 public class BalanceServiceApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(BalanceServiceApplication.class);
+
 	public static void main(String[] args) {
-		System.out.println("Starting Balance Service...");
 		SpringApplication.run(BalanceServiceApplication.class, args);
-		System.out.println("Balance Service started successfully!");
-		System.out.println("Service available at: http://localhost:8084");
-		System.out.println("Access via API Gateway: http://localhost:8080/api/balances/*");
-		System.out.println("Ready to manage balances and settlements!");
+		log.info("Balance Service started successfully!");
+		log.info("Service available at: http://localhost:8084");
+		log.info("Access via API Gateway: http://localhost:8080/api/balances/*");
+		log.info("Ready to manage balances and settlements!");
 	}
 }
\ No newline at end of file
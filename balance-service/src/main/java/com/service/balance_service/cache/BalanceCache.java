@@ -0,0 +1,88 @@
+package com.service.balance_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+
+// Near-cache of Balance snapshots keyed by balance_id (cache-aside on read, write-through on update)
+@Component
+public class BalanceCache {
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${balance.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${balance.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<String, Balance> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "balances");
+    }
+
+    // Cache-aside lookup by primary key; absent balances are not cached
+    public Optional<Balance> get(String balanceId) {
+        Balance cached = cache.get(balanceId, id -> shardRouter.onShardOf(id, () -> balanceRepository.findById(id)
+                .map(Balance::snapshot)
+                .orElse(null)));
+        return Optional.ofNullable(cached);
+    }
+
+    // Write-through: publish the new state once the surrounding transaction commits
+    public void put(Balance balance) {
+        Balance snapshot = balance.snapshot();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(snapshot.getBalanceId(), snapshot);
+            return;
+        }
+        // Drop the old value now so no reader sees it after our write, and only
+        // publish the new one if the write actually commits
+        cache.invalidate(snapshot.getBalanceId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    cache.put(snapshot.getBalanceId(), snapshot);
+                } else {
+                    cache.invalidate(snapshot.getBalanceId());
+                }
+            }
+        });
+    }
+
+    public void evict(String balanceId) {
+        cache.invalidate(balanceId);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
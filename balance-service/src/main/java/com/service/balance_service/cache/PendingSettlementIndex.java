@@ -0,0 +1,176 @@
+package com.service.balance_service.cache;
+
+import com.service.balance_service.entity.Balance;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Open balances per user, most urgent first. Urgency grows with the amount (log scale) and with
+// the time since the balance last changed (linear), so
+//   score(now) = amountWeight * log10(1 + |amount|) + ageWeightPerDay * (now - lastUpdated)
+// and "now" adds the same constant to every score: the order never has to be recomputed as
+// balances age, and a top-k read just walks the head of the user's set.
+@Component
+public class PendingSettlementIndex {
+
+    // Same cut-off as Balance.isSettled
+    private static final BigDecimal SETTLED_BELOW = new BigDecimal("0.01");
+
+    private static final Comparator<Entry> MOST_URGENT_FIRST = Comparator
+            .comparingDouble((Entry entry) -> entry.urgency).reversed()
+            .thenComparing(entry -> entry.balanceId);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${balance.pending.amount-weight:1.0}")
+    private double amountWeight;
+
+    @Value("${balance.pending.age-weight-per-day:0.1}")
+    private double ageWeightPerDay;
+
+    private final Map<String, Entry> byBalance = new ConcurrentHashMap<>();
+    private final Map<Long, TreeSet<Entry>> byUser = new ConcurrentHashMap<>();
+    private final AtomicLong openCount = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("balance.pending.size", openCount, AtomicLong::get)
+                .description("Open balances in the pending settlement index")
+                .register(meterRegistry);
+    }
+
+    // Upsert from a committed balance state; settled balances leave the users' sets. A state older
+    // than the one already indexed (a sync read racing a local write) is ignored, which is why a
+    // settled balance stays behind as a tombstone until purgeSettledBefore drops it.
+    // Returns the change in amount (user1's view, an unknown balance counts as zero), or null when
+    // the state is stale or already indexed: each committed state is reported once, however many
+    // times it is applied.
+    public BigDecimal apply(Balance balance) {
+        BigDecimal[] change = new BigDecimal[1];
+        byBalance.compute(balance.getBalanceId(), (balanceId, current) -> {
+            if (current != null && balance.getLastUpdated() != null
+                    && (balance.getLastUpdated().isBefore(current.lastUpdated)
+                    || balance.getLastUpdated().equals(current.lastUpdated)
+                    && balance.getAmount().compareTo(current.amount) == 0)) {
+                return current;
+            }
+            Entry next = new Entry(balance, urgency(balance));
+            if (current != null && current.isOpen()) {
+                removeFromUser(current.user1, current);
+                removeFromUser(current.user2, current);
+                openCount.decrementAndGet();
+            }
+            if (next.isOpen()) {
+                addToUser(next.user1, next);
+                addToUser(next.user2, next);
+                openCount.incrementAndGet();
+            }
+            change[0] = next.amount.subtract(current != null ? current.amount : BigDecimal.ZERO);
+            return next;
+        });
+        return change[0];
+    }
+
+    // Drop tombstones of balances settled before the cutoff: no older state can arrive for them
+    // once syncs only read rows changed after it
+    public void purgeSettledBefore(LocalDateTime cutoff) {
+        byBalance.values().removeIf(entry -> !entry.isOpen() && entry.lastUpdated.isBefore(cutoff));
+    }
+
+    // The user's most urgent open balances, at most limit of them
+    public List<Entry> top(Long userId, int limit) {
+        TreeSet<Entry> entries = byUser.get(userId);
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        List<Entry> top = new ArrayList<>(Math.min(limit, 16));
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.iterator();
+            while (iterator.hasNext() && top.size() < limit) {
+                top.add(iterator.next());
+            }
+        }
+        return top;
+    }
+
+    // Open balances in the index
+    public long size() {
+        return openCount.get();
+    }
+
+    // Per-user sets are only changed inside byUser.compute, so an emptied set is dropped
+    // atomically with respect to a concurrent add; readers lock the set itself
+    private void addToUser(Long userId, Entry entry) {
+        byUser.compute(userId, (id, entries) -> {
+            TreeSet<Entry> target = entries != null ? entries : new TreeSet<>(MOST_URGENT_FIRST);
+            synchronized (target) {
+                target.add(entry);
+            }
+            return target;
+        });
+    }
+
+    private void removeFromUser(Long userId, Entry entry) {
+        byUser.computeIfPresent(userId, (id, entries) -> {
+            synchronized (entries) {
+                entries.remove(entry);
+                return entries.isEmpty() ? null : entries;
+            }
+        });
+    }
+
+    private double urgency(Balance balance) {
+        LocalDateTime lastUpdated = balance.getLastUpdated() != null ? balance.getLastUpdated() : LocalDateTime.now();
+        double lastUpdatedDays = lastUpdated.toEpochSecond(ZoneOffset.UTC) / 86_400.0;
+        return amountWeight * Math.log10(1 + balance.getAmount().abs().doubleValue())
+                - ageWeightPerDay * lastUpdatedDays;
+    }
+
+    // Immutable view of one balance (settled ones are tombstones); amount is signed as in
+    // Balance (positive: user1 owes user2)
+    public static class Entry {
+        private final String balanceId;
+        private final Long user1;
+        private final Long user2;
+        private final BigDecimal amount;
+        private final LocalDateTime lastUpdated;
+        private final double urgency;
+
+        Entry(Balance balance, double urgency) {
+            this.balanceId = balance.getBalanceId();
+            this.user1 = balance.getUser1();
+            this.user2 = balance.getUser2();
+            this.amount = balance.getAmount();
+            this.lastUpdated = balance.getLastUpdated() != null ? balance.getLastUpdated() : LocalDateTime.now();
+            this.urgency = urgency;
+        }
+
+        public String getBalanceId() { return balanceId; }
+        public Long getUser1() { return user1; }
+        public Long getUser2() { return user2; }
+        public BigDecimal getAmount() { return amount; }
+        public LocalDateTime getLastUpdated() { return lastUpdated; }
+        public boolean isOpen() { return amount.abs().compareTo(SETTLED_BELOW) >= 0; }
+
+        // Debtor and creditor for this balance
+        public Long getFromUserId() { return amount.signum() > 0 ? user1 : user2; }
+        public Long getToUserId() { return amount.signum() > 0 ? user2 : user1; }
+    }
+}
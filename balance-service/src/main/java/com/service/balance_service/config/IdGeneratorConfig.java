@@ -0,0 +1,29 @@
+package com.service.balance_service.config;
+
+import com.service.balance_service.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    // Must be unique per running instance: two instances sharing a node ID issue duplicate
+    // settlement IDs. Deliberately has no default, so a missing assignment fails startup.
+    @Value("${balance.id.node-id:#{null}}")
+    private Long nodeId;
+
+    @Bean
+    public SnowflakeIdGenerator settlementIdGenerator() {
+        if (nodeId == null) {
+            throw new IllegalStateException("balance.id.node-id (BALANCE_NODE_ID) is not set; " +
+                    "give each balance-service instance its own node ID between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID);
+        }
+        if (nodeId < 0 || nodeId > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("balance.id.node-id must be between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ", got " + nodeId);
+        }
+        return new SnowflakeIdGenerator(nodeId);
+    }
+}
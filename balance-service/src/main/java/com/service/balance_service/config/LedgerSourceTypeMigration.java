@@ -0,0 +1,40 @@
+package com.service.balance_service.config;
+
+import com.service.balance_service.sharding.BalanceShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// balance_events.source_type was first created by ddl-auto as a MySQL ENUM of the source types
+// known then, and ddl-auto never alters a column's type: widen it to the VARCHAR the entity now
+// declares, on every shard, so new source types (REVERSAL, ADJUSTMENT) can be stored
+@Component
+public class LedgerSourceTypeMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSourceTypeMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void widenSourceTypeColumn() {
+        shardRouter.forEachShard(() -> {
+            String dataType = jdbcTemplate.query(
+                    "SELECT data_type FROM information_schema.columns WHERE table_schema = DATABASE() " +
+                            "AND table_name = 'balance_events' AND column_name = 'source_type'",
+                    rs -> rs.next() ? rs.getString(1) : null);
+            if (!"enum".equalsIgnoreCase(dataType)) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE balance_events MODIFY source_type VARCHAR(20) NOT NULL");
+            log.info("Changed balance_events.source_type from ENUM to VARCHAR(20)");
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package com.service.balance_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+// Sends @Transactional(readOnly = true) work to a read replica and everything else to the
+// primary. Only active when app.datasource.replica.url is set (see application-replica.yml),
+// and not together with balance sharding (ShardedDataSourceConfig), which owns the DataSource then.
+@Configuration
+@ConditionalOnExpression("'${app.datasource.replica.url:}' != '' and !${balance.sharding.enabled:false}")
+public class ReplicaRoutingDataSourceConfig {
+
+    enum Route { PRIMARY, REPLICA }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Pool settings for the replica come from app.datasource.replica.hikari
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setJdbcUrl(url);
+        if (!username.isEmpty()) {
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+        }
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new ReplicaLagMonitor(replicaDataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor lagMonitor) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()
+                        ? Route.REPLICA : Route.PRIMARY;
+            }
+        };
+        routing.setTargetDataSources(Map.of(Route.PRIMARY, primaryDataSource, Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        // Defer getConnection() until the first statement, when the transaction's readOnly
+        // flag is already known (JpaTransactionManager otherwise fetches it at begin)
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Replaces Boot's JpaTransactionManager (same customizers) so that read-only transactions,
+    // which may be served by the lagging replica, read the second-level cache but never put into
+    // it: a stale replica row would otherwise be cached and later served to primary reads and
+    // read-modify-write paths. The cache is filled by writes and read-write transactions instead.
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new ReplicaSafeCacheTransactionManager();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+
+    static class ReplicaSafeCacheTransactionManager extends JpaTransactionManager {
+
+        // Per thread, one entry per transaction begun (transactions nest on a thread via REQUIRES_NEW)
+        private final ThreadLocal<Deque<Runnable>> restores = ThreadLocal.withInitial(ArrayDeque::new);
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            super.doBegin(transaction, definition);
+            Runnable restore = () -> { };
+            if (definition.isReadOnly()) {
+                EntityManagerHolder holder =
+                        (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+                EntityManager entityManager = holder.getEntityManager();
+                Session session = entityManager.unwrap(Session.class);
+                CacheMode previous = session.getCacheMode();
+                session.setCacheMode(CacheMode.GET);
+                restore = () -> {
+                    if (entityManager.isOpen()) {
+                        session.setCacheMode(previous);
+                    }
+                };
+            }
+            restores.get().push(restore);
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            Deque<Runnable> pending = restores.get();
+            if (!pending.isEmpty()) {
+                pending.pop().run();
+            }
+            super.doCleanupAfterCompletion(transaction);
+        }
+    }
+}
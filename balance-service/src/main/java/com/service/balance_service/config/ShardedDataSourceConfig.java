@@ -0,0 +1,105 @@
+package com.service.balance_service.config;
+
+import com.service.balance_service.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Balance storage split across balance.sharding.urls (see application-sharded.yml and
+// BalanceShardRouter). Every shard holds the full balance schema.
+@Configuration
+@ConditionalOnProperty(name = "balance.sharding.enabled", havingValue = "true")
+public class ShardedDataSourceConfig {
+
+    // Each shard pool takes the spring.datasource.hikari settings (timeouts, leak detection) with
+    // its own size. The pools aren't beans, so their hikaricp.* metrics are registered here.
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         Environment environment,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${balance.sharding.urls}") List<String> urls,
+                                                         @Value("${balance.sharding.pool-size:10}") int poolSize) {
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+            shard.setJdbcUrl(urls.get(i).trim());
+            shard.setMaximumPoolSize(poolSize);
+            shard.setMinimumIdle(Math.min(shard.getMinimumIdle(), poolSize));
+            shard.setPoolName("balance-shard-" + i);
+            shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    // ddl-auto only reaches shard 0 (the connection Hibernate gets at startup), so apply the
+    // same schema update to the others once the EntityManagerFactory is up
+    @Bean
+    public InitializingBean shardSchemaUpdater(EntityManagerFactory entityManagerFactory,
+                                               ShardRoutingDataSource shardRoutingDataSource,
+                                               @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return () -> {
+            if (!"update".equals(ddlAuto)) {
+                return;
+            }
+            List<HikariDataSource> shards = shardRoutingDataSource.getShards();
+            for (int i = 1; i < shards.size(); i++) {
+                Map<String, Object> settings = Map.of(
+                        AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, shards.get(i),
+                        AvailableSettings.HBM2DDL_AUTO, "update");
+                StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                        .applySettings(settings)
+                        .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                                CamelCaseToUnderscoresNamingStrategy.class.getName())
+                        .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY,
+                                SpringImplicitNamingStrategy.class.getName())
+                        .build();
+                try {
+                    MetadataSources sources = new MetadataSources(registry);
+                    for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                        sources.addAnnotatedClass(entity.getJavaType());
+                    }
+                    Metadata metadata = sources.buildMetadata();
+                    SchemaManagementToolCoordinator.process(metadata, registry, settings, action -> {
+                    });
+                } finally {
+                    StandardServiceRegistryBuilder.destroy(registry);
+                }
+            }
+        };
+    }
+}
@@ -2,17 +2,27 @@ package com.service.balance_service.controller;
 
 import com.service.balance_service.dto.BalanceOptimization;
 import com.service.balance_service.dto.BalanceResponse;
+import com.service.balance_service.dto.PendingSettlementResponse;
 import com.service.balance_service.dto.SettlementRequest;
+import com.service.balance_service.entity.BalanceEvent;
 import com.service.balance_service.entity.Settlement;
 import com.service.balance_service.service.AuthClientService;
+import com.service.balance_service.service.BalanceReconciliationService;
 import com.service.balance_service.service.BalanceService;
+import com.service.balance_service.service.BalanceStreamService;
+import com.service.balance_service.service.PendingSettlementService;
+import com.service.common.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,6 +35,18 @@ public class BalanceController {
     @Autowired
     private AuthClientService authClientService;
 
+    @Autowired
+    private PendingSettlementService pendingSettlementService;
+
+    @Autowired
+    private BalanceStreamService balanceStreamService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BalanceReconciliationService reconciliationService;
+
     @PostMapping("/update")
     public ResponseEntity<?> updateBalance(@RequestBody BalanceUpdateRequest request) {
         try {
@@ -43,9 +65,13 @@ public class BalanceController {
 
     @GetMapping("/{userId1}/{userId2}")
     public ResponseEntity<?> getBalanceBetweenUsers(@PathVariable Long userId1,
-                                                    @PathVariable Long userId2) {
+                                                    @PathVariable Long userId2,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
         try {
-            BalanceResponse response = balanceService.getBalanceBetweenUsers(userId1, userId2);
+            BalanceResponse response = asOf != null
+                    ? balanceService.getBalanceBetweenUsersAsOf(userId1, userId2, asOf)
+                    : balanceService.getBalanceBetweenUsers(userId1, userId2);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -55,9 +81,13 @@ public class BalanceController {
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getUserBalances(@PathVariable Long userId,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
                                              @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
-            List<BalanceResponse> responses = balanceService.getUserBalances(userId);
+            List<BalanceResponse> responses = asOf != null
+                    ? balanceService.getUserBalancesAsOf(userId, asOf)
+                    : balanceService.getUserBalances(userId);
             return ResponseEntity.ok(responses);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -65,20 +95,58 @@ public class BalanceController {
         }
     }
 
+    // A retry with the same Idempotency-Key gets the first response back instead of a second settlement
     @PostMapping("/settle")
     public ResponseEntity<?> createSettlement(@Valid @RequestBody SettlementRequest request,
-                                              @RequestHeader("Authorization") String authHeader) {
+                                              @RequestHeader("Authorization") String authHeader,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         try {
             // Validate token and get user ID
             Long createdByUserId = authClientService.extractUserIdFromToken(authHeader);
-            Settlement settlement = balanceService.createSettlement(request, createdByUserId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(settlement);
+            return idempotencyService.execute(createdByUserId, idempotencyKey, request, () -> {
+                Settlement settlement = balanceService.createSettlement(request, createdByUserId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(settlement);
+            });
+        } catch (IdempotencyService.IdempotencyException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    // Records every payment of a settle-up plan (as returned by POST /optimize), or none of them.
+    // The response has one settlement per pair balance the plan pays down
+    @PostMapping("/settle/batch")
+    public ResponseEntity<?> createSettlementBatch(@RequestBody BalanceOptimization plan,
+                                                   @RequestHeader("Authorization") String authHeader,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        try {
+            Long createdByUserId = authClientService.extractUserIdFromToken(authHeader);
+            return idempotencyService.execute(createdByUserId, idempotencyKey, plan, () -> {
+                List<Settlement> settlements = balanceService.createSettlementBatch(plan, createdByUserId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(settlements);
+            });
+        } catch (IdempotencyService.IdempotencyException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/settlements/id/{settlementId}")
+    public ResponseEntity<?> getSettlement(@PathVariable Long settlementId) {
+        try {
+            return ResponseEntity.ok(balanceService.getSettlement(settlementId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     @GetMapping("/settlements/user/{userId}")
     public ResponseEntity<?> getUserSettlements(@PathVariable Long userId) {
         try {
@@ -102,6 +170,33 @@ public class BalanceController {
         }
     }
 
+    @GetMapping("/ledger/{userId1}/{userId2}")
+    public ResponseEntity<?> getBalanceHistory(@PathVariable Long userId1,
+                                               @PathVariable Long userId2,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "50") int size) {
+        try {
+            List<BalanceEvent> events = balanceService.getBalanceHistory(
+                    userId1, userId2, Math.max(page, 0), Math.min(Math.max(size, 1), 500));
+            return ResponseEntity.ok(events);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Stored balance vs. the pair's transactions and settlements; consistent=false means drift
+    @GetMapping("/reconcile/{userId1}/{userId2}")
+    public ResponseEntity<?> reconcilePair(@PathVariable Long userId1,
+                                           @PathVariable Long userId2) {
+        try {
+            return ResponseEntity.ok(reconciliationService.reconcilePair(userId1, userId2));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     @GetMapping("/summary/{userId}")
     public ResponseEntity<?> getUserBalanceSummary(@PathVariable Long userId) {
         try {
@@ -113,6 +208,40 @@ public class BalanceController {
         }
     }
 
+    // Most urgent open balances involving the user, from the in-memory pending settlement index
+    @GetMapping("/pending/{userId}")
+    public ResponseEntity<?> getPendingSettlements(@PathVariable Long userId,
+                                                   @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<PendingSettlementResponse> pending = pendingSettlementService.getPendingSettlements(
+                    userId, Math.min(Math.max(limit, 1), 100));
+            return ResponseEntity.ok(pending);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Server-sent balance changes for the user ("connected", "balance" and "resync" events).
+    // Open the stream before the initial /user and /summary reads so no change falls in between.
+    @GetMapping(value = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBalanceChanges(@PathVariable Long userId) {
+        try {
+            SseEmitter emitter = balanceStreamService.subscribe(userId);
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")  // Don't let an nginx in front buffer the stream
+                    .body(emitter);
+        } catch (IllegalStateException e) {
+            // At the connection limit: no body (this endpoint only produces event streams), keep polling
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "60")
+                    .build();
+        }
+    }
+
     @PostMapping("/optimize")
     public ResponseEntity<?> optimizeBalances(@RequestBody GroupOptimizationRequest request) {
         try {
@@ -0,0 +1,48 @@
+package com.service.balance_service.controller;
+
+import com.service.balance_service.dto.ReconciliationReport;
+import com.service.balance_service.service.BalanceReconciliationJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Full reconciliation runs, for operators only: the API gateway does not route /internal/**.
+// A run scans every balance and every ACTIVE transaction, so it is started here or by
+// balance.reconcile.cron, never per request; single pairs are GET /reconcile/{userId1}/{userId2}.
+@RestController
+@RequestMapping("/internal/reconcile")
+public class ReconciliationController {
+
+    @Autowired
+    private BalanceReconciliationJob reconciliationJob;
+
+    // 202 with the RUNNING report; poll GET /internal/reconcile/report for the outcome
+    @PostMapping("/run")
+    public ResponseEntity<?> startRun() {
+        try {
+            ReconciliationReport report = reconciliationJob.startRun();
+            if (report == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new BalanceController.ErrorResponse("A reconciliation run is already in progress"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(report);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new BalanceController.ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/report")
+    public ResponseEntity<?> getReport() {
+        ReconciliationReport report = reconciliationJob.getLastReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new BalanceController.ErrorResponse("No reconciliation has run on this instance yet"));
+        }
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,89 @@
+package com.service.balance_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One balance change as pushed to a user's stream. Amounts are from that user's perspective, as in
+// BalanceResponse (positive: the user owes otherUserId). amount is authoritative; delta is the change
+// since the previous state this instance saw and is informational only.
+public class BalanceDeltaEvent {
+    private String balanceId;
+    private Long userId;
+    private Long otherUserId;
+    private BigDecimal amount;
+    private BigDecimal delta;
+    private boolean settled;
+    private LocalDateTime lastUpdated;
+
+    // Default constructor
+    public BalanceDeltaEvent() {
+    }
+
+    public BalanceDeltaEvent(String balanceId, Long userId, Long otherUserId, BigDecimal amount,
+                             BigDecimal delta, boolean settled, LocalDateTime lastUpdated) {
+        this.balanceId = balanceId;
+        this.userId = userId;
+        this.otherUserId = otherUserId;
+        this.amount = amount;
+        this.delta = delta;
+        this.settled = settled;
+        this.lastUpdated = lastUpdated;
+    }
+
+    // Getters and Setters
+    public String getBalanceId() {
+        return balanceId;
+    }
+
+    public void setBalanceId(String balanceId) {
+        this.balanceId = balanceId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getOtherUserId() {
+        return otherUserId;
+    }
+
+    public void setOtherUserId(Long otherUserId) {
+        this.otherUserId = otherUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getDelta() {
+        return delta;
+    }
+
+    public void setDelta(BigDecimal delta) {
+        this.delta = delta;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+}
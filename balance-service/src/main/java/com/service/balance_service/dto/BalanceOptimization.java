@@ -10,8 +10,12 @@ public class BalanceOptimization {
     private int originalTransactionCount;
     private int optimizedTransactionCount;
     private String optimizationSummary;
+    private List<Long> userIds;  // Users the plan was computed over; POST /settle/batch clears it along their balances
 
     // Constructors
+    public BalanceOptimization() {
+    }
+
     public BalanceOptimization(List<OptimizedPayment> suggestedPayments) {
         this.suggestedPayments = suggestedPayments;
         this.optimizedTransactionCount = suggestedPayments.size();
@@ -61,6 +65,14 @@ public class BalanceOptimization {
         this.optimizationSummary = optimizationSummary;
     }
 
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
     public static class OptimizedPayment {
         private Long fromUserId;
         private String fromUserName;
@@ -31,15 +31,42 @@ public class BalanceResponse {
         this.createdAt = balance.getCreatedAt();
     }
 
+    // Constructor for JPQL projections (BalanceRepository.findActiveBalanceResponsesByUser):
+    // built straight from the selected columns, so no managed Balance is loaded. Call
+    // fromPerspectiveOf to fill in the user-relative amount and description.
+    public BalanceResponse(String balanceId, Long user1, Long user2, BigDecimal amount, Long transactionCount,
+                           LocalDateTime lastUpdated, LocalDateTime createdAt) {
+        this.balanceId = balanceId;
+        this.user1 = user1;
+        this.user2 = user2;
+        this.amount = amount;
+        this.isSettled = amount.abs().compareTo(new BigDecimal("0.01")) < 0;
+        this.transactionCount = transactionCount;
+        this.lastUpdated = lastUpdated;
+        this.createdAt = createdAt;
+    }
+
     // Constructor for user-specific view
     public BalanceResponse(Balance balance, Long fromUserPerspective) {
         this(balance);
 
         // Adjust amount from specific user's perspective
         this.amount = balance.getAmountForUser(fromUserPerspective);
+        describeFor(fromUserPerspective);
+    }
+
+    // Same adjustment as the user-specific constructor, for projected rows (amount is user1's view)
+    public BalanceResponse fromPerspectiveOf(Long userId) {
+        if (userId.equals(user2)) {
+            this.amount = amount.negate();
+        }
+        describeFor(userId);
+        return this;
+    }
 
+    private void describeFor(Long fromUserPerspective) {
         // Adjust description from user's perspective
-        if (balance.isSettled()) {
+        if (isSettled) {
             this.description = "Settled with " + getOtherUserName(fromUserPerspective);
         } else if (this.amount.compareTo(BigDecimal.ZERO) > 0) {
             this.description = "You owe " + getOtherUserName(fromUserPerspective) + " $" + this.amount;
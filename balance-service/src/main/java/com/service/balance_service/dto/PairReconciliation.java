@@ -0,0 +1,59 @@
+package com.service.balance_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One pair's stored balance checked against what its transactions and settlements add up to.
+// Amounts are from user1's side, like Balance.amount: positive means user1 owes user2.
+public class PairReconciliation {
+    private String balanceId;
+    private Long user1;
+    private Long user2;
+    private BigDecimal balanceAmount;     // Balance.amount (zero when there is no balance row)
+    private BigDecimal transactionSum;    // Net of the pair's ACTIVE transactions (Transaction Service)
+    private BigDecimal settlementSum;     // Net of the pair's COMPLETED settlements
+    private BigDecimal expectedAmount;    // transactionSum + settlementSum
+    private BigDecimal difference;        // balanceAmount - expectedAmount
+    private boolean consistent;           // difference within balance.reconcile.tolerance
+    private LocalDateTime checkedAt;
+
+    // Default constructor
+    public PairReconciliation() {
+    }
+
+    public PairReconciliation(String balanceId, Long user1, Long user2, BigDecimal balanceAmount,
+                              BigDecimal transactionSum, BigDecimal settlementSum, BigDecimal tolerance) {
+        this.balanceId = balanceId;
+        this.user1 = user1;
+        this.user2 = user2;
+        this.balanceAmount = balanceAmount;
+        this.transactionSum = transactionSum;
+        this.settlementSum = settlementSum;
+        this.expectedAmount = transactionSum.add(settlementSum);
+        this.difference = balanceAmount.subtract(expectedAmount);
+        this.consistent = difference.abs().compareTo(tolerance) <= 0;
+        this.checkedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getBalanceId() { return balanceId; }
+    public void setBalanceId(String balanceId) { this.balanceId = balanceId; }
+    public Long getUser1() { return user1; }
+    public void setUser1(Long user1) { this.user1 = user1; }
+    public Long getUser2() { return user2; }
+    public void setUser2(Long user2) { this.user2 = user2; }
+    public BigDecimal getBalanceAmount() { return balanceAmount; }
+    public void setBalanceAmount(BigDecimal balanceAmount) { this.balanceAmount = balanceAmount; }
+    public BigDecimal getTransactionSum() { return transactionSum; }
+    public void setTransactionSum(BigDecimal transactionSum) { this.transactionSum = transactionSum; }
+    public BigDecimal getSettlementSum() { return settlementSum; }
+    public void setSettlementSum(BigDecimal settlementSum) { this.settlementSum = settlementSum; }
+    public BigDecimal getExpectedAmount() { return expectedAmount; }
+    public void setExpectedAmount(BigDecimal expectedAmount) { this.expectedAmount = expectedAmount; }
+    public BigDecimal getDifference() { return difference; }
+    public void setDifference(BigDecimal difference) { this.difference = difference; }
+    public boolean isConsistent() { return consistent; }
+    public void setConsistent(boolean consistent) { this.consistent = consistent; }
+    public LocalDateTime getCheckedAt() { return checkedAt; }
+    public void setCheckedAt(LocalDateTime checkedAt) { this.checkedAt = checkedAt; }
+}
@@ -0,0 +1,38 @@
+package com.service.balance_service.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One user pair's ACTIVE transactions netted, as streamed by Transaction Service's
+// GET /internal/pair-sums. Same orientation as Balance.amount: positive means user1 owes user2.
+public class PairSum {
+    private Long user1;
+    private Long user2;
+    private BigDecimal net;
+    private Long transactionCount;
+    private LocalDateTime lastChanged;  // Latest updated_at among the pair's ACTIVE transactions
+
+    // Default constructor
+    public PairSum() {
+    }
+
+    public PairSum(Long user1, Long user2, BigDecimal net, Long transactionCount, LocalDateTime lastChanged) {
+        this.user1 = user1;
+        this.user2 = user2;
+        this.net = net;
+        this.transactionCount = transactionCount;
+        this.lastChanged = lastChanged;
+    }
+
+    // Getters and Setters
+    public Long getUser1() { return user1; }
+    public void setUser1(Long user1) { this.user1 = user1; }
+    public Long getUser2() { return user2; }
+    public void setUser2(Long user2) { this.user2 = user2; }
+    public BigDecimal getNet() { return net; }
+    public void setNet(BigDecimal net) { this.net = net; }
+    public Long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(Long transactionCount) { this.transactionCount = transactionCount; }
+    public LocalDateTime getLastChanged() { return lastChanged; }
+    public void setLastChanged(LocalDateTime lastChanged) { this.lastChanged = lastChanged; }
+}
@@ -0,0 +1,81 @@
+package com.service.balance_service.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Outcome of a full reconciliation run: every pair with a balance or an ACTIVE transaction,
+// checked like GET /reconcile/{userId1}/{userId2}. Only the largest discrepancies are listed.
+public class ReconciliationReport {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @JsonSerialize(using = ToStringSerializer.class)  // 64-bit IDs exceed JavaScript's safe integer range
+    private Long runId;
+    private Status status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int partitions;                  // User-ID ranges the run was split into
+    private long pairsChecked;
+    private long consistentPairs;
+    private long discrepancyCount;
+    private long balanceOnlyPairs;           // Balance row but no ACTIVE transactions
+    private long transactionOnlyPairs;       // ACTIVE transactions but no balance row
+    private BigDecimal totalAbsoluteDifference = BigDecimal.ZERO;
+    private boolean autoRepair;
+    private int repaired;                    // Balances corrected (ADJUSTMENT ledger entries)
+    private int repairsSkipped;              // Left alone: changed recently, changed since, or failed
+    private boolean truncated;               // More discrepancies than balance.reconcile.max-report-entries
+    private List<PairReconciliation> discrepancies = List.of();  // Largest difference first
+    private String error;                    // Why a FAILED run stopped
+
+    // Default constructor
+    public ReconciliationReport() {
+    }
+
+    public ReconciliationReport(Long runId, boolean autoRepair) {
+        this.runId = runId;
+        this.autoRepair = autoRepair;
+        this.status = Status.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+    public long getPairsChecked() { return pairsChecked; }
+    public void setPairsChecked(long pairsChecked) { this.pairsChecked = pairsChecked; }
+    public long getConsistentPairs() { return consistentPairs; }
+    public void setConsistentPairs(long consistentPairs) { this.consistentPairs = consistentPairs; }
+    public long getDiscrepancyCount() { return discrepancyCount; }
+    public void setDiscrepancyCount(long discrepancyCount) { this.discrepancyCount = discrepancyCount; }
+    public long getBalanceOnlyPairs() { return balanceOnlyPairs; }
+    public void setBalanceOnlyPairs(long balanceOnlyPairs) { this.balanceOnlyPairs = balanceOnlyPairs; }
+    public long getTransactionOnlyPairs() { return transactionOnlyPairs; }
+    public void setTransactionOnlyPairs(long transactionOnlyPairs) { this.transactionOnlyPairs = transactionOnlyPairs; }
+    public BigDecimal getTotalAbsoluteDifference() { return totalAbsoluteDifference; }
+    public void setTotalAbsoluteDifference(BigDecimal totalAbsoluteDifference) { this.totalAbsoluteDifference = totalAbsoluteDifference; }
+    public boolean isAutoRepair() { return autoRepair; }
+    public void setAutoRepair(boolean autoRepair) { this.autoRepair = autoRepair; }
+    public int getRepaired() { return repaired; }
+    public void setRepaired(int repaired) { this.repaired = repaired; }
+    public int getRepairsSkipped() { return repairsSkipped; }
+    public void setRepairsSkipped(int repairsSkipped) { this.repairsSkipped = repairsSkipped; }
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+    public List<PairReconciliation> getDiscrepancies() { return discrepancies; }
+    public void setDiscrepancies(List<PairReconciliation> discrepancies) { this.discrepancies = discrepancies; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
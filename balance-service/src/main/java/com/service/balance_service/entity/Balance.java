@@ -1,12 +1,21 @@
 package com.service.balance_service.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "balances")
+@Table(name = "balances",
+        indexes = {
+                @Index(name = "idx_balances_last_updated", columnList = "last_updated, balance_id"),
+                // Reconciliation scans user1 ranges in (user1, user2) order
+                @Index(name = "idx_balances_users", columnList = "user1, user2")
+        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "balances")  // Second-level cache (see application.conf)
 public class Balance {
 
     @Id
@@ -140,6 +149,20 @@ public class Balance {
         }
     }
 
+    // Detached copy safe to share outside the persistence context (e.g. in caches)
+    public Balance snapshot() {
+        Balance copy = new Balance();
+        copy.balanceId = this.balanceId;
+        copy.user1 = this.user1;
+        copy.user2 = this.user2;
+        copy.amount = this.amount;
+        copy.lastUpdated = this.lastUpdated;
+        copy.createdAt = this.createdAt;
+        copy.transactionCount = this.transactionCount;
+        copy.lastTransactionId = this.lastTransactionId;
+        return copy;
+    }
+
     // Static utility method to create balance ID
     public static String createBalanceId(Long userId1, Long userId2) {
         if (userId1.equals(userId2)) {
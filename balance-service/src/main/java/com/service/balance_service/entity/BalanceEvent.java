@@ -0,0 +1,102 @@
+package com.service.balance_service.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Append-only record of every change to a Balance. Never updated or deleted.
+@Entity
+@Table(name = "balance_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_event_source",
+                columnNames = {"source_type", "source_id", "balance_id"}),
+        indexes = @Index(name = "idx_balance_events_balance_time", columnList = "balance_id, recorded_at"))
+public class BalanceEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "balance_id", nullable = false)
+    private String balanceId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", nullable = false, columnDefinition = "varchar(20)")  // Not a MySQL ENUM: types get added
+    private SourceType sourceType;
+
+    @Column(name = "source_id")
+    private Long sourceId;  // Transaction or settlement ID; unique per type and balance (idempotency key)
+
+    @NotNull
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal delta;  // Change applied to Balance.amount
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    public enum SourceType {
+        TRANSACTION,    // Expense share posted by Transaction Service
+        SETTLEMENT,     // Payment recorded in this service
+        REVERSAL,       // Expense share taken back out (cancelled, deleted or settled); sourceId is its transaction
+        ADJUSTMENT      // Drift corrected by a reconciliation run's auto-repair; sourceId is the run
+    }
+
+    // Default constructor (required by JPA)
+    public BalanceEvent() {
+    }
+
+    public BalanceEvent(String balanceId, SourceType sourceType, Long sourceId, BigDecimal delta) {
+        this.balanceId = balanceId;
+        this.sourceType = sourceType;
+        this.sourceId = sourceId;
+        this.delta = delta;
+        this.recordedAt = LocalDateTime.now();
+    }
+
+    // JPA lifecycle methods
+    @PrePersist
+    protected void onCreate() {
+        if (recordedAt == null) {
+            recordedAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters (no setters for state: events are immutable once written)
+    public Long getId() {
+        return id;
+    }
+
+    public String getBalanceId() {
+        return balanceId;
+    }
+
+    public SourceType getSourceType() {
+        return sourceType;
+    }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public BigDecimal getDelta() {
+        return delta;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceEvent{" +
+                "id=" + id +
+                ", balanceId='" + balanceId + '\'' +
+                ", sourceType=" + sourceType +
+                ", sourceId=" + sourceId +
+                ", delta=" + delta +
+                ", recordedAt=" + recordedAt +
+                '}';
+    }
+}
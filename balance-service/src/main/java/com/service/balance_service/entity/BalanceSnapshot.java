@@ -0,0 +1,73 @@
+package com.service.balance_service.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Balance.amount as of a given event, so point-in-time reads only replay the events after it
+@Entity
+@Table(name = "balance_snapshots",
+        indexes = @Index(name = "idx_balance_snapshots_balance_time", columnList = "balance_id, taken_at"))
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "balance_id", nullable = false)
+    private String balanceId;
+
+    @NotNull
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;  // Balance.amount after lastEventId was applied
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;  // 0 for an opening snapshot taken before any event existed
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    // Default constructor (required by JPA)
+    public BalanceSnapshot() {
+    }
+
+    public BalanceSnapshot(String balanceId, BigDecimal amount, Long lastEventId, LocalDateTime takenAt) {
+        this.balanceId = balanceId;
+        this.amount = amount;
+        this.lastEventId = lastEventId;
+        this.takenAt = takenAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getBalanceId() {
+        return balanceId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceSnapshot{" +
+                "balanceId='" + balanceId + '\'' +
+                ", amount=" + amount +
+                ", lastEventId=" + lastEventId +
+                ", takenAt=" + takenAt +
+                '}';
+    }
+}
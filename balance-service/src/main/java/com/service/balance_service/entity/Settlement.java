@@ -1,20 +1,33 @@
 package com.service.balance_service.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.springframework.data.domain.Persistable;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "settlements")
-public class Settlement {
+@Table(name = "settlements",
+        indexes = @Index(name = "idx_settlements_balance", columnList = "balance_id"))
+public class Settlement implements Persistable<Long> {
 
+    // Snowflake ID assigned by BalanceService before insert: per-shard AUTO_INCREMENT values
+    // would repeat across shards
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonSerialize(using = ToStringSerializer.class)  // 64-bit IDs exceed JavaScript's safe integer range
     private Long id;
 
+    // The ID is assigned up front, so tell Spring Data to persist rather than merge (no SELECT first)
+    @Transient
+    @JsonIgnore
+    private boolean newEntity = true;
+
     @NotNull(message = "Payer user ID is required")
     @Column(name = "payer_id", nullable = false)
     private Long payerId;  // User who made the payment
@@ -109,6 +122,18 @@ public class Settlement {
         }
     }
 
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        newEntity = false;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
@@ -139,6 +164,7 @@ public class Settlement {
     }
 
     // Getters and Setters
+    @Override
     public Long getId() {
         return id;
     }
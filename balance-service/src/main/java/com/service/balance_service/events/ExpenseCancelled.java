@@ -0,0 +1,34 @@
+package com.service.balance_service.events;
+
+import java.math.BigDecimal;
+
+// Transaction Service's event for a transaction (one participant's share of an expense) that no
+// longer counts: cancelled, deleted or marked settled (see TransactionEventHandler)
+public class ExpenseCancelled {
+    public static final String TYPE = "ExpenseCancelled";
+
+    private Long transactionId;
+    private Long expenseId;
+    private Long paidBy;
+    private Long owedBy;
+    private BigDecimal amount;
+    private String status;  // New status: CANCELLED (also for deletes) or SETTLED
+
+    // Default constructor
+    public ExpenseCancelled() {
+    }
+
+    // Getters and Setters
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+    public Long getExpenseId() { return expenseId; }
+    public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+    public Long getPaidBy() { return paidBy; }
+    public void setPaidBy(Long paidBy) { this.paidBy = paidBy; }
+    public Long getOwedBy() { return owedBy; }
+    public void setOwedBy(Long owedBy) { this.owedBy = owedBy; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -0,0 +1,65 @@
+package com.service.balance_service.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Transaction Service's event for a new expense (see TransactionEventHandler). Shares carry their
+// transaction IDs, which make redelivered events harmless.
+public class ExpenseCreated {
+    public static final String TYPE = "ExpenseCreated";
+
+    private Long expenseId;  // Transaction.groupId, shared by all the expense's transactions
+    private Long splitGroupId;
+    private Long paidBy;
+    private BigDecimal totalAmount;
+    private String description;
+    private Long createdBy;
+    private LocalDateTime transactionDate;
+    private List<Share> shares;
+
+    // Default constructor
+    public ExpenseCreated() {
+    }
+
+    // Getters and Setters
+    public Long getExpenseId() { return expenseId; }
+    public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+    public Long getSplitGroupId() { return splitGroupId; }
+    public void setSplitGroupId(Long splitGroupId) { this.splitGroupId = splitGroupId; }
+    public Long getPaidBy() { return paidBy; }
+    public void setPaidBy(Long paidBy) { this.paidBy = paidBy; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Long getCreatedBy() { return createdBy; }
+    public void setCreatedBy(Long createdBy) { this.createdBy = createdBy; }
+    public LocalDateTime getTransactionDate() { return transactionDate; }
+    public void setTransactionDate(LocalDateTime transactionDate) { this.transactionDate = transactionDate; }
+    public List<Share> getShares() { return shares; }
+    public void setShares(List<Share> shares) { this.shares = shares; }
+
+    // One participant's part of the expense (the payer's own share included)
+    public static class Share {
+        private Long transactionId;
+        private Long owedBy;
+        private BigDecimal amount;
+
+        public Share() {
+        }
+
+        public Share(Long transactionId, Long owedBy, BigDecimal amount) {
+            this.transactionId = transactionId;
+            this.owedBy = owedBy;
+            this.amount = amount;
+        }
+
+        public Long getTransactionId() { return transactionId; }
+        public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+        public Long getOwedBy() { return owedBy; }
+        public void setOwedBy(Long owedBy) { this.owedBy = owedBy; }
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+    }
+}
@@ -0,0 +1,48 @@
+package com.service.balance_service.events;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.service.balance_service.entity.Settlement;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published once a settlement and the balance change it makes have committed
+public class SettlementRecorded {
+    public static final String TYPE = "SettlementRecorded";
+
+    @JsonSerialize(using = ToStringSerializer.class)  // Snowflake ID, as in Settlement
+    private Long settlementId;
+    private Long payerId;
+    private Long payeeId;
+    private BigDecimal amount;
+    private String balanceId;
+    private LocalDateTime settlementDate;
+
+    // Default constructor
+    public SettlementRecorded() {
+    }
+
+    public SettlementRecorded(Settlement settlement) {
+        this.settlementId = settlement.getId();
+        this.payerId = settlement.getPayerId();
+        this.payeeId = settlement.getPayeeId();
+        this.amount = settlement.getAmount();
+        this.balanceId = settlement.getBalanceId();
+        this.settlementDate = settlement.getSettlementDate();
+    }
+
+    // Getters and Setters
+    public Long getSettlementId() { return settlementId; }
+    public void setSettlementId(Long settlementId) { this.settlementId = settlementId; }
+    public Long getPayerId() { return payerId; }
+    public void setPayerId(Long payerId) { this.payerId = payerId; }
+    public Long getPayeeId() { return payeeId; }
+    public void setPayeeId(Long payeeId) { this.payeeId = payeeId; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getBalanceId() { return balanceId; }
+    public void setBalanceId(String balanceId) { this.balanceId = balanceId; }
+    public LocalDateTime getSettlementDate() { return settlementDate; }
+    public void setSettlementDate(LocalDateTime settlementDate) { this.settlementDate = settlementDate; }
+}
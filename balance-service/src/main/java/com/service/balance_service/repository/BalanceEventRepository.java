@@ -0,0 +1,66 @@
+package com.service.balance_service.repository;
+
+import com.service.balance_service.entity.BalanceEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BalanceEventRepository extends JpaRepository<BalanceEvent, Long> {
+
+    boolean existsBySourceTypeAndSourceIdAndBalanceId(BalanceEvent.SourceType sourceType,
+                                                      Long sourceId,
+                                                      String balanceId);
+
+    boolean existsBySourceTypeInAndSourceIdAndBalanceId(Collection<BalanceEvent.SourceType> sourceTypes,
+                                                        Long sourceId,
+                                                        String balanceId);
+
+    Page<BalanceEvent> findByBalanceIdOrderByIdDesc(String balanceId, Pageable pageable);
+
+    // Replay window: events after a snapshot up to a point in time
+    @Query("SELECT COALESCE(SUM(e.delta), 0) FROM BalanceEvent e WHERE e.balanceId = :balanceId " +
+            "AND e.id > :afterEventId AND e.recordedAt <= :asOf")
+    BigDecimal sumDeltasSince(@Param("balanceId") String balanceId,
+                              @Param("afterEventId") Long afterEventId,
+                              @Param("asOf") LocalDateTime asOf);
+
+    // Batched replay: per balance, the deltas after its latest snapshot up to asOf.
+    // Returns rows of [balanceId, sum].
+    @Query("SELECT e.balanceId, SUM(e.delta) FROM BalanceEvent e " +
+            "WHERE e.balanceId IN :balanceIds AND e.recordedAt <= :asOf AND e.id > COALESCE(" +
+            "(SELECT MAX(s.lastEventId) FROM BalanceSnapshot s " +
+            "WHERE s.balanceId = e.balanceId AND s.takenAt <= :asOf), 0) " +
+            "GROUP BY e.balanceId")
+    List<Object[]> sumDeltasSinceLatestSnapshots(@Param("balanceIds") Collection<String> balanceIds,
+                                                 @Param("asOf") LocalDateTime asOf);
+
+    // Backward replay window: events recorded after asOf, up to and including an anchor event
+    @Query("SELECT COALESCE(SUM(e.delta), 0) FROM BalanceEvent e WHERE e.balanceId = :balanceId " +
+            "AND e.recordedAt > :asOf AND e.id <= :upToEventId")
+    BigDecimal sumDeltasAfter(@Param("balanceId") String balanceId,
+                              @Param("asOf") LocalDateTime asOf,
+                              @Param("upToEventId") Long upToEventId);
+
+    // Batched backward replay: per balance, the deltas after asOf up to its first snapshot after
+    // asOf (or up to upToEventId when it has none). Returns rows of [balanceId, sum].
+    @Query("SELECT e.balanceId, SUM(e.delta) FROM BalanceEvent e " +
+            "WHERE e.balanceId IN :balanceIds AND e.recordedAt > :asOf AND e.id <= COALESCE(" +
+            "(SELECT MIN(s.lastEventId) FROM BalanceSnapshot s " +
+            "WHERE s.balanceId = e.balanceId AND s.takenAt > :asOf), :upToEventId) " +
+            "GROUP BY e.balanceId")
+    List<Object[]> sumDeltasAfterUntilNextSnapshots(@Param("balanceIds") Collection<String> balanceIds,
+                                                    @Param("asOf") LocalDateTime asOf,
+                                                    @Param("upToEventId") Long upToEventId);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM BalanceEvent e")
+    Long findMaxEventId();
+}
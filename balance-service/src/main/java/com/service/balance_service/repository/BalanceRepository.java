@@ -1,18 +1,35 @@
 package com.service.balance_service.repository;
 
+import com.service.balance_service.dto.BalanceResponse;
 import com.service.balance_service.entity.Balance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BalanceRepository extends JpaRepository<Balance, String> {
 
+    // For read-modify-write: always reads the primary row (never the second-level cache) and
+    // holds it until commit, so concurrent updates to the same pair queue up instead of losing one
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Balance b WHERE b.balanceId = :balanceId")
+    Optional<Balance> findByIdForUpdate(@Param("balanceId") String balanceId);
+
+    // Same, for several pairs at once; taken in balance_id order so overlapping batches can't deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Balance b WHERE b.balanceId IN :balanceIds ORDER BY b.balanceId")
+    List<Balance> findAllByIdForUpdate(@Param("balanceIds") Collection<String> balanceIds);
+
     @Query("SELECT b FROM Balance b WHERE " +
             "(b.user1 = :userId1 AND b.user2 = :userId2) OR " +
             "(b.user1 = :userId2 AND b.user2 = :userId1)")
@@ -26,6 +43,14 @@ public interface BalanceRepository extends JpaRepository<Balance, String> {
             "AND ABS(b.amount) > 0.01")
     List<Balance> findActiveBalancesByUser(@Param("userId") Long userId);
 
+    @Query("SELECT new com.service.balance_service.dto.BalanceResponse(" +
+            "b.balanceId, b.user1, b.user2, b.amount, b.transactionCount, b.lastUpdated, b.createdAt) " +
+            "FROM Balance b WHERE (b.user1 = :userId OR b.user2 = :userId) AND ABS(b.amount) > 0.01")
+    List<BalanceResponse> findActiveBalanceResponsesByUser(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(b) FROM Balance b WHERE (b.user1 = :userId OR b.user2 = :userId) AND ABS(b.amount) > 0.01")
+    Long countActiveBalancesByUser(@Param("userId") Long userId);
+
     @Query("SELECT b FROM Balance b WHERE ABS(b.amount) <= 0.01")
     List<Balance> findSettledBalances();
 
@@ -64,4 +89,16 @@ public interface BalanceRepository extends JpaRepository<Balance, String> {
 
     @Query("SELECT b FROM Balance b WHERE b.user1 IN :userIds AND b.user2 IN :userIds")
     List<Balance> findBalancesByUserList(@Param("userIds") List<Long> userIds);
-}
\ No newline at end of file
+
+    // Current amounts without loading entities; rows of [balanceId, amount]
+    @Query("SELECT b.balanceId, b.amount FROM Balance b WHERE b.balanceId IN :balanceIds")
+    List<Object[]> findAmounts(@Param("balanceIds") Collection<String> balanceIds);
+
+    // Keyset page of balances changed after (since, afterBalanceId), oldest first; settled ones included
+    @Query("SELECT b FROM Balance b WHERE b.lastUpdated > :since " +
+            "OR (b.lastUpdated = :since AND b.balanceId > :afterBalanceId) " +
+            "ORDER BY b.lastUpdated, b.balanceId")
+    List<Balance> findUpdatedAfter(@Param("since") LocalDateTime since,
+                                   @Param("afterBalanceId") String afterBalanceId,
+                                   Pageable pageable);
+}
@@ -0,0 +1,46 @@
+package com.service.balance_service.repository;
+
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.entity.BalanceSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    // Index seek on (balance_id, taken_at): the O(log n) half of a point-in-time read
+    Optional<BalanceSnapshot> findFirstByBalanceIdAndTakenAtLessThanEqualOrderByTakenAtDesc(String balanceId,
+                                                                                           LocalDateTime asOf);
+
+    // Batched form of the above for many balances at once (snapshots are monotonic in both
+    // taken_at and last_event_id per balance, so the highest event ID is the latest snapshot)
+    @Query("SELECT s FROM BalanceSnapshot s WHERE s.balanceId IN :balanceIds AND s.lastEventId = " +
+            "(SELECT MAX(s2.lastEventId) FROM BalanceSnapshot s2 " +
+            "WHERE s2.balanceId = s.balanceId AND s2.takenAt <= :asOf)")
+    List<BalanceSnapshot> findLatestSnapshotsAsOf(@Param("balanceIds") Collection<String> balanceIds,
+                                                  @Param("asOf") LocalDateTime asOf);
+
+    // First snapshot taken after asOf: the anchor for replaying backwards when a balance has no
+    // snapshot at or before asOf (e.g. an opening snapshot taken when the ledger was introduced)
+    Optional<BalanceSnapshot> findFirstByBalanceIdAndTakenAtGreaterThanOrderByTakenAtAsc(String balanceId,
+                                                                                        LocalDateTime asOf);
+
+    // Batched form of the above
+    @Query("SELECT s FROM BalanceSnapshot s WHERE s.balanceId IN :balanceIds AND s.lastEventId = " +
+            "(SELECT MIN(s2.lastEventId) FROM BalanceSnapshot s2 " +
+            "WHERE s2.balanceId = s.balanceId AND s2.takenAt > :asOf)")
+    List<BalanceSnapshot> findEarliestSnapshotsAfter(@Param("balanceIds") Collection<String> balanceIds,
+                                                     @Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT b FROM Balance b WHERE NOT EXISTS " +
+            "(SELECT 1 FROM BalanceSnapshot s WHERE s.balanceId = b.balanceId) ORDER BY b.balanceId")
+    List<Balance> findBalancesWithoutSnapshot(Pageable pageable);
+}
@@ -54,6 +54,12 @@ public interface SettlementRepository extends JpaRepository<Settlement, Long> {
 
     List<Settlement> findByBalanceIdOrderBySettlementDateDesc(String balanceId);
 
+    // Net effect of the pair's completed settlements on Balance.amount (user1 paying lowers it)
+    @Query("SELECT COALESCE(SUM(CASE WHEN s.payerId = :user1 THEN -s.amount ELSE s.amount END), 0) " +
+            "FROM Settlement s WHERE s.balanceId = :balanceId AND s.status = 'COMPLETED'")
+    BigDecimal sumCompletedSettlementDeltas(@Param("balanceId") String balanceId,
+                                            @Param("user1") Long user1);
+
     @Query("SELECT COALESCE(SUM(s.amount), 0) FROM Settlement s WHERE s.status = 'COMPLETED'")
     BigDecimal getTotalSettlementVolume();
 
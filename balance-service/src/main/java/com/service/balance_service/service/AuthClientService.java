@@ -1,6 +1,9 @@
 package com.service.balance_service.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -8,6 +11,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+
 @Service
 public class AuthClientService {
 
@@ -16,6 +22,23 @@ public class AuthClientService {
 
     private static final String AUTH_SERVICE_URL = "http://auth-service";
 
+    @Value("${balance.cache.user-info-max-size:10000}")
+    private long userInfoMaxSize;
+
+    @Value("${balance.cache.user-info-ttl-seconds:600}")
+    private long userInfoTtlSeconds;
+
+    // Names rarely change, so avoid a remote call per balance rendered
+    private Cache<Long, UserInfo> userInfoCache;
+
+    @PostConstruct
+    void initCache() {
+        userInfoCache = Caffeine.newBuilder()
+                .maximumSize(userInfoMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(userInfoTtlSeconds))
+                .build();
+    }
+
     public AuthResponse validateToken(String token) {
         try {
             String url = AUTH_SERVICE_URL + "/validate";
@@ -51,9 +74,14 @@ public class AuthClientService {
     }
 
     public UserInfo getUserInfo(Long userId) {
+        return userInfoCache.get(userId, this::fetchUserInfo);
+    }
+
+    private UserInfo fetchUserInfo(Long userId) {
         try {
-            String url = AUTH_SERVICE_URL + "/users/" + userId;
-            ResponseEntity<UserInfo> response = restTemplate.getForEntity(url, UserInfo.class);
+            // URI template keeps the http.client.requests uri tag to one value for all users
+            String url = AUTH_SERVICE_URL + "/users/{userId}";
+            ResponseEntity<UserInfo> response = restTemplate.getForEntity(url, UserInfo.class, userId);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 return response.getBody();
             } else {
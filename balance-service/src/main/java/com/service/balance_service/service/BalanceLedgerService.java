@@ -0,0 +1,181 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.entity.BalanceEvent;
+import com.service.balance_service.entity.BalanceSnapshot;
+import com.service.balance_service.repository.BalanceEventRepository;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.repository.BalanceSnapshotRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Event-sourced history for balances: every change is appended to balance_events and a
+// snapshot is written every N changes, so "amount as of X" = snapshot + bounded replay.
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class BalanceLedgerService {
+
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+
+    @Autowired
+    private BalanceEventRepository eventRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @Value("${balance.ledger.snapshot-interval:50}")
+    private long snapshotInterval;
+
+    // Idempotency check for a source (transaction/settlement) against a balance
+    public boolean isApplied(BalanceEvent.SourceType sourceType, Long sourceId, String balanceId) {
+        return sourceId != null
+                && eventRepository.existsBySourceTypeAndSourceIdAndBalanceId(sourceType, sourceId, balanceId);
+    }
+
+    // Same, for any of several source types in one query
+    public boolean isAnyApplied(Collection<BalanceEvent.SourceType> sourceTypes, Long sourceId, String balanceId) {
+        return sourceId != null
+                && eventRepository.existsBySourceTypeInAndSourceIdAndBalanceId(sourceTypes, sourceId, balanceId);
+    }
+
+    // Record a change that has just been applied to the (managed) balance. One INSERT on the
+    // hot path, plus one more every snapshotInterval changes.
+    public BalanceEvent append(Balance balance, BalanceEvent.SourceType sourceType, Long sourceId, BigDecimal delta) {
+        BalanceEvent event = eventRepository.save(
+                new BalanceEvent(balance.getBalanceId(), sourceType, sourceId, delta));
+        if (balance.getTransactionCount() % snapshotInterval == 0) {
+            snapshotRepository.save(new BalanceSnapshot(
+                    balance.getBalanceId(), balance.getAmount(), event.getId(), event.getRecordedAt()));
+        }
+        return event;
+    }
+
+    // Point-in-time amount: latest snapshot at or before asOf plus the deltas recorded since.
+    // Without such a snapshot (a balance that predates the ledger, whose opening snapshot is newer
+    // than asOf, or a young one with no snapshot yet) replay backwards instead: the first snapshot
+    // after asOf, or else the current amount, minus the deltas recorded after asOf.
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public BigDecimal getAmountAsOf(String balanceId, LocalDateTime asOf) {
+        BalanceSnapshot before = snapshotRepository
+                .findFirstByBalanceIdAndTakenAtLessThanEqualOrderByTakenAtDesc(balanceId, asOf)
+                .orElse(null);
+        if (before != null) {
+            return before.getAmount().add(eventRepository.sumDeltasSince(balanceId, before.getLastEventId(), asOf));
+        }
+        BalanceSnapshot after = snapshotRepository
+                .findFirstByBalanceIdAndTakenAtGreaterThanOrderByTakenAtAsc(balanceId, asOf)
+                .orElse(null);
+        if (after != null) {
+            return after.getAmount().subtract(eventRepository.sumDeltasAfter(balanceId, asOf, after.getLastEventId()));
+        }
+        List<Object[]> current = balanceRepository.findAmounts(List.of(balanceId));
+        if (current.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal currentAmount = (BigDecimal) current.get(0)[1];
+        return currentAmount.subtract(eventRepository.sumDeltasAfter(balanceId, asOf, Long.MAX_VALUE));
+    }
+
+    // Same as getAmountAsOf for many balances in a handful of queries; unknown balances map to zero
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Map<String, BigDecimal> getAmountsAsOf(Collection<String> balanceIds, LocalDateTime asOf) {
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        if (balanceIds.isEmpty()) {
+            return amounts;
+        }
+        // Forward replay for balances with a snapshot at or before asOf
+        for (BalanceSnapshot snapshot : snapshotRepository.findLatestSnapshotsAsOf(balanceIds, asOf)) {
+            amounts.put(snapshot.getBalanceId(), snapshot.getAmount());
+        }
+        if (!amounts.isEmpty()) {
+            for (Object[] row : eventRepository.sumDeltasSinceLatestSnapshots(amounts.keySet(), asOf)) {
+                amounts.merge((String) row[0], (BigDecimal) row[1], BigDecimal::add);
+            }
+        }
+        // Backward replay for the rest, anchored on their next snapshot or current amount
+        Set<String> backward = new HashSet<>(balanceIds);
+        backward.removeAll(amounts.keySet());
+        if (!backward.isEmpty()) {
+            Map<String, BigDecimal> anchors = new HashMap<>();
+            for (BalanceSnapshot snapshot : snapshotRepository.findEarliestSnapshotsAfter(backward, asOf)) {
+                anchors.put(snapshot.getBalanceId(), snapshot.getAmount());
+            }
+            Set<String> withoutSnapshots = new HashSet<>(backward);
+            withoutSnapshots.removeAll(anchors.keySet());
+            if (!withoutSnapshots.isEmpty()) {
+                for (Object[] row : balanceRepository.findAmounts(withoutSnapshots)) {
+                    anchors.put((String) row[0], (BigDecimal) row[1]);
+                }
+            }
+            if (!anchors.isEmpty()) {
+                for (Object[] row : eventRepository.sumDeltasAfterUntilNextSnapshots(
+                        anchors.keySet(), asOf, Long.MAX_VALUE)) {
+                    anchors.computeIfPresent((String) row[0], (id, anchor) -> anchor.subtract((BigDecimal) row[1]));
+                }
+            }
+            amounts.putAll(anchors);
+        }
+        for (String balanceId : balanceIds) {
+            amounts.putIfAbsent(balanceId, BigDecimal.ZERO);
+        }
+        return amounts;
+    }
+
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<BalanceEvent> getEvents(String balanceId, int page, int size) {
+        return eventRepository.findByBalanceIdOrderByIdDesc(balanceId, PageRequest.of(page, size)).getContent();
+    }
+
+    // Balances that predate the ledger have history we never saw: give each an opening
+    // snapshot so replay starts from their current amount rather than from zero.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NEVER)
+    public void backfillOpeningSnapshots() {
+        shardRouter.forEachShard(this::backfillOpeningSnapshotsOnShard);
+    }
+
+    private void backfillOpeningSnapshotsOnShard() {
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        int created;
+        do {
+            created = chunkTransaction.execute(status -> {
+                List<Balance> balances = snapshotRepository.findBalancesWithoutSnapshot(
+                        PageRequest.of(0, BACKFILL_CHUNK_SIZE));
+                Long lastEventId = eventRepository.findMaxEventId();
+                LocalDateTime now = LocalDateTime.now();
+                for (Balance balance : balances) {
+                    snapshotRepository.save(new BalanceSnapshot(
+                            balance.getBalanceId(), balance.getAmount(), lastEventId, now));
+                }
+                return balances.size();
+            });
+        } while (created == BACKFILL_CHUNK_SIZE);
+    }
+}
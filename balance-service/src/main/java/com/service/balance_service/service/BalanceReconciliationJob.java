@@ -0,0 +1,361 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.PairReconciliation;
+import com.service.balance_service.dto.ReconciliationReport;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import com.service.balance_service.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+// Full reconciliation: every pair's Balance.amount against its ACTIVE transactions plus its
+// completed settlements, like GET /reconcile/{userId1}/{userId2} but for all pairs at once.
+// The user-ID space is cut into ranges (by user1, the lower ID); for each range the balances are
+// streamed from every shard, merged into (user1, user2) order, and merge-joined with Transaction
+// Service's pair sums for the same range (PairMergeJoin). Ranges run in parallel on a dedicated
+// ForkJoinPool; each holds one row per shard and one pair sum in memory, plus the report's
+// bounded list of the largest discrepancies. Runs one at a time, in the background.
+@Service
+public class BalanceReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceReconciliationJob.class);
+
+    // Completed settlements netted from user1's side, as in SettlementRepository.sumCompletedSettlementDeltas
+    // (one idx_settlements_balance lookup per balance); balances come in idx_balances_users order
+    private static final String BALANCE_ROWS =
+            "SELECT b.user1, b.user2, b.amount, b.last_updated," +
+                    " (SELECT COALESCE(SUM(CASE WHEN s.payer_id = b.user1 THEN -s.amount ELSE s.amount END), 0)" +
+                    " FROM settlements s WHERE s.balance_id = b.balance_id AND s.status = 'COMPLETED') AS settlement_sum" +
+                    " FROM balances b WHERE b.user1 >= ? AND b.user1 < ? ORDER BY b.user1, b.user2";
+
+    private static final RowMapper<PairMergeJoin.BalanceRow> BALANCE_ROW_MAPPER = (rs, rowNum) ->
+            new PairMergeJoin.BalanceRow(
+                    rs.getLong("user1"),
+                    rs.getLong("user2"),
+                    rs.getBigDecimal("amount"),
+                    rs.getBigDecimal("settlement_sum"),
+                    rs.getObject("last_updated", LocalDateTime.class));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @Autowired
+    private TransactionClientService transactionClientService;
+
+    @Autowired
+    private BalanceReconciliationService reconciliationService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private SnowflakeIdGenerator settlementIdGenerator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${balance.reconcile.tolerance:0.01}")
+    private BigDecimal tolerance;
+
+    @Value("${balance.reconcile.partitions:64}")
+    private int partitions;
+
+    @Value("${balance.reconcile.parallelism:4}")
+    private int parallelism;
+
+    @Value("${balance.reconcile.max-report-entries:1000}")
+    private int maxReportEntries;
+
+    @Value("${balance.reconcile.auto-repair:false}")
+    private boolean autoRepair;
+
+    @Value("${balance.reconcile.repair-grace-minutes:10}")
+    private long repairGraceMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReconciliationReport lastReport;
+
+    private JdbcTemplate streamingJdbcTemplate;
+    private ForkJoinPool partitionPool;
+    private ExecutorService runner;
+
+    @PostConstruct
+    void init() {
+        // Connector/J streams rows one at a time at fetch size Integer.MIN_VALUE instead of
+        // buffering the whole result
+        streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        partitionPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("balance-reconcile-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-reconcile-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        partitionPool.shutdownNow();
+    }
+
+    // Off unless balance.reconcile.cron is set; every instance with it set runs its own pass
+    @Scheduled(cron = "${balance.reconcile.cron:-}")
+    public void scheduledRun() {
+        if (startRun() == null) {
+            log.info("Scheduled reconciliation skipped: the previous run is still going");
+        }
+    }
+
+    // Starts a full run in the background and returns its RUNNING report, or null if a run is
+    // already in progress on this instance
+    public ReconciliationReport startRun() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        ReconciliationReport report = new ReconciliationReport(settlementIdGenerator.nextId(), autoRepair);
+        lastReport = report;
+        try {
+            runner.execute(() -> {
+                try {
+                    lastReport = run(report.getRunId(), report.getStartedAt());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return report;
+    }
+
+    // The running or most recently finished run, or null before the first
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    ReconciliationReport run(Long runId, LocalDateTime startedAt) {
+        ReconciliationReport report = new ReconciliationReport(runId, autoRepair);
+        report.setStartedAt(startedAt);
+        long started = System.nanoTime();
+        try {
+            long[] bounds = partitionBounds(balanceUser1Range(), partitions);
+            report.setPartitions(bounds.length - 1);
+            Discrepancies found = new Discrepancies(maxReportEntries);
+            PairMergeJoin.Counts counts = partitionPool.invoke(new PartitionTask(bounds, 0, bounds.length - 1, found));
+            report.setPairsChecked(counts.pairs);
+            report.setConsistentPairs(counts.consistent);
+            report.setDiscrepancyCount(counts.discrepancies);
+            report.setBalanceOnlyPairs(counts.balanceOnly);
+            report.setTransactionOnlyPairs(counts.transactionOnly);
+            report.setTotalAbsoluteDifference(counts.absoluteDifference);
+            List<Found> largest = found.largestFirst();
+            report.setTruncated(counts.discrepancies > largest.size());
+            List<PairReconciliation> discrepancies = new ArrayList<>(largest.size());
+            largest.forEach(entry -> discrepancies.add(entry.pair));
+            report.setDiscrepancies(discrepancies);
+            if (autoRepair) {
+                repair(largest, startedAt.minusMinutes(repairGraceMinutes), runId, report);
+            }
+            report.setStatus(ReconciliationReport.Status.COMPLETED);
+            log.info("Reconciliation run {}: {} pairs in {} ranges, {} discrepancies (total {}), {} repaired, {} ms",
+                    runId, counts.pairs, report.getPartitions(), counts.discrepancies, counts.absoluteDifference,
+                    report.getRepaired(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (RuntimeException e) {
+            report.setStatus(ReconciliationReport.Status.FAILED);
+            report.setError(e.getMessage());
+            log.error("Reconciliation run {} failed: {}", runId, e.getMessage(), e);
+        }
+        report.setFinishedAt(LocalDateTime.now());
+        meterRegistry.counter("balance.reconcile.runs", "status", report.getStatus().name()).increment();
+        meterRegistry.counter("balance.reconcile.discrepancies").increment(report.getDiscrepancyCount());
+        return report;
+    }
+
+    // Range boundaries over user1, the lower ID of a pair: partitions equal slices of the span the
+    // balances cover, the first open below and the last open above, so pairs that only have
+    // transactions are covered wherever they fall. Range i is [bounds[i], bounds[i + 1]).
+    static long[] partitionBounds(long[] user1Range, int partitions) {
+        if (user1Range.length == 0) {
+            return new long[]{Long.MIN_VALUE, Long.MAX_VALUE};
+        }
+        long min = user1Range[0];
+        long span = user1Range[1] - min + 1;
+        int count = (int) Math.max(1, Math.min(partitions, span));
+        long[] bounds = new long[count + 1];
+        bounds[0] = Long.MIN_VALUE;
+        for (int i = 1; i < count; i++) {
+            bounds[i] = min + span / count * i + span % count * i / count;
+        }
+        bounds[count] = Long.MAX_VALUE;
+        return bounds;
+    }
+
+    // Lowest and highest user1 over all shards, or an empty array when there are no balances
+    private long[] balanceUser1Range() {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long[] range : shardRouter.scatter(() -> jdbcTemplate.query(
+                "SELECT MIN(user1), MAX(user1) FROM balances", rs -> {
+                    rs.next();
+                    long shardMin = rs.getLong(1);
+                    return rs.wasNull() ? new long[0] : new long[]{shardMin, rs.getLong(2)};
+                }))) {
+            if (range.length > 0) {
+                min = Math.min(min, range[0]);
+                max = Math.max(max, range[1]);
+            }
+        }
+        return min <= max ? new long[]{min, max} : new long[0];
+    }
+
+    private PairMergeJoin.Counts reconcileRange(long fromUser, long toUser, Discrepancies found) {
+        List<Stream<PairMergeJoin.BalanceRow>> shardStreams = new ArrayList<>();
+        try {
+            // Each stream holds its shard's connection (outside any transaction) until closed
+            shardRouter.forEachShard(() -> shardStreams.add(
+                    streamingJdbcTemplate.queryForStream(BALANCE_ROWS, BALANCE_ROW_MAPPER, fromUser, toUser)));
+            List<Iterator<PairMergeJoin.BalanceRow>> shards = new ArrayList<>(shardStreams.size());
+            shardStreams.forEach(stream -> shards.add(stream.iterator()));
+            Iterator<PairMergeJoin.BalanceRow> balances = PairMergeJoin.mergeShards(shards);
+            PairMergeJoin join = new PairMergeJoin(tolerance, found::offer);
+            return transactionClientService.streamPairSums(fromUser, toUser, pairSums -> join.join(balances, pairSums));
+        } finally {
+            shardStreams.forEach(Stream::close);
+        }
+    }
+
+    // Re-checks each listed discrepancy on its own and corrects the ones that still stand. Pairs
+    // changed within the grace period are left alone: a balance event may still be in flight, and
+    // repairing ahead of it would count it twice. So is any pair whose sums moved since the scan.
+    void repair(List<Found> largest, LocalDateTime quietSince, Long runId, ReconciliationReport report) {
+        int repaired = 0;
+        int skipped = 0;
+        for (Found entry : largest) {
+            PairReconciliation scanned = entry.pair;
+            if (entry.lastChanged != null && entry.lastChanged.isAfter(quietSince)) {
+                skipped++;
+                continue;
+            }
+            try {
+                PairReconciliation current = reconciliationService.reconcilePair(scanned.getUser1(), scanned.getUser2());
+                if (current.isConsistent()) {
+                    continue;
+                }
+                if (current.getTransactionSum().compareTo(scanned.getTransactionSum()) != 0
+                        || current.getBalanceAmount().compareTo(scanned.getBalanceAmount()) != 0) {
+                    skipped++;
+                } else if (balanceService.repairBalance(current.getUser1(), current.getUser2(),
+                        current.getBalanceAmount(), current.getExpectedAmount(), runId)) {
+                    repaired++;
+                } else {
+                    skipped++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not repair balance {}: {}", scanned.getBalanceId(), e.getMessage());
+                skipped++;
+            }
+        }
+        report.setRepaired(repaired);
+        report.setRepairsSkipped(skipped);
+        meterRegistry.counter("balance.reconcile.repairs").increment(repaired);
+    }
+
+    // Splits its ranges in half until one is left, which it reconciles on the calling worker
+    private class PartitionTask extends RecursiveTask<PairMergeJoin.Counts> {
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+        private final Discrepancies found;
+
+        private PartitionTask(long[] bounds, int from, int to, Discrepancies found) {
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.found = found;
+        }
+
+        @Override
+        protected PairMergeJoin.Counts compute() {
+            if (to - from == 1) {
+                return reconcileRange(bounds[from], bounds[to], found);
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask lower = new PartitionTask(bounds, from, middle, found);
+            lower.fork();
+            PairMergeJoin.Counts upper = new PartitionTask(bounds, middle, to, found).compute();
+            return lower.join().add(upper);
+        }
+    }
+
+    // The largest discrepancies seen so far, at most limit of them (a min-heap on the difference)
+    static class Discrepancies {
+        private final int limit;
+        private final PriorityQueue<Found> smallestFirst =
+                new PriorityQueue<>(Comparator.comparing((Found entry) -> entry.pair.getDifference().abs()));
+
+        Discrepancies(int limit) {
+            this.limit = limit;
+        }
+
+        synchronized void offer(PairReconciliation pair, LocalDateTime lastChanged) {
+            if (limit <= 0) {
+                return;
+            }
+            if (smallestFirst.size() < limit) {
+                smallestFirst.add(new Found(pair, lastChanged));
+            } else if (pair.getDifference().abs().compareTo(smallestFirst.peek().pair.getDifference().abs()) > 0) {
+                smallestFirst.poll();
+                smallestFirst.add(new Found(pair, lastChanged));
+            }
+        }
+
+        synchronized List<Found> largestFirst() {
+            List<Found> entries = new ArrayList<>(smallestFirst);
+            entries.sort(Comparator.comparing((Found entry) -> entry.pair.getDifference().abs()).reversed());
+            return entries;
+        }
+    }
+
+    static class Found {
+        final PairReconciliation pair;
+        final LocalDateTime lastChanged;  // Latest change on either side, as scanned
+
+        Found(PairReconciliation pair, LocalDateTime lastChanged) {
+            this.pair = pair;
+            this.lastChanged = lastChanged;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.PairReconciliation;
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.repository.SettlementRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.List;
+
+// Checks a pair's Balance.amount against its ACTIVE transactions (from Transaction Service) plus its
+// completed settlements, on demand: one pair costs one indexed sum on each side instead of a full
+// recompute. Balances follow transactions through events, so a difference right after a change
+// may just be an event in flight; one that persists is real drift.
+@Service
+public class BalanceReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceReconciliationService.class);
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private TransactionClientService transactionClientService;
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Auto-settle zeroes balances within this, so settled pairs can be off by up to that much
+    @Value("${balance.reconcile.tolerance:0.01}")
+    private BigDecimal tolerance;
+
+    private TransactionTemplate primaryRead;
+
+    @PostConstruct
+    void initTransactionTemplates() {
+        // Not read-only: a lagging replica would report drift that isn't there
+        primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    public PairReconciliation reconcilePair(Long userId1, Long userId2) {
+        Balance pair = new Balance(userId1, userId2);
+        String balanceId = pair.getBalanceId();
+        // Remote call first, outside any transaction, so no connection waits on it
+        BigDecimal transactionSum = transactionClientService.getTransactionSum(pair.getUser1(), pair.getUser2());
+        PairReconciliation result = shardRouter.onShardOf(balanceId, () -> primaryRead.execute(status -> {
+            // A query rather than findById: the second-level cache may hold another instance's old copy
+            List<Object[]> amounts = balanceRepository.findAmounts(List.of(balanceId));
+            BigDecimal balanceAmount = amounts.isEmpty() ? BigDecimal.ZERO : (BigDecimal) amounts.get(0)[1];
+            BigDecimal settlementSum = settlementRepository.sumCompletedSettlementDeltas(balanceId, pair.getUser1());
+            return new PairReconciliation(balanceId, pair.getUser1(), pair.getUser2(), balanceAmount,
+                    transactionSum, settlementSum, tolerance);
+        }));
+        meterRegistry.counter("balance.reconcile.pairs", "consistent", String.valueOf(result.isConsistent())).increment();
+        if (!result.isConsistent()) {
+            log.warn("Balance {} is {} but its transactions and settlements add up to {}",
+                    balanceId, result.getBalanceAmount(), result.getExpectedAmount());
+        }
+        return result;
+    }
+}
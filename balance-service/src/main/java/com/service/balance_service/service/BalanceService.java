@@ -1,27 +1,53 @@
 package com.service.balance_service.service;
 
+import com.service.balance_service.cache.BalanceCache;
 import com.service.balance_service.dto.BalanceOptimization;
 import com.service.balance_service.dto.BalanceResponse;
 import com.service.balance_service.dto.SettlementRequest;
 import com.service.balance_service.entity.Balance;
+import com.service.balance_service.entity.BalanceEvent;
 import com.service.balance_service.entity.Settlement;
+import com.service.balance_service.events.SettlementRecorded;
 import com.service.balance_service.repository.BalanceRepository;
 import com.service.balance_service.repository.SettlementRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import com.service.balance_service.util.SnowflakeIdGenerator;
+import com.service.common.events.DomainEventPublisher;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+// Reads that add user names (an auth-service call on a cache miss) are NOT_SUPPORTED and run
+// only their queries in a read-only TransactionTemplate, so no pooled connection is held
+// while waiting on the network. createSettlement likewise commits before publishing its event.
 @Service
 @Transactional
+@Observed(name = "balance.service")  // Timer + span per public method (tagged with the method name)
 public class BalanceService {
 
+    private static final Logger log = LoggerFactory.getLogger(BalanceService.class);
+
+    private static final Set<BalanceEvent.SourceType> APPLIED_OR_REVERSED =
+            EnumSet.of(BalanceEvent.SourceType.TRANSACTION, BalanceEvent.SourceType.REVERSAL);
+
     @Autowired
     private BalanceRepository balanceRepository;
 
@@ -31,35 +57,141 @@ public class BalanceService {
     @Autowired
     private AuthClientService authClientService;
 
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @Autowired
+    private PendingSettlementService pendingSettlementService;
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @Autowired
+    private SnowflakeIdGenerator settlementIdGenerator;
+
+    @Autowired
+    private DomainEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate batchTransaction;
+
     @Value("${balance.rules.min-settlement-amount:0.01}")
     private BigDecimal minSettlementAmount;
 
     @Value("${balance.rules.auto-settle-threshold:0.01}")
     private BigDecimal autoSettleThreshold;
 
+    @Value("${balance.rules.max-batch-settlements:100}")
+    private int maxBatchSettlements;
+
+    @PostConstruct
+    void initTransactionTemplates() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        // Always its own transaction: a batch spanning shards nests one per shard
+        batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     public void updateBalance(Long paidBy, Long owedBy, BigDecimal amount, Long transactionId) {
         if (paidBy.equals(owedBy)) {
             // Self-transaction, no balance update needed
             return;
         }
         String balanceId = Balance.createBalanceId(paidBy, owedBy);
-        Balance balance = balanceRepository.findById(balanceId)
-                .orElse(new Balance(paidBy, owedBy));
-        // Calculate the balance change
-        // If user1 paid for user2, then user2 owes user1
-        if (paidBy.equals(balance.getUser1())) {
-            // User1 paid, so user2 owes more (positive balance means user1 is owed money)
-            balance.addAmount(amount.negate());
-        } else {
-            // User2 paid, so user1 owes more (positive balance means user1 owes money)
-            balance.addAmount(amount);
+        shardRouter.onShardOf(balanceId, () -> {
+            // Lock first: the applied check below then can't race a concurrent retry of the same update
+            Optional<Balance> existing = balanceRepository.findByIdForUpdate(balanceId);
+            // Retried or replayed updates for the same transaction are applied once, and not at all
+            // once the transaction has been reversed (its cancellation can overtake it)
+            if (ledgerService.isAnyApplied(APPLIED_OR_REVERSED, transactionId, balanceId)) {
+                return;
+            }
+            Balance balance = existing.orElse(new Balance(paidBy, owedBy));
+            // Calculate the balance change
+            // If user1 paid for user2, user2 owes more (negative); if user2 paid, user1 owes more (positive)
+            BigDecimal delta = paidBy.equals(balance.getUser1()) ? amount.negate() : amount;
+            balance.addAmount(delta);
+            balance.setLastTransactionId(transactionId);
+            Balance saved = balanceRepository.save(balance);
+            ledgerService.append(saved, BalanceEvent.SourceType.TRANSACTION, transactionId, delta);
+            balanceCache.put(saved);
+            pendingSettlementService.onBalanceChanged(saved);
+        });
+    }
+
+    // Takes a transaction that no longer counts (cancelled, deleted or settled) back out of its
+    // pair's balance, once. If its share hasn't been applied yet (ExpenseCreated still in flight
+    // from another instance) a zero reversal is recorded, which keeps the share from being applied
+    // when it arrives. Shares from before the ledger existed look unapplied too: those leave a
+    // difference that GET /reconcile shows.
+    public void reverseTransaction(Long paidBy, Long owedBy, BigDecimal amount, Long transactionId) {
+        if (paidBy.equals(owedBy)) {
+            return;
         }
-        balance.setLastTransactionId(transactionId);
-        balanceRepository.save(balance);
+        String balanceId = Balance.createBalanceId(paidBy, owedBy);
+        shardRouter.onShardOf(balanceId, () -> {
+            Optional<Balance> existing = balanceRepository.findByIdForUpdate(balanceId);
+            if (ledgerService.isApplied(BalanceEvent.SourceType.REVERSAL, transactionId, balanceId)) {
+                return;
+            }
+            Balance balance = existing.orElse(new Balance(paidBy, owedBy));
+            BigDecimal delta = BigDecimal.ZERO;
+            if (ledgerService.isApplied(BalanceEvent.SourceType.TRANSACTION, transactionId, balanceId)) {
+                // The opposite of updateBalance's delta
+                delta = paidBy.equals(balance.getUser1()) ? amount : amount.negate();
+            } else {
+                log.warn("Reversing transaction {} on {} before its share was applied", transactionId, balanceId);
+            }
+            balance.addAmount(delta);
+            Balance saved = balanceRepository.save(balance);
+            ledgerService.append(saved, BalanceEvent.SourceType.REVERSAL, transactionId, delta);
+            balanceCache.put(saved);
+            pendingSettlementService.onBalanceChanged(saved);
+        });
     }
 
+    // Sets a drifted balance to what its transactions and settlements add up to, for a reconciliation
+    // run's auto-repair: only if it still holds the amount the run checked (compare-and-set under the
+    // row lock, so a change applied since wins) and only once per run. The correction goes into the
+    // ledger as an ADJUSTMENT. Returns whether the balance was changed.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean repairBalance(Long userId1, Long userId2, BigDecimal checkedAmount, BigDecimal correctAmount,
+                                 Long runId) {
+        String balanceId = Balance.createBalanceId(userId1, userId2);
+        return shardRouter.onShardOf(balanceId, () -> writeTransaction.execute(status -> {
+            Balance balance = balanceRepository.findByIdForUpdate(balanceId).orElse(new Balance(userId1, userId2));
+            if (balance.getAmount().compareTo(checkedAmount) != 0
+                    || ledgerService.isApplied(BalanceEvent.SourceType.ADJUSTMENT, runId, balanceId)) {
+                return false;
+            }
+            BigDecimal delta = correctAmount.subtract(balance.getAmount());
+            balance.setAmount(correctAmount);
+            Balance saved = balanceRepository.save(balance);
+            ledgerService.append(saved, BalanceEvent.SourceType.ADJUSTMENT, runId, delta);
+            balanceCache.put(saved);
+            pendingSettlementService.onBalanceChanged(saved);
+            log.warn("Repaired balance {}: {} -> {} (reconciliation run {})", balanceId, checkedAmount, correctAmount, runId);
+            return true;
+        }));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BalanceResponse getBalanceBetweenUsers(Long userId1, Long userId2) {
-        Optional<Balance> balanceOpt = balanceRepository.findBalanceBetweenUsers(userId1, userId2);
+        // Balance IDs are deterministic, so go straight to the primary key (via the near-cache;
+        // a hit never touches the pool, a miss loads in the repository's own transaction)
+        Optional<Balance> balanceOpt = balanceCache.get(Balance.createBalanceId(userId1, userId2));
         if (balanceOpt.isPresent()) {
             BalanceResponse response = new BalanceResponse(balanceOpt.get(), userId1);
             addUserNamesToBalance(response);
@@ -73,9 +205,54 @@ public class BalanceService {
         }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<BalanceResponse> getUserBalances(Long userId) {
-        List<Balance> balances = balanceRepository.findActiveBalancesByUser(userId);
-        return balances.stream()
+        List<List<BalanceResponse>> perShard = readTransaction.execute(status ->
+                shardRouter.scatter(() -> balanceRepository.findActiveBalanceResponsesByUser(userId)));
+        return perShard.stream()
+                .flatMap(List::stream)
+                .map(response -> {
+                    response.fromPerspectiveOf(userId);
+                    addUserNamesToBalance(response);
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Historical views: served from snapshots plus a bounded replay of balance_events
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BalanceResponse getBalanceBetweenUsersAsOf(Long userId1, Long userId2, LocalDateTime asOf) {
+        Balance historical = new Balance(userId1, userId2);
+        // Zero before the balance existed; otherwise rebuilt from the ledger
+        boolean existed = balanceCache.get(historical.getBalanceId())
+                .map(balance -> balance.getCreatedAt() == null || !balance.getCreatedAt().isAfter(asOf))
+                .orElse(false);
+        historical.setAmount(!existed ? BigDecimal.ZERO : shardRouter.onShardOf(historical.getBalanceId(),
+                () -> readTransaction.execute(status -> ledgerService.getAmountAsOf(historical.getBalanceId(), asOf))));
+        historical.setLastUpdated(asOf);
+        BalanceResponse response = new BalanceResponse(historical, userId1);
+        addUserNamesToBalance(response);
+        return response;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BalanceResponse> getUserBalancesAsOf(Long userId, LocalDateTime asOf) {
+        // Each shard rebuilds its own share of the user's balances
+        List<Collection<Balance>> perShard = readTransaction.execute(status -> shardRouter.scatter(() -> {
+                    // Include balances that are settled today: they may have been open at asOf
+                    Map<String, Balance> balances = balanceRepository.findBalancesByUser(userId).stream()
+                            .filter(balance -> balance.getCreatedAt() == null || !balance.getCreatedAt().isAfter(asOf))
+                            .collect(Collectors.toMap(Balance::getBalanceId, Balance::snapshot));
+                    Map<String, BigDecimal> amounts = ledgerService.getAmountsAsOf(balances.keySet(), asOf);
+                    balances.values().forEach(balance -> {
+                        balance.setAmount(amounts.getOrDefault(balance.getBalanceId(), BigDecimal.ZERO));
+                        balance.setLastUpdated(asOf);
+                    });
+                    return balances.values();
+                }));
+        return perShard.stream()
+                .flatMap(Collection::stream)
+                .filter(balance -> !balance.isSettled())
                 .map(balance -> {
                     BalanceResponse response = new BalanceResponse(balance, userId);
                     addUserNamesToBalance(response);
@@ -84,7 +261,229 @@ public class BalanceService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Settlement createSettlement(SettlementRequest request, Long createdByUserId) {
+        // The settlement is stored on the shard of the balance it pays down
+        Settlement settlement = shardRouter.onShardOf(Balance.createBalanceId(request.getPayerId(), request.getPayeeId()),
+                () -> writeTransaction.execute(status -> createSettlementOnShard(request, createdByUserId)));
+        return settlement;
+    }
+
+    // Records a whole settle-up plan (the suggested payments from POST /optimize) in one go: every
+    // payment or none. The plan is netted, so a payment need not have a debt behind it on its own
+    // pair (A pays C when A owes B and B owes C); clearingPayments turns it into one settlement per
+    // pair balance it pays down. The affected balances are locked together, in balance_id order,
+    // and each settlement is checked against its locked balance as in createSettlement, which
+    // catches balances that moved since the plan was cleared. The settlement rows go out as one
+    // JDBC batch per shard.
+    // Pairs on different shards are settled in nested transactions, one per shard in shard order,
+    // which commit innermost first: any failure before the commits rolls every shard back, and only
+    // a commit failing part-way through could leave some shards settled.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Settlement> createSettlementBatch(BalanceOptimization plan, Long createdByUserId) {
+        List<BalanceOptimization.OptimizedPayment> payments = plan != null ? plan.getSuggestedPayments() : null;
+        if (payments == null || payments.isEmpty()) {
+            throw new RuntimeException("The plan has no payments");
+        }
+        if (payments.size() > maxBatchSettlements) {
+            throw new RuntimeException("A batch can record at most " + maxBatchSettlements + " payments");
+        }
+        for (BalanceOptimization.OptimizedPayment payment : payments) {
+            if (payment.getFromUserId() == null || payment.getToUserId() == null || payment.getAmount() == null) {
+                throw new RuntimeException("Every payment needs fromUserId, toUserId and amount");
+            }
+            checkSettlementRequest(payment.getFromUserId(), payment.getToUserId(), payment.getAmount());
+        }
+        List<BalanceOptimization.OptimizedPayment> clearing = clearingPayments(plan.getUserIds(), payments);
+        if (clearing.size() > maxBatchSettlements) {
+            throw new RuntimeException("The plan would pay down more than " + maxBatchSettlements + " balances");
+        }
+        // Payments by balance, and balances by shard: both sorted, which is the order locks are taken in
+        Map<String, List<BalanceOptimization.OptimizedPayment>> paymentsByBalance = new TreeMap<>();
+        for (BalanceOptimization.OptimizedPayment payment : clearing) {
+            paymentsByBalance.computeIfAbsent(Balance.createBalanceId(payment.getFromUserId(), payment.getToUserId()),
+                    balanceId -> new ArrayList<>()).add(payment);
+        }
+        Map<Integer, List<String>> balanceIdsByShard = new TreeMap<>();
+        for (String balanceId : paymentsByBalance.keySet()) {
+            balanceIdsByShard.computeIfAbsent(shardRouter.shardOf(balanceId), shard -> new ArrayList<>()).add(balanceId);
+        }
+        List<Settlement> settlements = new ArrayList<>(clearing.size());
+        settleShards(new ArrayList<>(balanceIdsByShard.values()), 0, paymentsByBalance, createdByUserId, settlements);
+        return settlements;
+    }
+
+    // A netted plan moves money between net positions, not along pair balances. Each user's net
+    // payment under the plan is checked against their net position among the plan's users (the
+    // userIds it was optimized over, or else the users it names), then routed along who owes whom
+    // as a flow: shortest chains of debts first, so a payment with a debt behind it on its own pair
+    // pays that balance down directly. Returns one payment per pair balance, in its debt's direction.
+    private List<BalanceOptimization.OptimizedPayment> clearingPayments(
+            List<Long> planUserIds, List<BalanceOptimization.OptimizedPayment> payments) {
+        Set<Long> users = new TreeSet<>();
+        if (planUserIds != null) {
+            users.addAll(planUserIds);
+        }
+        // Net amount each user pays under the plan (negative: receives)
+        Map<Long, BigDecimal> pays = new TreeMap<>();
+        Map<String, String> descriptions = new HashMap<>();
+        for (BalanceOptimization.OptimizedPayment payment : payments) {
+            users.add(payment.getFromUserId());
+            users.add(payment.getToUserId());
+            pays.merge(payment.getFromUserId(), payment.getAmount(), BigDecimal::add);
+            pays.merge(payment.getToUserId(), payment.getAmount().negate(), BigDecimal::add);
+            descriptions.putIfAbsent(payment.getFromUserId() + ">" + payment.getToUserId(), payment.getDescription());
+        }
+        List<Long> userList = new ArrayList<>(users);
+        List<Balance> balances = readTransaction.execute(status ->
+                shardRouter.scatter(() -> balanceRepository.findBalancesByUserList(userList)).stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()));
+
+        // Positive net positions are owed money, negative ones owe it
+        Map<Long, BigDecimal> netPositions = calculateNetPositions(balances, userList);
+        for (Map.Entry<Long, BigDecimal> entry : pays.entrySet()) {
+            Long userId = entry.getKey();
+            BigDecimal owes = netPositions.get(userId).negate();
+            if (entry.getValue().signum() > 0 && entry.getValue().compareTo(owes) > 0) {
+                throw new RuntimeException(owes.signum() <= 0
+                        ? "User " + userId + " does not owe money to the other users in the plan"
+                        : "User " + userId + " would pay $" + entry.getValue() + " but owes $" + owes + " net");
+            }
+            if (entry.getValue().signum() < 0 && entry.getValue().negate().compareTo(owes.negate()) > 0) {
+                throw new RuntimeException(owes.signum() >= 0
+                        ? "User " + userId + " is not owed money by the other users in the plan"
+                        : "User " + userId + " would receive $" + entry.getValue().negate() +
+                                " but is owed $" + owes.negate() + " net");
+            }
+        }
+
+        // Residual capacities: what each debtor still owes each creditor, plus flow that can be undone
+        Map<Long, Map<Long, BigDecimal>> residual = new TreeMap<>();
+        for (Balance balance : balances) {
+            if (balance.getAmount().signum() != 0) {
+                Long debtor = balance.getAmount().signum() > 0 ? balance.getUser1() : balance.getUser2();
+                Long creditor = debtor.equals(balance.getUser1()) ? balance.getUser2() : balance.getUser1();
+                residual.computeIfAbsent(debtor, id -> new TreeMap<>()).put(creditor, balance.getAmount().abs());
+            }
+        }
+        Map<Long, BigDecimal> toRoute = new TreeMap<>(pays);
+        toRoute.values().removeIf(amount -> amount.signum() == 0);
+        while (!toRoute.isEmpty()) {
+            // Breadth-first from every payer still to route, to the nearest receiver
+            Map<Long, Long> previous = new HashMap<>();
+            Deque<Long> queue = new ArrayDeque<>();
+            toRoute.forEach((userId, amount) -> {
+                if (amount.signum() > 0) {
+                    previous.put(userId, null);
+                    queue.add(userId);
+                }
+            });
+            Long receiver = null;
+            while (!queue.isEmpty() && receiver == null) {
+                Long from = queue.poll();
+                for (Map.Entry<Long, BigDecimal> edge : residual.getOrDefault(from, Map.of()).entrySet()) {
+                    if (edge.getValue().signum() > 0 && !previous.containsKey(edge.getKey())) {
+                        previous.put(edge.getKey(), from);
+                        if (toRoute.getOrDefault(edge.getKey(), BigDecimal.ZERO).signum() < 0) {
+                            receiver = edge.getKey();
+                            break;
+                        }
+                        queue.add(edge.getKey());
+                    }
+                }
+            }
+            if (receiver == null) {
+                throw new RuntimeException("The plan can't be paid along the debts between Users " + users +
+                        "; send the userIds it was optimized for");
+            }
+            BigDecimal amount = toRoute.get(receiver).negate();
+            Long payer = receiver;
+            for (Long from = previous.get(receiver); from != null; payer = from, from = previous.get(from)) {
+                amount = amount.min(residual.get(from).get(payer));
+            }
+            amount = amount.min(toRoute.get(payer));
+            for (Long to = receiver, from = previous.get(to); from != null; to = from, from = previous.get(from)) {
+                residual.get(from).merge(to, amount.negate(), BigDecimal::add);
+                residual.computeIfAbsent(to, id -> new TreeMap<>()).merge(from, amount, BigDecimal::add);
+            }
+            toRoute.merge(payer, amount.negate(), BigDecimal::add);
+            toRoute.merge(receiver, amount, BigDecimal::add);
+            toRoute.values().removeIf(left -> left.signum() == 0);
+        }
+
+        // What moved on each pair is the debt less what is left of it
+        List<BalanceOptimization.OptimizedPayment> clearing = new ArrayList<>();
+        for (Balance balance : balances) {
+            if (balance.getAmount().signum() != 0) {
+                Long debtor = balance.getAmount().signum() > 0 ? balance.getUser1() : balance.getUser2();
+                Long creditor = debtor.equals(balance.getUser1()) ? balance.getUser2() : balance.getUser1();
+                BigDecimal paid = balance.getAmount().abs().subtract(residual.get(debtor).get(creditor));
+                if (paid.signum() > 0) {
+                    BalanceOptimization.OptimizedPayment payment =
+                            new BalanceOptimization.OptimizedPayment(debtor, creditor, paid);
+                    payment.setDescription(descriptions.get(debtor + ">" + creditor));
+                    clearing.add(payment);
+                }
+            }
+        }
+        return clearing;
+    }
+
+    private void settleShards(List<List<String>> shards, int index,
+                              Map<String, List<BalanceOptimization.OptimizedPayment>> paymentsByBalance,
+                              Long createdByUserId, List<Settlement> settlements) {
+        if (index == shards.size()) {
+            return;
+        }
+        List<String> balanceIds = shards.get(index);
+        shardRouter.onShardOf(balanceIds.get(0), () -> batchTransaction.executeWithoutResult(status -> {
+            settlements.addAll(settleOnShard(balanceIds, paymentsByBalance, createdByUserId));
+            // The next shard's transaction opens inside this one, which keeps its locks until then
+            // and still rolls back if a later shard fails
+            settleShards(shards, index + 1, paymentsByBalance, createdByUserId, settlements);
+        }));
+    }
+
+    private List<Settlement> settleOnShard(List<String> balanceIds,
+                                           Map<String, List<BalanceOptimization.OptimizedPayment>> paymentsByBalance,
+                                           Long createdByUserId) {
+        // One statement for all the settlement INSERTs (and one for the balance UPDATEs) at flush
+        entityManager.unwrap(Session.class).setJdbcBatchSize(maxBatchSettlements);
+        Map<String, Balance> locked = new HashMap<>();
+        for (Balance balance : balanceRepository.findAllByIdForUpdate(balanceIds)) {
+            locked.put(balance.getBalanceId(), balance);
+        }
+        List<Settlement> settlements = new ArrayList<>();
+        for (String balanceId : balanceIds) {
+            Balance balance = locked.get(balanceId);
+            for (BalanceOptimization.OptimizedPayment payment : paymentsByBalance.get(balanceId)) {
+                try {
+                    checkPayable(balance, payment.getFromUserId(), payment.getToUserId(), payment.getAmount());
+                } catch (RuntimeException e) {
+                    throw new RuntimeException("Payment from User " + payment.getFromUserId() + " to User " +
+                            payment.getToUserId() + ": " + e.getMessage());
+                }
+                Settlement settlement = new Settlement(payment.getFromUserId(), payment.getToUserId(),
+                        payment.getAmount(), payment.getDescription() != null ? payment.getDescription() : "Settle-up");
+                settlement.setId(settlementIdGenerator.nextId());
+                settlement.setCreatedBy(createdByUserId);
+                // Applied now, so the next payment on this pair is checked against what is left
+                applySettlement(balance, settlement);
+                settlements.add(settlement);
+            }
+        }
+        // Persisted last: the ledger appends above insert at once (IDENTITY keys) and would each
+        // flush the queued settlement inserts, splitting the batch. The events' outbox rows (also
+        // IDENTITY) follow, on this shard
+        settlementRepository.saveAll(settlements);
+        for (Settlement settlement : settlements) {
+            eventPublisher.publish(SettlementRecorded.TYPE, settlement.getBalanceId(), new SettlementRecorded(settlement));
+        }
+        return settlements;
+    }
+
+    private Settlement createSettlementOnShard(SettlementRequest request, Long createdByUserId) {
         // Validate settlement request
         validateSettlementRequest(request);
         // Create settlement record
@@ -94,6 +493,7 @@ public class BalanceService {
                 request.getAmount(),
                 request.getDescription()
         );
+        settlement.setId(settlementIdGenerator.nextId());
         settlement.setMethod(request.getMethod());
         settlement.setCreatedBy(createdByUserId);
         settlement.setNotes(request.getNotes());
@@ -105,25 +505,61 @@ public class BalanceService {
         Settlement savedSettlement = settlementRepository.save(settlement);
         // Update balance to reflect the settlement
         updateBalanceFromSettlement(savedSettlement);
+        // Recorded with the settlement, on its shard
+        eventPublisher.publish(SettlementRecorded.TYPE, savedSettlement.getBalanceId(), new SettlementRecorded(savedSettlement));
         return savedSettlement;
     }
 
+    // A bare ID doesn't say which shard holds the row, so probe every shard by primary key;
+    // IDs are globally unique, so at most one shard answers
+    @Transactional(readOnly = true)
+    public Settlement getSettlement(Long settlementId) {
+        return shardRouter.scatter(() -> settlementRepository.findById(settlementId)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Settlement not found: " + settlementId));
+    }
+
+    @Transactional(readOnly = true)
     public List<Settlement> getUserSettlements(Long userId) {
-        return settlementRepository.findSettlementsByUser(userId);
+        return shardRouter.scatter(() -> settlementRepository.findSettlementsByUser(userId)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Settlement::getSettlementDate,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<Settlement> getSettlementsBetweenUsers(Long userId1, Long userId2) {
-        return settlementRepository.findSettlementsBetweenUsers(userId1, userId2);
+        return shardRouter.onShardOf(Balance.createBalanceId(userId1, userId2),
+                () -> settlementRepository.findSettlementsBetweenUsers(userId1, userId2));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserBalanceSummary getUserBalanceSummary(Long userId) {
-        BigDecimal totalOwed = balanceRepository.calculateTotalOwedByUser(userId);
-        BigDecimal totalOwedTo = balanceRepository.calculateTotalOwedToUser(userId);
+        // Per-shard partial sums, added up below
+        List<UserBalanceSummary> partials = readTransaction.execute(status -> shardRouter.scatter(
+                () -> new UserBalanceSummary(
+                        userId, null,
+                        balanceRepository.calculateTotalOwedByUser(userId),
+                        balanceRepository.calculateTotalOwedToUser(userId),
+                        BigDecimal.ZERO,
+                        balanceRepository.countActiveBalancesByUser(userId),
+                        settlementRepository.calculateTotalPaidByUser(userId),
+                        settlementRepository.calculateTotalReceivedByUser(userId))));
+        BigDecimal totalOwed = BigDecimal.ZERO;
+        BigDecimal totalOwedTo = BigDecimal.ZERO;
+        long activeBalanceCount = 0;
+        BigDecimal totalPaid = BigDecimal.ZERO;
+        BigDecimal totalReceived = BigDecimal.ZERO;
+        for (UserBalanceSummary partial : partials) {
+            totalOwed = totalOwed.add(partial.getTotalOwed());
+            totalOwedTo = totalOwedTo.add(partial.getTotalOwedTo());
+            activeBalanceCount += partial.getActiveBalanceCount();
+            totalPaid = totalPaid.add(partial.getTotalPaid());
+            totalReceived = totalReceived.add(partial.getTotalReceived());
+        }
         BigDecimal netBalance = totalOwedTo.subtract(totalOwed);
-        List<Balance> activeBalances = balanceRepository.findActiveBalancesByUser(userId);
-        long activeBalanceCount = activeBalances.size();
-        BigDecimal totalPaid = settlementRepository.calculateTotalPaidByUser(userId);
-        BigDecimal totalReceived = settlementRepository.calculateTotalReceivedByUser(userId);
         String userName = getUserName(userId);
         return new UserBalanceSummary(
                 userId, userName, totalOwed, totalOwedTo, netBalance,
@@ -131,12 +567,16 @@ public class BalanceService {
         );
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BalanceOptimization optimizeBalances(List<Long> userIds) {
         if (userIds.size() < 3) {
             return new BalanceOptimization(Collections.emptyList());
         }
         // Get all balances between the users
-        List<Balance> balances = balanceRepository.findBalancesByUserList(userIds);
+        List<Balance> balances = readTransaction.execute(status ->
+                shardRouter.scatter(() -> balanceRepository.findBalancesByUserList(userIds)).stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()));
         // Calculate net position for each user
         Map<Long, BigDecimal> netPositions = calculateNetPositions(balances, userIds);
         // Generate optimized payments
@@ -149,64 +589,104 @@ public class BalanceService {
                 balances.size(), optimizedPayments.size()
         );
         optimization.setOptimizationSummary(summary);
+        optimization.setUserIds(userIds);
         return optimization;
     }
 
+    @Transactional(readOnly = true)
+    public List<BalanceEvent> getBalanceHistory(Long userId1, Long userId2, int page, int size) {
+        String balanceId = Balance.createBalanceId(userId1, userId2);
+        return shardRouter.onShardOf(balanceId, () -> ledgerService.getEvents(balanceId, page, size));
+    }
+
+    @Transactional(readOnly = true)
     public BalanceStats getBalanceStats() {
-        Long activeBalances = balanceRepository.countActiveBalances();
-        BigDecimal totalOutstanding = balanceRepository.getTotalOutstandingAmount();
-        Long totalSettlements = settlementRepository.countCompletedSettlements();
-        BigDecimal totalSettled = settlementRepository.getTotalSettlementVolume();
+        List<BalanceStats> partials = shardRouter.scatter(() -> new BalanceStats(
+                balanceRepository.countActiveBalances(),
+                balanceRepository.getTotalOutstandingAmount(),
+                settlementRepository.countCompletedSettlements(),
+                settlementRepository.getTotalSettlementVolume()));
+        long activeBalances = 0;
+        BigDecimal totalOutstanding = BigDecimal.ZERO;
+        long totalSettlements = 0;
+        BigDecimal totalSettled = BigDecimal.ZERO;
+        for (BalanceStats partial : partials) {
+            activeBalances += partial.getActiveBalances();
+            totalOutstanding = totalOutstanding.add(partial.getTotalOutstandingAmount());
+            totalSettlements += partial.getTotalSettlements();
+            totalSettled = totalSettled.add(partial.getTotalSettledAmount());
+        }
         return new BalanceStats(activeBalances, totalOutstanding, totalSettlements, totalSettled);
     }
 
     // Private helper methods
     private void validateSettlementRequest(SettlementRequest request) {
-        if (request.getPayerId().equals(request.getPayeeId())) {
+        checkSettlementRequest(request.getPayerId(), request.getPayeeId(), request.getAmount());
+        // Check if there's an outstanding balance to settle (locked until the settlement commits)
+        Optional<Balance> balance = balanceRepository.findByIdForUpdate(
+                Balance.createBalanceId(request.getPayerId(), request.getPayeeId()));
+        checkPayable(balance.orElse(null), request.getPayerId(), request.getPayeeId(), request.getAmount());
+    }
+
+    // Checks on the settlement itself, before anything is locked
+    private void checkSettlementRequest(Long payerId, Long payeeId, BigDecimal amount) {
+        if (payerId.equals(payeeId)) {
             throw new RuntimeException("Payer and payee cannot be the same user");
         }
-        if (request.getAmount().compareTo(minSettlementAmount) < 0) {
+        if (amount.compareTo(minSettlementAmount) < 0) {
             throw new RuntimeException("Settlement amount must be at least " + minSettlementAmount);
         }
-        // Check if there's an outstanding balance to settle
-        Optional<Balance> balance = balanceRepository.findBalanceBetweenUsers(
-                request.getPayerId(), request.getPayeeId());
-        if (balance.isPresent()) {
-            BigDecimal payerOwes = balance.get().getAmountForUser(request.getPayerId());
-            if (payerOwes.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new RuntimeException("User " + request.getPayerId() +
-                        " does not owe money to User " + request.getPayeeId());
-            }
-            if (request.getAmount().compareTo(payerOwes) > 0) {
-                throw new RuntimeException("Settlement amount ($" + request.getAmount() +
-                        ") cannot exceed outstanding balance ($" + payerOwes + ")");
-            }
-        } else {
+    }
+
+    // Checks against the pair's locked balance (null when there is none)
+    private void checkPayable(Balance balance, Long payerId, Long payeeId, BigDecimal amount) {
+        if (balance == null) {
             throw new RuntimeException("No outstanding balance found between these users");
         }
+        BigDecimal payerOwes = balance.getAmountForUser(payerId);
+        if (payerOwes.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("User " + payerId + " does not owe money to User " + payeeId);
+        }
+        if (amount.compareTo(payerOwes) > 0) {
+            throw new RuntimeException("Settlement amount ($" + amount +
+                    ") cannot exceed outstanding balance ($" + payerOwes + ")");
+        }
     }
 
     private void updateBalanceFromSettlement(Settlement settlement) {
         String balanceId = settlement.getBalanceId();
+        // Already locked and managed by validateSettlementRequest, so this is a persistence-context hit
         Balance balance = balanceRepository.findById(balanceId).orElse(null);
         if (balance != null) {
-            // Settlement reduces the amount owed
-            if (settlement.getPayerId().equals(balance.getUser1())) {
-                // User1 paid user2, so reduce user1's debt (subtract from positive balance)
-                balance.subtractAmount(settlement.getAmount());
-            } else {
-                // User2 paid user1, so reduce user2's debt (add to positive balance)
-                balance.addAmount(settlement.getAmount());
-            }
-            // Auto-settle if balance is very small
-            if (balance.getAmount().abs().compareTo(autoSettleThreshold) <= 0) {
-                balance.setAmount(BigDecimal.ZERO);
-            }
-            balanceRepository.save(balance);
+            applySettlement(balance, settlement);
+        }
+    }
+
+    // Pays down a locked, managed balance and records the change in the ledger
+    private void applySettlement(Balance balance, Settlement settlement) {
+        BigDecimal before = balance.getAmount();
+        // Settlement reduces the amount owed
+        if (settlement.getPayerId().equals(balance.getUser1())) {
+            // User1 paid user2, so reduce user1's debt (subtract from positive balance)
+            balance.subtractAmount(settlement.getAmount());
+        } else {
+            // User2 paid user1, so reduce user2's debt (add to positive balance)
+            balance.addAmount(settlement.getAmount());
+        }
+        // Auto-settle if balance is very small
+        if (balance.getAmount().abs().compareTo(autoSettleThreshold) <= 0) {
+            balance.setAmount(BigDecimal.ZERO);
         }
+        Balance saved = balanceRepository.save(balance);
+        // Record the net change actually applied (including any auto-settle rounding)
+        ledgerService.append(saved, BalanceEvent.SourceType.SETTLEMENT, settlement.getId(),
+                saved.getAmount().subtract(before));
+        balanceCache.put(saved);
+        pendingSettlementService.onBalanceChanged(saved);
     }
 
-    private Map<Long, BigDecimal> calculateNetPositions(List<Balance> balances, List<Long> userIds) {
+    // Package-private, like generateOptimizedPayments, for OptimizeBalancesBenchmark (benchmarks module)
+    Map<Long, BigDecimal> calculateNetPositions(List<Balance> balances, List<Long> userIds) {
         Map<Long, BigDecimal> netPositions = new HashMap<>();
         // Initialize all users with zero position
         for (Long userId : userIds) {
@@ -226,7 +706,7 @@ public class BalanceService {
         return netPositions;
     }
 
-    private List<BalanceOptimization.OptimizedPayment> generateOptimizedPayments(
+    List<BalanceOptimization.OptimizedPayment> generateOptimizedPayments(
             Map<Long, BigDecimal> netPositions) {
 
         List<BalanceOptimization.OptimizedPayment> payments = new ArrayList<>();
@@ -281,7 +761,7 @@ public class BalanceService {
             response.setUser2Name(getUserName(response.getUser2()));
         } catch (Exception e) {
             // If we can't get user names, that's okay - we'll just show IDs
-            System.err.println("Warning: Could not fetch user names: " + e.getMessage());
+            log.warn("Could not fetch user names: {}", e.getMessage());
         }
     }
 
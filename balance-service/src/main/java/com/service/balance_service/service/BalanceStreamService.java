@@ -0,0 +1,274 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.BalanceDeltaEvent;
+import com.service.balance_service.entity.Balance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-sent balance changes per user (GET /stream/{userId}), fed by PendingSettlementService
+// with every committed balance state: local writes as they commit, other instances' via its sync.
+// Publishing never blocks on a client. Each connection buffers at most buffer-size balances,
+// keeping only the latest state of each, and a small sender pool writes them out. A client that
+// falls further behind loses its buffer and gets a "resync" event instead: it should re-read
+// /user/{userId} and /summary/{userId} once and carry on streaming.
+@Service
+public class BalanceStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceStreamService.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${balance.stream.max-connections:2000}")
+    private int maxConnections;
+
+    @Value("${balance.stream.max-connections-per-user:10}")
+    private int maxConnectionsPerUser;
+
+    @Value("${balance.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${balance.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${balance.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private ExecutorService senders;
+    private Counter eventsSent;
+    private Counter resyncs;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "balance-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("balance.stream.connections", connections, AtomicInteger::get)
+                .description("Open balance change streams")
+                .register(meterRegistry);
+        eventsSent = Counter.builder("balance.stream.events")
+                .description("Balance change events written to streams")
+                .register(meterRegistry);
+        resyncs = Counter.builder("balance.stream.resyncs")
+                .description("Streams that overflowed their buffer and were told to re-read")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    // Throws IllegalStateException when the instance or the user is at the connection limit;
+    // the client should keep polling
+    public SseEmitter subscribe(Long userId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new IllegalStateException("Too many open balance streams, try again later");
+        }
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMs));
+        boolean[] added = new boolean[1];
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (target.size() < maxConnectionsPerUser) {
+                added[0] = target.add(subscriber);
+            }
+            return target.isEmpty() ? null : target;
+        });
+        if (!added[0]) {
+            connections.decrementAndGet();
+            throw new IllegalStateException("Too many open balance streams for user " + userId);
+        }
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+        subscriber.offerConnected();
+        return subscriber.emitter;
+    }
+
+    // A committed balance state and its change in amount (user1's view), for both users' streams
+    public void publish(Balance balance, BigDecimal change) {
+        publishTo(balance.getUser1(), balance, change);
+        publishTo(balance.getUser2(), balance, change.negate());
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedDelayString = "${balance.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::offerHeartbeat));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private void publishTo(Long userId, Balance balance, BigDecimal delta) {
+        Set<Subscriber> set = subscribers.get(userId);
+        if (set == null) {
+            return;
+        }
+        BalanceDeltaEvent event = new BalanceDeltaEvent(balance.getBalanceId(), userId,
+                balance.getOtherUser(userId), balance.getAmountForUser(userId), delta,
+                balance.isSettled(), balance.getLastUpdated());
+        set.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            connections.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    // One open stream. Producers only touch the buffer and flags (under the subscriber's lock);
+    // at most one sender task per subscriber drains them, so events go out in order.
+    private class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // Latest unsent event per balance, oldest change first
+        private final LinkedHashMap<String, BalanceDeltaEvent> pending = new LinkedHashMap<>();
+        private boolean connectedDue;
+        private boolean resyncDue;
+        private boolean heartbeatDue;
+        private boolean draining;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(BalanceDeltaEvent event) {
+            synchronized (this) {
+                if (resyncDue) {
+                    return;  // the client re-reads everything after the resync event
+                }
+                BalanceDeltaEvent queued = pending.remove(event.getBalanceId());
+                if (queued != null) {
+                    event = new BalanceDeltaEvent(event.getBalanceId(), userId, event.getOtherUserId(),
+                            event.getAmount(), queued.getDelta().add(event.getDelta()),
+                            event.isSettled(), event.getLastUpdated());
+                }
+                if (pending.size() >= bufferSize) {
+                    pending.clear();
+                    resyncDue = true;
+                    resyncs.increment();
+                } else {
+                    pending.put(event.getBalanceId(), event);
+                }
+                scheduleDrain();
+            }
+        }
+
+        void offerConnected() {
+            synchronized (this) {
+                connectedDue = true;
+                scheduleDrain();
+            }
+        }
+
+        void offerHeartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+                scheduleDrain();
+            }
+        }
+
+        // Caller holds the lock
+        private void scheduleDrain() {
+            if (draining || closed.get()) {
+                return;
+            }
+            draining = true;
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining = false;  // shutting down
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<BalanceDeltaEvent> batch;
+                boolean connected;
+                boolean resync;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (closed.get() || !connectedDue && !resyncDue && !heartbeatDue && pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    connected = connectedDue;
+                    resync = resyncDue;
+                    heartbeat = heartbeatDue;
+                    connectedDue = false;
+                    resyncDue = false;
+                    heartbeatDue = false;
+                }
+                try {
+                    if (connected) {
+                        emitter.send(SseEmitter.event().name("connected")
+                                .data(Map.of("userId", userId), MediaType.APPLICATION_JSON));
+                    }
+                    if (resync) {
+                        emitter.send(SseEmitter.event().name("resync")
+                                .data(Map.of("userId", userId), MediaType.APPLICATION_JSON));
+                    }
+                    for (BalanceDeltaEvent event : batch) {
+                        emitter.send(SseEmitter.event().name("balance").data(event, MediaType.APPLICATION_JSON));
+                    }
+                    if (heartbeat && !connected && !resync && batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    }
+                    eventsSent.increment(batch.size());
+                } catch (IOException | IllegalStateException e) {
+                    // Client gone (or emitter already completed): drop the stream
+                    log.debug("Closing balance stream for user {}: {}", userId, e.getMessage());
+                    remove(this);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
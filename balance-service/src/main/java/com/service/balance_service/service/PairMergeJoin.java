@@ -0,0 +1,195 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.PairReconciliation;
+import com.service.balance_service.dto.PairSum;
+import com.service.balance_service.entity.Balance;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+
+// The in-memory half of a full reconciliation run: a merge-join of one user-ID range's balances
+// (with their completed settlements) against Transaction Service's pair sums, both sorted by
+// (user1, user2). Each side is read one row at a time, so a range costs the same memory however
+// many pairs it holds. A pair missing on one side counts as zero there.
+// Package-private, for BalanceReconciliationJob and ReconciliationMergeJoinBenchmark (benchmarks module).
+class PairMergeJoin {
+
+    private final BigDecimal tolerance;
+    private final BiConsumer<PairReconciliation, LocalDateTime> onDiscrepancy;
+
+    // onDiscrepancy gets each inconsistent pair and when either side of it last changed
+    PairMergeJoin(BigDecimal tolerance, BiConsumer<PairReconciliation, LocalDateTime> onDiscrepancy) {
+        this.tolerance = tolerance;
+        this.onDiscrepancy = onDiscrepancy;
+    }
+
+    Counts join(Iterator<BalanceRow> balances, Iterator<PairSum> pairSums) {
+        Counts counts = new Counts();
+        BalanceRow balance = nextBalance(balances, null);
+        PairSum pairSum = nextPairSum(pairSums, null);
+        while (balance != null || pairSum != null) {
+            int order = balance == null ? 1 : pairSum == null ? -1
+                    : compare(balance.user1, balance.user2, pairSum.getUser1(), pairSum.getUser2());
+            if (order < 0) {
+                check(counts, balance, null);
+                balance = nextBalance(balances, balance);
+            } else if (order > 0) {
+                check(counts, null, pairSum);
+                pairSum = nextPairSum(pairSums, pairSum);
+            } else {
+                check(counts, balance, pairSum);
+                balance = nextBalance(balances, balance);
+                pairSum = nextPairSum(pairSums, pairSum);
+            }
+        }
+        return counts;
+    }
+
+    // One (user1, user2)-ordered iterator over the ordered balance streams of several shards
+    static Iterator<BalanceRow> mergeShards(List<Iterator<BalanceRow>> shards) {
+        if (shards.size() == 1) {
+            return shards.get(0);
+        }
+        PriorityQueue<ShardHead> heads = new PriorityQueue<>(shards.size(),
+                Comparator.comparingLong((ShardHead head) -> head.row.user1).thenComparingLong(head -> head.row.user2));
+        for (Iterator<BalanceRow> shard : shards) {
+            if (shard.hasNext()) {
+                heads.add(new ShardHead(shard.next(), shard));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public BalanceRow next() {
+                ShardHead head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                BalanceRow row = head.row;
+                if (head.rest.hasNext()) {
+                    head.row = head.rest.next();
+                    heads.add(head);
+                }
+                return row;
+            }
+        };
+    }
+
+    private void check(Counts counts, BalanceRow balance, PairSum pairSum) {
+        BigDecimal balanceAmount = balance != null ? balance.amount : BigDecimal.ZERO;
+        BigDecimal settlementSum = balance != null ? balance.settlementSum : BigDecimal.ZERO;
+        BigDecimal transactionSum = pairSum != null ? pairSum.getNet() : BigDecimal.ZERO;
+        counts.pairs++;
+        if (pairSum == null) {
+            counts.balanceOnly++;
+        } else if (balance == null) {
+            counts.transactionOnly++;
+        }
+        BigDecimal difference = balanceAmount.subtract(transactionSum).subtract(settlementSum);
+        if (difference.abs().compareTo(tolerance) <= 0) {
+            counts.consistent++;
+            return;
+        }
+        counts.discrepancies++;
+        counts.absoluteDifference = counts.absoluteDifference.add(difference.abs());
+        Long user1 = balance != null ? balance.user1 : pairSum.getUser1();
+        Long user2 = balance != null ? balance.user2 : pairSum.getUser2();
+        onDiscrepancy.accept(new PairReconciliation(Balance.createBalanceId(user1, user2), user1, user2,
+                        balanceAmount, transactionSum, settlementSum, tolerance),
+                latest(balance != null ? balance.lastUpdated : null, pairSum != null ? pairSum.getLastChanged() : null));
+    }
+
+    // A join over misordered input would report every pair after the slip as missing on one side
+    private static BalanceRow nextBalance(Iterator<BalanceRow> balances, BalanceRow previous) {
+        if (!balances.hasNext()) {
+            return null;
+        }
+        BalanceRow next = balances.next();
+        if (previous != null && compare(next.user1, next.user2, previous.user1, previous.user2) <= 0) {
+            throw new IllegalStateException("Balances out of order: " + next.user1 + "_" + next.user2 +
+                    " after " + previous.user1 + "_" + previous.user2);
+        }
+        return next;
+    }
+
+    private static PairSum nextPairSum(Iterator<PairSum> pairSums, PairSum previous) {
+        if (!pairSums.hasNext()) {
+            return null;
+        }
+        PairSum next = pairSums.next();
+        if (previous != null && compare(next.getUser1(), next.getUser2(), previous.getUser1(), previous.getUser2()) <= 0) {
+            throw new IllegalStateException("Pair sums out of order: " + next.getUser1() + "_" + next.getUser2() +
+                    " after " + previous.getUser1() + "_" + previous.getUser2());
+        }
+        return next;
+    }
+
+    private static int compare(long user1, long user2, long otherUser1, long otherUser2) {
+        int byUser1 = Long.compare(user1, otherUser1);
+        return byUser1 != 0 ? byUser1 : Long.compare(user2, otherUser2);
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    // A balance as read for reconciliation: settlementSum is the net of its COMPLETED settlements
+    // (SettlementRepository.sumCompletedSettlementDeltas, computed in the same query)
+    static class BalanceRow {
+        final long user1;
+        final long user2;
+        final BigDecimal amount;
+        final BigDecimal settlementSum;
+        final LocalDateTime lastUpdated;
+
+        BalanceRow(long user1, long user2, BigDecimal amount, BigDecimal settlementSum, LocalDateTime lastUpdated) {
+            this.user1 = user1;
+            this.user2 = user2;
+            this.amount = amount;
+            this.settlementSum = settlementSum;
+            this.lastUpdated = lastUpdated;
+        }
+    }
+
+    static class Counts {
+        long pairs;
+        long consistent;
+        long discrepancies;
+        long balanceOnly;
+        long transactionOnly;
+        BigDecimal absoluteDifference = BigDecimal.ZERO;
+
+        Counts add(Counts other) {
+            pairs += other.pairs;
+            consistent += other.consistent;
+            discrepancies += other.discrepancies;
+            balanceOnly += other.balanceOnly;
+            transactionOnly += other.transactionOnly;
+            absoluteDifference = absoluteDifference.add(other.absoluteDifference);
+            return this;
+        }
+    }
+
+    private static class ShardHead {
+        private BalanceRow row;
+        private final Iterator<BalanceRow> rest;
+
+        private ShardHead(BalanceRow row, Iterator<BalanceRow> rest) {
+            this.row = row;
+            this.rest = rest;
+        }
+    }
+}
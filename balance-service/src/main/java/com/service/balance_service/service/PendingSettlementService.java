@@ -0,0 +1,195 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.cache.PendingSettlementIndex;
+import com.service.balance_service.dto.PendingSettlementResponse;
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Serves GET /pending/{userId} from PendingSettlementIndex. Local balance changes are applied
+// as their transactions commit; a background sync pulls rows changed since the previous run
+// (by last_updated) so writes from other instances show up too. The first sync loads every balance.
+// Each newly indexed state is also pushed to BalanceStreamService (once, whichever path saw it first).
+@Service
+public class PendingSettlementService {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingSettlementService.class);
+
+    private static final int SYNC_CHUNK_SIZE = 500;
+
+    @Autowired
+    private PendingSettlementIndex index;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @Autowired
+    private BalanceStreamService balanceStreamService;
+
+    @Autowired
+    private AuthClientService authClientService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Re-read this far behind the previous sync: covers clock skew between instances and rows
+    // stamped before the previous sync that only committed after it
+    @Value("${balance.pending.sync-overlap-seconds:60}")
+    private long syncOverlapSeconds;
+
+    @Value("${balance.pending.high-amount:100}")
+    private BigDecimal highAmount;
+
+    @Value("${balance.pending.medium-amount:25}")
+    private BigDecimal mediumAmount;
+
+    @Value("${balance.pending.high-days:30}")
+    private long highDays;
+
+    @Value("${balance.pending.medium-days:7}")
+    private long mediumDays;
+
+    private TransactionTemplate readTransaction;
+
+    // Start time of the last completed sync; null until the initial load has finished
+    private volatile LocalDateTime lastSyncStart;
+
+    @PostConstruct
+    void initTransactionTemplates() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    // Call after saving a balance; the index sees the committed state (lastUpdated is stamped at flush)
+    public void onBalanceChanged(Balance balance) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(balance.snapshot());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(balance.snapshot());
+            }
+        });
+    }
+
+    public List<PendingSettlementResponse> getPendingSettlements(Long userId, int limit) {
+        if (lastSyncStart == null) {
+            throw new IllegalStateException("Pending settlements are still loading, try again shortly");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return index.top(userId, limit).stream()
+                .map(entry -> toResponse(entry, now))
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${balance.pending.sync-interval-ms:30000}")
+    public void syncChanges() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        LocalDateTime since = lastSyncStart == null
+                ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : lastSyncStart.minusSeconds(syncOverlapSeconds);
+        try {
+            shardRouter.forEachShard(() -> syncShard(since));
+        } catch (RuntimeException e) {
+            // Keep the old watermark: the next run re-reads everything this one missed
+            log.warn("Pending settlement sync failed: {}", e.getMessage());
+            return;
+        }
+        if (lastSyncStart == null) {
+            log.info("Pending settlement index loaded: {} open balances in {} ms",
+                    index.size(), Duration.between(syncStart, LocalDateTime.now()).toMillis());
+        }
+        lastSyncStart = syncStart;
+        index.purgeSettledBefore(syncStart.minusSeconds(syncOverlapSeconds));
+    }
+
+    private void syncShard(LocalDateTime since) {
+        LocalDateTime afterTime = since;
+        String afterBalanceId = "";
+        List<Balance> chunk;
+        do {
+            LocalDateTime pageTime = afterTime;
+            String pageBalanceId = afterBalanceId;
+            chunk = readTransaction.execute(status -> balanceRepository.findUpdatedAfter(
+                    pageTime, pageBalanceId, PageRequest.of(0, SYNC_CHUNK_SIZE)));
+            for (Balance balance : chunk) {
+                if (lastSyncStart == null) {
+                    index.apply(balance.snapshot());  // initial load: nothing to announce
+                } else {
+                    apply(balance.snapshot());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                Balance last = chunk.get(chunk.size() - 1);
+                afterTime = last.getLastUpdated();
+                afterBalanceId = last.getBalanceId();
+            }
+        } while (chunk.size() == SYNC_CHUNK_SIZE);
+    }
+
+    private void apply(Balance snapshot) {
+        BigDecimal change = index.apply(snapshot);
+        if (change != null) {
+            balanceStreamService.publish(snapshot, change);
+        }
+    }
+
+    private PendingSettlementResponse toResponse(PendingSettlementIndex.Entry entry, LocalDateTime now) {
+        BigDecimal amountOwed = entry.getAmount().abs();
+        long days = Math.max(0, Duration.between(entry.getLastUpdated(), now).toDays());
+        PendingSettlementResponse response = new PendingSettlementResponse();
+        response.setBalanceId(entry.getBalanceId());
+        response.setFromUserId(entry.getFromUserId());
+        response.setFromUserName(getUserName(entry.getFromUserId()));
+        response.setToUserId(entry.getToUserId());
+        response.setToUserName(getUserName(entry.getToUserId()));
+        response.setAmountOwed(amountOwed);
+        response.setSuggestedAmount(amountOwed.setScale(2, RoundingMode.HALF_UP));
+        response.setDaysSinceLastTransaction(days);
+        response.setPriority(priority(amountOwed, days));
+        response.setLastUpdated(entry.getLastUpdated());
+        return response;
+    }
+
+    private PendingSettlementResponse.Priority priority(BigDecimal amountOwed, long days) {
+        if (amountOwed.compareTo(highAmount) >= 0 || days >= highDays) {
+            return PendingSettlementResponse.Priority.HIGH;
+        }
+        if (amountOwed.compareTo(mediumAmount) >= 0 || days >= mediumDays) {
+            return PendingSettlementResponse.Priority.MEDIUM;
+        }
+        return PendingSettlementResponse.Priority.LOW;
+    }
+
+    private String getUserName(Long userId) {
+        try {
+            return authClientService.getUserInfo(userId).getName();
+        } catch (Exception e) {
+            return "User " + userId; // Fallback if we can't get the name
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.service.balance_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.service.balance_service.dto.PairSum;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.function.Function;
+
+@Service
+public class TransactionClientService {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final String TRANSACTION_SERVICE_URL = "http://transaction-service";
+
+    private ObjectReader pairSumReader;
+
+    @PostConstruct
+    void initReader() {
+        pairSumReader = objectMapper.readerFor(PairSum.class);
+    }
+
+    // Net of the pair's ACTIVE transactions, positive when userId1 owes userId2 (Balance.amount's
+    // sign when userId1 is the balance's user1)
+    public BigDecimal getTransactionSum(Long userId1, Long userId2) {
+        try {
+            String url = TRANSACTION_SERVICE_URL + "/balance/{userId1}/{userId2}";
+            ResponseEntity<PairBalance> response = restTemplate.getForEntity(url, PairBalance.class, userId1, userId2);
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                    && response.getBody().getBalance() != null) {
+                return response.getBody().getBalance();
+            } else {
+                throw new RuntimeException("No transaction sum for users " + userId1 + " and " + userId2);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get transaction sum: " + e.getMessage());
+        }
+    }
+
+    // Every pair whose lower user ID is in [fromUser, toUser), in (user1, user2) order, from
+    // GET /internal/pair-sums (NDJSON). The reader gets the pairs as they arrive and must be done
+    // with them when it returns: the response is closed then. A stream cut short fails the read.
+    public <T> T streamPairSums(long fromUser, long toUser, Function<Iterator<PairSum>, T> reader) {
+        try {
+            String url = TRANSACTION_SERVICE_URL + "/internal/pair-sums?fromUser={fromUser}&toUser={toUser}";
+            return restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> reader.apply(pairSumReader.readValues(response.getBody())), fromUser, toUser);
+        } catch (RestClientException e) {
+            throw new RuntimeException("Failed to stream pair sums: " + e.getMessage());
+        }
+    }
+
+    public static class PairBalance {
+        private BigDecimal balance;
+
+        public PairBalance() {
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+    }
+}
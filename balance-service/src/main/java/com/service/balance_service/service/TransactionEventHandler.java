@@ -0,0 +1,51 @@
+package com.service.balance_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.balance_service.events.ExpenseCancelled;
+import com.service.balance_service.events.ExpenseCreated;
+import com.service.common.events.DomainEvent;
+import com.service.common.events.DomainEventHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Transaction Service events: each share of a new expense moves the payer's balance with its
+// participant, and a transaction that stops counting moves it back. Both apply a transaction ID
+// once, so a redelivered event changes nothing.
+@Component
+public class TransactionEventHandler implements DomainEventHandler {
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getSource() {
+        return "transaction-service";
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        if (ExpenseCreated.TYPE.equals(event.getType())) {
+            ExpenseCreated expense = read(event, ExpenseCreated.class);
+            // One transaction per share, each on its pair's shard
+            for (ExpenseCreated.Share share : expense.getShares()) {
+                balanceService.updateBalance(expense.getPaidBy(), share.getOwedBy(), share.getAmount(), share.getTransactionId());
+            }
+        } else if (ExpenseCancelled.TYPE.equals(event.getType())) {
+            ExpenseCancelled cancelled = read(event, ExpenseCancelled.class);
+            balanceService.reverseTransaction(cancelled.getPaidBy(), cancelled.getOwedBy(), cancelled.getAmount(),
+                    cancelled.getTransactionId());
+        }
+    }
+
+    private <T> T read(DomainEvent event, Class<T> payloadType) {
+        try {
+            return objectMapper.treeToValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable " + event.getType() + " event " + event.getEventId(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.service.balance_service.sharding;
+
+// Shard selected for the current thread's database work (null = not set, routes to shard 0)
+public final class BalanceShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private BalanceShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
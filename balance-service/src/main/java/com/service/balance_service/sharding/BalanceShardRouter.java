@@ -0,0 +1,139 @@
+package com.service.balance_service.sharding;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+// Shard-aware access to balance storage. Everything for one user pair (balance, events,
+// snapshots, settlements) lives on shard hash(balance_id) % N, so single-pair work stays a
+// local transaction; per-user and global queries scatter to every shard in parallel.
+// With sharding disabled there is one shard and every call runs inline.
+@Component
+public class BalanceShardRouter {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${balance.sharding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${balance.sharding.urls:}")
+    private List<String> shardUrls;
+
+    @Value("${balance.sharding.scatter-pool-size:16}")
+    private int scatterPoolSize;
+
+    private int shardCount;
+    private ExecutorService scatterExecutor;
+
+    @PostConstruct
+    void init() {
+        if (enabled && shardUrls.isEmpty()) {
+            throw new IllegalStateException("balance.sharding.enabled is set but balance.sharding.urls is empty");
+        }
+        shardCount = enabled ? shardUrls.size() : 1;
+        if (shardCount > 1) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            scatterExecutor = Executors.newFixedThreadPool(scatterPoolSize, runnable -> {
+                Thread thread = new Thread(runnable, "balance-shard-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    // CRC32 rather than String.hashCode: "12_34"-style IDs spread poorly under hashCode
+    public int shardOf(String balanceId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(balanceId.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    // Run single-pair work on the pair's shard. Must be entered before the surrounding
+    // transaction has issued any SQL, and must not touch another pair's data.
+    public <T> T onShardOf(String balanceId, Supplier<T> work) {
+        return onShard(shardOf(balanceId), work);
+    }
+
+    public void onShardOf(String balanceId, Runnable work) {
+        onShard(shardOf(balanceId), () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Run a read on every shard in parallel, each in its own read-only transaction; results
+    // are in shard order. With a single shard it runs inline in the caller's transaction.
+    public <T> List<T> scatter(Supplier<T> query) {
+        if (shardCount == 1) {
+            return List.of(onShard(0, query));
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> onShard(target, () -> readOnly.execute(status -> query.get())), scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return results;
+    }
+
+    // Run maintenance work against each shard in turn on the calling thread (which must not
+    // be inside a transaction); the work manages its own transactions
+    public void forEachShard(Runnable work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            onShard(shard, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    private <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = BalanceShardContext.current();
+        BalanceShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            BalanceShardContext.set(previous);
+        }
+    }
+}
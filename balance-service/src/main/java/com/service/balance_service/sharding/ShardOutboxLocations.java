@@ -0,0 +1,19 @@
+package com.service.balance_service.sharding;
+
+import com.service.common.events.outbox.OutboxLocations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// SettlementRecorded goes into the outbox of the settlement's shard, in the same local
+// transaction, so the relay drains every shard's event_outbox in turn
+@Component
+public class ShardOutboxLocations implements OutboxLocations {
+
+    @Autowired
+    private BalanceShardRouter shardRouter;
+
+    @Override
+    public void forEach(Runnable work) {
+        shardRouter.forEachShard(work);
+    }
+}
@@ -0,0 +1,42 @@
+package com.service.balance_service.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// One connection pool per shard, picked by BalanceShardContext. Wrap in a
+// LazyConnectionDataSourceProxy so the shard is chosen at the first statement, not at
+// transaction begin.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = shards;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = BalanceShardContext.current();
+        return shard != null ? shard : 0;
+    }
+
+    public List<HikariDataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,60 @@
+package com.service.balance_service.util;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Lock-free, monotonic, time-ordered 64-bit IDs (Snowflake layout):
+// [1 unused][41 bits ms since EPOCH][10 bits node][12 bits sequence]
+// Same layout as transaction-service's expense IDs.
+public class SnowflakeIdGenerator {
+
+    public static final long EPOCH = 1704067200000L;  // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // (timestamp << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = clock.getAsLong() - EPOCH;
+            // A new millisecond restarts the sequence. Within the same millisecond (or if the clock
+            // went backwards) just increment; a full sequence carries into the timestamp, borrowing
+            // the next millisecond instead of blocking.
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH);
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
@@ -3,7 +3,7 @@ package com.service.balance_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "balance.id.node-id=0")
 class BalanceServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,120 @@
+package com.service.balance_service.cache;
+
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceCacheTest {
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private BalanceShardRouter shardRouter;
+
+    @InjectMocks
+    private BalanceCache balanceCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(balanceCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(balanceCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(balanceCache, "ttlSeconds", 60L);
+        balanceCache.init();
+        lenient().when(shardRouter.onShardOf(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(1)).get());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void missLoadsOnceThenServesFromCache() {
+        when(balanceRepository.findById("1_2")).thenReturn(Optional.of(new Balance(1L, 2L, new BigDecimal("5.00"))));
+
+        assertThat(balanceCache.get("1_2")).map(Balance::getAmount).contains(new BigDecimal("5.00"));
+        assertThat(balanceCache.get("1_2")).isPresent();
+
+        verify(balanceRepository, times(1)).findById("1_2");
+    }
+
+    @Test
+    void absentBalancesAreNotCached() {
+        when(balanceRepository.findById("1_2")).thenReturn(Optional.empty());
+
+        assertThat(balanceCache.get("1_2")).isEmpty();
+        assertThat(balanceCache.get("1_2")).isEmpty();
+
+        verify(balanceRepository, times(2)).findById("1_2");
+    }
+
+    @Test
+    void cachedValueIsASnapshotNotTheManagedEntity() {
+        Balance balance = new Balance(1L, 2L, new BigDecimal("5.00"));
+        balanceCache.put(balance);
+
+        balance.addAmount(new BigDecimal("1.00"));
+
+        assertThat(balanceCache.get("1_2")).map(Balance::getAmount).contains(new BigDecimal("5.00"));
+    }
+
+    @Test
+    void putInsideTransactionPublishesOnlyOnCommit() {
+        balanceCache.put(new Balance(1L, 2L, new BigDecimal("5.00")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        balanceCache.put(new Balance(1L, 2L, new BigDecimal("7.00")));
+        assertThat(balanceCache.size()).isZero();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(balanceCache.get("1_2")).map(Balance::getAmount).contains(new BigDecimal("7.00"));
+        verify(balanceRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void putInsideRolledBackTransactionLeavesNoEntry() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        balanceCache.put(new Balance(1L, 2L, new BigDecimal("7.00")));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(balanceCache.size()).isZero();
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
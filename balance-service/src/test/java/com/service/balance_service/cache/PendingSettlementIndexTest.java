@@ -0,0 +1,111 @@
+package com.service.balance_service.cache;
+
+import com.service.balance_service.entity.Balance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PendingSettlementIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private PendingSettlementIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PendingSettlementIndex();
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "amountWeight", 1.0);
+        ReflectionTestUtils.setField(index, "ageWeightPerDay", 0.1);
+        index.init();
+    }
+
+    @Test
+    void ordersByAmountAndAge() {
+        index.apply(balance(1L, 2L, "10.00", NOW));
+        index.apply(balance(1L, 3L, "1000.00", NOW));
+        // Ten times smaller than 1_3 but 20 days older: log10 loses 1, age gains 2
+        index.apply(balance(1L, 4L, "100.00", NOW.minusDays(20)));
+
+        assertThat(index.top(1L, 10)).extracting(PendingSettlementIndex.Entry::getBalanceId)
+                .containsExactly("1_4", "1_3", "1_2");
+        assertThat(index.top(1L, 2)).hasSize(2);
+        assertThat(index.top(3L, 10)).extracting(PendingSettlementIndex.Entry::getBalanceId).containsExactly("1_3");
+    }
+
+    @Test
+    void updateReplacesEntryForBothUsers() {
+        index.apply(balance(1L, 2L, "10.00", NOW));
+        index.apply(balance(1L, 3L, "50.00", NOW));
+
+        index.apply(balance(1L, 2L, "-500.00", NOW.plusMinutes(1)));
+
+        assertThat(index.size()).isEqualTo(2L);
+        assertThat(index.top(1L, 10)).extracting(PendingSettlementIndex.Entry::getBalanceId)
+                .containsExactly("1_2", "1_3");
+        PendingSettlementIndex.Entry entry = index.top(2L, 10).get(0);
+        assertThat(entry.getFromUserId()).isEqualTo(2L);
+        assertThat(entry.getToUserId()).isEqualTo(1L);
+    }
+
+    @Test
+    void settledBalancesLeaveTheIndex() {
+        index.apply(balance(1L, 2L, "10.00", NOW));
+
+        index.apply(balance(1L, 2L, "0.00", NOW.plusMinutes(1)));
+
+        assertThat(index.size()).isZero();
+        assertThat(index.top(1L, 10)).isEmpty();
+        assertThat(index.top(2L, 10)).isEmpty();
+    }
+
+    @Test
+    void olderStateDoesNotOverwriteNewer() {
+        index.apply(balance(1L, 2L, "0.00", NOW.plusMinutes(1)));
+        index.apply(balance(1L, 2L, "40.00", NOW));
+
+        assertThat(index.top(1L, 10)).isEmpty();
+
+        index.apply(balance(1L, 3L, "20.00", NOW.plusMinutes(1)));
+        index.apply(balance(1L, 3L, "30.00", NOW));
+
+        assertThat(index.top(1L, 10)).extracting(PendingSettlementIndex.Entry::getAmount)
+                .containsExactly(new BigDecimal("20.00"));
+    }
+
+    @Test
+    void reportsEachNewStateOnceWithItsChange() {
+        assertThat(index.apply(balance(1L, 2L, "10.00", NOW))).isEqualByComparingTo("10.00");
+        assertThat(index.apply(balance(1L, 2L, "10.00", NOW))).isNull();
+        assertThat(index.apply(balance(1L, 2L, "4.00", NOW.minusMinutes(1)))).isNull();
+        assertThat(index.apply(balance(1L, 2L, "0.00", NOW.plusMinutes(1)))).isEqualByComparingTo("-10.00");
+        assertThat(index.apply(balance(1L, 2L, "-6.00", NOW.plusMinutes(2)))).isEqualByComparingTo("-6.00");
+    }
+
+    @Test
+    void purgeDropsOnlyOldTombstones() {
+        index.apply(balance(1L, 2L, "0.00", NOW.minusMinutes(10)));
+        index.apply(balance(1L, 3L, "0.00", NOW));
+        index.apply(balance(1L, 4L, "5.00", NOW.minusMinutes(10)));
+
+        index.purgeSettledBefore(NOW.minusMinutes(1));
+
+        // 1_2's tombstone is gone, so an older state is accepted again; 1_3's still blocks one
+        index.apply(balance(1L, 2L, "7.00", NOW.minusMinutes(20)));
+        index.apply(balance(1L, 3L, "9.00", NOW.minusMinutes(20)));
+        assertThat(index.top(1L, 10)).extracting(PendingSettlementIndex.Entry::getBalanceId)
+                .containsExactlyInAnyOrder("1_2", "1_4");
+    }
+
+    private static Balance balance(Long user1, Long user2, String amount, LocalDateTime lastUpdated) {
+        Balance balance = new Balance(user1, user2, new BigDecimal(amount));
+        balance.setLastUpdated(lastUpdated);
+        return balance;
+    }
+}
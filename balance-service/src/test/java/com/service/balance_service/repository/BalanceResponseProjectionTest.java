@@ -0,0 +1,87 @@
+package com.service.balance_service.repository;
+
+import com.service.balance_service.dto.BalanceResponse;
+import com.service.balance_service.entity.Balance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// getUserBalances reads BalanceResponse straight from a JPQL "SELECT new" projection and then
+// applies fromPerspectiveOf; the result must match new BalanceResponse(balance, userId)
+class BalanceResponseProjectionTest {
+
+    private static final Pattern SELECT_NEW = Pattern.compile("SELECT new [\\w.]+\\((.*?)\\) FROM");
+
+    @Test
+    void theDebtorSeesWhatTheEntityPathShows() {
+        Balance balance = balance("25.50");
+
+        assertThat(project(balance).fromPerspectiveOf(1L))
+                .usingRecursiveComparison().isEqualTo(new BalanceResponse(balance, 1L));
+    }
+
+    @Test
+    void theCreditorSeesWhatTheEntityPathShows() {
+        Balance balance = balance("25.50");
+
+        BalanceResponse projected = project(balance).fromPerspectiveOf(2L);
+
+        assertThat(projected).usingRecursiveComparison().isEqualTo(new BalanceResponse(balance, 2L));
+        assertThat(projected.getAmount()).isEqualByComparingTo("-25.50");
+    }
+
+    @Test
+    void aNegativeOrSettledBalanceMatchesTheEntityPathForBothUsers() {
+        for (String amount : new String[]{"-7.25", "0.004"}) {
+            Balance balance = balance(amount);
+            for (Long userId : new Long[]{1L, 2L}) {
+                assertThat(project(balance).fromPerspectiveOf(userId))
+                        .as("amount %s for user %d", amount, userId)
+                        .usingRecursiveComparison().isEqualTo(new BalanceResponse(balance, userId));
+            }
+        }
+    }
+
+    // Evaluates the select list against the entity, column by column, as Hibernate does for a row
+    private static BalanceResponse project(Balance balance) {
+        Matcher select = SELECT_NEW.matcher(projectionQuery());
+        assertThat(select.find()).isTrue();
+        Object[] columns = Arrays.stream(select.group(1).split(","))
+                .map(String::trim)
+                .map(column -> ReflectionTestUtils.getField(balance, column.substring(column.indexOf('.') + 1)))
+                .toArray();
+        Constructor<?> constructor = Arrays.stream(BalanceResponse.class.getConstructors())
+                .filter(candidate -> candidate.getParameterCount() == columns.length)
+                .findFirst()
+                .orElseThrow();
+        return (BalanceResponse) BeanUtils.instantiateClass(constructor, columns);
+    }
+
+    private static String projectionQuery() {
+        try {
+            return BalanceRepository.class.getMethod("findActiveBalanceResponsesByUser", Long.class)
+                    .getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // User 1 owes user 2 a positive amount
+    private static Balance balance(String amount) {
+        Balance balance = new Balance(1L, 2L, new BigDecimal(amount));
+        ReflectionTestUtils.setField(balance, "transactionCount", 3L);
+        ReflectionTestUtils.setField(balance, "lastUpdated", LocalDateTime.of(2025, 3, 2, 8, 15));
+        ReflectionTestUtils.setField(balance, "createdAt", LocalDateTime.of(2025, 3, 1, 20, 0));
+        return balance;
+    }
+}
@@ -0,0 +1,156 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.entity.BalanceEvent;
+import com.service.balance_service.entity.BalanceSnapshot;
+import com.service.balance_service.repository.BalanceEventRepository;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.repository.BalanceSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerServiceTest {
+
+    private static final LocalDateTime AS_OF = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private BalanceEventRepository eventRepository;
+
+    @Mock
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @InjectMocks
+    private BalanceLedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ledgerService, "snapshotInterval", 3L);
+    }
+
+    @Test
+    void replaysForwardFromLatestSnapshotAtOrBeforeAsOf() {
+        when(snapshotRepository.findFirstByBalanceIdAndTakenAtLessThanEqualOrderByTakenAtDesc("1_2", AS_OF))
+                .thenReturn(Optional.of(snapshot("1_2", "10.00", 5L, AS_OF.minusDays(1))));
+        when(eventRepository.sumDeltasSince("1_2", 5L, AS_OF)).thenReturn(new BigDecimal("2.50"));
+
+        assertThat(ledgerService.getAmountAsOf("1_2", AS_OF)).isEqualByComparingTo("12.50");
+        verify(snapshotRepository, never()).findFirstByBalanceIdAndTakenAtGreaterThanOrderByTakenAtAsc(any(), any());
+    }
+
+    @Test
+    void legacyBalanceReplaysBackwardFromItsOpeningSnapshot() {
+        // Opening snapshot written when the ledger was introduced, after asOf; 15.00 changed since asOf
+        when(snapshotRepository.findFirstByBalanceIdAndTakenAtLessThanEqualOrderByTakenAtDesc("1_2", AS_OF))
+                .thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstByBalanceIdAndTakenAtGreaterThanOrderByTakenAtAsc("1_2", AS_OF))
+                .thenReturn(Optional.of(snapshot("1_2", "40.00", 100L, AS_OF.plusDays(2))));
+        when(eventRepository.sumDeltasAfter("1_2", AS_OF, 100L)).thenReturn(new BigDecimal("15.00"));
+
+        assertThat(ledgerService.getAmountAsOf("1_2", AS_OF)).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void balanceWithoutSnapshotsReplaysBackwardFromCurrentAmount() {
+        when(snapshotRepository.findFirstByBalanceIdAndTakenAtLessThanEqualOrderByTakenAtDesc("1_2", AS_OF))
+                .thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstByBalanceIdAndTakenAtGreaterThanOrderByTakenAtAsc("1_2", AS_OF))
+                .thenReturn(Optional.empty());
+        when(balanceRepository.findAmounts(List.of("1_2")))
+                .thenReturn(List.<Object[]>of(new Object[]{"1_2", new BigDecimal("30.00")}));
+        when(eventRepository.sumDeltasAfter("1_2", AS_OF, Long.MAX_VALUE)).thenReturn(new BigDecimal("-5.00"));
+
+        assertThat(ledgerService.getAmountAsOf("1_2", AS_OF)).isEqualByComparingTo("35.00");
+    }
+
+    @Test
+    void unknownBalanceIsZero() {
+        when(snapshotRepository.findFirstByBalanceIdAndTakenAtLessThanEqualOrderByTakenAtDesc("1_2", AS_OF))
+                .thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstByBalanceIdAndTakenAtGreaterThanOrderByTakenAtAsc("1_2", AS_OF))
+                .thenReturn(Optional.empty());
+        when(balanceRepository.findAmounts(List.of("1_2"))).thenReturn(List.of());
+
+        assertThat(ledgerService.getAmountAsOf("1_2", AS_OF)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void batchedReplayMixesForwardAndBackwardAnchors() {
+        // 1_2: snapshot before asOf; 1_3: only a later (opening) snapshot; 1_4: no snapshots; 1_5: unknown
+        Set<String> ids = Set.of("1_2", "1_3", "1_4", "1_5");
+        when(snapshotRepository.findLatestSnapshotsAsOf(ids, AS_OF))
+                .thenReturn(List.of(snapshot("1_2", "10.00", 5L, AS_OF.minusDays(1))));
+        when(eventRepository.sumDeltasSinceLatestSnapshots(Set.of("1_2"), AS_OF))
+                .thenReturn(List.<Object[]>of(new Object[]{"1_2", new BigDecimal("1.00")}));
+        when(snapshotRepository.findEarliestSnapshotsAfter(Set.of("1_3", "1_4", "1_5"), AS_OF))
+                .thenReturn(List.of(snapshot("1_3", "40.00", 100L, AS_OF.plusDays(2))));
+        when(balanceRepository.findAmounts(Set.of("1_4", "1_5")))
+                .thenReturn(List.<Object[]>of(new Object[]{"1_4", new BigDecimal("30.00")}));
+        when(eventRepository.sumDeltasAfterUntilNextSnapshots(eq(Set.of("1_3", "1_4")), eq(AS_OF), eq(Long.MAX_VALUE)))
+                .thenReturn(List.of(
+                        new Object[]{"1_3", new BigDecimal("15.00")},
+                        new Object[]{"1_4", new BigDecimal("30.00")}));
+
+        Map<String, BigDecimal> amounts = ledgerService.getAmountsAsOf(ids, AS_OF);
+
+        assertThat(amounts.get("1_2")).isEqualByComparingTo("11.00");
+        assertThat(amounts.get("1_3")).isEqualByComparingTo("25.00");
+        assertThat(amounts.get("1_4")).isEqualByComparingTo("0");
+        assertThat(amounts.get("1_5")).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void batchedReplaySkipsBackwardQueriesWhenEverySnapshotPrecedesAsOf() {
+        when(snapshotRepository.findLatestSnapshotsAsOf(Set.of("1_2"), AS_OF))
+                .thenReturn(List.of(snapshot("1_2", "10.00", 5L, AS_OF.minusDays(1))));
+        when(eventRepository.sumDeltasSinceLatestSnapshots(Set.of("1_2"), AS_OF)).thenReturn(List.of());
+
+        assertThat(ledgerService.getAmountsAsOf(Set.of("1_2"), AS_OF).get("1_2")).isEqualByComparingTo("10.00");
+        verify(snapshotRepository, never()).findEarliestSnapshotsAfter(anyCollection(), any());
+        verify(balanceRepository, never()).findAmounts(anyCollection());
+    }
+
+    @Test
+    void appendWritesASnapshotEverySnapshotInterval() {
+        Balance balance = new Balance(1L, 2L);
+        when(eventRepository.save(any(BalanceEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        for (int i = 0; i < 6; i++) {
+            balance.addAmount(BigDecimal.ONE);
+            ledgerService.append(balance, BalanceEvent.SourceType.TRANSACTION, (long) i, BigDecimal.ONE);
+        }
+
+        verify(snapshotRepository, times(2)).save(argThat(snapshot ->
+                snapshot.getBalanceId().equals("1_2")
+                        && snapshot.getAmount().remainder(new BigDecimal("3")).signum() == 0));
+    }
+
+    private static BalanceSnapshot snapshot(String balanceId, String amount, long lastEventId, LocalDateTime takenAt) {
+        return new BalanceSnapshot(balanceId, new BigDecimal(amount), lastEventId, takenAt);
+    }
+}
@@ -0,0 +1,112 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.PairReconciliation;
+import com.service.balance_service.dto.ReconciliationReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReconciliationJobTest {
+
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.01");
+    private static final LocalDateTime QUIET_SINCE = LocalDateTime.of(2025, 3, 2, 3, 0);
+    private static final Long RUN_ID = 77L;
+
+    @Mock
+    private BalanceReconciliationService reconciliationService;
+
+    @Mock
+    private BalanceService balanceService;
+
+    @InjectMocks
+    private BalanceReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(job, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rangesCoverEveryUserIdAndSplitTheBalancesSpanEvenly() {
+        long[] bounds = BalanceReconciliationJob.partitionBounds(new long[]{1, 100}, 4);
+
+        assertThat(bounds).containsExactly(Long.MIN_VALUE, 26, 51, 76, Long.MAX_VALUE);
+    }
+
+    @Test
+    void fewUsersOrNoBalancesMeanFewerRanges() {
+        assertThat(BalanceReconciliationJob.partitionBounds(new long[]{5, 6}, 64))
+                .containsExactly(Long.MIN_VALUE, 6, Long.MAX_VALUE);
+        assertThat(BalanceReconciliationJob.partitionBounds(new long[0], 64))
+                .containsExactly(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    void repairsADiscrepancyThatStillStandsWithTheCheckedAmount() {
+        PairReconciliation scanned = pair("-40.00", "-30.00");
+        when(reconciliationService.reconcilePair(1L, 2L)).thenReturn(pair("-40.00", "-30.00"));
+        when(balanceService.repairBalance(1L, 2L, new BigDecimal("-40.00"), new BigDecimal("-30.00"), RUN_ID))
+                .thenReturn(true);
+        ReconciliationReport report = new ReconciliationReport(RUN_ID, true);
+
+        job.repair(List.of(found(scanned, QUIET_SINCE.minusHours(1))), QUIET_SINCE, RUN_ID, report);
+
+        assertThat(report.getRepaired()).isEqualTo(1);
+        assertThat(report.getRepairsSkipped()).isZero();
+    }
+
+    @Test
+    void leavesRecentlyChangedPairsAlone() {
+        ReconciliationReport report = new ReconciliationReport(RUN_ID, true);
+
+        job.repair(List.of(found(pair("-40.00", "-30.00"), QUIET_SINCE.plusMinutes(1))), QUIET_SINCE, RUN_ID, report);
+
+        assertThat(report.getRepairsSkipped()).isEqualTo(1);
+        verify(reconciliationService, never()).reconcilePair(anyLong(), anyLong());
+    }
+
+    @Test
+    void skipsPairsThatChangedSinceTheScanOrHaveCaughtUp() {
+        // 1_2 got another transaction after the scan; 1_3's missing event has since arrived
+        when(reconciliationService.reconcilePair(1L, 2L)).thenReturn(pair("-40.00", "-35.00"));
+        when(reconciliationService.reconcilePair(1L, 3L)).thenReturn(pair(3L, "-30.00", "-30.00"));
+        ReconciliationReport report = new ReconciliationReport(RUN_ID, true);
+
+        job.repair(List.of(found(pair("-40.00", "-30.00"), null), found(pair(3L, "-40.00", "-30.00"), null)),
+                QUIET_SINCE, RUN_ID, report);
+
+        assertThat(report.getRepaired()).isZero();
+        assertThat(report.getRepairsSkipped()).isEqualTo(1);
+        verify(balanceService, never()).repairBalance(anyLong(), anyLong(), any(), any(), anyLong());
+    }
+
+    private static BalanceReconciliationJob.Found found(PairReconciliation pair, LocalDateTime lastChanged) {
+        return new BalanceReconciliationJob.Found(pair, lastChanged);
+    }
+
+    private static PairReconciliation pair(String balanceAmount, String transactionSum) {
+        return pair(2L, balanceAmount, transactionSum);
+    }
+
+    private static PairReconciliation pair(Long user2, String balanceAmount, String transactionSum) {
+        return new PairReconciliation("1_" + user2, 1L, user2, new BigDecimal(balanceAmount),
+                new BigDecimal(transactionSum), BigDecimal.ZERO, TOLERANCE);
+    }
+}
@@ -0,0 +1,108 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.PairReconciliation;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.repository.SettlementRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReconciliationServiceTest {
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private SettlementRepository settlementRepository;
+
+    @Mock
+    private TransactionClientService transactionClientService;
+
+    @Mock
+    private BalanceShardRouter shardRouter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BalanceReconciliationService reconciliationService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reconciliationService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(reconciliationService, "tolerance", new BigDecimal("0.01"));
+        ReflectionTestUtils.invokeMethod(reconciliationService, "initTransactionTemplates");
+        lenient().when(shardRouter.onShardOf(any(String.class), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    void balanceMatchingTransactionsPlusSettlementsIsConsistent() {
+        // User 3 paid 40 for user 7, then user 7 paid 15 back
+        when(transactionClientService.getTransactionSum(3L, 7L)).thenReturn(new BigDecimal("-40.00"));
+        when(settlementRepository.sumCompletedSettlementDeltas("3_7", 3L)).thenReturn(new BigDecimal("15.00"));
+        when(balanceRepository.findAmounts(List.of("3_7"))).thenReturn(amountRow("3_7", "-25.00"));
+
+        PairReconciliation result = reconciliationService.reconcilePair(7L, 3L);
+
+        assertThat(result.getBalanceId()).isEqualTo("3_7");
+        assertThat(result.getExpectedAmount()).isEqualByComparingTo("-25.00");
+        assertThat(result.getDifference()).isEqualByComparingTo("0");
+        assertThat(result.isConsistent()).isTrue();
+        assertThat(meterRegistry.counter("balance.reconcile.pairs", "consistent", "true").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsDriftWhenABalanceMissedAChange() {
+        // A reversal never arrived: the balance still counts a cancelled 10.00 share
+        when(transactionClientService.getTransactionSum(1L, 2L)).thenReturn(new BigDecimal("-30.00"));
+        when(settlementRepository.sumCompletedSettlementDeltas(eq("1_2"), eq(1L))).thenReturn(BigDecimal.ZERO);
+        when(balanceRepository.findAmounts(List.of("1_2"))).thenReturn(amountRow("1_2", "-40.00"));
+
+        PairReconciliation result = reconciliationService.reconcilePair(1L, 2L);
+
+        assertThat(result.getDifference()).isEqualByComparingTo("-10.00");
+        assertThat(result.isConsistent()).isFalse();
+        assertThat(meterRegistry.counter("balance.reconcile.pairs", "consistent", "false").count()).isEqualTo(1);
+    }
+
+    @Test
+    void treatsAMissingBalanceAsZeroAndToleratesAutoSettleRounding() {
+        when(transactionClientService.getTransactionSum(1L, 2L)).thenReturn(new BigDecimal("20.01"));
+        when(settlementRepository.sumCompletedSettlementDeltas("1_2", 1L)).thenReturn(new BigDecimal("-20.00"));
+        when(balanceRepository.findAmounts(List.of("1_2"))).thenReturn(List.of());
+
+        PairReconciliation result = reconciliationService.reconcilePair(1L, 2L);
+
+        assertThat(result.getBalanceAmount()).isEqualByComparingTo("0");
+        assertThat(result.getDifference()).isEqualByComparingTo("-0.01");
+        assertThat(result.isConsistent()).isTrue();
+    }
+
+    private static List<Object[]> amountRow(String balanceId, String amount) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{balanceId, new BigDecimal(amount)});
+        return rows;
+    }
+}
@@ -0,0 +1,261 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.cache.BalanceCache;
+import com.service.balance_service.dto.BalanceOptimization;
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.entity.Settlement;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.repository.SettlementRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import com.service.balance_service.util.SnowflakeIdGenerator;
+import com.service.common.events.DomainEventPublisher;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceServiceSettlementBatchTest {
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private SettlementRepository settlementRepository;
+
+    @Mock
+    private BalanceCache balanceCache;
+
+    @Mock
+    private BalanceLedgerService ledgerService;
+
+    @Mock
+    private PendingSettlementService pendingSettlementService;
+
+    @Mock
+    private BalanceShardRouter shardRouter;
+
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @InjectMocks
+    private BalanceService balanceService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(balanceService, "settlementIdGenerator", new SnowflakeIdGenerator(1));
+        ReflectionTestUtils.setField(balanceService, "minSettlementAmount", new BigDecimal("0.01"));
+        ReflectionTestUtils.setField(balanceService, "autoSettleThreshold", new BigDecimal("0.01"));
+        ReflectionTestUtils.setField(balanceService, "maxBatchSettlements", 100);
+        ReflectionTestUtils.invokeMethod(balanceService, "initTransactionTemplates");
+        lenient().doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(shardRouter).onShardOf(anyString(), any(Runnable.class));
+        lenient().when(shardRouter.scatter(any())).thenAnswer(invocation ->
+                List.of(((Supplier<?>) invocation.getArgument(0)).get()));
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(balanceRepository.save(any(Balance.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void settlesEveryPaymentOfThePlanInOneBatch() {
+        // User 1 owes user 2 30.00; user 3 owes user 2 12.50
+        Balance oneTwo = balance(1L, 2L, "30.00");
+        Balance twoThree = balance(2L, 3L, "-12.50");
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L, 3L))).thenReturn(List.of(oneTwo, twoThree));
+        when(balanceRepository.findAllByIdForUpdate(List.of("1_2", "2_3"))).thenReturn(List.of(oneTwo, twoThree));
+
+        List<Settlement> settlements = balanceService.createSettlementBatch(plan(
+                payment(3L, 2L, "12.50"), payment(1L, 2L, "30.00")), 9L);
+
+        assertThat(settlements).extracting(Settlement::getBalanceId).containsExactly("1_2", "2_3");
+        assertThat(settlements).allSatisfy(settlement -> {
+            assertThat(settlement.getId()).isNotNull();
+            assertThat(settlement.getCreatedBy()).isEqualTo(9L);
+        });
+        assertThat(oneTwo.getAmount()).isEqualByComparingTo("0");
+        assertThat(twoThree.getAmount()).isEqualByComparingTo("0");
+        verify(session).setJdbcBatchSize(100);
+        // The events go into the shard's outbox after the batch, in the same transaction
+        InOrder inOrder = inOrder(settlementRepository, eventPublisher, transactionManager);
+        inOrder.verify(settlementRepository).saveAll(settlements);
+        inOrder.verify(eventPublisher, times(2)).publish(anyString(), anyString(), any());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void settlesANettedPlanForAChainAlongTheDebtsBehindIt() {
+        // User 1 owes user 2, who owes user 3: the optimizer has user 1 pay user 3 directly
+        Balance oneTwo = balance(1L, 2L, "10.00");
+        Balance twoThree = balance(2L, 3L, "10.00");
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L, 3L))).thenReturn(List.of(oneTwo, twoThree));
+        when(balanceRepository.findAllByIdForUpdate(List.of("1_2", "2_3"))).thenReturn(List.of(oneTwo, twoThree));
+        BalanceOptimization plan = balanceService.optimizeBalances(List.of(1L, 2L, 3L));
+        assertThat(plan.getSuggestedPayments())
+                .extracting(BalanceOptimization.OptimizedPayment::getFromUserId, BalanceOptimization.OptimizedPayment::getToUserId)
+                .containsExactly(tuple(1L, 3L));
+
+        List<Settlement> settlements = balanceService.createSettlementBatch(plan, 9L);
+
+        assertThat(settlements)
+                .extracting(Settlement::getPayerId, Settlement::getPayeeId, Settlement::getAmount)
+                .containsExactly(tuple(1L, 2L, new BigDecimal("10.00")), tuple(2L, 3L, new BigDecimal("10.00")));
+        assertThat(oneTwo.getAmount()).isEqualByComparingTo("0");
+        assertThat(twoThree.getAmount()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void settlesANettedPlanForACycleToEveryonesNetPosition() {
+        // User 1 owes user 2 30.00, user 2 owes user 3 20.00 and user 3 owes user 1 10.00
+        Balance oneTwo = balance(1L, 2L, "30.00");
+        Balance twoThree = balance(2L, 3L, "20.00");
+        Balance oneThree = balance(1L, 3L, "-10.00");
+        List<Balance> balances = List.of(oneTwo, twoThree, oneThree);
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L, 3L))).thenReturn(balances);
+        when(balanceRepository.findAllByIdForUpdate(List.of("1_2", "2_3"))).thenReturn(List.of(oneTwo, twoThree));
+        BalanceOptimization plan = balanceService.optimizeBalances(List.of(1L, 2L, 3L));
+        assertThat(plan.getSuggestedPayments())
+                .extracting(BalanceOptimization.OptimizedPayment::getFromUserId)
+                .containsOnly(1L);
+
+        List<Settlement> settlements = balanceService.createSettlementBatch(plan, 9L);
+
+        // User 1's 20.00 reaches user 2 directly and user 3 through user 2
+        assertThat(settlements)
+                .extracting(Settlement::getPayerId, Settlement::getPayeeId, Settlement::getAmount)
+                .containsExactly(tuple(1L, 2L, new BigDecimal("20.00")), tuple(2L, 3L, new BigDecimal("10.00")));
+        Map<Long, BigDecimal> netPositions = balanceService.calculateNetPositions(balances, List.of(1L, 2L, 3L));
+        assertThat(netPositions.values()).allSatisfy(position -> assertThat(position).isEqualByComparingTo("0"));
+    }
+
+    @Test
+    void checksEachUsersNetPaymentAgainstWhatTheyOwe() {
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L))).thenReturn(List.of(balance(1L, 2L, "30.00")));
+
+        assertThatThrownBy(() -> balanceService.createSettlementBatch(plan(
+                payment(1L, 2L, "20.00"), payment(1L, 2L, "20.00")), 9L))
+                .hasMessage("User 1 would pay $40.00 but owes $30.00 net");
+        verify(balanceRepository, never()).findAllByIdForUpdate(any());
+        verify(settlementRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rejectsAPlanThatRunsAgainstTheDebts() {
+        // User 2 owes user 1 more than user 1 owes user 3
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                balance(1L, 2L, "-15.00"), balance(1L, 3L, "5.00")));
+
+        assertThatThrownBy(() -> balanceService.createSettlementBatch(plan(
+                payment(1L, 2L, "15.00"), payment(1L, 3L, "5.00")), 9L))
+                .hasMessage("User 1 does not owe money to the other users in the plan");
+        verify(settlementRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rejectsAPlanWithNoChainOfDebtsBetweenItsUsers() {
+        // Both net positions allow the payment, but user 1's debt doesn't lead to user 4
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                balance(1L, 2L, "10.00"), balance(3L, 4L, "10.00")));
+        BalanceOptimization plan = plan(payment(1L, 4L, "10.00"));
+        plan.setUserIds(List.of(1L, 2L, 3L, 4L));
+
+        assertThatThrownBy(() -> balanceService.createSettlementBatch(plan, 9L))
+                .hasMessage("The plan can't be paid along the debts between Users [1, 2, 3, 4]; " +
+                        "send the userIds it was optimized for");
+        verify(balanceRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    @Test
+    void checksEachSettlementAgainstTheLockedBalance() {
+        // Paid down to 10.00 between reading the balances and locking them
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L))).thenReturn(List.of(balance(1L, 2L, "30.00")));
+        when(balanceRepository.findAllByIdForUpdate(List.of("1_2"))).thenReturn(List.of(balance(1L, 2L, "10.00")));
+
+        assertThatThrownBy(() -> balanceService.createSettlementBatch(plan(payment(1L, 2L, "30.00")), 9L))
+                .hasMessage("Payment from User 1 to User 2: Settlement amount ($30.00) cannot exceed outstanding balance ($10.00)");
+        verify(settlementRepository, never()).saveAll(any());
+        verify(transactionManager).rollback(any());
+        verify(eventPublisher, never()).publish(anyString(), anyString(), any());
+    }
+
+    @Test
+    void nestsOneTransactionPerShardAndRollsThemAllBack() {
+        when(shardRouter.shardOf("1_2")).thenReturn(0);
+        when(shardRouter.shardOf("3_4")).thenReturn(1);
+        when(balanceRepository.findBalancesByUserList(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                balance(1L, 2L, "10.00"), balance(3L, 4L, "10.00")));
+        when(balanceRepository.findAllByIdForUpdate(List.of("1_2"))).thenReturn(List.of(balance(1L, 2L, "10.00")));
+        when(balanceRepository.findAllByIdForUpdate(List.of("3_4"))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> balanceService.createSettlementBatch(plan(
+                payment(1L, 2L, "10.00"), payment(3L, 4L, "10.00")), 9L))
+                .hasMessage("Payment from User 3 to User 4: No outstanding balance found between these users");
+        // The first shard's work is done (and its transaction still open) when the second fails.
+        // Only the read the plan was cleared against commits
+        verify(settlementRepository).saveAll(any());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void rejectsAnEmptyOrOversizedPlanBeforeLockingAnything() {
+        ReflectionTestUtils.setField(balanceService, "maxBatchSettlements", 1);
+
+        assertThatThrownBy(() -> balanceService.createSettlementBatch(plan(), 9L))
+                .hasMessage("The plan has no payments");
+        assertThatThrownBy(() -> balanceService.createSettlementBatch(plan(
+                payment(1L, 2L, "1.00"), payment(1L, 3L, "1.00")), 9L))
+                .hasMessage("A batch can record at most 1 payments");
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    private static Balance balance(Long user1, Long user2, String amount) {
+        Balance balance = new Balance(user1, user2);
+        balance.setAmount(new BigDecimal(amount));
+        return balance;
+    }
+
+    private static BalanceOptimization plan(BalanceOptimization.OptimizedPayment... payments) {
+        return new BalanceOptimization(List.of(payments));
+    }
+
+    private static BalanceOptimization.OptimizedPayment payment(Long from, Long to, String amount) {
+        return new BalanceOptimization.OptimizedPayment(from, to, new BigDecimal(amount));
+    }
+}
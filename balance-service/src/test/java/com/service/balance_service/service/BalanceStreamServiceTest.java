@@ -0,0 +1,155 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.controller.BalanceController;
+import com.service.balance_service.entity.Balance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BalanceStreamServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private final BalanceStreamService streamService = new BalanceStreamService();
+    private final ManualExecutor senders = new ManualExecutor();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streamService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(streamService, "maxConnections", 3);
+        ReflectionTestUtils.setField(streamService, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(streamService, "bufferSize", 3);
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(streamService, "senderThreads", 1);
+        streamService.init();
+        ReflectionTestUtils.setField(streamService, "senders", senders);
+        BalanceController controller = new BalanceController();
+        ReflectionTestUtils.setField(controller, "balanceStreamService", streamService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void streamsChangesFromEachUsersPerspective() throws Exception {
+        MvcResult payer = open(1L);
+        MvcResult payee = open(2L);
+
+        streamService.publish(balance(1L, 2L, "-30.00"), new BigDecimal("-30.00"));
+        senders.runAll();
+
+        String payerStream = payer.getResponse().getContentAsString();
+        assertThat(payerStream).contains("event:connected", "event:balance", "\"amount\":-30.00", "\"otherUserId\":2");
+        String payeeStream = payee.getResponse().getContentAsString();
+        assertThat(payeeStream).contains("\"amount\":30.00", "\"delta\":30.00", "\"otherUserId\":1");
+    }
+
+    @Test
+    void keepsLatestStatePerBalanceWhileClientIsBehind() throws Exception {
+        MvcResult stream = open(1L);
+
+        streamService.publish(balance(1L, 2L, "10.00"), new BigDecimal("10.00"));
+        streamService.publish(balance(1L, 2L, "25.00"), new BigDecimal("15.00"));
+        senders.runAll();
+
+        String body = stream.getResponse().getContentAsString();
+        assertThat(body.split("event:balance", -1)).hasSize(2);
+        assertThat(body).contains("\"amount\":25.00", "\"delta\":25.00");
+    }
+
+    @Test
+    void overflowingClientGetsResyncInsteadOfBacklog() throws Exception {
+        MvcResult stream = open(1L);
+
+        for (long other = 2; other <= 6; other++) {
+            streamService.publish(balance(1L, other, "5.00"), new BigDecimal("5.00"));
+        }
+        senders.runAll();
+        streamService.publish(balance(1L, 7L, "5.00"), new BigDecimal("5.00"));
+        senders.runAll();
+
+        String body = stream.getResponse().getContentAsString();
+        assertThat(body).contains("event:resync");
+        // Only the change after the resync is delivered
+        assertThat(body.split("event:balance", -1)).hasSize(2);
+        assertThat(body).contains("\"balanceId\":\"1_7\"");
+    }
+
+    @Test
+    void rejectsConnectionsBeyondLimits() throws Exception {
+        open(1L);
+        open(1L);
+        mockMvc.perform(get("/stream/1")).andExpect(status().isServiceUnavailable());
+
+        open(2L);
+        mockMvc.perform(get("/stream/3")).andExpect(status().isServiceUnavailable());
+        assertThat(streamService.getConnectionCount()).isEqualTo(3);
+    }
+
+    private MvcResult open(Long userId) throws Exception {
+        return mockMvc.perform(get("/stream/" + userId)).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static Balance balance(Long user1, Long user2, String amount) {
+        Balance balance = new Balance(user1, user2, new BigDecimal(amount));
+        balance.setLastUpdated(NOW);
+        return balance;
+    }
+
+    // Runs sender tasks only when asked, so tests control when clients "catch up"
+    private static class ManualExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.PairReconciliation;
+import com.service.balance_service.dto.PairSum;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PairMergeJoinTest {
+
+    private static final LocalDateTime EARLIER = LocalDateTime.of(2025, 3, 1, 12, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2025, 3, 2, 9, 30);
+
+    private final List<PairReconciliation> discrepancies = new ArrayList<>();
+    private final List<LocalDateTime> lastChanged = new ArrayList<>();
+    private final PairMergeJoin join = new PairMergeJoin(new BigDecimal("0.01"), (pair, changed) -> {
+        discrepancies.add(pair);
+        lastChanged.add(changed);
+    });
+
+    @Test
+    void joinsBothSidesByPairAndCountsMissingSidesAsZero() {
+        List<PairMergeJoin.BalanceRow> balances = List.of(
+                balance(1, 2, "-25.00", "15.00", EARLIER),  // 40 paid by user 1, 15 paid back: consistent
+                balance(1, 5, "0.00", "-12.00", EARLIER),   // fully settled, no ACTIVE transactions left: drift
+                balance(3, 4, "0.00", "0.00", EARLIER));    // nothing either side
+        List<PairSum> pairSums = List.of(
+                pairSum(1, 2, "-40.00", EARLIER),
+                pairSum(2, 9, "7.50", LATER),               // the balance never got its expense
+                pairSum(3, 4, "0.00", EARLIER));
+
+        PairMergeJoin.Counts counts = join.join(balances.iterator(), pairSums.iterator());
+
+        assertThat(counts.pairs).isEqualTo(4);
+        assertThat(counts.consistent).isEqualTo(2);
+        assertThat(counts.discrepancies).isEqualTo(2);
+        assertThat(counts.balanceOnly).isEqualTo(1);
+        assertThat(counts.transactionOnly).isEqualTo(1);
+        assertThat(counts.absoluteDifference).isEqualByComparingTo("19.50");
+        assertThat(discrepancies).extracting(PairReconciliation::getBalanceId).containsExactly("1_5", "2_9");
+        assertThat(discrepancies.get(0).getDifference()).isEqualByComparingTo("12.00");
+        assertThat(discrepancies.get(1).getBalanceAmount()).isEqualByComparingTo("0");
+        assertThat(discrepancies.get(1).getDifference()).isEqualByComparingTo("-7.50");
+        assertThat(lastChanged).containsExactly(EARLIER, LATER);
+    }
+
+    @Test
+    void reportsTheLaterChangeOfBothSides() {
+        join.join(List.of(balance(1, 2, "5.00", "0.00", EARLIER)).iterator(),
+                List.of(pairSum(1, 2, "1.00", LATER)).iterator());
+
+        assertThat(lastChanged).containsExactly(LATER);
+    }
+
+    @Test
+    void mergesShardsIntoPairOrder() {
+        List<PairMergeJoin.BalanceRow> shard0 = List.of(balance(1, 3, "1.00", "0", EARLIER), balance(2, 3, "1.00", "0", EARLIER));
+        List<PairMergeJoin.BalanceRow> shard1 = List.of(balance(1, 2, "1.00", "0", EARLIER), balance(4, 5, "1.00", "0", EARLIER));
+        List<PairMergeJoin.BalanceRow> shard2 = List.of();
+
+        List<String> merged = new ArrayList<>();
+        PairMergeJoin.mergeShards(List.of(shard0.iterator(), shard1.iterator(), shard2.iterator()))
+                .forEachRemaining(row -> merged.add(row.user1 + "_" + row.user2));
+
+        assertThat(merged).containsExactly("1_2", "1_3", "2_3", "4_5");
+    }
+
+    @Test
+    void rejectsASideThatIsOutOfOrder() {
+        List<PairSum> pairSums = List.of(pairSum(1, 3, "1.00", EARLIER), pairSum(1, 2, "1.00", EARLIER));
+
+        assertThatThrownBy(() -> join.join(List.<PairMergeJoin.BalanceRow>of().iterator(), pairSums.iterator()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1_2 after 1_3");
+    }
+
+    private static PairMergeJoin.BalanceRow balance(long user1, long user2, String amount, String settlementSum,
+                                                    LocalDateTime lastUpdated) {
+        return new PairMergeJoin.BalanceRow(user1, user2, new BigDecimal(amount), new BigDecimal(settlementSum), lastUpdated);
+    }
+
+    private static PairSum pairSum(long user1, long user2, String net, LocalDateTime lastChanged) {
+        return new PairSum(user1, user2, new BigDecimal(net), 1L, lastChanged);
+    }
+}
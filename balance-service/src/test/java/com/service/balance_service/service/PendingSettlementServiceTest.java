@@ -0,0 +1,165 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.cache.PendingSettlementIndex;
+import com.service.balance_service.dto.PendingSettlementResponse;
+import com.service.balance_service.entity.Balance;
+import com.service.balance_service.repository.BalanceRepository;
+import com.service.balance_service.sharding.BalanceShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PendingSettlementServiceTest {
+
+    private final PendingSettlementIndex index = new PendingSettlementIndex();
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private BalanceShardRouter shardRouter;
+
+    @Mock
+    private AuthClientService authClientService;
+
+    @Mock
+    private BalanceStreamService balanceStreamService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PendingSettlementService pendingSettlementService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "amountWeight", 1.0);
+        ReflectionTestUtils.setField(index, "ageWeightPerDay", 0.1);
+        ReflectionTestUtils.invokeMethod(index, "init");
+        ReflectionTestUtils.setField(pendingSettlementService, "index", index);
+        ReflectionTestUtils.setField(pendingSettlementService, "syncOverlapSeconds", 60L);
+        ReflectionTestUtils.setField(pendingSettlementService, "highAmount", new BigDecimal("100"));
+        ReflectionTestUtils.setField(pendingSettlementService, "mediumAmount", new BigDecimal("25"));
+        ReflectionTestUtils.setField(pendingSettlementService, "highDays", 30L);
+        ReflectionTestUtils.setField(pendingSettlementService, "mediumDays", 7L);
+        pendingSettlementService.initTransactionTemplates();
+        lenient().doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(shardRouter).forEachShard(any(Runnable.class));
+        lenient().when(authClientService.getUserInfo(anyLong())).thenThrow(new RuntimeException("auth down"));
+    }
+
+    @Test
+    void rejectsReadsUntilInitialLoadCompletes() {
+        assertThatThrownBy(() -> pendingSettlementService.getPendingSettlements(1L, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void initialLoadPagesThroughAllBalancesByKeyset() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Balance> firstPage = new ArrayList<>();
+        for (long user = 2; user < 502; user++) {
+            firstPage.add(balance(1L, user, "5.00", now.minusHours(1)));
+        }
+        Balance lastOfFirstPage = firstPage.get(firstPage.size() - 1);
+        when(balanceRepository.findUpdatedAfter(eq(LocalDateTime.of(1970, 1, 1, 0, 0)), eq(""), any(Pageable.class)))
+                .thenReturn(firstPage);
+        when(balanceRepository.findUpdatedAfter(eq(lastOfFirstPage.getLastUpdated()),
+                eq(lastOfFirstPage.getBalanceId()), any(Pageable.class)))
+                .thenReturn(List.of(balance(1L, 900L, "0.00", now)));
+
+        pendingSettlementService.syncChanges();
+
+        assertThat(index.size()).isEqualTo(500L);
+        assertThat(pendingSettlementService.getPendingSettlements(1L, 3)).hasSize(3);
+    }
+
+    @Test
+    void laterSyncsReadOnlyRecentChanges() {
+        when(balanceRepository.findUpdatedAfter(any(), any(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        pendingSettlementService.syncChanges();
+        LocalDateTime firstSyncStart = (LocalDateTime) ReflectionTestUtils.getField(pendingSettlementService, "lastSyncStart");
+
+        pendingSettlementService.syncChanges();
+
+        verify(balanceRepository).findUpdatedAfter(eq(firstSyncStart.minusSeconds(60)), eq(""), any(Pageable.class));
+    }
+
+    @Test
+    void streamsEachNewStateOnceButNotTheInitialLoad() {
+        LocalDateTime now = LocalDateTime.now();
+        Balance loaded = balance(1L, 2L, "20.00", now.minusDays(1));
+        Balance remote = balance(1L, 2L, "35.00", now);
+        when(balanceRepository.findUpdatedAfter(any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(loaded))
+                .thenReturn(List.of(remote));
+        pendingSettlementService.syncChanges();
+        pendingSettlementService.syncChanges();
+
+        // The same committed state arriving again (local commit hook after the sync saw it)
+        pendingSettlementService.onBalanceChanged(remote);
+
+        verify(balanceStreamService).publish(argThat(balance -> balance.getAmount().compareTo(new BigDecimal("35.00")) == 0),
+                eq(new BigDecimal("15.00")));
+        verifyNoMoreInteractions(balanceStreamService);
+    }
+
+    @Test
+    void buildsResponsesWithDebtorCreditorAndPriority() {
+        when(balanceRepository.findUpdatedAfter(any(), any(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        pendingSettlementService.syncChanges();
+        LocalDateTime now = LocalDateTime.now();
+        index.apply(balance(1L, 2L, "-10.00", now.minusDays(10)));
+        index.apply(balance(1L, 3L, "150.00", now.minusHours(2)));
+        index.apply(balance(1L, 4L, "3.00", now.minusHours(1)));
+
+        List<PendingSettlementResponse> pending = pendingSettlementService.getPendingSettlements(1L, 10);
+
+        assertThat(pending).extracting(PendingSettlementResponse::getBalanceId).containsExactly("1_3", "1_2", "1_4");
+        assertThat(pending).extracting(PendingSettlementResponse::getPriority).containsExactly(
+                PendingSettlementResponse.Priority.HIGH,
+                PendingSettlementResponse.Priority.MEDIUM,
+                PendingSettlementResponse.Priority.LOW);
+        PendingSettlementResponse owedToUser = pending.get(1);
+        assertThat(owedToUser.getFromUserId()).isEqualTo(2L);
+        assertThat(owedToUser.getToUserId()).isEqualTo(1L);
+        assertThat(owedToUser.getFromUserName()).isEqualTo("User 2");
+        assertThat(owedToUser.getAmountOwed()).isEqualByComparingTo("10.00");
+        assertThat(owedToUser.getDaysSinceLastTransaction()).isEqualTo(10);
+    }
+
+    private static Balance balance(Long user1, Long user2, String amount, LocalDateTime lastUpdated) {
+        Balance balance = new Balance(user1, user2, new BigDecimal(amount));
+        balance.setLastUpdated(lastUpdated);
+        return balance;
+    }
+}
@@ -0,0 +1,175 @@
+package com.service.balance_service.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceShardRouterTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BalanceShardRouter router;
+
+    @AfterEach
+    void shutdown() {
+        router.shutdown();
+    }
+
+    @Test
+    void singleShardRoutesEverythingToShardZeroInline() {
+        init(false, List.of());
+
+        assertThat(router.getShardCount()).isEqualTo(1);
+        assertThat(router.shardOf("12_34")).isZero();
+        assertThat(router.scatter(BalanceShardContext::current)).containsExactly(0);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void shardOfIsStableAndInRange() {
+        init(true, shards(4));
+
+        int[] counts = new int[4];
+        for (long user = 1; user <= 2000; user++) {
+            String balanceId = user + "_" + (user + 1);
+            int shard = router.shardOf(balanceId);
+            assertThat(shard).isBetween(0, 3).isEqualTo(router.shardOf(balanceId));
+            counts[shard]++;
+        }
+        // Sequential "n_m" IDs still spread across every shard
+        for (int count : counts) {
+            assertThat(count).isBetween(350, 650);
+        }
+    }
+
+    @Test
+    void onShardOfSetsTheContextAndRestoresThePreviousOne() {
+        init(true, shards(4));
+        int expected = router.shardOf("1_2");
+        int other = (expected + 1) % 4;
+
+        Integer outer = router.onShardOf(otherPairOn(other), () -> {
+            Integer inner = router.onShardOf("1_2", BalanceShardContext::current);
+            assertThat(inner).isEqualTo(expected);
+            return BalanceShardContext.current();
+        });
+
+        assertThat(outer).isEqualTo(other);
+        assertThat(BalanceShardContext.current()).isNull();
+    }
+
+    @Test
+    void onShardOfRestoresTheContextWhenWorkThrows() {
+        init(true, shards(2));
+
+        assertThatThrownBy(() -> router.onShardOf("1_2", (Runnable) () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(BalanceShardContext.current()).isNull();
+    }
+
+    @Test
+    void scatterRunsOnEveryShardInParallelReadOnlyTransactions() throws InterruptedException {
+        init(true, shards(3));
+        // Every shard's query waits for the others, so this only completes if they run concurrently
+        CountDownLatch allStarted = new CountDownLatch(3);
+        ConcurrentHashMap<Integer, String> threads = new ConcurrentHashMap<>();
+
+        List<Integer> results = router.scatter(() -> {
+            allStarted.countDown();
+            try {
+                assertThat(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            threads.put(BalanceShardContext.current(), Thread.currentThread().getName());
+            return BalanceShardContext.current();
+        });
+
+        assertThat(results).containsExactly(0, 1, 2);
+        assertThat(threads.values()).allMatch(name -> name.startsWith("balance-shard-"));
+        assertThat(BalanceShardContext.current()).isNull();
+        verify(transactionManager, times(3)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void scatterRethrowsTheShardFailureUnwrapped() {
+        init(true, shards(2));
+
+        assertThatThrownBy(() -> router.scatter(() -> {
+            if (BalanceShardContext.current() == 1) {
+                throw new IllegalStateException("shard 1 down");
+            }
+            return 0;
+        })).isInstanceOf(IllegalStateException.class).hasMessage("shard 1 down");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void forEachShardVisitsShardsInOrderOnTheCallingThread() {
+        init(true, shards(3));
+        List<Integer> visited = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        router.forEachShard(() -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            visited.add(BalanceShardContext.current());
+        });
+
+        assertThat(visited).containsExactly(0, 1, 2);
+        assertThat(BalanceShardContext.current()).isNull();
+    }
+
+    @Test
+    void enablingShardingWithoutUrlsFailsStartup() {
+        assertThatThrownBy(() -> init(true, List.of())).isInstanceOf(IllegalStateException.class);
+    }
+
+    private void init(boolean enabled, List<String> urls) {
+        ReflectionTestUtils.setField(router, "enabled", enabled);
+        ReflectionTestUtils.setField(router, "shardUrls", urls);
+        ReflectionTestUtils.setField(router, "scatterPoolSize", 4);
+        router.init();
+    }
+
+    private String otherPairOn(int shard) {
+        for (long user = 1; ; user++) {
+            String balanceId = user + "_" + (user + 100);
+            if (router.shardOf(balanceId) == shard) {
+                return balanceId;
+            }
+        }
+    }
+
+    private static List<String> shards(int count) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            urls.add("jdbc:mysql://localhost:3306/split_balance_db_" + i);
+        }
+        return urls;
+    }
+}
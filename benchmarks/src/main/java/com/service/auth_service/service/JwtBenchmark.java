@@ -0,0 +1,59 @@
+package com.service.auth_service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Token issue (login/register/refresh) and verification (/validate, called by the other
+// services on every authenticated request), with the same HS512 key length as application.yml
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsAtLeast64CharactersLongForTheHS512Algorithm0123";
+
+    private final JWTService jwtService = new JWTService();
+    private String token;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 86_400_000L);
+        token = jwtService.generateToken("jane.doe@example.com", 42L, "Jane Doe");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("jane.doe@example.com", 42L, "Jane Doe");
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return jwtService.extractUserId(token);
+    }
+
+    // The JWT work in AuthService.validateToken (/validate, minus the user lookup): three claim
+    // reads and isTokenValid, each parsing and verifying the token again, five times in all
+    @Benchmark
+    public void validateToken(Blackhole blackhole) {
+        String email = jwtService.extractEmail(token);
+        blackhole.consume(jwtService.extractUserId(token));
+        blackhole.consume(jwtService.extractName(token));
+        blackhole.consume(jwtService.isTokenValid(token, email));
+    }
+}
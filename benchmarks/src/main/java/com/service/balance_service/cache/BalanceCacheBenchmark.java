@@ -0,0 +1,61 @@
+package com.service.balance_service.cache;
+
+import com.service.balance_service.entity.Balance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Near-cache hits for balance reads, with the default size and a full cache. Misses go to the
+// database and belong in the load test, not here.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceCacheBenchmark {
+
+    private static final int BALANCES = 10_000;
+
+    private final BalanceCache balanceCache = new BalanceCache();
+    private final String[] balanceIds = new String[BALANCES];
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(balanceCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(balanceCache, "maxSize", (long) BALANCES);
+        ReflectionTestUtils.setField(balanceCache, "ttlSeconds", 3600L);
+        balanceCache.init();
+        for (int i = 0; i < BALANCES; i++) {
+            Balance balance = new Balance((long) i + 1, (long) i + 2, new BigDecimal("12.34"));
+            balanceCache.put(balance);  // no transaction: published immediately
+            balanceIds[i] = balance.getBalanceId();
+        }
+    }
+
+    @Benchmark
+    public Optional<Balance> hit() {
+        return balanceCache.get(balanceIds[ThreadLocalRandom.current().nextInt(BALANCES)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Balance> hitFromFourThreads() {
+        return balanceCache.get(balanceIds[ThreadLocalRandom.current().nextInt(BALANCES)]);
+    }
+}
@@ -0,0 +1,37 @@
+package com.service.balance_service.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Balance key derivation, done for every pair touched by a split, settlement or lookup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceIdBenchmark {
+
+    // Non-final so the JIT can't constant-fold the arguments
+    private Long lowerUserId = 18_342L;
+    private Long higherUserId = 907_115L;
+
+    @Benchmark
+    public String orderedPair() {
+        return Balance.createBalanceId(lowerUserId, higherUserId);
+    }
+
+    @Benchmark
+    public String reversedPair() {
+        return Balance.createBalanceId(higherUserId, lowerUserId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.BalanceOptimization;
+import com.service.balance_service.entity.Balance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory part of POST /optimize (everything after the balances are loaded) for groups of
+// 10 to 10k users, each with a few open balances. User names come from AuthClientService's
+// cache, warmed in setup, as they are for a group that was just displayed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimizeBalancesBenchmark {
+
+    private static final int BALANCES_PER_USER = 3;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int users;
+
+    private final BalanceService balanceService = new BalanceService();
+    private List<Long> userIds;
+    private List<Balance> balances;
+
+    @Setup
+    public void setUp() {
+        AuthClientService authClientService = new AuthClientService();
+        ReflectionTestUtils.setField(authClientService, "restTemplate", new NameOnlyRestTemplate());
+        ReflectionTestUtils.setField(authClientService, "userInfoMaxSize", (long) users);
+        ReflectionTestUtils.setField(authClientService, "userInfoTtlSeconds", 3600L);
+        authClientService.initCache();
+        ReflectionTestUtils.setField(balanceService, "authClientService", authClientService);
+        ReflectionTestUtils.setField(balanceService, "autoSettleThreshold", new BigDecimal("0.01"));
+
+        Random random = new Random(42);
+        userIds = new ArrayList<>();
+        for (long userId = 1; userId <= users; userId++) {
+            userIds.add(userId);
+        }
+        balances = new ArrayList<>();
+        Set<String> pairs = new HashSet<>();
+        for (long userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < Math.min(BALANCES_PER_USER, users - 1); i++) {
+                long other = 1 + random.nextInt(users);
+                if (other != userId && pairs.add(Balance.createBalanceId(userId, other))) {
+                    // -500.00 to 500.00, either direction
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_001) - 50_000, 2);
+                    balances.add(new Balance(userId, other, amount));
+                }
+            }
+        }
+        optimize();  // fills the user name cache
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> calculateNetPositions() {
+        return balanceService.calculateNetPositions(balances, userIds);
+    }
+
+    // generateOptimizedPayments consumes its input, so each call nets positions afresh, as optimizeBalances does
+    @Benchmark
+    public List<BalanceOptimization.OptimizedPayment> optimize() {
+        return balanceService.generateOptimizedPayments(balanceService.calculateNetPositions(balances, userIds));
+    }
+
+    // Answers GET /users/{userId} with a made-up name; only reached while the cache warms
+    private static class NameOnlyRestTemplate extends RestTemplate {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ResponseEntity<T> getForEntity(String url, Class<T> responseType, Object... uriVariables) {
+            AuthClientService.UserInfo userInfo = new AuthClientService.UserInfo();
+            userInfo.setId((Long) uriVariables[0]);
+            userInfo.setName("User " + uriVariables[0]);
+            return (ResponseEntity<T>) ResponseEntity.ok(userInfo);
+        }
+    }
+}
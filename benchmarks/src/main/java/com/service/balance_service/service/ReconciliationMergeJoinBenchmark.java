@@ -0,0 +1,86 @@
+package com.service.balance_service.service;
+
+import com.service.balance_service.dto.PairSum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The CPU side of a full reconciliation run: merge-joining one range's balances (split over 1 or 4
+// shards) with its pair sums, already in memory, for 100k and 1M pairs. At ten transactions a
+// pair, 1M pairs is the 10M-transaction share of one range; 50M transactions are 5M pairs. The
+// database scans and the transfer are not included (see TESTING_GUIDE.md, Microbenchmarks).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ReconciliationMergeJoinBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int pairs;
+
+    @Param({"1", "4"})
+    private int shards;
+
+    private final PairMergeJoin join = new PairMergeJoin(new BigDecimal("0.01"), (pair, lastChanged) -> {
+    });
+    private List<List<PairMergeJoin.BalanceRow>> balanceShards;
+    private List<PairSum> pairSums;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime lastChanged = LocalDateTime.of(2025, 1, 1, 0, 0);
+        balanceShards = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            balanceShards.add(new ArrayList<>());
+        }
+        pairSums = new ArrayList<>(pairs);
+        long user1 = 1;
+        long user2 = 1;
+        for (int i = 0; i < pairs; i++) {
+            // About 20 pairs per lower user ID, in (user1, user2) order
+            user2 += 1 + random.nextInt(50);
+            if (random.nextInt(20) == 0) {
+                user1++;
+                user2 = user1 + 1 + random.nextInt(50);
+            }
+            BigDecimal net = BigDecimal.valueOf(random.nextInt(100_001) - 50_000, 2);
+            BigDecimal settled = random.nextInt(4) == 0 ? BigDecimal.valueOf(random.nextInt(5_001), 2) : BigDecimal.ZERO;
+            // One pair in a thousand has drifted; one in a hundred is missing a side (drift as well)
+            BigDecimal amount = random.nextInt(1000) == 0 ? net.add(settled).add(BigDecimal.TEN) : net.add(settled);
+            int sides = random.nextInt(100);
+            if (sides != 0) {
+                balanceShards.get(random.nextInt(shards))
+                        .add(new PairMergeJoin.BalanceRow(user1, user2, amount, settled, lastChanged));
+            }
+            if (sides != 1) {
+                pairSums.add(new PairSum(user1, user2, net, 10L, lastChanged));
+            }
+        }
+    }
+
+    @Benchmark
+    public PairMergeJoin.Counts mergeJoin() {
+        List<Iterator<PairMergeJoin.BalanceRow>> iterators = new ArrayList<>(shards);
+        balanceShards.forEach(shard -> iterators.add(shard.iterator()));
+        return join.join(PairMergeJoin.mergeShards(iterators), pairSums.iterator());
+    }
+}
@@ -0,0 +1,40 @@
+package com.service.balance_service.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// IDs per second from one node's generator, alone and with callers racing on its CAS. Above
+// 4096 per millisecond the sequence borrows from future milliseconds, so IDs run ahead of the
+// clock; sustained rates near that line are worth knowing about. transaction-service's
+// generator is the same code.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdFromFourThreads() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,44 @@
+package com.service.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+// JMH's own command line, plus the GC profiler (allocation rate and bytes per operation) on every
+// run and a JSON result file to keep as the baseline:
+//
+//   ./mvnw -B package -DskipTests
+//   java -jar benchmarks/target/benchmarks.jar                      # everything
+//   java -jar benchmarks/target/benchmarks.jar CalculateShares      # one suite (regex)
+//   java -jar benchmarks/target/benchmarks.jar -p users=10,100      # narrower parameters
+//
+// Results go to benchmarks/target/jmh-result.json unless -rff is given.
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(defaultResultFile()))
+                .build();
+        new Runner(options).run();
+    }
+
+    private static String defaultResultFile() {
+        File targetDir = new File(BenchmarkRunner.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+                .getParentFile();
+        return new File(targetDir, "jmh-result.json").getPath();
+    }
+}
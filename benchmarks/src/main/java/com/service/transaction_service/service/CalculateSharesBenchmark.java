@@ -0,0 +1,67 @@
+package com.service.transaction_service.service;
+
+import com.service.transaction_service.dto.TransactionRequest;
+import com.service.transaction_service.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Share computation run by every POST /transactions, per split type and participant count
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculateSharesBenchmark {
+
+    @Param({"EQUAL", "EXACT", "PERCENTAGE"})
+    private Transaction.SplitType splitType;
+
+    @Param({"2", "5", "10", "20"})
+    private int participants;
+
+    private final TransactionService transactionService = new TransactionService();
+    private TransactionRequest request;
+
+    @Setup
+    public void setUp() {
+        BigDecimal total = new BigDecimal("1234.56");
+        List<TransactionRequest.ParticipantShare> shares = new ArrayList<>();
+        for (int i = 0; i < participants; i++) {
+            TransactionRequest.ParticipantShare share = new TransactionRequest.ParticipantShare();
+            share.setUserId(1000L + i);
+            // EXACT amounts and PERCENTAGE splits that add up, the first participant taking the remainder
+            share.setAmount(i == 0
+                    ? total.subtract(new BigDecimal("10.00").multiply(BigDecimal.valueOf(participants - 1)))
+                    : new BigDecimal("10.00"));
+            share.setPercentage(i == 0
+                    ? BigDecimal.valueOf(100 - 100 / participants * (participants - 1))
+                    : BigDecimal.valueOf(100 / participants));
+            shares.add(share);
+        }
+        request = new TransactionRequest();
+        request.setPaidBy(1000L);
+        request.setTotalAmount(total);
+        request.setSplitType(splitType);
+        request.setParticipants(shares);
+    }
+
+    @Benchmark
+    public List<TransactionRequest.ParticipantShare> calculateShares() {
+        return transactionService.calculateShares(request);
+    }
+}
@@ -0,0 +1,79 @@
+package com.service.user_service.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Name search over 100k and 1M users: word prefix, the two-character prefix path, a mid-word
+// substring and a misspelling (the fuzzy fallback). Names are built from syllables so trigram
+// frequencies look like real names rather than random letters.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TrigramIndexBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "an", "bel", "car", "da", "el", "fer", "gi", "ha", "is", "jo", "ka", "lin",
+            "mar", "na", "ol", "pe", "qui", "ro", "sa", "ti", "ur", "va", "wen", "zo"
+    };
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private TrigramIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        for (long id = 1; id <= size; id++) {
+            index.put(id, word(random) + " " + word(random));
+        }
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Hit> prefix() {
+        return index.search("marel", LIMIT);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Hit> twoCharacterPrefix() {
+        return index.search("ka", LIMIT);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Hit> substring() {
+        return index.search("linsa", LIMIT);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Hit> fuzzy() {
+        return index.search("marlinx", LIMIT);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.service.common.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+// One entry of an event log: a service's own (stored on disk, served by GET /events, sent to
+// Kafka) or another service's that it consumes. offset is its position in the publishing
+// instance's log (-1 on Kafka, which has its own); payload is the event body (UserRegistered,
+// ExpenseCreated, SettlementRecorded, ...), named by type.
+public class DomainEvent {
+    private long offset = -1;
+    private String eventId;
+    private String type;
+    private String key;      // Aggregate the event is about; Kafka partitions by it
+    private String source;   // Publishing service
+    private LocalDateTime occurredAt;
+    private JsonNode payload;
+
+    // Default constructor
+    public DomainEvent() {
+    }
+
+    public DomainEvent(String eventId, String type, String key, String source,
+                       LocalDateTime occurredAt, JsonNode payload) {
+        this.eventId = eventId;
+        this.type = type;
+        this.key = key;
+        this.source = source;
+        this.occurredAt = occurredAt;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public JsonNode getPayload() {
+        return payload;
+    }
+
+    public void setPayload(JsonNode payload) {
+        this.payload = payload;
+    }
+}
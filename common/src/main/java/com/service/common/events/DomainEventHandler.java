@@ -0,0 +1,11 @@
+package com.service.common.events;
+
+// Reacts to the domain events of one other service (its spring.application.name). Delivery is
+// at-least-once and in order per publishing instance (per partition on Kafka), so handle must be
+// idempotent, and should skip event types it doesn't know. Throwing retries the event.
+public interface DomainEventHandler {
+
+    String getSource();
+
+    void handle(DomainEvent event);
+}
@@ -0,0 +1,12 @@
+package com.service.common.events;
+
+// Publishes this service's domain events for other services to react to. The only implementation,
+// OutboxEventPublisher, writes the event to the outbox in the caller's transaction; OutboxRelay
+// delivers it to the EventTransport once that transaction has committed.
+public interface DomainEventPublisher {
+
+    // Must be called inside the transaction that makes the change the event describes: the event
+    // is delivered (at least once) if and only if that transaction commits. Throws
+    // IllegalStateException when there is no transaction or the event can't be serialized.
+    void publish(String type, String key, Object payload);
+}
@@ -0,0 +1,57 @@
+package com.service.common.events;
+
+import java.util.List;
+
+// Response of GET /events. logId changes when an instance starts over with an empty log (its
+// offsets restart), so consumers keep offsets per logId. earliestOffset is the oldest event still
+// retained: a consumer behind it has missed events and should run a reconciliation.
+public class EventBatch {
+    private String logId;
+    private long earliestOffset;
+    private long nextOffset;  // Offset the next published event will get
+    private List<DomainEvent> events;
+
+    // Default constructor
+    public EventBatch() {
+    }
+
+    public EventBatch(String logId, long earliestOffset, long nextOffset, List<DomainEvent> events) {
+        this.logId = logId;
+        this.earliestOffset = earliestOffset;
+        this.nextOffset = nextOffset;
+        this.events = events;
+    }
+
+    // Getters and Setters
+    public String getLogId() {
+        return logId;
+    }
+
+    public void setLogId(String logId) {
+        this.logId = logId;
+    }
+
+    public long getEarliestOffset() {
+        return earliestOffset;
+    }
+
+    public void setEarliestOffset(long earliestOffset) {
+        this.earliestOffset = earliestOffset;
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(long nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+
+    public List<DomainEvent> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<DomainEvent> events) {
+        this.events = events;
+    }
+}
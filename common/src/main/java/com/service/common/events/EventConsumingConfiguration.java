@@ -0,0 +1,16 @@
+package com.service.common.events;
+
+import com.service.common.events.offsets.EventConsumerOffset;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Consuming side of domain events, for a service to @Import: every DomainEventHandler bean gets
+// its source service's events, by long-polling each instance's GET /events (events.transport=
+// local, the default) or from Kafka. The offsets package joins the service's JPA entities and
+// repositories (event_consumer_offsets). Needs @EnableScheduling for instance discovery.
+@Configuration
+@AutoConfigurationPackage(basePackageClasses = EventConsumerOffset.class)
+@Import({HttpEventLogSubscriber.class, KafkaEventSubscriber.class})
+public class EventConsumingConfiguration {
+}
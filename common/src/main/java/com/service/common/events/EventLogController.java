@@ -0,0 +1,64 @@
+package com.service.common.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+// This instance's domain events, for other services only: the API gateway does not route it.
+// Consumers long-poll: GET /events?after=<last offset seen>&waitMs=20000 returns as soon as there
+// is a newer event, or an empty batch after waitMs.
+@RestController
+@RequestMapping("/events")
+@ConditionalOnProperty(name = "events.transport", havingValue = "local", matchIfMissing = true)
+public class EventLogController {
+
+    @Autowired
+    private LocalEventLog eventLog;
+
+    @Value("${events.log.max-batch:1000}")
+    private int maxBatch;
+
+    @Value("${events.log.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @GetMapping
+    public ResponseEntity<?> readEvents(@RequestParam(defaultValue = "-1") long after,
+                                        @RequestParam(defaultValue = "500") int max,
+                                        @RequestParam(defaultValue = "0") long waitMs) {
+        try {
+            return ResponseEntity.ok(eventLog.read(after,
+                    Math.max(1, Math.min(max, maxBatch)),
+                    Math.max(0, Math.min(waitMs, maxWaitMs))));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Same shape as the services' own error bodies
+    public static class ErrorResponse {
+        private String message;
+        private String timestamp;
+
+        public ErrorResponse(String message) {
+            this.message = message;
+            this.timestamp = LocalDateTime.now().toString();
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getTimestamp() {
+            return timestamp;
+        }
+    }
+}
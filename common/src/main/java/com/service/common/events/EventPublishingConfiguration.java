@@ -0,0 +1,20 @@
+package com.service.common.events;
+
+import com.service.common.events.outbox.OutboxEvent;
+import com.service.common.events.outbox.OutboxEventPublisher;
+import com.service.common.events.outbox.OutboxRelay;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Publishing side of domain events, for a service to @Import: the DomainEventPublisher writing
+// to the transactional outbox (event_outbox, which joins the service's JPA entities and
+// repositories), the relay that drains it, and the EventTransport selected by events.transport:
+// LocalEventLog with its GET /events endpoint (local, the default) or KafkaEventTransport (kafka).
+// Needs @EnableScheduling for log retention and outbox purging.
+@Configuration
+@AutoConfigurationPackage(basePackageClasses = OutboxEvent.class)
+@Import({OutboxEventPublisher.class, OutboxRelay.class,
+        LocalEventLog.class, EventLogController.class, KafkaEventTransport.class})
+public class EventPublishingConfiguration {
+}
@@ -0,0 +1,14 @@
+package com.service.common.events;
+
+import java.util.List;
+
+// Where OutboxRelay delivers domain events: LocalEventLog (events.transport=local, the default: an
+// fsync'd log on local disk that consumers long-poll over GET /events) or KafkaEventTransport
+// (events.transport=kafka).
+public interface EventTransport {
+
+    // Durably stores the events, in order, before returning; throws IllegalStateException when
+    // they could not all be stored. Some of them may have been, so a retry can deliver an event
+    // twice: consumers are idempotent.
+    void send(List<DomainEvent> events);
+}
@@ -0,0 +1,230 @@
+package com.service.common.events;
+
+import com.service.common.events.offsets.EventConsumerOffset;
+import com.service.common.events.offsets.EventConsumerOffsetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Consumes other services' event logs (events.transport=local) by long-polling GET /events on
+// every instance of each handler's source service, as listed by Eureka. One worker thread per
+// instance; a worker whose handler keeps failing holds up only that instance's events.
+// The offset (event_consumer_offsets, per source log) is stored after the handler has returned
+// for a whole batch, so delivery is at-least-once: after a crash the batch is handled again.
+// Events of an instance that is down wait in its log until it is back.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "local", matchIfMissing = true)
+public class HttpEventLogSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpEventLogSubscriber.class);
+
+    @Autowired
+    private List<DomainEventHandler> handlers;
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private EventConsumerOffsetRepository offsetRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${events.consumer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${events.consumer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${events.consumer.poll-wait-ms:20000}")
+    private long pollWaitMs;
+
+    @Value("${events.consumer.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${events.consumer.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+    private RestTemplate restTemplate;
+    private TransactionTemplate offsetTransaction;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    void init() {
+        // Not load-balanced: each worker talks to one instance. The read timeout covers the long-poll.
+        restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(5))
+                .setReadTimeout(Duration.ofMillis(pollWaitMs + 10_000))
+                .build();
+        // Offsets are read and written on the primary: a lagging replica would hand back an old one
+        offsetTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        workers.values().forEach(Worker::stop);
+    }
+
+    // Starts a worker for each new source instance and stops those whose instance has left the registry
+    @Scheduled(fixedDelayString = "${events.consumer.discovery-interval-ms:30000}")
+    public void refreshSources() {
+        if (!enabled || !running) {
+            return;
+        }
+        Set<String> current = new HashSet<>();
+        for (DomainEventHandler handler : handlers) {
+            for (ServiceInstance instance : discoveryClient.getInstances(handler.getSource())) {
+                String workerKey = handler.getSource() + "/" + instance.getInstanceId();
+                current.add(workerKey);
+                workers.computeIfAbsent(workerKey, key -> {
+                    Worker worker = new Worker(handler, instance.getUri());
+                    Thread thread = new Thread(worker, "events-" + key);
+                    thread.setDaemon(true);
+                    worker.thread = thread;
+                    thread.start();
+                    log.info("Consuming {} events from {}", handler.getSource(), instance.getUri());
+                    return worker;
+                });
+            }
+        }
+        workers.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().stop();
+            return true;
+        });
+    }
+
+    // Package-private for tests: one worker, without its thread
+    Worker newWorker(DomainEventHandler handler, URI uri) {
+        return new Worker(handler, uri);
+    }
+
+    class Worker implements Runnable {
+        private final DomainEventHandler handler;
+        private final URI uri;
+        private volatile boolean stopped;
+        private Thread thread;
+
+        private String logId;  // Log currently consumed from the instance, null until the first poll
+        private long lastOffset = -1;
+
+        Worker(DomainEventHandler handler, URI uri) {
+            this.handler = handler;
+            this.uri = uri;
+        }
+
+        @Override
+        public void run() {
+            long backoff = retryBackoffMs;
+            while (running && !stopped) {
+                try {
+                    pollOnce(pollWaitMs);
+                    backoff = retryBackoffMs;
+                } catch (RuntimeException e) {
+                    meterRegistry.counter("events.consumer.failures", "source", handler.getSource()).increment();
+                    log.warn("Consuming {} events from {} failed, retrying in {} ms: {}",
+                            handler.getSource(), uri, backoff, e.getMessage());
+                    if (!sleep(backoff)) {
+                        return;
+                    }
+                    backoff = Math.min(backoff * 2, maxBackoffMs);
+                }
+            }
+        }
+
+        // One long-poll and the handling of whatever it returned; throws (without moving the
+        // offset past the failed event) when the instance can't be reached or the handler fails
+        void pollOnce(long waitMs) {
+            boolean first = logId == null;
+            EventBatch batch = restTemplate.getForObject(uri + "/events?after={after}&max={max}&waitMs={waitMs}",
+                    EventBatch.class, lastOffset, first ? 1 : batchSize, first ? 0 : waitMs);
+            if (batch == null) {
+                throw new IllegalStateException("Empty response from " + uri);
+            }
+            if (!batch.getLogId().equals(logId)) {
+                // First poll, or the instance started over with a new log: continue from the
+                // offset stored for that log, and read again
+                logId = batch.getLogId();
+                lastOffset = offsetTransaction.execute(status -> offsetRepository.findById(logKey())
+                        .map(EventConsumerOffset::getLastOffset)
+                        .orElse(-1L));
+                return;
+            }
+            if (batch.getEarliestOffset() > lastOffset + 1) {
+                meterRegistry.counter("events.consumer.missed", "source", handler.getSource())
+                        .increment(batch.getEarliestOffset() - lastOffset - 1);
+                log.error("Missed {} events {} to {} from {}: they were deleted from its log before being consumed",
+                        handler.getSource(), lastOffset + 1, batch.getEarliestOffset() - 1, uri);
+                lastOffset = batch.getEarliestOffset() - 1;
+            }
+            List<DomainEvent> events = batch.getEvents();
+            if (events.isEmpty()) {
+                return;
+            }
+            for (DomainEvent event : events) {
+                handler.handle(event);
+                lastOffset = event.getOffset();
+            }
+            long stored = lastOffset;
+            offsetTransaction.executeWithoutResult(status ->
+                    offsetRepository.save(new EventConsumerOffset(logKey(), stored)));
+            meterRegistry.counter("events.consumed", "source", handler.getSource()).increment(events.size());
+        }
+
+        long getLastOffset() {
+            return lastOffset;
+        }
+
+        void stop() {
+            stopped = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        private String logKey() {
+            return handler.getSource() + ":" + logId;
+        }
+
+        private boolean sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
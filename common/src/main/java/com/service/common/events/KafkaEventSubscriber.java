@@ -0,0 +1,141 @@
+package com.service.common.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// Kafka transport (events.transport=kafka): one consumer thread per handler, reading the source
+// service's topic in this service's consumer group. Offsets are committed after the handler has
+// returned for a whole poll, so delivery is at-least-once, as with HttpEventLogSubscriber.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "kafka")
+public class KafkaEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaEventSubscriber.class);
+
+    @Autowired
+    private List<DomainEventHandler> handlers;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.application.name}")
+    private String groupId;
+
+    @Value("${events.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${events.kafka.topic-prefix:split.}")
+    private String topicPrefix;
+
+    @Value("${events.consumer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${events.consumer.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    private final List<KafkaConsumer<String, String>> consumers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    @PostConstruct
+    void init() {
+        for (DomainEventHandler handler : handlers) {
+            KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerConfig());
+            consumers.add(consumer);
+            Thread thread = new Thread(() -> consume(consumer, handler), "events-kafka-" + handler.getSource());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        consumers.forEach(KafkaConsumer::wakeup);
+    }
+
+    private void consume(KafkaConsumer<String, String> consumer, DomainEventHandler handler) {
+        String topic = topicPrefix + handler.getSource();
+        try (consumer) {
+            consumer.subscribe(List.of(topic));
+            log.info("Consuming {} events from Kafka topic {}", handler.getSource(), topic);
+            while (running) {
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofSeconds(1));
+                for (ConsumerRecord<String, String> record : records) {
+                    if (!handleWithRetry(handler, record)) {
+                        return;  // shutting down: the uncommitted records are redelivered
+                    }
+                }
+                if (!records.isEmpty()) {
+                    consumer.commitSync();
+                    meterRegistry.counter("events.consumed", "source", handler.getSource()).increment(records.count());
+                }
+            }
+        } catch (WakeupException e) {
+            // shutting down
+        } catch (RuntimeException e) {
+            // The group rebalances this consumer's partitions to another instance
+            log.error("Kafka consumer for {} stopped: {}", topic, e.getMessage(), e);
+        }
+    }
+
+    // Keeps retrying the record: skipping it would break at-least-once. If this takes longer than
+    // max.poll.interval.ms the group hands the partition to another consumer, which starts again
+    // from the last committed offset. False when shutdown interrupted the retries.
+    private boolean handleWithRetry(DomainEventHandler handler, ConsumerRecord<String, String> record) {
+        while (running) {
+            try {
+                handler.handle(objectMapper.readValue(record.value(), DomainEvent.class));
+                return true;
+            } catch (JsonProcessingException e) {
+                log.error("Skipping unreadable event at {}-{}@{}: {}", record.topic(), record.partition(),
+                        record.offset(), e.getMessage());
+                return true;
+            } catch (RuntimeException e) {
+                meterRegistry.counter("events.consumer.failures", "source", handler.getSource()).increment();
+                log.warn("Handling {} event at offset {} failed, retrying: {}", handler.getSource(), record.offset(), e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Properties consumerConfig() {
+        Properties config = new Properties();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        return config;
+    }
+}
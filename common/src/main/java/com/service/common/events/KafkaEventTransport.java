@@ -0,0 +1,98 @@
+package com.service.common.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Kafka transport (events.transport=kafka): events go to one topic per service, keyed by aggregate
+// so each aggregate's events stay in order on one partition. send waits for every write to be
+// acknowledged by all in-sync replicas, the Kafka equivalent of LocalEventLog's fsync.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "kafka")
+public class KafkaEventTransport implements EventTransport {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.application.name}")
+    private String clientId;
+
+    @Value("${events.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${events.kafka.topic:split.${spring.application.name}}")
+    private String topic;
+
+    @Value("${events.kafka.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private KafkaProducer<String, String> producer;
+
+    @PostConstruct
+    void init() {
+        Properties config = new Properties();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, clientId);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);  // broker-side dedup of producer retries
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, sendTimeoutMs);  // don't hang on missing metadata
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producer = new KafkaProducer<>(config);
+    }
+
+    @PreDestroy
+    void close() {
+        producer.close();
+    }
+
+    // The batch is handed to the producer at once, so it goes out in as few requests as the
+    // partitions allow, and then every acknowledgement is awaited
+    @Override
+    public void send(List<DomainEvent> events) {
+        List<Future<RecordMetadata>> sends = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            try {
+                String json = objectMapper.writeValueAsString(event);
+                sends.add(producer.send(new ProducerRecord<>(topic, event.getKey(), json)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize " + event.getType() + " event", e);
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        try {
+            for (Future<RecordMetadata> send : sends) {
+                send.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not publish events to Kafka: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted publishing events", e);
+        }
+        events.forEach(event -> meterRegistry.counter("events.published", "type", event.getType()).increment());
+    }
+}
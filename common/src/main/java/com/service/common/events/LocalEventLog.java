@@ -0,0 +1,393 @@
+package com.service.common.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Broker-less transport: this instance's events in an append-only log under events.log.dir, which
+// other services long-poll over GET /events. One JSON line per event, in segment files named after
+// their first offset, rolled at segment-bytes and deleted after retention-hours.
+// send returns once the events are fsync'd (concurrent senders share one fsync), and readers
+// only see synced events, so an offset a consumer has seen is never reused after a crash. A line
+// torn by a crash mid-write is cut off at startup.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "local", matchIfMissing = true)
+public class LocalEventLog implements EventTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalEventLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOG_ID_FILE = "log.id";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${events.log.dir:data/events}")
+    private String directory;
+
+    @Value("${events.log.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${events.log.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${events.log.fsync:true}")
+    private boolean fsync;
+
+    // Guarded by this; the last segment is the one being appended to
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private long nextOffset;
+    private long syncedOffset;  // Events below this are on disk and visible to readers
+
+    // Held by the one thread doing an fsync for everyone queued behind it
+    private final Object syncLock = new Object();
+
+    private String logId;
+    private Timer publishTimer;
+
+    @PostConstruct
+    void init() throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(SEGMENT_SUFFIX))::iterator) {
+                String name = file.getFileName().toString();
+                long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(baseOffset, Segment.open(file, baseOffset));
+            }
+        }
+        // Offsets restart with an empty log, so it gets a new identity: consumers must not carry
+        // their offsets over to it
+        Path idFile = dir.resolve(LOG_ID_FILE);
+        if (segments.isEmpty() || !Files.exists(idFile)) {
+            logId = UUID.randomUUID().toString();
+            Files.writeString(idFile, logId);
+        } else {
+            logId = Files.readString(idFile).trim();
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, Segment.open(dir.resolve(segmentName(0)), 0));
+        }
+        nextOffset = segments.lastEntry().getValue().endOffset();
+        syncedOffset = nextOffset;
+        publishTimer = Timer.builder("events.publish")
+                .description("Time to append and sync a batch of domain events")
+                .register(meterRegistry);
+        log.info("Event log {} at {}: offsets {} to {}", logId, dir.toAbsolutePath(), segments.firstKey(), nextOffset);
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        segments.values().forEach(Segment::close);
+    }
+
+    // The events get consecutive offsets and share one fsync
+    @Override
+    public void send(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        publishTimer.record(() -> {
+            long lastOffset;
+            synchronized (this) {
+                for (DomainEvent event : events) {
+                    event.setOffset(nextOffset);
+                    append(toLine(event));
+                    nextOffset++;
+                }
+                lastOffset = nextOffset - 1;
+                if (!fsync) {
+                    syncedOffset = nextOffset;
+                    notifyAll();
+                }
+            }
+            if (fsync) {
+                sync(lastOffset);
+            }
+        });
+        events.forEach(event -> meterRegistry.counter("events.published", "type", event.getType()).increment());
+    }
+
+    // Events after the given offset (-1: from the start), at most max of them. With waitMs > 0
+    // and nothing to return yet, waits up to that long for the next event. A consumer behind the
+    // retained log continues at earliestOffset.
+    public EventBatch read(long after, int max, long waitMs) {
+        List<Range> ranges = new ArrayList<>();
+        long earliest;
+        long visibleEnd;
+        synchronized (this) {
+            long from = Math.max(after + 1, 0);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+            try {
+                while (from >= syncedOffset) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            earliest = segments.firstKey();
+            visibleEnd = syncedOffset;
+            from = Math.max(from, earliest);
+            long end = Math.min(visibleEnd, from + max);
+            for (Segment segment : segments.tailMap(segments.floorKey(from), true).values()) {
+                if (segment.baseOffset >= end) {
+                    break;
+                }
+                int first = (int) (Math.max(from, segment.baseOffset) - segment.baseOffset);
+                int last = (int) (Math.min(end, segment.endOffset()) - segment.baseOffset);
+                if (first < last) {
+                    ranges.add(new Range(segment, segment.positions[first],
+                            last < segment.count ? segment.positions[last] : segment.size));
+                }
+            }
+        }
+        // File reads happen outside the lock, so a slow reader never holds up publishers
+        List<DomainEvent> events = new ArrayList<>();
+        for (Range range : ranges) {
+            byte[] bytes = range.segment.read(range.start, range.end);
+            int lineStart = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    events.add(parse(bytes, lineStart, i - lineStart));
+                    lineStart = i + 1;
+                }
+            }
+        }
+        return new EventBatch(logId, earliest, visibleEnd, events);
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    // Segments are closed once the next one has started, so a segment's file time is its last
+    // append; the active segment is always kept (it carries the next offset)
+    @Scheduled(fixedDelayString = "${events.log.retention-check-ms:600000}")
+    public void deleteExpiredSegments() {
+        Instant cutoff = Instant.now().minus(retentionHours, ChronoUnit.HOURS);
+        List<Segment> expired = new ArrayList<>();
+        synchronized (this) {
+            while (segments.size() > 1 && segments.firstEntry().getValue().lastModified().isBefore(cutoff)) {
+                expired.add(segments.pollFirstEntry().getValue());
+            }
+        }
+        for (Segment segment : expired) {
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+                log.info("Deleted event log segment {} (offsets {} to {})",
+                        segment.path.getFileName(), segment.baseOffset, segment.endOffset());
+            } catch (IOException e) {
+                log.warn("Could not delete event log segment {}: {}", segment.path, e.getMessage());
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void append(byte[] line) {
+        Segment active = segments.lastEntry().getValue();
+        try {
+            if (active.count > 0 && active.size + line.length > segmentBytes) {
+                // Everything in the old segment is synced before appends move on
+                active.channel.force(false);
+                active = Segment.open(active.path.resolveSibling(segmentName(nextOffset)), nextOffset);
+                segments.put(nextOffset, active);
+            }
+            active.append(line);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not append to event log: " + e.getMessage(), e);
+        }
+    }
+
+    // Group commit: whoever gets the sync lock first fsyncs everything appended so far, and
+    // senders whose events that covered return without another fsync
+    private void sync(long offset) {
+        synchronized (syncLock) {
+            long target;
+            FileChannel channel;
+            synchronized (this) {
+                if (syncedOffset > offset) {
+                    return;
+                }
+                target = nextOffset;
+                channel = segments.lastEntry().getValue().channel;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not sync event log: " + e.getMessage(), e);
+            }
+            synchronized (this) {
+                syncedOffset = target;
+                notifyAll();
+            }
+        }
+    }
+
+    private byte[] toLine(DomainEvent event) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(event);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getType() + " event", e);
+        }
+    }
+
+    private DomainEvent parse(byte[] bytes, int offset, int length) {
+        try {
+            return objectMapper.readValue(bytes, offset, length, DomainEvent.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt event log line: "
+                    + new String(bytes, offset, Math.min(length, 200), StandardCharsets.UTF_8), e);
+        }
+    }
+
+    private static String segmentName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SEGMENT_SUFFIX);
+    }
+
+    // One segment file and the file position of each of its lines (index = offset - baseOffset)
+    private static class Segment {
+        private final Path path;
+        private final long baseOffset;
+        private final FileChannel channel;
+        private long[] positions = new long[1024];
+        private int count;
+        private long size;
+
+        private Segment(Path path, long baseOffset, FileChannel channel) {
+            this.path = path;
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+        }
+
+        // Indexes every complete line; anything after the last newline is a torn write
+        static Segment open(Path path, long baseOffset) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(path, baseOffset, channel);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long chunkStart = 0;
+            long lineStart = 0;
+            while (channel.read(buffer, chunkStart) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    if (buffer.get() == '\n') {
+                        segment.index(lineStart);
+                        lineStart = chunkStart + buffer.position();
+                    }
+                }
+                chunkStart += buffer.limit();
+                buffer.clear();
+            }
+            if (lineStart < channel.size()) {
+                log.warn("Truncating torn write at the end of {} ({} bytes)", path, channel.size() - lineStart);
+                channel.truncate(lineStart);
+                channel.force(false);
+            }
+            segment.size = lineStart;
+            return segment;
+        }
+
+        long endOffset() {
+            return baseOffset + count;
+        }
+
+        void append(byte[] line) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            long position = size;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            // Only a complete line is indexed; a failed write is overwritten by the next append
+            index(size);
+            size = position;
+        }
+
+        byte[] read(long start, long end) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new IOException("unexpected end of segment");
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read event log " + path.getFileName() + ": " + e.getMessage(), e);
+            }
+            return buffer.array();
+        }
+
+        Instant lastModified() {
+            try {
+                return Files.getLastModifiedTime(path).toInstant();
+            } catch (IOException e) {
+                return Instant.now();  // keep it for now
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Could not close {}: {}", path, e.getMessage());
+            }
+        }
+
+        private void index(long position) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+    }
+
+    private static class Range {
+        private final Segment segment;
+        private final long start;
+        private final long end;
+
+        Range(Segment segment, long start, long end) {
+            this.segment = segment;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
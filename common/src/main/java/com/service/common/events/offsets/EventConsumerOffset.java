@@ -0,0 +1,46 @@
+package com.service.common.events.offsets;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Last event this service has handled from one other instance's event log (see
+// HttpEventLogSubscriber). Keyed by the log's identity rather than the instance, so an instance
+// that restarts with its log picks up where it was, and one that starts over gets a fresh offset.
+// In a sharded service, offsets live on the default shard: consumer threads carry no shard.
+@Entity
+@Table(name = "event_consumer_offsets")
+public class EventConsumerOffset {
+
+    @Id
+    @Column(name = "log_key", length = 150)
+    private String logKey;  // "<source service>:<logId>"
+
+    @Column(name = "last_offset", nullable = false)
+    private long lastOffset;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Default constructor (required by JPA)
+    public EventConsumerOffset() {
+    }
+
+    public EventConsumerOffset(String logKey, long lastOffset) {
+        this.logKey = logKey;
+        this.lastOffset = lastOffset;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getLogKey() {
+        return logKey;
+    }
+
+    public long getLastOffset() {
+        return lastOffset;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.service.common.events.offsets;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventConsumerOffsetRepository extends JpaRepository<EventConsumerOffset, String> {
+}
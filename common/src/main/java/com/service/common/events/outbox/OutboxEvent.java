@@ -0,0 +1,77 @@
+package com.service.common.events.outbox;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A domain event waiting in the publishing service's own database (see OutboxEventPublisher). It
+// is inserted in the transaction that makes the change it describes, so it exists exactly when
+// that change committed; OutboxRelay sets sent_at once the EventTransport has stored it.
+@Entity
+@Table(name = "event_outbox",
+        indexes = @Index(name = "idx_event_outbox_sent_at", columnList = "sent_at, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;  // Relay order
+
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;  // Kept across redeliveries
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(name = "event_key", nullable = false, length = 100)
+    private String key;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;  // JSON
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // Default constructor (required by JPA)
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventId, String type, String key, String payload, LocalDateTime occurredAt) {
+        this.eventId = eventId;
+        this.type = type;
+        this.key = key;
+        this.payload = payload;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+}
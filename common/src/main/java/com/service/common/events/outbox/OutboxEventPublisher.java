@@ -0,0 +1,48 @@
+package com.service.common.events.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.common.events.DomainEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Transactional outbox: the event becomes a row of event_outbox in the caller's transaction, so it
+// commits or rolls back with the change it describes, and nothing can be lost between the two.
+// The commit wakes OutboxRelay to deliver it straight away.
+@Component
+public class OutboxEventPublisher implements DomainEventPublisher {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String type, String key, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event", e);
+        }
+        outboxRepository.save(new OutboxEvent(UUID.randomUUID().toString(), type, key, json, LocalDateTime.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.service.common.events.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // The oldest unsent events, locked until the relay's transaction ends. Rows another instance
+    // is relaying are skipped rather than waited for (or sent twice).
+    @Query(value = "SELECT * FROM event_outbox WHERE sent_at IS NULL ORDER BY id LIMIT :max FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> findUnsentForUpdate(@Param("max") int max);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    // Bounded, so one purge never holds a long lock on the table
+    @Modifying
+    @Query(value = "DELETE FROM event_outbox WHERE sent_at < :cutoff LIMIT :max", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("max") int max);
+}
@@ -0,0 +1,10 @@
+package com.service.common.events.outbox;
+
+// The databases a service keeps outbox rows in. One by default; a sharded service declares a bean
+// that runs the relay's work once per shard, with the shard selected.
+@FunctionalInterface
+public interface OutboxLocations {
+
+    // Runs the work (which manages its own transactions) once per location, on the calling thread
+    void forEach(Runnable work);
+}
@@ -0,0 +1,208 @@
+package com.service.common.events.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.common.events.DomainEvent;
+import com.service.common.events.EventTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Moves committed outbox rows to the EventTransport, oldest first, on one thread per instance:
+// woken by each commit that wrote a row, and polling every poll-interval-ms for rows left by
+// another instance or an earlier failure. A batch is marked sent in the transaction that locked
+// it, after the transport has stored it, so delivery is at-least-once: if the transport or the
+// commit fails, the rows stay unsent and the whole batch is sent again after a backoff.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private EventTransport transport;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private OutboxLocations locations;
+
+    @Value("${spring.application.name}")
+    private String source;
+
+    @Value("${events.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${events.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${events.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${events.outbox.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${events.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    // Guarded by itself: set by a commit that wrote rows, cleared when the relay picks them up
+    private final Object signal = new Object();
+    private boolean woken;
+
+    private volatile boolean running = true;
+    private Thread thread;
+    private TransactionTemplate relayTransaction;
+
+    @PostConstruct
+    void init() {
+        if (locations == null) {
+            locations = Runnable::run;
+        }
+        // On the primary, and without gap locks, which under REPEATABLE READ would block the
+        // inserts of new rows past the end of the locked batch
+        relayTransaction = new TransactionTemplate(transactionManager);
+        relayTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    // Once startup (schema updates included) is over
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = new Thread(this::run, "events-outbox-relay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public void wakeUp() {
+        synchronized (signal) {
+            woken = true;
+            signal.notify();
+        }
+    }
+
+    // Sends everything unsent, batch by batch, from every location; throws on the first failure.
+    // Package-private for tests.
+    void relayPending() {
+        locations.forEach(() -> {
+            while (relayBatch() == batchSize) {
+                // a full batch: there may be more
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${events.outbox.purge-interval-ms:3600000}")
+    public void deleteSentEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        locations.forEach(() -> {
+            int deleted;
+            do {
+                deleted = relayTransaction.execute(status -> outboxRepository.deleteSentBefore(cutoff, batchSize));
+            } while (deleted == batchSize);
+        });
+    }
+
+    private void run() {
+        long backoff = retryBackoffMs;
+        while (running) {
+            try {
+                relayPending();
+                backoff = retryBackoffMs;
+                if (!awaitWork()) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                meterRegistry.counter("events.outbox.failures").increment();
+                log.warn("Relaying outbox events failed, retrying in {} ms: {}", backoff, e.getMessage());
+                if (!sleep(backoff)) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private int relayBatch() {
+        return relayTransaction.execute(status -> {
+            List<OutboxEvent> rows = outboxRepository.findUnsentForUpdate(batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            List<DomainEvent> events = new ArrayList<>(rows.size());
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (OutboxEvent row : rows) {
+                events.add(toEvent(row));
+                ids.add(row.getId());
+            }
+            transport.send(events);
+            outboxRepository.markSent(ids, LocalDateTime.now());
+            meterRegistry.counter("events.outbox.relayed").increment(rows.size());
+            return rows.size();
+        });
+    }
+
+    private DomainEvent toEvent(OutboxEvent row) {
+        try {
+            return new DomainEvent(row.getEventId(), row.getType(), row.getKey(), source,
+                    row.getOccurredAt(), objectMapper.readTree(row.getPayload()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox row " + row.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Waits for a commit's wake-up or the poll interval; false once interrupted by shutdown
+    private boolean awaitWork() {
+        synchronized (signal) {
+            try {
+                if (!woken) {
+                    signal.wait(pollIntervalMs);
+                }
+                woken = false;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
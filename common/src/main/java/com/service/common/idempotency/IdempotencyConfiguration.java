@@ -0,0 +1,14 @@
+package com.service.common.idempotency;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// Idempotency-Key support, for a service to @Import: IdempotencyService, with idempotency_keys
+// joining the service's JPA entities and repositories. Settings come from the properties under
+// idempotency.property-prefix. Needs @EnableScheduling for the purge of expired keys.
+@Configuration
+@AutoConfigurationPackage(basePackageClasses = IdempotencyRecord.class)
+@Import(IdempotencyService.class)
+public class IdempotencyConfiguration {
+}
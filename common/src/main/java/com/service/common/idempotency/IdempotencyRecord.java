@@ -0,0 +1,115 @@
+package com.service.common.idempotency;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Outcome of a POST sent with an Idempotency-Key (see IdempotencyService). The row is inserted
+// as IN_PROGRESS before the request runs, so the primary key stops a duplicate on another
+// instance, and is completed with the response the client should get for any retry.
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+
+    @Id
+    @Column(name = "record_key", length = 160)
+    private String key;  // "<userId>:<Idempotency-Key>"
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;  // SHA-256 of the request body: a reused key must come with the same request
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Lob
+    @Column(name = "response_body", columnDefinition = "LONGTEXT")
+    private String responseBody;  // JSON
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Transient
+    private boolean isNew = true;  // save() must INSERT (and fail on a duplicate key), never merge
+
+    // Default constructor (required by JPA)
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String requestHash, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.status = Status.IN_PROGRESS;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(Integer responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,28 @@
+package com.service.common.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Drops a claim that never completed (failed request, or an instance that died mid-request)
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key " +
+            "AND r.status = com.service.common.idempotency.IdempotencyRecord.Status.IN_PROGRESS " +
+            "AND r.createdAt < :claimedBefore")
+    int deleteClaim(@Param("key") String key, @Param("claimedBefore") LocalDateTime claimedBefore);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
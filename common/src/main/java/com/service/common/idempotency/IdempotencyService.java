@@ -0,0 +1,313 @@
+package com.service.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Idempotency-Key support for POSTs that create things. A key is scoped to the calling user.
+// The first request with it runs and its 2xx response is stored (idempotency_keys, plus a small
+// in-memory LRU), so a retry within the window gets that response back instead of running again.
+// A duplicate that arrives while the first is still running, on this instance or another, finds
+// its IN_PROGRESS row and gets 409. Errors are not stored: the client may retry those for real.
+// Settings are read under idempotency.property-prefix (e.g. balance.idempotency.ttl-hours). In a
+// sharded service the records stay on the default shard: call execute outside any shard routing.
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Pattern VALID_KEY = Pattern.compile("[\\x21-\\x7E]{1,128}");  // printable ASCII
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${${idempotency.property-prefix:idempotency}.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${${idempotency.property-prefix:idempotency}.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${${idempotency.property-prefix:idempotency}.lock-stripes:256}")
+    private int lockStripes;
+
+    // A claim older than this is taken over: its instance is assumed to have died mid-request
+    @Value("${${idempotency.property-prefix:idempotency}.claim-timeout-seconds:60}")
+    private long claimTimeoutSeconds;
+
+    private Stripe[] stripes;
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    void init() {
+        stripes = new Stripe[lockStripes];
+        int perStripe = Math.max(1, cacheSize / lockStripes);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        // Records are written in their own transactions, never in the caller's (and on the
+        // primary: a replica may not have the claim yet)
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Runs action once per (userId, key); without a key it just runs. Throws IdempotencyException
+    // for a malformed key, a key reused with a different request, or a duplicate still in flight.
+    public ResponseEntity<?> execute(Long userId, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (!VALID_KEY.matcher(key).matches()) {
+            throw new IdempotencyException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be 1-128 printable ASCII characters");
+        }
+        String recordKey = userId + ":" + key;
+        String requestHash = hash(request);
+        Stripe stripe = stripes[Math.floorMod(recordKey.hashCode(), stripes.length)];
+        // The stripe only guards the claim check: the action runs unlocked, so requests whose keys
+        // share a stripe don't wait on each other
+        StoredResponse stored;
+        stripe.lock.lock();
+        try {
+            stored = stripe.get(recordKey);
+            if (stored == null) {
+                stored = claimOrLoad(recordKey, requestHash);
+                if (stored != null) {
+                    stripe.put(recordKey, stored);
+                }
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            releaseClaim(recordKey);
+            throw e;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            releaseClaim(recordKey);
+            return response;
+        }
+        StoredResponse completed = complete(recordKey, requestHash, response);
+        stripe.lock.lock();
+        try {
+            stripe.put(recordKey, completed);
+        } finally {
+            stripe.lock.unlock();
+        }
+        meterRegistry.counter("idempotency.requests", "outcome", "executed").increment();
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${${idempotency.property-prefix:idempotency}.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer deleted = ownTransaction.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    // The stored response for the key, or null once this request holds the claim. Two rounds:
+    // a claim released or expired between our failed insert and the read gets one more try.
+    private StoredResponse claimOrLoad(String recordKey, String requestHash) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            if (tryClaim(recordKey, requestHash, now)) {
+                return null;
+            }
+            IdempotencyRecord existing = ownTransaction.execute(status ->
+                    recordRepository.findById(recordKey).orElse(null));
+            if (existing == null) {
+                continue;
+            }
+            if (existing.getExpiresAt().isBefore(now)) {
+                ownTransaction.execute(status -> recordRepository.deleteIfExpired(recordKey, now));
+                continue;
+            }
+            if (existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                return new StoredResponse(existing);
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw reusedKey();
+            }
+            int takenOver = ownTransaction.execute(status ->
+                    recordRepository.deleteClaim(recordKey, now.minusSeconds(claimTimeoutSeconds)));
+            if (takenOver == 0) {
+                break;
+            }
+        }
+        meterRegistry.counter("idempotency.requests", "outcome", "in_progress").increment();
+        throw new IdempotencyException(HttpStatus.CONFLICT,
+                "A request with this " + HEADER + " is still being processed; retry shortly");
+    }
+
+    // Inserts the IN_PROGRESS row; false when the key already has one
+    private boolean tryClaim(String recordKey, String requestHash, LocalDateTime now) {
+        IdempotencyRecord claim = new IdempotencyRecord(recordKey, requestHash, now, now.plusHours(ttlHours));
+        try {
+            ownTransaction.executeWithoutResult(status -> recordRepository.saveAndFlush(claim));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Stores the response; if that fails the request has still happened, so the response goes
+    // back to the client anyway and only this instance remembers it (the claim times out elsewhere)
+    private StoredResponse complete(String recordKey, String requestHash, ResponseEntity<?> response) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(response.getBody());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for " + HEADER, e);
+        }
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(), body,
+                LocalDateTime.now().plusHours(ttlHours));
+        try {
+            ownTransaction.executeWithoutResult(status -> recordRepository.findById(recordKey).ifPresent(claimed -> {
+                claimed.setStatus(IdempotencyRecord.Status.COMPLETED);
+                claimed.setResponseStatus(stored.status);
+                claimed.setResponseBody(body);
+                recordRepository.save(claimed);
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not store response for idempotency key {}: {}", recordKey, e.getMessage());
+        }
+        return stored;
+    }
+
+    private void releaseClaim(String recordKey) {
+        try {
+            ownTransaction.executeWithoutResult(status ->
+                    recordRepository.deleteClaim(recordKey, LocalDateTime.now().plusSeconds(1)));
+        } catch (RuntimeException e) {
+            // The claim times out on its own; until then retries get 409
+            log.warn("Could not release idempotency claim {}: {}", recordKey, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw reusedKey();
+        }
+        meterRegistry.counter("idempotency.requests", "outcome", "replayed").increment();
+        return ResponseEntity.status(stored.status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body);
+    }
+
+    private IdempotencyException reusedKey() {
+        meterRegistry.counter("idempotency.requests", "outcome", "mismatch").increment();
+        return new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                HEADER + " was already used for a different request");
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request for " + HEADER, e);
+        }
+    }
+
+    public static class IdempotencyException extends RuntimeException {
+        private final HttpStatus status;
+
+        public IdempotencyException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+    }
+
+    // One lock and its share of the in-memory LRU; the map is only touched under the lock
+    private class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, StoredResponse> recent;
+
+        Stripe(int capacity) {
+            recent = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        StoredResponse get(String recordKey) {
+            StoredResponse stored = recent.get(recordKey);
+            if (stored != null && stored.expiresAt.isBefore(LocalDateTime.now())) {
+                recent.remove(recordKey);
+                return null;
+            }
+            return stored;
+        }
+
+        void put(String recordKey, StoredResponse stored) {
+            recent.put(recordKey, stored);
+        }
+    }
+
+    private static class StoredResponse {
+        private final String requestHash;
+        private final int status;
+        private final String body;
+        private final LocalDateTime expiresAt;
+
+        StoredResponse(String requestHash, int status, String body, LocalDateTime expiresAt) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        StoredResponse(IdempotencyRecord record) {
+            this(record.getRequestHash(), record.getResponseStatus(), record.getResponseBody(), record.getExpiresAt());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.service.common.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+
+// Wraps the application's DataSource (the one JPA and JdbcTemplate use) with a JDBC proxy that
+// reports to QueryMetricsListener. Replaces show-sql/org.hibernate.SQL logging, which formatted
+// and wrote every statement. For a service to @Import; disable with app.query-metrics.enabled=false.
+@Configuration
+@ConditionalOnProperty(name = "app.query-metrics.enabled", matchIfMissing = true)
+@Import(QueryMetricsListener.class)
+public class QueryMetricsConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    // Static so the post-processor is registered without initializing this configuration early
+    @Bean
+    public static BeanPostProcessor queryMetricsDataSourcePostProcessor(ObjectProvider<QueryMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.service.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// Times every JDBC statement (JPA and JdbcTemplate alike) into a db.query timer per query
+// signature: the SQL with literals and IN-lists folded to "?", so one query shape is one
+// series. Statements over the slow threshold are counted and a sample of them is logged.
+@Component
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMetricsListener.class);
+
+    private static final String START_NANOS = "queryMetrics.startNanos";
+    private static final String OTHER_SIGNATURE = "other";
+    private static final int MAX_SIGNATURE_LENGTH = 300;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.query-metrics.slow-threshold-ms:200}")
+    private long slowThresholdMs;
+
+    @Value("${app.query-metrics.slow-log-sample-rate:0.1}")
+    private double slowLogSampleRate;
+
+    @Value("${app.query-metrics.max-signatures:500}")
+    private int maxSignatures;
+
+    @Value("${app.query-metrics.histogram:true}")
+    private boolean publishHistogram;
+
+    // Raw SQL -> signature, so the regexes run once per distinct statement text
+    private final Map<String, String> signatures = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> slowCounters = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        String signature = signatureOf(queryInfoList.get(0).getQuery());
+        if (execInfo.isSuccess()) {
+            timerFor(signature).record(Duration.ofNanos(elapsedNanos));
+        } else {
+            meterRegistry.counter("db.query.errors", "type", typeOf(signature)).increment();
+        }
+
+        long elapsedMs = elapsedNanos / 1_000_000;
+        if (elapsedMs >= slowThresholdMs) {
+            slowCounters.computeIfAbsent(typeOf(signature),
+                    type -> meterRegistry.counter("db.query.slow", "type", type)).increment();
+            if (ThreadLocalRandom.current().nextDouble() < slowLogSampleRate) {
+                log.atWarn()
+                        .addKeyValue("elapsedMs", elapsedMs)
+                        .addKeyValue("signature", signature)
+                        .addKeyValue("batchSize", execInfo.isBatch() ? execInfo.getBatchSize() : 1)
+                        .addKeyValue("success", execInfo.isSuccess())
+                        .log("Slow query ({} ms): {}", elapsedMs, signature);
+            }
+        }
+    }
+
+    private Timer timerFor(String signature) {
+        Timer timer = timers.get(signature);
+        if (timer != null) {
+            return timer;
+        }
+        // Cap the number of series; anything past the cap shares one
+        String key = timers.size() < maxSignatures ? signature : OTHER_SIGNATURE;
+        return timers.computeIfAbsent(key, k -> Timer.builder("db.query")
+                .description("JDBC statement execution time by query signature")
+                .tag("signature", k)
+                .tag("type", typeOf(k))
+                .publishPercentileHistogram(publishHistogram)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry));
+    }
+
+    private String signatureOf(String sql) {
+        if (sql == null) {
+            return OTHER_SIGNATURE;
+        }
+        String signature = signatures.get(sql);
+        if (signature == null) {
+            signature = normalize(sql);
+            // Statements with inlined literals would grow this map without bound
+            if (signatures.size() < maxSignatures * 4) {
+                signatures.put(sql, signature);
+            }
+        }
+        return signature;
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_SIGNATURE_LENGTH
+                ? normalized.substring(0, MAX_SIGNATURE_LENGTH)
+                : normalized;
+    }
+
+    private static String typeOf(String signature) {
+        int end = signature.indexOf(' ');
+        String keyword = end < 0 ? signature : signature.substring(0, end);
+        return keyword.isEmpty() ? OTHER_SIGNATURE : keyword.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,153 @@
+package com.service.common.events;
+
+import com.service.common.events.offsets.EventConsumerOffset;
+import com.service.common.events.offsets.EventConsumerOffsetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HttpEventLogSubscriberTest {
+
+    private static final URI INSTANCE = URI.create("http://10.0.0.7:8083");
+
+    private final HttpEventLogSubscriber subscriber = new HttpEventLogSubscriber();
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final EventConsumerOffsetRepository offsetRepository = mock(EventConsumerOffsetRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingHandler handler = new RecordingHandler();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(subscriber, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(subscriber, "offsetRepository", offsetRepository);
+        ReflectionTestUtils.setField(subscriber, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(subscriber, "offsetTransaction",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(subscriber, "batchSize", 500);
+        when(offsetRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void resumesFromTheStoredOffsetOfTheInstancesLog() {
+        when(offsetRepository.findById("transaction-service:log-a"))
+                .thenReturn(Optional.of(new EventConsumerOffset("transaction-service:log-a", 4)));
+        respondWith(batch("log-a", 0, event(0)), batch("log-a", 0, event(5), event(6)));
+        HttpEventLogSubscriber.Worker worker = subscriber.newWorker(handler, INSTANCE);
+
+        worker.pollOnce(20_000);  // learns the log, handles nothing
+        assertThat(handler.handled).isEmpty();
+        assertThat(worker.getLastOffset()).isEqualTo(4);
+
+        worker.pollOnce(20_000);
+        assertThat(handler.handled).containsExactly(5L, 6L);
+        assertThat(storedOffset()).isEqualTo(6);
+        verify(restTemplate).getForObject(anyString(), eq(EventBatch.class), eq(4L), eq(500), eq(20_000L));
+        assertThat(meterRegistry.counter("events.consumed", "source", "transaction-service").count()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotStoreTheOffsetWhenTheHandlerFails() {
+        respondWith(batch("log-a", 0), batch("log-a", 0, event(0), event(1)), batch("log-a", 0, event(0), event(1)));
+        handler.failOn = 1L;
+        HttpEventLogSubscriber.Worker worker = subscriber.newWorker(handler, INSTANCE);
+        worker.pollOnce(0);
+
+        assertThatThrownBy(() -> worker.pollOnce(0)).isInstanceOf(IllegalStateException.class);
+        verify(offsetRepository, never()).save(any());
+
+        handler.failOn = null;
+        worker.pollOnce(0);
+        assertThat(handler.handled).containsExactly(0L, 0L, 1L);  // at-least-once: 0 is handled again
+        assertThat(storedOffset()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsAheadPastEventsDeletedBeforeTheyWereConsumed() {
+        respondWith(batch("log-a", 0), batch("log-a", 10, event(10)));
+        HttpEventLogSubscriber.Worker worker = subscriber.newWorker(handler, INSTANCE);
+        worker.pollOnce(0);
+
+        worker.pollOnce(0);
+
+        assertThat(handler.handled).containsExactly(10L);
+        assertThat(meterRegistry.counter("events.consumer.missed", "source", "transaction-service").count())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void startsOverWhenTheInstanceComesBackWithANewLog() {
+        respondWith(batch("log-a", 0), batch("log-a", 0, event(0), event(1)), batch("log-b", 0, event(0)),
+                batch("log-b", 0, event(0)));
+        HttpEventLogSubscriber.Worker worker = subscriber.newWorker(handler, INSTANCE);
+        worker.pollOnce(0);
+        worker.pollOnce(0);
+
+        worker.pollOnce(0);  // different log: its own offset, nothing handled yet
+        assertThat(worker.getLastOffset()).isEqualTo(-1);
+        verify(offsetRepository).findById("transaction-service:log-b");
+
+        worker.pollOnce(0);
+        assertThat(handler.handled).containsExactly(0L, 1L, 0L);
+    }
+
+    private void respondWith(EventBatch first, EventBatch... rest) {
+        when(restTemplate.getForObject(anyString(), eq(EventBatch.class), any(), any(), any()))
+                .thenReturn(first, rest);
+    }
+
+    private long storedOffset() {
+        ArgumentCaptor<EventConsumerOffset> saved = ArgumentCaptor.forClass(EventConsumerOffset.class);
+        verify(offsetRepository, atLeastOnce()).save(saved.capture());
+        return saved.getValue().getLastOffset();
+    }
+
+    private static EventBatch batch(String logId, long earliestOffset, DomainEvent... events) {
+        long next = events.length == 0 ? earliestOffset : events[events.length - 1].getOffset() + 1;
+        return new EventBatch(logId, earliestOffset, next, List.of(events));
+    }
+
+    private static DomainEvent event(long offset) {
+        DomainEvent event = new DomainEvent("e" + offset, "ExpenseCreated", "1", "transaction-service", null, null);
+        event.setOffset(offset);
+        return event;
+    }
+
+    private static class RecordingHandler implements DomainEventHandler {
+        private final List<Long> handled = new ArrayList<>();
+        private Long failOn;
+
+        @Override
+        public String getSource() {
+            return "transaction-service";
+        }
+
+        @Override
+        public void handle(DomainEvent event) {
+            if (Long.valueOf(event.getOffset()).equals(failOn)) {
+                throw new IllegalStateException("handler failed");
+            }
+            handled.add(event.getOffset());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.service.common.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalEventLogTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private LocalEventLog eventLog;
+
+    @BeforeEach
+    void setUp() {
+        eventLog = open(1024 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(eventLog, "close");
+    }
+
+    @Test
+    void readsEventsInOrderFromAnOffset() {
+        for (int i = 0; i < 5; i++) {
+            publish("ExpenseCreated", "expense-" + i, Map.of("n", i));
+        }
+
+        EventBatch all = eventLog.read(-1, 100, 0);
+        assertThat(all.getEvents()).extracting(DomainEvent::getOffset).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(all.getEvents().get(2).getKey()).isEqualTo("expense-2");
+        assertThat(all.getEvents().get(2).getPayload().get("n").asInt()).isEqualTo(2);
+        assertThat(all.getEvents().get(2).getSource()).isEqualTo("transaction-service");
+        assertThat(all.getNextOffset()).isEqualTo(5);
+
+        EventBatch page = eventLog.read(1, 2, 0);
+        assertThat(page.getEvents()).extracting(DomainEvent::getOffset).containsExactly(2L, 3L);
+        assertThat(eventLog.read(4, 100, 0).getEvents()).isEmpty();
+    }
+
+    @Test
+    void keepsOffsetsAndIdentityAcrossRestarts() {
+        publish("ExpenseCreated", "a", Map.of());
+        publish("ExpenseCreated", "b", Map.of());
+        String logId = eventLog.getLogId();
+        reopen();
+
+        publish("ExpenseCancelled", "c", Map.of());
+
+        EventBatch batch = eventLog.read(-1, 100, 0);
+        assertThat(batch.getLogId()).isEqualTo(logId);
+        assertThat(batch.getEvents()).extracting(DomainEvent::getKey).containsExactly("a", "b", "c");
+        assertThat(batch.getEvents()).extracting(DomainEvent::getOffset).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void cutsOffATornLastLineAtStartup() throws Exception {
+        publish("ExpenseCreated", "a", Map.of());
+        ReflectionTestUtils.invokeMethod(eventLog, "close");
+        Files.write(segments().get(0), "{\"offset\":1,\"type\":\"Expen".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        eventLog = open(1024 * 1024);
+        publish("ExpenseCreated", "b", Map.of());
+
+        assertThat(eventLog.read(-1, 100, 0).getEvents()).extracting(DomainEvent::getKey).containsExactly("a", "b");
+    }
+
+    @Test
+    void rollsSegmentsAndReadsAcrossThem() throws Exception {
+        reopen(300);
+        for (int i = 0; i < 10; i++) {
+            publish("ExpenseCreated", "k" + i, Map.of("description", "x".repeat(50)));
+        }
+
+        assertThat(segments()).hasSizeGreaterThan(2);
+        assertThat(eventLog.read(-1, 100, 0).getEvents()).extracting(DomainEvent::getOffset)
+                .containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        reopen(300);
+        assertThat(eventLog.read(6, 100, 0).getEvents()).extracting(DomainEvent::getKey).containsExactly("k7", "k8", "k9");
+    }
+
+    @Test
+    void expiredSegmentsAreDeletedAndReadersSkipAhead() throws Exception {
+        reopen(300);
+        for (int i = 0; i < 10; i++) {
+            publish("ExpenseCreated", "k" + i, Map.of("description", "x".repeat(50)));
+        }
+        List<Path> segments = segments();
+        FileTime old = FileTime.from(Instant.now().minus(200, ChronoUnit.HOURS));
+        for (Path segment : segments.subList(0, segments.size() - 1)) {
+            Files.setLastModifiedTime(segment, old);
+        }
+
+        eventLog.deleteExpiredSegments();
+
+        assertThat(segments()).hasSize(1);
+        EventBatch batch = eventLog.read(-1, 100, 0);
+        assertThat(batch.getEarliestOffset()).isGreaterThan(0);
+        assertThat(batch.getEvents().get(0).getOffset()).isEqualTo(batch.getEarliestOffset());
+        assertThat(batch.getEvents().get(batch.getEvents().size() - 1).getOffset()).isEqualTo(9);
+    }
+
+    @Test
+    void sendsABatchUnderConsecutiveOffsets() {
+        publish("ExpenseCreated", "a", Map.of());
+        eventLog.send(List.of(event("ExpenseCancelled", "b", Map.of()), event("ExpenseCancelled", "c", Map.of())));
+
+        EventBatch batch = eventLog.read(0, 100, 0);
+        assertThat(batch.getEvents()).extracting(DomainEvent::getKey).containsExactly("b", "c");
+        assertThat(batch.getEvents()).extracting(DomainEvent::getOffset).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void longPollReturnsAsSoonAsAnEventIsPublished() throws Exception {
+        CompletableFuture<EventBatch> poll = CompletableFuture.supplyAsync(() -> eventLog.read(-1, 100, 10_000));
+        Thread.sleep(100);
+        assertThat(poll).isNotDone();
+
+        publish("ExpenseCreated", "a", Map.of());
+
+        EventBatch batch = poll.get(5, TimeUnit.SECONDS);
+        assertThat(batch.getEvents()).extracting(DomainEvent::getKey).containsExactly("a");
+        assertThat(eventLog.read(0, 100, 50).getEvents()).isEmpty();
+    }
+
+    private void publish(String type, String key, Map<String, ?> payload) {
+        eventLog.send(List.of(event(type, key, payload)));
+    }
+
+    private DomainEvent event(String type, String key, Map<String, ?> payload) {
+        return new DomainEvent(UUID.randomUUID().toString(), type, key, "transaction-service",
+                LocalDateTime.now(), objectMapper.valueToTree(payload));
+    }
+
+    private void reopen() {
+        reopen(1024 * 1024);
+    }
+
+    private void reopen(long segmentBytes) {
+        ReflectionTestUtils.invokeMethod(eventLog, "close");
+        eventLog = open(segmentBytes);
+    }
+
+    private LocalEventLog open(long segmentBytes) {
+        LocalEventLog opened = new LocalEventLog();
+        ReflectionTestUtils.setField(opened, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(opened, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(opened, "directory", dir.toString());
+        ReflectionTestUtils.setField(opened, "segmentBytes", segmentBytes);
+        ReflectionTestUtils.setField(opened, "retentionHours", 168L);
+        ReflectionTestUtils.setField(opened, "fsync", true);
+        ReflectionTestUtils.invokeMethod(opened, "init");
+        return opened;
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.service.common.events.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.service.common.events.DomainEvent;
+import com.service.common.events.EventTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxRelay relay = new OutboxRelay();
+    private final OutboxEventRepository outboxRepository = mock(OutboxEventRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FlakyTransport transport = new FlakyTransport();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(relay, "transport", transport);
+        ReflectionTestUtils.setField(relay, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(relay, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(relay, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(relay, "source", "transaction-service");
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "pollIntervalMs", 50L);
+        ReflectionTestUtils.setField(relay, "retryBackoffMs", 10L);
+        ReflectionTestUtils.setField(relay, "maxBackoffMs", 100L);
+        ReflectionTestUtils.setField(relay, "retentionHours", 24L);
+        ReflectionTestUtils.invokeMethod(relay, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(relay, "shutdown");
+    }
+
+    @Test
+    void leavesTheEventUnsentWhenTheAppendFailsAndDeliversItOnTheRetry() {
+        OutboxEvent row = row(7L, "ExpenseCreated", "42");
+        when(outboxRepository.findUnsentForUpdate(2)).thenReturn(List.of(row));
+        transport.failures = 1;
+
+        assertThatThrownBy(relay::relayPending).hasMessage("disk full");
+        verify(outboxRepository, never()).markSent(anyList(), any());
+        verify(transactionManager).rollback(any());
+
+        relay.relayPending();
+
+        verify(outboxRepository).markSent(eq(List.of(7L)), any());
+        verify(transactionManager).commit(any());
+        // The same event both times, so consumers can tell a redelivery
+        assertThat(transport.attempts).hasSize(2);
+        assertThat(transport.delivered).singleElement().satisfies(event -> {
+            assertThat(event.getEventId()).isEqualTo(row.getEventId())
+                    .isEqualTo(transport.attempts.get(0).get(0).getEventId());
+            assertThat(event.getType()).isEqualTo("ExpenseCreated");
+            assertThat(event.getKey()).isEqualTo("42");
+            assertThat(event.getSource()).isEqualTo("transaction-service");
+            assertThat(event.getPayload().get("groupId").asLong()).isEqualTo(42);
+        });
+    }
+
+    @Test
+    void theRelayThreadRetriesUntilTheEventIsDelivered() {
+        OutboxEvent row = row(7L, "UserRegistered", "5");
+        // Unsent until the transport takes it
+        when(outboxRepository.findUnsentForUpdate(2)).thenAnswer(invocation ->
+                transport.delivered.isEmpty() ? List.of(row) : List.of());
+        transport.failures = 3;
+
+        relay.start();
+
+        verify(outboxRepository, timeout(5000)).markSent(eq(List.of(7L)), any());
+        assertThat(transport.delivered).extracting(DomainEvent::getKey).containsExactly("5");
+        assertThat(meterRegistry.counter("events.outbox.failures").count()).isEqualTo(3);
+    }
+
+    @Test
+    void drainsFullBatchesUntilNothingIsLeft() {
+        when(outboxRepository.findUnsentForUpdate(2)).thenReturn(
+                List.of(row(1L, "ExpenseCreated", "a"), row(2L, "ExpenseCreated", "b")),
+                List.of(row(3L, "ExpenseCancelled", "a")));
+
+        relay.relayPending();
+
+        verify(outboxRepository).markSent(eq(List.of(1L, 2L)), any());
+        verify(outboxRepository).markSent(eq(List.of(3L)), any());
+        verify(outboxRepository, times(2)).findUnsentForUpdate(anyInt());
+        assertThat(transport.delivered).extracting(DomainEvent::getKey).containsExactly("a", "b", "a");
+    }
+
+    @Test
+    void relaysEveryLocation() {
+        List<String> visited = new ArrayList<>();
+        ReflectionTestUtils.setField(relay, "locations", (OutboxLocations) work -> {
+            for (String shard : List.of("shard-0", "shard-1")) {
+                visited.add(shard);
+                work.run();
+            }
+        });
+        when(outboxRepository.findUnsentForUpdate(2)).thenReturn(List.of(row(1L, "SettlementRecorded", "1_2")), List.of());
+
+        relay.relayPending();
+
+        assertThat(visited).containsExactly("shard-0", "shard-1");
+        assertThat(transport.delivered).extracting(DomainEvent::getKey).containsExactly("1_2");
+    }
+
+    @Test
+    void purgesSentEventsInBoundedDeletes() {
+        when(outboxRepository.deleteSentBefore(any(), eq(2))).thenReturn(2, 2, 1);
+
+        relay.deleteSentEvents();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository, times(3)).deleteSentBefore(cutoff.capture(), eq(2));
+        assertThat(cutoff.getValue()).isBefore(LocalDateTime.now().minusHours(23));
+    }
+
+    private static OutboxEvent row(Long id, String type, String key) {
+        OutboxEvent row = new OutboxEvent(UUID.randomUUID().toString(), type, key,
+                "{\"groupId\":42}", LocalDateTime.now());
+        ReflectionTestUtils.setField(row, "id", id);
+        return row;
+    }
+
+    // Fails the first `failures` sends, as an event log whose append throws would
+    private static class FlakyTransport implements EventTransport {
+        private final List<List<DomainEvent>> attempts = new ArrayList<>();
+        private final List<DomainEvent> delivered = new ArrayList<>();
+        private volatile int failures;
+
+        @Override
+        public synchronized void send(List<DomainEvent> events) {
+            attempts.add(events);
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("disk full");
+            }
+            delivered.addAll(events);
+        }
+    }
+}
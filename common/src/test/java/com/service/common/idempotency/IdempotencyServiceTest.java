@@ -0,0 +1,264 @@
+package com.service.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    // Stands in for the idempotency_keys table
+    private final Map<String, IdempotencyRecord> table = new ConcurrentHashMap<>();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "cacheSize", 100);
+        ReflectionTestUtils.setField(idempotencyService, "lockStripes", 4);
+        ReflectionTestUtils.setField(idempotencyService, "claimTimeoutSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(idempotencyService, "init");
+        lenient().when(recordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (table.putIfAbsent(record.getKey(), record) != null) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return record;
+        });
+        lenient().when(recordRepository.save(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            table.put(record.getKey(), record);
+            return record;
+        });
+        lenient().when(recordRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        lenient().when(recordRepository.deleteClaim(anyString(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = table.get(invocation.<String>getArgument(0));
+            LocalDateTime claimedBefore = invocation.getArgument(1);
+            boolean stale = record != null && record.getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                    && record.getCreatedAt().isBefore(claimedBefore);
+            return stale && table.remove(record.getKey(), record) ? 1 : 0;
+        });
+    }
+
+    @Test
+    void withoutKeyAlwaysRuns() {
+        execute(null, Map.of("amount", 10));
+        execute(null, Map.of("amount", 10));
+
+        assertThat(runs).hasValue(2);
+        assertThat(table).isEmpty();
+    }
+
+    @Test
+    void repeatedKeyReplaysStoredResponse() {
+        ResponseEntity<?> first = execute("abc", Map.of("amount", 10));
+        ResponseEntity<?> retry = execute("abc", Map.of("amount", 10));
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody()).isEqualTo("[\"created-1\"]");
+        assertThat(table.get("7:abc").getStatus()).isEqualTo(IdempotencyRecord.Status.COMPLETED);
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        idempotencyService.execute(7L, "abc", Map.of("amount", 10), this::create);
+        idempotencyService.execute(8L, "abc", Map.of("amount", 10), this::create);
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void completedKeyFromAnotherInstanceIsReplayedFromTheDatabase() {
+        execute("abc", Map.of("amount", 10));
+        // Fresh service instance: empty memory, same table
+        ReflectionTestUtils.invokeMethod(idempotencyService, "init");
+
+        ResponseEntity<?> retry = execute("abc", Map.of("amount", 10));
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getBody()).isEqualTo("[\"created-1\"]");
+    }
+
+    @Test
+    void reusingKeyForDifferentRequestIsRejected() {
+        execute("abc", Map.of("amount", 10));
+
+        assertThatThrownBy(() -> execute("abc", Map.of("amount", 11)))
+                .isInstanceOfSatisfying(IdempotencyService.IdempotencyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void duplicateInFlightElsewhereGetsConflictUntilClaimGoesStale() {
+        table.put("7:abc", claim("7:abc", LocalDateTime.now()));
+
+        assertThatThrownBy(() -> execute("abc", Map.of("amount", 10)))
+                .isInstanceOfSatisfying(IdempotencyService.IdempotencyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+
+        table.put("7:abc", claim("7:abc", LocalDateTime.now().minusMinutes(5)));
+        execute("abc", Map.of("amount", 10));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failedRequestReleasesKeyForRealRetry() {
+        assertThatThrownBy(() -> idempotencyService.execute(7L, "abc", Map.of("amount", 10), () -> {
+            throw new RuntimeException("database unavailable");
+        })).hasMessage("database unavailable");
+        assertThat(table).isEmpty();
+
+        ResponseEntity<?> rejected = idempotencyService.execute(7L, "abc", Map.of("amount", 10),
+                () -> ResponseEntity.badRequest().body("nope"));
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(table).isEmpty();
+
+        execute("abc", Map.of("amount", 10));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void malformedKeyIsRejected() {
+        assertThatThrownBy(() -> execute("has space", Map.of()))
+                .isInstanceOfSatisfying(IdempotencyService.IdempotencyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> execute("k".repeat(129), Map.of()))
+                .isInstanceOf(IdempotencyService.IdempotencyException.class);
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnceAndTheOthersAreTurnedAwayByTheClaim() throws Exception {
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<HttpStatus> outcomes = new ArrayList<>();
+        try {
+            List<Future<HttpStatus>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return (HttpStatus) idempotencyService.execute(7L, "abc", Map.of("amount", 10), () -> {
+                            sleep(200);
+                            return create();
+                        }).getStatusCode();
+                    } catch (IdempotencyService.IdempotencyException e) {
+                        return e.getStatus();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<HttpStatus> result : results) {
+                outcomes.add(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(runs).hasValue(1);
+        assertThat(outcomes).contains(HttpStatus.CREATED).containsOnly(HttpStatus.CREATED, HttpStatus.CONFLICT);
+        // Once the first has finished, a retry gets its response
+        assertThat(execute("abc", Map.of("amount", 10)).getBody()).isEqualTo("[\"created-1\"]");
+    }
+
+    @Test
+    void requestsWhoseKeysShareAStripeRunConcurrently() throws Exception {
+        ReflectionTestUtils.setField(idempotencyService, "lockStripes", 1);
+        ReflectionTestUtils.invokeMethod(idempotencyService, "init");
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> first = pool.submit(() ->
+                    idempotencyService.execute(7L, "first", Map.of("amount", 10), () -> {
+                        firstRunning.countDown();
+                        await(releaseFirst);
+                        return create();
+                    }));
+            assertThat(firstRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The first request is still running on the only stripe
+            Future<ResponseEntity<?>> second = pool.submit(() -> execute("second", Map.of("amount", 20)));
+
+            assertThat(second.get(2, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            releaseFirst.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        } finally {
+            releaseFirst.countDown();
+            pool.shutdownNow();
+        }
+        assertThat(runs).hasValue(2);
+    }
+
+    private ResponseEntity<?> execute(String key, Object request) {
+        return idempotencyService.execute(7L, key, request, this::create);
+    }
+
+    private ResponseEntity<?> create() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(List.of("created-" + runs.incrementAndGet()));
+    }
+
+    private static IdempotencyRecord claim(String key, LocalDateTime claimedAt) {
+        String hash = "a8b88b82fe90a16048eb8851fe382405395cd395dafaa7ca9be90ec00f82a72b";
+        return new IdempotencyRecord(key, hash, claimedAt, claimedAt.plusHours(24));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.service.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryMetricsListenerTest {
+
+    private final QueryMetricsListener listener = new QueryMetricsListener();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(listener, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(listener, "slowThresholdMs", 200L);
+        ReflectionTestUtils.setField(listener, "slowLogSampleRate", 0.0);
+        ReflectionTestUtils.setField(listener, "maxSignatures", 500);
+        ReflectionTestUtils.setField(listener, "publishHistogram", false);
+    }
+
+    @Test
+    void countsAndTimesStatementsOfOneShapeInOneSeries() {
+        execute("SELECT * FROM balances WHERE user1_id = 1 AND user2_id = 2", true);
+        execute("SELECT * FROM balances WHERE user1_id = 3   AND user2_id = 4", true);
+        execute("UPDATE balances SET amount = 10.50 WHERE balance_id = '1_2'", true);
+
+        Timer select = meterRegistry.find("db.query")
+                .tag("signature", "SELECT * FROM balances WHERE user1_id = ? AND user2_id = ?").timer();
+        assertThat(select).isNotNull();
+        assertThat(select.count()).isEqualTo(2);
+        assertThat(select.getId().getTag("type")).isEqualTo("select");
+        assertThat(meterRegistry.find("db.query").tag("type", "update").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("db.query.slow").counter()).isNull();
+    }
+
+    @Test
+    void countsStatementsOverTheSlowThresholdByType() {
+        ReflectionTestUtils.setField(listener, "slowThresholdMs", 0L);
+        ReflectionTestUtils.setField(listener, "slowLogSampleRate", 1.0);
+
+        execute("UPDATE balances SET amount = 1 WHERE balance_id = '1_2'", true);
+        execute("UPDATE balances SET amount = 2 WHERE balance_id = '1_3'", true);
+        execute("SELECT 1", true);
+
+        assertThat(meterRegistry.counter("db.query.slow", "type", "update").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("db.query.slow", "type", "select").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedStatementsAreCountedAsErrorsRatherThanTimed() {
+        execute("INSERT INTO settlements (id) VALUES (7)", false);
+
+        assertThat(meterRegistry.counter("db.query.errors", "type", "insert").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("db.query").timer()).isNull();
+    }
+
+    @Test
+    void signaturesPastTheCapShareOneSeries() {
+        ReflectionTestUtils.setField(listener, "maxSignatures", 1);
+
+        execute("SELECT * FROM balances WHERE balance_id = '1_2'", true);
+        execute("SELECT * FROM settlements WHERE id = 9", true);
+        execute("DELETE FROM idempotency_keys WHERE expires_at < '2026-01-01'", true);
+
+        assertThat(meterRegistry.find("db.query").timers()).hasSize(2);
+        assertThat(meterRegistry.find("db.query").tag("signature", "other").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void normalizeFoldsLiteralsInListsAndWhitespace() {
+        assertThat(QueryMetricsListener.normalize(
+                "SELECT b.*\n  FROM balances b WHERE b.balance_id IN ('1_2', 'it''s', '3_4') AND b.amount > 0.01"))
+                .isEqualTo("SELECT b.* FROM balances b WHERE b.balance_id IN (?) AND b.amount > ?");
+        assertThat(QueryMetricsListener.normalize("SELECT * FROM t WHERE id IN (?, ?, ?)"))
+                .isEqualTo("SELECT * FROM t WHERE id IN (?)");
+        assertThat(QueryMetricsListener.normalize("SELECT '" + "x".repeat(400) + "' FROM t" + " WHERE a = b".repeat(40)))
+                .hasSize(300);
+    }
+
+    private void execute(String sql, boolean success) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        listener.beforeQuery(execInfo, queries);
+        execInfo.setSuccess(success);
+        listener.afterQuery(execInfo, queries);
+    }
+}
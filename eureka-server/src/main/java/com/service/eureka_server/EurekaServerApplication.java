@@ -1,5 +1,7 @@
 package com.service.eureka_server;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
@@ -8,11 +10,12 @@ import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
 @EnableEurekaServer  // This annotation makes this application a Eureka Server
 public class EurekaServerApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(EurekaServerApplication.class);
+
 	public static void main(String[] args)  {
-		System.out.println("Starting Eureka Server...");
 		SpringApplication.run(EurekaServerApplication.class, args);
-		System.out.println("Eureka Server started successfully!");
-		System.out.println("Access Eureka Dashboard at: http://localhost:8761");
+		log.info("Eureka Server started successfully!");
+		log.info("Access Eureka Dashboard at: http://localhost:8761");
 	}
 
 }
@@ -0,0 +1,75 @@
+package com.service.load_tests;
+
+import com.service.load_tests.report.LatencyRecorder;
+import com.service.load_tests.report.LoadReport;
+import com.service.load_tests.stack.EmbeddedDatabase;
+import com.service.load_tests.stack.ServiceCluster;
+import com.service.load_tests.stack.StubEurekaServer;
+import com.service.load_tests.workload.SplitWorkload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.Duration;
+
+// End-to-end load test through the API Gateway. Build the services first, then:
+//
+//   ./mvnw -B package -DskipTests
+//   java -jar load-tests/target/load-tests-0.0.1-SNAPSHOT-exec.jar --users=40 --duration=2m --label=v1.4.0
+//
+// Boots an embedded MariaDB, a stub Eureka and every service jar (or, with --launch=false, drives
+// whatever is already listening at --base-url), registers the virtual users, runs the workload
+// and writes the report to load-tests/target/load-test (see LoadTestConfig for all options).
+public class LoadTestApplication {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+        log.info("Load test: {}", config);
+
+        if (!config.isLaunch()) {
+            run(config);
+            return;
+        }
+        File reportDir = config.getReportDir();
+        try (EmbeddedDatabase database = new EmbeddedDatabase();
+             StubEurekaServer eureka = new StubEurekaServer();
+             ServiceCluster cluster = new ServiceCluster(config.getProjectDir(), new File(reportDir, "logs"),
+                     config.getServiceHeap())) {
+            database.start();
+            eureka.start();
+            // Child JVMs must not outlive an interrupted run
+            Thread cleanup = new Thread(() -> {
+                try {
+                    cluster.close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Runtime.getRuntime().addShutdownHook(cleanup);
+            cluster.start(database, eureka, config.getStartupTimeout());
+            run(config);
+        }
+    }
+
+    private static void run(LoadTestConfig config) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        SplitWorkload workload = new SplitWorkload(config, recorder);
+        workload.setUp();
+
+        workload.start();
+        Thread.sleep(config.getWarmup().toMillis());
+        recorder.drain();  // setup and warmup
+        long start = System.nanoTime();
+        Thread.sleep(config.getDuration().toMillis());
+        LoadReport report = new LoadReport(config.getLabel(), config.toString(),
+                Duration.ofNanos(System.nanoTime() - start), recorder.drain());
+        workload.stop();
+
+        System.out.println();
+        System.out.print(report.toTable());
+        File json = report.write(config.getReportDir());
+        log.info("Report written to {} (history: {})", json, new File(config.getReportDir(), "history.csv"));
+    }
+}
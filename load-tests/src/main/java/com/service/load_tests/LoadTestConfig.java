@@ -0,0 +1,127 @@
+package com.service.load_tests;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command-line options, given as --name=value
+public class LoadTestConfig {
+
+    private final Map<String, String> options = new HashMap<>();
+
+    public LoadTestConfig(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+
+    // Virtual users; each runs one request at a time (closed model), so this is the concurrency
+    public int getUsers() {
+        return getInt("users", 40);
+    }
+
+    // Users per expense group: splits, settlements and optimizations stay within a group
+    public int getGroupSize() {
+        return getInt("group-size", 8);
+    }
+
+    // Participants per split, including the payer
+    public int getSplitSize() {
+        return getInt("split-size", 4);
+    }
+
+    // Traffic before this is discarded, so JIT and connection pools settle first
+    public Duration getWarmup() {
+        return getDuration("warmup", Duration.ofSeconds(15));
+    }
+
+    public Duration getDuration() {
+        return getDuration("duration", Duration.ofSeconds(60));
+    }
+
+    // Pause between a virtual user's requests
+    public Duration getThinkTime() {
+        return getDuration("think-time", Duration.ZERO);
+    }
+
+    // false: drive an already-running stack at --base-url instead of booting one
+    public boolean isLaunch() {
+        return Boolean.parseBoolean(options.getOrDefault("launch", "true"));
+    }
+
+    public String getBaseUrl() {
+        return options.getOrDefault("base-url", "http://localhost:8080");
+    }
+
+    // Heap for each launched service JVM
+    public String getServiceHeap() {
+        return options.getOrDefault("service-heap", "512m");
+    }
+
+    public Duration getStartupTimeout() {
+        return getDuration("startup-timeout", Duration.ofMinutes(5));
+    }
+
+    // Tag for the report row (e.g. the release being measured)
+    public String getLabel() {
+        return options.getOrDefault("label", "dev");
+    }
+
+    public long getSeed() {
+        return Long.parseLong(options.getOrDefault("seed", "42"));
+    }
+
+    // Repository root holding the service modules; works from the root or from load-tests/
+    public File getProjectDir() {
+        String dir = options.get("project-dir");
+        if (dir != null) {
+            return new File(dir).getAbsoluteFile();
+        }
+        File cwd = new File("").getAbsoluteFile();
+        return new File(cwd, "balance-service").isDirectory() ? cwd : cwd.getParentFile();
+    }
+
+    public File getReportDir() {
+        String dir = options.get("report-dir");
+        return dir != null ? new File(dir).getAbsoluteFile() : new File(getProjectDir(), "load-tests/target/load-test");
+    }
+
+    private int getInt(String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    // Accepts 90s, 2m, 500ms or a plain number of seconds
+    private Duration getDuration(String name, Duration defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + getUsers() + ", groupSize=" + getGroupSize() + ", splitSize=" + getSplitSize() +
+                ", warmup=" + getWarmup() + ", duration=" + getDuration() + ", thinkTime=" + getThinkTime() +
+                ", launch=" + isLaunch() + ", baseUrl=" + getBaseUrl() + ", label=" + getLabel();
+    }
+}
@@ -0,0 +1,58 @@
+package com.service.load_tests.report;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-endpoint latency histograms (microseconds, 3 significant digits, up to 60s) and error
+// counts, recorded lock-free from every virtual user. Endpoints are keyed by method and route
+// template ("GET /api/balances/user/{userId}"), never by concrete IDs.
+public class LatencyRecorder {
+
+    private static final long MAX_LATENCY_MICROS = 60_000_000L;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.recorder.recordValue(Math.min(Math.max(latencyNanos / 1000, 1), MAX_LATENCY_MICROS));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    // Everything recorded since the previous call, per endpoint; the warmup is discarded this way
+    public Map<String, Interval> drain() {
+        Map<String, Interval> intervals = new TreeMap<>();
+        endpoints.forEach((name, stats) -> intervals.put(name,
+                new Interval(stats.recorder.getIntervalHistogram(), stats.errors.sumThenReset())));
+        return intervals;
+    }
+
+    private static class Endpoint {
+        private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    public static class Interval {
+        private final Histogram histogram;
+        private final long errors;
+
+        public Interval(Histogram histogram, long errors) {
+            this.histogram = histogram;
+            this.errors = errors;
+        }
+
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+    }
+}
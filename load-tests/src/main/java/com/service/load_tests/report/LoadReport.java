@@ -0,0 +1,167 @@
+package com.service.load_tests.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Throughput and p50/p99/p99.9 per endpoint for one measured window. Each run writes a JSON
+// report and appends its rows to history.csv in the report directory, so successive releases
+// (see --label) can be compared from one file.
+public class LoadReport {
+
+    private static final String CSV_HEADER =
+            "timestamp,label,endpoint,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private final String label;
+    private final String settings;
+    private final LocalDateTime timestamp = LocalDateTime.now();
+    private final double seconds;
+    private final List<EndpointResult> endpoints = new ArrayList<>();
+
+    public LoadReport(String label, String settings, Duration measured, Map<String, LatencyRecorder.Interval> intervals) {
+        this.label = label;
+        this.settings = settings;
+        this.seconds = measured.toMillis() / 1000.0;
+        intervals.forEach((name, interval) -> endpoints.add(new EndpointResult(name, interval, seconds)));
+    }
+
+    public List<EndpointResult> getEndpoints() {
+        return endpoints;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public double getSeconds() {
+        return seconds;
+    }
+
+    public long getTotalRequests() {
+        return endpoints.stream().mapToLong(EndpointResult::getRequests).sum();
+    }
+
+    public long getTotalErrors() {
+        return endpoints.stream().mapToLong(EndpointResult::getErrors).sum();
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-48s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (EndpointResult result : endpoints) {
+            table.append(String.format(Locale.ROOT, "%-48s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.endpoint, result.requests, result.errors, result.throughput,
+                    result.p50, result.p99, result.p999, result.max));
+        }
+        table.append(String.format(Locale.ROOT, "%-48s %9d %7d %9.1f%n", "total",
+                getTotalRequests(), getTotalErrors(), getTotalRequests() / seconds));
+        return table.toString();
+    }
+
+    public File write(File reportDir) throws IOException {
+        reportDir.mkdirs();
+        String stamp = timestamp.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File json = new File(reportDir, "load-test-" + stamp + ".json");
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(json, this);
+
+        File history = new File(reportDir, "history.csv");
+        List<String> rows = new ArrayList<>();
+        if (!history.exists()) {
+            rows.add(CSV_HEADER);
+        }
+        for (EndpointResult result : endpoints) {
+            rows.add(String.format(Locale.ROOT, "%s,%s,\"%s\",%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+                    timestamp, label, result.endpoint, result.requests, result.errors, result.throughput,
+                    result.p50, result.p99, result.p999, result.max));
+        }
+        Files.write(history.toPath(), rows, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return json;
+    }
+
+    public static class EndpointResult {
+        private final String endpoint;
+        private final long requests;
+        private final long errors;
+        private final double throughput;
+        private final double p50;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        EndpointResult(String endpoint, LatencyRecorder.Interval interval, double seconds) {
+            Histogram histogram = interval.getHistogram();
+            this.endpoint = endpoint;
+            this.requests = histogram.getTotalCount();
+            this.errors = interval.getErrors();
+            this.throughput = seconds > 0 ? requests / seconds : 0;
+            this.p50 = millis(histogram.getValueAtPercentile(50));
+            this.p99 = millis(histogram.getValueAtPercentile(99));
+            this.p999 = millis(histogram.getValueAtPercentile(99.9));
+            this.max = millis(histogram.getMaxValue());
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughputRps() {
+            return throughput;
+        }
+
+        public double getP50Ms() {
+            return p50;
+        }
+
+        public double getP99Ms() {
+            return p99;
+        }
+
+        public double getP999Ms() {
+            return p999;
+        }
+
+        public double getMaxMs() {
+            return max;
+        }
+    }
+}
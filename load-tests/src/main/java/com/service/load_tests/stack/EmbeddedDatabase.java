@@ -0,0 +1,47 @@
+package com.service.load_tests.stack;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// MariaDB from the mariaDB4j binaries, in a throwaway data directory. One server holds every
+// service's schema; the services create their databases on first connect
+// (createDatabaseIfNotExist) and their tables through ddl-auto, as they do in development.
+public class EmbeddedDatabase implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedDatabase.class);
+
+    private final int port;
+    private DB db;
+
+    public EmbeddedDatabase() {
+        this.port = Ports.free();
+    }
+
+    public void start() throws Exception {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(port);
+        config.setDeletingTemporaryBaseAndDataDirsOnShutdown(true);
+        if ("root".equals(System.getProperty("user.name"))) {
+            config.addArg("--user=root");  // mariadbd refuses to run as root otherwise
+        }
+        // Every service pool connects here, plus headroom
+        config.addArg("--max-connections=500");
+        db = DB.newEmbeddedDB(config.build());
+        db.start();
+        log.info("Embedded MariaDB listening on port {}", port);
+    }
+
+    public String jdbcUrl(String database) {
+        return "jdbc:mysql://localhost:" + port + "/" + database +
+                "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (db != null) {
+            db.stop();
+        }
+    }
+}
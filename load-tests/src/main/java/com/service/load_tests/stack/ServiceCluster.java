@@ -0,0 +1,161 @@
+package com.service.load_tests.stack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Boots the gateway and the four services from their packaged jars as child JVMs, each on its
+// usual port (the gateway routes to fixed localhost ports), against the embedded database and
+// the stub registry. Service output goes to <report dir>/logs.
+public class ServiceCluster implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceCluster.class);
+
+    private static final List<Service> SERVICES = List.of(
+            new Service("auth-service", 8081, "split_auth_db"),
+            new Service("user-service", 8082, "split_user_db"),
+            new Service("transaction-service", 8083, "split_transaction_db"),
+            new Service("balance-service", 8084, "split_balance_db"),
+            new Service("api-gateway", 8080, null)
+    );
+
+    private final File projectDir;
+    private final File logDir;
+    private final String heap;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final List<Process> processes = new ArrayList<>();
+
+    public ServiceCluster(File projectDir, File logDir, String heap) {
+        this.projectDir = projectDir;
+        this.logDir = logDir;
+        this.heap = heap;
+    }
+
+    public void start(EmbeddedDatabase database, StubEurekaServer eureka, Duration timeout) throws Exception {
+        for (Service service : SERVICES) {
+            if (!jar(service).isFile()) {
+                throw new IllegalStateException("Missing " + jar(service) + "; run ./mvnw -B package -DskipTests first");
+            }
+            if (Ports.inUse(service.port)) {
+                throw new IllegalStateException("Port " + service.port + " for " + service.name + " is already in use");
+            }
+        }
+        logDir.mkdirs();
+        // All at once: nothing calls another service until traffic starts
+        for (Service service : SERVICES) {
+            processes.add(launch(service, database, eureka));
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (int i = 0; i < SERVICES.size(); i++) {
+            awaitHealthy(SERVICES.get(i), processes.get(i), deadline);
+        }
+        // Services resolve each other through the registry: wait until every one has registered
+        // and the clients have fetched it (2s fetch interval)
+        while (!eureka.getRegisteredApps().containsAll(SERVICES.stream()
+                .map(service -> service.name.toUpperCase(Locale.ROOT)).toList())) {
+            checkTimeout(deadline, "services to register with the stub registry: " + eureka.getRegisteredApps());
+            Thread.sleep(500);
+        }
+        Thread.sleep(5000);
+        log.info("All services up");
+    }
+
+    private Process launch(Service service, EmbeddedDatabase database, StubEurekaServer eureka) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-Xmx" + heap,
+                "-jar", jar(service).getPath(),
+                "--eureka.client.service-url.defaultZone=" + eureka.getServiceUrl(),
+                "--eureka.client.registry-fetch-interval-seconds=2",
+                "--eureka.client.disable-delta=true",
+                // No collector to export spans to
+                "--management.tracing.enabled=false",
+                // The gateway logs every exchange at DEBUG by default, which would dominate its latency
+                "--logging.level.org.springframework.cloud.gateway=INFO",
+                "--logging.level.org.springframework.web=INFO",
+                "--transaction.id.node-id=0",
+                "--balance.id.node-id=0"
+        ));
+        if (service.database != null) {
+            command.add("--spring.datasource.url=" + database.jdbcUrl(service.database));
+        }
+        File logFile = new File(logDir, service.name + ".log");
+        log.info("Starting {} on port {} (log: {})", service.name, service.port, logFile);
+        return new ProcessBuilder(command)
+                .directory(projectDir)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile)
+                .start();
+    }
+
+    private void awaitHealthy(Service service, Process process, long deadline) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + service.port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(service.name + " exited with " + process.exitValue() +
+                        "; see " + new File(logDir, service.name + ".log"));
+            }
+            try {
+                HttpResponse<String> response = httpClient.send(health, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200 && response.body().contains("\"UP\"")) {
+                    log.info("{} is healthy", service.name);
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            checkTimeout(deadline, service.name + " to become healthy");
+            Thread.sleep(1000);
+        }
+    }
+
+    private static void checkTimeout(long deadline, String waitingFor) {
+        if (System.nanoTime() > deadline) {
+            throw new IllegalStateException("Timed out waiting for " + waitingFor);
+        }
+    }
+
+    private File jar(Service service) {
+        return new File(projectDir, service.name + "/target/" + service.name + "-0.0.1-SNAPSHOT-exec.jar");
+    }
+
+    // SIGTERM first so the services deregister and close their pools, then force
+    @Override
+    public void close() throws InterruptedException {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        processes.clear();
+    }
+
+    private static class Service {
+        private final String name;
+        private final int port;
+        private final String database;  // null for the gateway
+
+        Service(String name, int port, String database) {
+            this.name = name;
+            this.port = port;
+            this.database = database;
+        }
+    }
+}
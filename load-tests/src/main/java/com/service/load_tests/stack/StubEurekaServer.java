@@ -0,0 +1,139 @@
+package com.service.load_tests.stack;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Just enough of the Eureka REST API for the services' discovery clients: register, heartbeat,
+// cancel and full registry fetch (clients run with disable-delta, so there are no delta fetches).
+// Instances are returned exactly as they registered. There are no lease expiries, peers or
+// self-preservation; the real eureka-server stays out of the measurement.
+public class StubEurekaServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StubEurekaServer.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // app name (upper case, as clients send it) -> instance ID -> registered instance
+    private final Map<String, Map<String, ObjectNode>> registry = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final HttpServer server;
+
+    public StubEurekaServer() throws IOException {
+        this(Ports.free());
+    }
+
+    public StubEurekaServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/eureka/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        log.info("Stub Eureka listening on {}", getServiceUrl());
+    }
+
+    public String getServiceUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/eureka/";
+    }
+
+    public Set<String> getRegisteredApps() {
+        return registry.keySet();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Read in full up front: an unread body makes the server drop the keep-alive connection
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            // /eureka/apps[/{app}[/{instanceId}[/status]]]
+            String path = exchange.getRequestURI().getPath().substring("/eureka/".length());
+            String[] segments = path.isEmpty() ? new String[0] : path.split("/");
+            if (segments.length == 0 || !"apps".equals(segments[0])) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String method = exchange.getRequestMethod();
+            if (segments.length == 1 && "GET".equals(method)) {
+                sendJson(exchange, applications());
+            } else if (segments.length == 2 && "delta".equals(segments[1]) && "GET".equals(method)) {
+                // Tells a client that ignores disable-delta to fall back to a full fetch
+                exchange.sendResponseHeaders(403, -1);
+            } else if (segments.length == 2 && "POST".equals(method)) {
+                register(segments[1], body);
+                exchange.sendResponseHeaders(204, -1);
+            } else if (segments.length >= 3 && "PUT".equals(method)) {
+                // Heartbeat or status override; 404 makes the client register again
+                boolean known = registry.getOrDefault(segments[1].toUpperCase(), Map.of()).containsKey(segments[2]);
+                exchange.sendResponseHeaders(known ? 200 : 404, -1);
+            } else if (segments.length == 3 && "DELETE".equals(method)) {
+                registry.getOrDefault(segments[1].toUpperCase(), new ConcurrentHashMap<>()).remove(segments[2]);
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(405, -1);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stub Eureka failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage());
+        }
+    }
+
+    private void register(String app, byte[] body) throws IOException {
+        JsonNode instance = objectMapper.readTree(body).path("instance");
+        if (!instance.isObject()) {
+            throw new IllegalArgumentException("Registration without an instance for " + app);
+        }
+        String instanceId = instance.path("instanceId").asText(instance.path("hostName").asText());
+        registry.computeIfAbsent(app.toUpperCase(), name -> new ConcurrentHashMap<>())
+                .put(instanceId, (ObjectNode) instance);
+        log.info("Registered {} ({}) as {}", app, instanceId, instance.path("status").asText());
+    }
+
+    private ObjectNode applications() {
+        ObjectNode applications = objectMapper.createObjectNode();
+        ArrayNode apps = applications.putArray("application");
+        int up = 0;
+        for (Map.Entry<String, Map<String, ObjectNode>> entry : registry.entrySet()) {
+            ObjectNode app = apps.addObject();
+            app.put("name", entry.getKey());
+            ArrayNode instances = app.putArray("instance");
+            for (ObjectNode instance : entry.getValue().values()) {
+                instances.add(instance);
+                up += "UP".equals(instance.path("status").asText()) ? 1 : 0;
+            }
+        }
+        applications.put("versions__delta", "1");
+        applications.put("apps__hashcode", "UP_" + up + "_");
+        ObjectNode root = objectMapper.createObjectNode();
+        root.set("applications", applications);
+        return root;
+    }
+
+    private void sendJson(HttpExchange exchange, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
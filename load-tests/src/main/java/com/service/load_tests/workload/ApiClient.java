@@ -0,0 +1,94 @@
+package com.service.load_tests.workload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.load_tests.report.LatencyRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Gateway calls, timed end to end (send to fully read body) under their route template.
+// Anything but a 2xx, including timeouts and connection failures, counts as an error.
+class ApiClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiClient.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    // Only the first few failures are logged, so an outage doesn't flood the console
+    private final AtomicLong loggedFailures = new AtomicLong();
+
+    ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    JsonNode get(String endpoint, String path) {
+        return send(endpoint, request(path).GET().build());
+    }
+
+    JsonNode post(String endpoint, String path, Object body, String token) {
+        HttpRequest.Builder request = request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return send(endpoint, request.build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    // Parsed response body, or null if the call failed
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(endpoint, elapsed, success);
+            if (!success) {
+                logFailure(endpoint, response.statusCode() + " " + response.body());
+                return null;
+            }
+            return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            logFailure(endpoint, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void logFailure(String endpoint, String detail) {
+        if (loggedFailures.incrementAndGet() <= 20) {
+            log.warn("{} failed: {}", endpoint, detail.length() > 300 ? detail.substring(0, 300) : detail);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unserializable request body", e);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.service.load_tests.workload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.service.load_tests.LoadTestConfig;
+import com.service.load_tests.report.LatencyRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The split-expense workflow as a closed workload: every virtual user is a registered member of
+// one expense group and loops over a weighted mix of actions until stopped. Splits, settlements
+// and optimizations stay inside the group, so balances are contended the way shared expenses are.
+public class SplitWorkload {
+
+    private static final Logger log = LoggerFactory.getLogger(SplitWorkload.class);
+
+    private static final String REGISTER = "POST /api/auth/register";
+    private static final String LOGIN = "POST /api/auth/login";
+    private static final String CREATE_SPLIT = "POST /api/transactions/";
+    private static final String USER_BALANCES = "GET /api/balances/user/{userId}";
+    private static final String BALANCE_SUMMARY = "GET /api/balances/summary/{userId}";
+    private static final String SETTLE = "POST /api/balances/settle";
+    private static final String OPTIMIZE = "POST /api/balances/optimize";
+
+    private static final String PASSWORD = "loadtest123";
+    private static final int SETUP_CONCURRENCY = 4;
+    private static final int SETUP_ATTEMPTS = 5;
+
+    // Action mix, in percent
+    private static final int CREATE_SPLIT_WEIGHT = 30;
+    private static final int USER_BALANCES_WEIGHT = 25;
+    private static final int BALANCE_SUMMARY_WEIGHT = 15;
+    private static final int SETTLE_WEIGHT = 10;
+    private static final int OPTIMIZE_WEIGHT = 8;
+    private static final int LOGIN_WEIGHT = 10;  // the remaining 2%: a new user signs up
+
+    private final LoadTestConfig config;
+    private final ApiClient api;
+    // Distinguishes this run's accounts from earlier runs against the same database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicInteger accountSequence = new AtomicInteger();
+    private final List<Member> members = new ArrayList<>();
+    private volatile boolean running;
+    private ExecutorService virtualUsers;
+
+    public SplitWorkload(LoadTestConfig config, LatencyRecorder recorder) {
+        this.config = config;
+        this.api = new ApiClient(config.getBaseUrl(), recorder);
+    }
+
+    // Registers and logs in every virtual user, then forms the groups
+    public void setUp() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(config.getUsers(), SETUP_CONCURRENCY));
+        try {
+            List<Future<Member>> registrations = new ArrayList<>();
+            for (int i = 0; i < config.getUsers(); i++) {
+                registrations.add(pool.submit(this::signUpForSetup));
+            }
+            for (Future<Member> registration : registrations) {
+                Member member = registration.get();
+                if (member == null) {
+                    throw new IllegalStateException("Could not register the virtual users; see the failures above");
+                }
+                members.add(member);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < members.size(); i++) {
+            int groupStart = i / config.getGroupSize() * config.getGroupSize();
+            members.get(i).group = members.subList(groupStart, Math.min(groupStart + config.getGroupSize(), members.size()));
+        }
+        log.info("Registered {} users in groups of {}", members.size(), config.getGroupSize());
+    }
+
+    public void start() {
+        running = true;
+        virtualUsers = Executors.newFixedThreadPool(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            Random random = new Random(config.getSeed() + i);
+            virtualUsers.submit(() -> run(member, random));
+        }
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        virtualUsers.shutdown();
+        if (!virtualUsers.awaitTermination(60, TimeUnit.SECONDS)) {
+            virtualUsers.shutdownNow();
+        }
+    }
+
+    private void run(Member member, Random random) {
+        long thinkMillis = config.getThinkTime().toMillis();
+        while (running && !Thread.currentThread().isInterrupted()) {
+            int roll = random.nextInt(100);
+            if ((roll -= CREATE_SPLIT_WEIGHT) < 0) {
+                createSplit(member, random);
+            } else if ((roll -= USER_BALANCES_WEIGHT) < 0) {
+                readBalances(member);
+            } else if ((roll -= BALANCE_SUMMARY_WEIGHT) < 0) {
+                api.get(BALANCE_SUMMARY, "/api/balances/summary/" + member.userId);
+            } else if ((roll -= SETTLE_WEIGHT) < 0) {
+                settle(member, random);
+            } else if ((roll -= OPTIMIZE_WEIGHT) < 0) {
+                optimize(member);
+            } else if ((roll -= LOGIN_WEIGHT) < 0) {
+                login(member);
+            } else {
+                signUp();
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Setup isn't measured, so a cold service that times out is simply retried
+    private Member signUpForSetup() throws InterruptedException {
+        for (int attempt = 1; attempt < SETUP_ATTEMPTS; attempt++) {
+            Member member = signUp();
+            if (member != null) {
+                return member;
+            }
+            Thread.sleep(1000L * attempt);
+        }
+        return signUp();
+    }
+
+    private Member signUp() {
+        int account = accountSequence.incrementAndGet();
+        Member member = new Member("lt-" + runId + "-" + account + "@loadtest.local");
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("email", member.email);
+        request.put("password", PASSWORD);
+        request.put("name", "Load Test " + account);
+        JsonNode response = api.post(REGISTER, "/api/auth/register", request, null);
+        if (response == null) {
+            return null;
+        }
+        member.userId = response.path("userId").asLong();
+        return login(member) ? member : null;
+    }
+
+    private boolean login(Member member) {
+        JsonNode response = api.post(LOGIN, "/api/auth/login", Map.of("email", member.email, "password", PASSWORD), null);
+        if (response == null) {
+            return false;
+        }
+        member.token = response.path("token").asText();
+        return true;
+    }
+
+    // EQUAL split paid by this member among themselves and split-size - 1 other group members
+    private void createSplit(Member member, Random random) {
+        List<Member> others = new ArrayList<>(member.group);
+        others.remove(member);
+        Collections.shuffle(others, random);
+        List<Map<String, Object>> participants = new ArrayList<>();
+        participants.add(Map.of("userId", member.userId));
+        for (Member other : others.subList(0, Math.min(config.getSplitSize() - 1, others.size()))) {
+            participants.add(Map.of("userId", other.userId));
+        }
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("paidBy", member.userId);
+        request.put("participants", participants);
+        request.put("totalAmount", amount(random, 10, 200));
+        request.put("description", "Load test expense");
+        request.put("category", "Food");
+        request.put("splitType", "EQUAL");
+        api.post(CREATE_SPLIT, "/api/transactions/", request, member.token);
+    }
+
+    private JsonNode readBalances(Member member) {
+        return api.get(USER_BALANCES, "/api/balances/user/" + member.userId);
+    }
+
+    // Pays off one debt in full; only this member can lower what they owe, so it never goes stale
+    private void settle(Member member, Random random) {
+        JsonNode balances = readBalances(member);
+        if (balances == null) {
+            return;
+        }
+        List<JsonNode> debts = new ArrayList<>();
+        for (JsonNode balance : balances) {
+            // Amounts are from this member's side: positive means they owe the other user
+            if (balance.path("amount").decimalValue().compareTo(BigDecimal.ONE) >= 0) {
+                debts.add(balance);
+            }
+        }
+        if (debts.isEmpty()) {
+            return;
+        }
+        JsonNode debt = debts.get(random.nextInt(debts.size()));
+        long payee = debt.path("user1").asLong() == member.userId ? debt.path("user2").asLong() : debt.path("user1").asLong();
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("payerId", member.userId);
+        request.put("payeeId", payee);
+        request.put("amount", debt.path("amount").decimalValue());
+        request.put("description", "Load test settlement");
+        request.put("method", "CASH");
+        api.post(SETTLE, "/api/balances/settle", request, member.token);
+    }
+
+    private void optimize(Member member) {
+        List<Long> userIds = member.group.stream().map(other -> other.userId).toList();
+        api.post(OPTIMIZE, "/api/balances/optimize", Map.of("userIds", userIds), member.token);
+    }
+
+    private static BigDecimal amount(Random random, int min, int max) {
+        return BigDecimal.valueOf(min * 100L + random.nextInt((max - min) * 100))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.UNNECESSARY);
+    }
+
+    private static class Member {
+        private final String email;
+        private long userId;
+        private volatile String token;
+        private List<Member> group = List.of();
+
+        Member(String email) {
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.service.load_tests.stack;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StubEurekaServerTest {
+
+    private static final String INSTANCE = "{\"instance\":{\"instanceId\":\"auth-service:8081\",\"app\":\"AUTH-SERVICE\"," +
+            "\"hostName\":\"localhost\",\"status\":\"UP\",\"port\":{\"$\":8081,\"@enabled\":\"true\"}}}";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubEurekaServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubEurekaServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void registeredInstanceIsReturnedVerbatimByTheFullFetch() throws Exception {
+        assertThat(send("POST", "apps/AUTH-SERVICE", INSTANCE).statusCode()).isEqualTo(204);
+
+        HttpResponse<String> response = send("GET", "apps/", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode applications = objectMapper.readTree(response.body()).path("applications");
+        assertThat(applications.path("apps__hashcode").asText()).isEqualTo("UP_1_");
+        JsonNode app = applications.path("application").get(0);
+        assertThat(app.path("name").asText()).isEqualTo("AUTH-SERVICE");
+        assertThat(app.path("instance").get(0)).isEqualTo(objectMapper.readTree(INSTANCE).path("instance"));
+        assertThat(server.getRegisteredApps()).containsExactly("AUTH-SERVICE");
+    }
+
+    @Test
+    void heartbeatFromAnUnknownInstanceAsksItToRegister() throws Exception {
+        assertThat(send("PUT", "apps/AUTH-SERVICE/auth-service:8081?status=UP", "").statusCode()).isEqualTo(404);
+
+        send("POST", "apps/AUTH-SERVICE", INSTANCE);
+
+        assertThat(send("PUT", "apps/AUTH-SERVICE/auth-service:8081?status=UP", "").statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void cancelledInstanceIsNoLongerListed() throws Exception {
+        send("POST", "apps/AUTH-SERVICE", INSTANCE);
+
+        assertThat(send("DELETE", "apps/AUTH-SERVICE/auth-service:8081", null).statusCode()).isEqualTo(200);
+
+        JsonNode app = objectMapper.readTree(send("GET", "apps/", null).body()).path("applications").path("application").get(0);
+        assertThat(app.path("instance")).isEmpty();
+    }
+
+    @Test
+    void deltaFetchesAreRefusedSoClientsFallBackToFullFetches() throws Exception {
+        assertThat(send("GET", "apps/delta", null).statusCode()).isEqualTo(403);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getServiceUrl() + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
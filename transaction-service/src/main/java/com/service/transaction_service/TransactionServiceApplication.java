@@ -1,19 +1,29 @@
 package com.service.transaction_service;
 
+import com.service.common.events.EventPublishingConfiguration;
+import com.service.common.idempotency.IdempotencyConfiguration;
+import com.service.common.metrics.QueryMetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient  // Register with Eureka for service discovery
+@EnableScheduling  // Read replica lag checks, archiving, idempotency key purge, event log retention
+@Import({EventPublishingConfiguration.class, IdempotencyConfiguration.class, QueryMetricsConfig.class})
 public class TransactionServiceApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(TransactionServiceApplication.class);
+
 	public static void main(String[] args) {
-		System.out.println("Starting Transaction Service...");
 		SpringApplication.run(TransactionServiceApplication.class, args);
-		System.out.println("Transaction Service started successfully!");
-		System.out.println("Service available at: http://localhost:8083");
-		System.out.println("Access via API Gateway: http://localhost:8080/api/transactions/*");
-		System.out.println("Ready to track expenses and split bills!");
+		log.info("Transaction Service started successfully!");
+		log.info("Service available at: http://localhost:8083");
+		log.info("Access via API Gateway: http://localhost:8080/api/transactions/*");
+		log.info("Ready to track expenses and split bills!");
 	}
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.service.transaction_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// ddl-auto can't declare FULLTEXT indexes, so create the one behind transaction search here
+@Component
+public class FullTextIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(FullTextIndexInitializer.class);
+
+    static final String INDEX_NAME = "ft_transactions_text";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureFullTextIndex() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = ?",
+                Integer.class, INDEX_NAME);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE transactions ADD FULLTEXT INDEX " + INDEX_NAME +
+                " (description, category, notes)");
+        log.info("Created full-text index {} on transactions", INDEX_NAME);
+    }
+}
@@ -0,0 +1,169 @@
+package com.service.transaction_service.config;
+
+import com.service.transaction_service.repository.TransactionArchiveRepository;
+import com.service.transaction_service.util.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Databases created before Snowflake expense IDs have a VARCHAR group_id holding "TXN_..." strings,
+// which ddl-auto=update never converts (and which would fail to map to the Long field). Before the
+// app serves traffic, move those strings to legacy_group_id and give each legacy expense a BIGINT
+// group_id on the reserved legacy node, stamped with the expense's creation time. Safe to re-run,
+// and a no-op once done (or on a fresh database, where ddl-auto creates the tables afterwards).
+@Component
+public class GroupIdMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupIdMigration.class);
+
+    private static final String LOCK_NAME = "transactions.group_id_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 300;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final List<String> TABLES = List.of("transactions", TransactionArchiveRepository.ARCHIVE_TABLE);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Run before the EntityManagerFactory: ddl-auto=update would otherwise MODIFY the VARCHAR column
+    // to BIGINT itself, which fails in strict mode and silently zeroes the old IDs in non-strict mode
+    @Component
+    static class MigrateBeforeJpa extends EntityManagerFactoryDependsOnPostProcessor {
+        MigrateBeforeJpa() {
+            super(GroupIdMigration.class);
+        }
+    }
+
+    @PostConstruct
+    public void migrate() {
+        // One connection throughout: GET_LOCK is held per session, and the ID batches below
+        // need their own transactions
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            // Only one instance migrates; the others wait here and then find nothing left to do
+            Integer locked = jdbc.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class,
+                    LOCK_NAME, LOCK_TIMEOUT_SECONDS);
+            if (locked == null || locked != 1) {
+                throw new IllegalStateException("Timed out waiting for lock " + LOCK_NAME);
+            }
+            try {
+                List<String> tables = new ArrayList<>();
+                for (String table : TABLES) {
+                    if (convertGroupIdColumn(jdbc, table)) {
+                        tables.add(table);
+                    }
+                }
+                assignLegacyGroupIds(connection, jdbc, tables);
+            } finally {
+                jdbc.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+
+    // Ensure group_id is BIGINT and legacy_group_id exists; false if the table isn't there yet
+    private boolean convertGroupIdColumn(JdbcTemplate jdbc, String table) {
+        if (!tableExists(jdbc, table)) {
+            return false;
+        }
+        if (columnType(jdbc, table, "legacy_group_id") == null) {
+            jdbc.execute("ALTER TABLE " + table + " ADD COLUMN legacy_group_id VARCHAR(64) NULL");
+        }
+        String groupIdType = columnType(jdbc, table, "group_id");
+        if (groupIdType != null && groupIdType.contains("char")) {
+            log.info("Converting {}.group_id from {} to BIGINT; old values move to legacy_group_id", table, groupIdType);
+            jdbc.update("UPDATE " + table + " SET legacy_group_id = group_id WHERE group_id IS NOT NULL");
+            // Dropping the column drops its index too
+            jdbc.execute("ALTER TABLE " + table + " DROP COLUMN group_id");
+            groupIdType = null;
+        }
+        if (groupIdType == null) {
+            jdbc.execute("ALTER TABLE " + table + " ADD COLUMN group_id BIGINT NULL");
+        }
+        ensureIndex(jdbc, table, "idx_transactions_group_id", "group_id");
+        ensureIndex(jdbc, table, "idx_transactions_legacy_group_id", "legacy_group_id");
+        return true;
+    }
+
+    // Legacy expenses still without a BIGINT group_id get one, oldest first so IDs follow creation
+    // order. An expense's rows may be split between the hot and archive tables, so each batch
+    // updates both in one transaction: a crash never leaves one expense with two IDs.
+    private void assignLegacyGroupIds(Connection connection, JdbcTemplate jdbc, List<String> tables)
+            throws SQLException {
+        if (tables.isEmpty()) {
+            return;
+        }
+        List<String> selects = new ArrayList<>();
+        for (String table : tables) {
+            selects.add("SELECT legacy_group_id, COALESCE(created_at, transaction_date) AS created FROM " + table +
+                    " WHERE group_id IS NULL AND legacy_group_id IS NOT NULL");
+        }
+        List<Object[]> pending = jdbc.query("SELECT legacy_group_id, MIN(created) FROM (" +
+                        String.join(" UNION ALL ", selects) + ") legacy GROUP BY legacy_group_id ORDER BY MIN(created)",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getTimestamp(2)});
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        AtomicLong createdMillis = new AtomicLong();
+        SnowflakeIdGenerator legacyIds = new SnowflakeIdGenerator(SnowflakeIdGenerator.LEGACY_NODE_ID, createdMillis::get);
+        long now = System.currentTimeMillis();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (int from = 0; from < pending.size(); from += BATCH_SIZE) {
+                List<Object[]> batch = new ArrayList<>();
+                for (Object[] legacy : pending.subList(from, Math.min(from + BATCH_SIZE, pending.size()))) {
+                    Timestamp created = (Timestamp) legacy[1];
+                    long millis = created != null ? created.getTime() : SnowflakeIdGenerator.EPOCH;
+                    createdMillis.set(Math.min(Math.max(millis, SnowflakeIdGenerator.EPOCH), now));
+                    batch.add(new Object[]{legacyIds.nextId(), legacy[0]});
+                }
+                for (String table : tables) {
+                    jdbc.batchUpdate("UPDATE " + table + " SET group_id = ? " +
+                            "WHERE legacy_group_id = ? AND group_id IS NULL", batch);
+                }
+                connection.commit();
+            }
+        } catch (RuntimeException | SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        log.info("Assigned group IDs to {} legacy expenses", pending.size());
+    }
+
+    private static boolean tableExists(JdbcTemplate jdbc, String table) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE() AND table_name = ?", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private static String columnType(JdbcTemplate jdbc, String table, String column) {
+        return jdbc.queryForList("SELECT data_type FROM information_schema.columns " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+                String.class, table, column).stream().findFirst().map(String::toLowerCase).orElse(null);
+    }
+
+    private static void ensureIndex(JdbcTemplate jdbc, String table, String index, String column) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?", Integer.class, table, index);
+        if (count == null || count == 0) {
+            jdbc.execute("ALTER TABLE " + table + " ADD INDEX " + index + " (" + column + ")");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.service.transaction_service.config;
+
+import com.service.transaction_service.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    // Must be unique per running instance: two instances sharing a node ID issue duplicate IDs.
+    // Deliberately has no default, so a missing assignment fails startup instead of colliding.
+    @Value("${transaction.id.node-id:#{null}}")
+    private Long nodeId;
+
+    @Bean
+    public SnowflakeIdGenerator expenseIdGenerator() {
+        if (nodeId == null) {
+            throw new IllegalStateException("transaction.id.node-id (TRANSACTION_NODE_ID) is not set; " +
+                    "give each transaction-service instance its own node ID between 0 and "
+                    + SnowflakeIdGenerator.MAX_LIVE_NODE_ID);
+        }
+        if (nodeId < 0 || nodeId > SnowflakeIdGenerator.MAX_LIVE_NODE_ID) {
+            throw new IllegalStateException("transaction.id.node-id must be between 0 and "
+                    + SnowflakeIdGenerator.MAX_LIVE_NODE_ID + " (node " + SnowflakeIdGenerator.LEGACY_NODE_ID
+                    + " is reserved for migrated legacy IDs), got " + nodeId);
+        }
+        return new SnowflakeIdGenerator(nodeId);
+    }
+}
@@ -0,0 +1,144 @@
+package com.service.transaction_service.controller;
+
+import com.service.transaction_service.dto.GroupRequest;
+import com.service.transaction_service.dto.GroupResponse;
+import com.service.transaction_service.dto.TransactionResponse;
+import com.service.transaction_service.service.AuthClientService;
+import com.service.transaction_service.service.GroupService;
+import com.service.transaction_service.service.TransactionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/groups")  // Via API Gateway: /api/transactions/groups
+public class GroupController {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AuthClientService authClientService;
+
+    @PostMapping
+    public ResponseEntity<?> createGroup(@Valid @RequestBody GroupRequest request,
+                                         @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long userId = authClientService.extractUserIdFromToken(authHeader);
+            GroupResponse response = groupService.createGroup(request, userId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{groupId}")
+    public ResponseEntity<?> getGroup(@PathVariable Long groupId,
+                                      @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long requesterId = authClientService.extractUserIdFromToken(authHeader);
+            return ResponseEntity.ok(groupService.getGroup(groupId, requesterId));
+        } catch (GroupService.NotAMemberException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<GroupResponse>> getUserGroups(@PathVariable Long userId) {
+        return ResponseEntity.ok(groupService.getUserGroups(userId));
+    }
+
+    @PostMapping("/{groupId}/members")
+    public ResponseEntity<?> addMember(@PathVariable Long groupId,
+                                       @RequestBody MemberRequest request,
+                                       @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long requesterId = authClientService.extractUserIdFromToken(authHeader);
+            GroupResponse response = groupService.addMember(groupId, request.getUserId(), requesterId);
+            return ResponseEntity.ok(response);
+        } catch (GroupService.NotAMemberException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{groupId}/balances")
+    public ResponseEntity<?> getGroupBalances(@PathVariable Long groupId,
+                                              @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long requesterId = authClientService.extractUserIdFromToken(authHeader);
+            return ResponseEntity.ok(groupService.getGroupBalances(groupId, requesterId));
+        } catch (GroupService.NotAMemberException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{groupId}/optimize")
+    public ResponseEntity<?> optimizeGroup(@PathVariable Long groupId,
+                                           @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long requesterId = authClientService.extractUserIdFromToken(authHeader);
+            return ResponseEntity.ok(groupService.optimizeGroup(groupId, requesterId));
+        } catch (GroupService.NotAMemberException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{groupId}/transactions")
+    public ResponseEntity<?> getGroupTransactions(@PathVariable Long groupId,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "20") int size,
+                                                  @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long requesterId = authClientService.extractUserIdFromToken(authHeader);
+            List<TransactionResponse> responses = transactionService.getGroupTransactions(
+                    groupId, requesterId, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+            return ResponseEntity.ok(responses);
+        } catch (GroupService.NotAMemberException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new TransactionController.ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Helper DTOs
+    public static class MemberRequest {
+        private Long userId;
+
+        public MemberRequest() {
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.service.transaction_service.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.service.transaction_service.dto.PairSum;
+import com.service.transaction_service.service.TransactionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Bulk reads for other services only: the API gateway does not route /internal/**.
+@RestController
+@RequestMapping("/internal")
+public class InternalController {
+
+    private static final Logger log = LoggerFactory.getLogger(InternalController.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter pairSumWriter;
+
+    @PostConstruct
+    void initWriter() {
+        // Many values into one buffered stream: don't close or flush it after each
+        pairSumWriter = objectMapper.writerFor(PairSum.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Balance Service's reconciliation reads every pair's ACTIVE total from here as NDJSON, one
+    // PairSum per line in (user1, user2) order. Written on the request thread rather than as a
+    // StreamingResponseBody: a large range outlasts the servlet container's async timeout.
+    // A failure after the first line aborts the connection, so the reader sees a truncated
+    // body instead of a short but well-formed one.
+    @GetMapping("/pair-sums")
+    public ResponseEntity<?> streamPairSums(@RequestParam(defaultValue = "-9223372036854775808") long fromUser,
+                                            @RequestParam(defaultValue = "9223372036854775807") long toUser,
+                                            HttpServletResponse response) throws IOException {
+        if (fromUser >= toUser) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new TransactionController.ErrorResponse("fromUser must be below toUser"));
+        }
+        response.setContentType("application/x-ndjson");
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        try {
+            transactionService.streamPairSums(fromUser, toUser, pairSum -> {
+                try {
+                    pairSumWriter.writeValue(out, pairSum);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new TransactionController.ErrorResponse(e.getMessage()));
+            }
+            log.warn("Pair sum stream [{}, {}) failed after it started: {}", fromUser, toUser, e.getMessage());
+            throw e;
+        }
+        return null;
+    }
+}
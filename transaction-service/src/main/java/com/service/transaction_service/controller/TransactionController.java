@@ -1,18 +1,22 @@
 package com.service.transaction_service.controller;
 
+import com.service.common.idempotency.IdempotencyService;
 import com.service.transaction_service.dto.TransactionRequest;
 import com.service.transaction_service.dto.TransactionResponse;
 import com.service.transaction_service.dto.TransactionSummary;
 import com.service.transaction_service.entity.Transaction;
+import com.service.transaction_service.repository.TransactionArchiveRepository;
 import com.service.transaction_service.service.AuthClientService;
 import com.service.transaction_service.service.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,17 +29,27 @@ public class TransactionController {
     @Autowired
     private AuthClientService authClientService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // A retry with the same Idempotency-Key gets the first response back instead of a second expense
     @PostMapping("/")
     public ResponseEntity<?> createTransaction(@Valid @RequestBody TransactionRequest request,
-                                               @RequestHeader("Authorization") String authHeader) {
+                                               @RequestHeader("Authorization") String authHeader,
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         try {
             // Validate token and get user ID
             Long createdByUserId = authClientService.extractUserIdFromToken(authHeader);
 
             // Verify that the user creating the transaction is authorized
             // For now, anyone can create transactions for anyone, but we could add checks here
-            List<TransactionResponse> responses = transactionService.createTransaction(request, createdByUserId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+            return idempotencyService.execute(createdByUserId, idempotencyKey, request, () -> {
+                List<TransactionResponse> responses = transactionService.createTransaction(request, createdByUserId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+            });
+        } catch (IdempotencyService.IdempotencyException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
@@ -115,9 +129,17 @@ public class TransactionController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchTransactions(@RequestParam("q") String description) {
+    public ResponseEntity<?> searchTransactions(@RequestParam("q") String query,
+                                                @RequestParam Long userId,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
         try {
-            List<TransactionResponse> responses = transactionService.searchTransactions(description);
+            List<TransactionResponse> responses = transactionService.searchTransactions(
+                    userId, query, from, to, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
             return ResponseEntity.ok(responses);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -174,6 +196,12 @@ public class TransactionController {
         return ResponseEntity.ok(stats);
     }
 
+    // Row counts and data/index sizes of the hot table and the archive
+    @GetMapping("/stats/storage")
+    public ResponseEntity<List<TransactionArchiveRepository.TableStats>> getStorageStats() {
+        return ResponseEntity.ok(transactionService.getStorageStats());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         TransactionService.TransactionStats stats = transactionService.getTransactionStats();
@@ -0,0 +1,150 @@
+package com.service.transaction_service.dto;
+
+import com.service.transaction_service.entity.GroupMembership;
+import com.service.transaction_service.entity.SplitGroup;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GroupResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long createdBy;
+    private Integer memberCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<MemberPosition> members = new ArrayList<>();
+
+    // Default constructor
+    public GroupResponse() {
+    }
+
+    // Constructor from SplitGroup entity (members are filled in by the caller when needed)
+    public GroupResponse(SplitGroup group) {
+        this.id = group.getId();
+        this.name = group.getName();
+        this.description = group.getDescription();
+        this.createdBy = group.getCreatedBy();
+        this.memberCount = group.getMemberCount();
+        this.createdAt = group.getCreatedAt();
+        this.updatedAt = group.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(Long createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Integer getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(Integer memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public List<MemberPosition> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<MemberPosition> members) {
+        this.members = members;
+    }
+
+    public static class MemberPosition {
+        private Long userId;
+        private String userName;
+        private BigDecimal netPosition;  // Positive = is owed by the group, negative = owes the group
+        private LocalDateTime joinedAt;
+
+        public MemberPosition() {
+        }
+
+        public MemberPosition(GroupMembership membership, String userName) {
+            this.userId = membership.getUserId();
+            this.userName = userName;
+            this.netPosition = membership.getNetPosition();
+            this.joinedAt = membership.getJoinedAt();
+        }
+
+        // Getters and Setters
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public BigDecimal getNetPosition() {
+            return netPosition;
+        }
+
+        public void setNetPosition(BigDecimal netPosition) {
+            this.netPosition = netPosition;
+        }
+
+        public LocalDateTime getJoinedAt() {
+            return joinedAt;
+        }
+
+        public void setJoinedAt(LocalDateTime joinedAt) {
+            this.joinedAt = joinedAt;
+        }
+    }
+}
@@ -35,6 +35,8 @@ public class TransactionRequest {
 
     private String groupId;
 
+    private Long splitGroupId;  // Optional: tag the expense with a SplitGroup
+
     private String notes;
 
     // Default constructor
@@ -106,6 +108,14 @@ public class TransactionRequest {
         this.groupId = groupId;
     }
 
+    public Long getSplitGroupId() {
+        return splitGroupId;
+    }
+
+    public void setSplitGroupId(Long splitGroupId) {
+        this.splitGroupId = splitGroupId;
+    }
+
     public String getNotes() {
         return notes;
     }
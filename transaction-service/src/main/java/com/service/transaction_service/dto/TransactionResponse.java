@@ -1,5 +1,7 @@
 package com.service.transaction_service.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import com.service.transaction_service.entity.Transaction;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,7 +20,10 @@ public class TransactionResponse {
     private LocalDateTime transactionDate;
     private Long createdBy;
     private String createdByName;
-    private String groupId;
+    @JsonSerialize(using = ToStringSerializer.class)  // 64-bit IDs exceed JavaScript's safe integer range
+    private Long groupId;
+    private String legacyGroupId;  // Original "TXN_..." ID of expenses created before Snowflake IDs
+    private Long splitGroupId;
     private Transaction.TransactionStatus status;
     private Transaction.SplitType splitType;
     private LocalDateTime createdAt;
@@ -41,6 +46,8 @@ public class TransactionResponse {
         this.transactionDate = transaction.getTransactionDate();
         this.createdBy = transaction.getCreatedBy();
         this.groupId = transaction.getGroupId();
+        this.legacyGroupId = transaction.getLegacyGroupId();
+        this.splitGroupId = transaction.getSplitGroupId();
         this.status = transaction.getStatus();
         this.splitType = transaction.getSplitType();
         this.createdAt = transaction.getCreatedAt();
@@ -48,6 +55,33 @@ public class TransactionResponse {
         this.notes = transaction.getNotes();
     }
 
+    // Constructor for JPQL projections (TransactionRepository.TRANSACTION_RESPONSE): built
+    // straight from the selected columns, so no managed Transaction is loaded
+    public TransactionResponse(Long id, Long paidBy, Long owedBy, BigDecimal amount, String description,
+                               String category, BigDecimal totalAmount, LocalDateTime transactionDate,
+                               Long createdBy, Long groupId, String legacyGroupId, Long splitGroupId,
+                               Transaction.TransactionStatus status,
+                               Transaction.SplitType splitType, LocalDateTime createdAt, LocalDateTime updatedAt,
+                               String notes) {
+        this.id = id;
+        this.paidBy = paidBy;
+        this.owedBy = owedBy;
+        this.amount = amount;
+        this.description = description;
+        this.category = category;
+        this.totalAmount = totalAmount;
+        this.transactionDate = transactionDate;
+        this.createdBy = createdBy;
+        this.groupId = groupId;
+        this.legacyGroupId = legacyGroupId;
+        this.splitGroupId = splitGroupId;
+        this.status = status;
+        this.splitType = splitType;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.notes = notes;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -145,14 +179,30 @@ public class TransactionResponse {
         this.createdByName = createdByName;
     }
 
-    public String getGroupId() {
+    public Long getGroupId() {
         return groupId;
     }
 
-    public void setGroupId(String groupId) {
+    public void setGroupId(Long groupId) {
         this.groupId = groupId;
     }
 
+    public String getLegacyGroupId() {
+        return legacyGroupId;
+    }
+
+    public void setLegacyGroupId(String legacyGroupId) {
+        this.legacyGroupId = legacyGroupId;
+    }
+
+    public Long getSplitGroupId() {
+        return splitGroupId;
+    }
+
+    public void setSplitGroupId(Long splitGroupId) {
+        this.splitGroupId = splitGroupId;
+    }
+
     public Transaction.TransactionStatus getStatus() {
         return status;
     }
@@ -0,0 +1,104 @@
+package com.service.transaction_service.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A user's membership in a SplitGroup, carrying their running net position in that group's ledger
+@Entity
+@Table(name = "group_memberships",
+        uniqueConstraints = @UniqueConstraint(name = "uk_group_member", columnNames = {"group_id", "user_id"}),
+        indexes = @Index(name = "idx_group_memberships_user", columnList = "user_id"))
+public class GroupMembership {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @NotNull
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Positive = the group owes this member, negative = this member owes the group.
+    // Maintained incrementally as expenses are added or cancelled.
+    @NotNull
+    @Column(name = "net_position", nullable = false, precision = 12, scale = 2)
+    private BigDecimal netPosition = BigDecimal.ZERO;
+
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+
+    // Default constructor (required by JPA)
+    public GroupMembership() {
+    }
+
+    public GroupMembership(Long groupId, Long userId) {
+        this.groupId = groupId;
+        this.userId = userId;
+        this.netPosition = BigDecimal.ZERO;
+        this.joinedAt = LocalDateTime.now();
+    }
+
+    // JPA lifecycle methods
+    @PrePersist
+    protected void onCreate() {
+        if (joinedAt == null) {
+            joinedAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getNetPosition() {
+        return netPosition;
+    }
+
+    public void setNetPosition(BigDecimal netPosition) {
+        this.netPosition = netPosition;
+    }
+
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupMembership{" +
+                "groupId=" + groupId +
+                ", userId=" + userId +
+                ", netPosition=" + netPosition +
+                '}';
+    }
+}
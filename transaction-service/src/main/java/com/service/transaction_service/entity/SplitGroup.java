@@ -0,0 +1,130 @@
+package com.service.transaction_service.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+// A group of people sharing expenses (a flat, a trip...). Named SplitGroup because GROUP is reserved in SQL/JPQL.
+@Entity
+@Table(name = "split_groups")
+public class SplitGroup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Group name is required")
+    @Size(max = 100, message = "Group name cannot exceed 100 characters")
+    @Column(nullable = false)
+    private String name;
+
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description;
+
+    @Column(name = "created_by")
+    private Long createdBy;  // User who created the group
+
+    @Column(name = "member_count")
+    private Integer memberCount = 0;  // Denormalized so listing groups never counts memberships
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Default constructor (required by JPA)
+    public SplitGroup() {
+    }
+
+    public SplitGroup(String name, String description, Long createdBy) {
+        this.name = name;
+        this.description = description;
+        this.createdBy = createdBy;
+        this.memberCount = 0;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // JPA lifecycle methods
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(Long createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Integer getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(Integer memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SplitGroup{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", createdBy=" + createdBy +
+                ", memberCount=" + memberCount +
+                '}';
+    }
+}
@@ -8,7 +8,16 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        indexes = {
+                @Index(name = "idx_transactions_group_id", columnList = "group_id"),
+                @Index(name = "idx_transactions_legacy_group_id", columnList = "legacy_group_id"),
+                @Index(name = "idx_transactions_split_group", columnList = "split_group_id, transaction_date"),
+                @Index(name = "idx_transactions_status_date", columnList = "status, transaction_date"),
+                // Covering indexes for PairSumRepository's per-pair sums (one per direction)
+                @Index(name = "idx_transactions_paid_owed", columnList = "paid_by, owed_by, status, amount, updated_at"),
+                @Index(name = "idx_transactions_owed_paid", columnList = "owed_by, paid_by, status, amount, updated_at")
+        })
 public class Transaction {
 
     @Id
@@ -45,7 +54,13 @@ public class Transaction {
     private Long createdBy;  // User who created this transaction record
 
     @Column(name = "group_id")
-    private String groupId;  // Optional: for grouping related transactions
+    private Long groupId;  // Time-ordered ID shared by all rows of one expense (see SnowflakeIdGenerator)
+
+    @Column(name = "legacy_group_id", length = 64, insertable = false, updatable = false)
+    private String legacyGroupId;  // Pre-Snowflake "TXN_..." group ID, kept by GroupIdMigration; null for new rows
+
+    @Column(name = "split_group_id")
+    private Long splitGroupId;  // Optional: the SplitGroup this expense belongs to
 
     @Enumerated(EnumType.STRING)
     private TransactionStatus status = TransactionStatus.ACTIVE;
@@ -200,14 +215,26 @@ public class Transaction {
         this.createdBy = createdBy;
     }
 
-    public String getGroupId() {
+    public Long getGroupId() {
         return groupId;
     }
 
-    public void setGroupId(String groupId) {
+    public void setGroupId(Long groupId) {
         this.groupId = groupId;
     }
 
+    public String getLegacyGroupId() {
+        return legacyGroupId;
+    }
+
+    public Long getSplitGroupId() {
+        return splitGroupId;
+    }
+
+    public void setSplitGroupId(Long splitGroupId) {
+        this.splitGroupId = splitGroupId;
+    }
+
     public TransactionStatus getStatus() {
         return status;
     }
@@ -0,0 +1,46 @@
+package com.service.transaction_service.events;
+
+import com.service.transaction_service.entity.Transaction;
+
+import java.math.BigDecimal;
+
+// Published once a transaction (one participant's share of an expense) has left ACTIVE: it was
+// cancelled, deleted or marked settled, and no longer counts toward the pair's balance. Final: a
+// transaction never becomes ACTIVE again.
+public class ExpenseCancelled {
+    public static final String TYPE = "ExpenseCancelled";
+
+    private Long transactionId;
+    private Long expenseId;
+    private Long paidBy;
+    private Long owedBy;
+    private BigDecimal amount;
+    private String status;  // New status: CANCELLED (also for deletes) or SETTLED
+
+    // Default constructor
+    public ExpenseCancelled() {
+    }
+
+    public ExpenseCancelled(Transaction transaction) {
+        this.transactionId = transaction.getId();
+        this.expenseId = transaction.getGroupId();
+        this.paidBy = transaction.getPaidBy();
+        this.owedBy = transaction.getOwedBy();
+        this.amount = transaction.getAmount();
+        this.status = transaction.getStatus().name();
+    }
+
+    // Getters and Setters
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+    public Long getExpenseId() { return expenseId; }
+    public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+    public Long getPaidBy() { return paidBy; }
+    public void setPaidBy(Long paidBy) { this.paidBy = paidBy; }
+    public Long getOwedBy() { return owedBy; }
+    public void setOwedBy(Long owedBy) { this.owedBy = owedBy; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
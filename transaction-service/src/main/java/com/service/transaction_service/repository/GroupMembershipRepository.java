@@ -0,0 +1,35 @@
+package com.service.transaction_service.repository;
+
+import com.service.transaction_service.entity.GroupMembership;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GroupMembershipRepository extends JpaRepository<GroupMembership, Long> {
+
+    List<GroupMembership> findByGroupIdOrderByJoinedAtAsc(Long groupId);
+
+    Optional<GroupMembership> findByGroupIdAndUserId(Long groupId, Long userId);
+
+    boolean existsByGroupIdAndUserId(Long groupId, Long userId);
+
+    @Query("SELECT m.userId FROM GroupMembership m WHERE m.groupId = :groupId AND m.userId IN :userIds")
+    List<Long> findMemberIdsAmong(@Param("groupId") Long groupId,
+                                  @Param("userIds") Collection<Long> userIds);
+
+    // Atomic in-place ledger update; avoids read-modify-write races between concurrent expenses
+    @Modifying
+    @Query("UPDATE GroupMembership m SET m.netPosition = m.netPosition + :delta " +
+            "WHERE m.groupId = :groupId AND m.userId = :userId")
+    int adjustNetPosition(@Param("groupId") Long groupId,
+                          @Param("userId") Long userId,
+                          @Param("delta") BigDecimal delta);
+}
@@ -0,0 +1,25 @@
+package com.service.transaction_service.repository;
+
+import com.service.transaction_service.entity.SplitGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GroupRepository extends JpaRepository<SplitGroup, Long> {
+
+    @Query("SELECT g FROM SplitGroup g WHERE g.id IN " +
+            "(SELECT m.groupId FROM GroupMembership m WHERE m.userId = :userId) " +
+            "ORDER BY g.updatedAt DESC")
+    List<SplitGroup> findGroupsByMember(@Param("userId") Long userId);
+
+    // Flushes pending writes first and detaches everything after, so no stale SplitGroup
+    // can later flush its old memberCount over this increment; re-read the group if needed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SplitGroup g SET g.memberCount = g.memberCount + :delta WHERE g.id = :groupId")
+    int adjustMemberCount(@Param("groupId") Long groupId, @Param("delta") int delta);
+}
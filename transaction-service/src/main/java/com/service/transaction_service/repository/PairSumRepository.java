@@ -0,0 +1,53 @@
+package com.service.transaction_service.repository;
+
+import com.service.transaction_service.dto.PairSum;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+// ACTIVE transactions netted per user pair, for Balance Service's reconciliation. Each branch of
+// the UNION is a range scan of one covering index (idx_transactions_paid_owed / _owed_paid), so
+// the table itself is never read; only the grouped pairs of one range are sorted at a time.
+// Rows are streamed (Connector/J's fetch size Integer.MIN_VALUE) rather than buffered, so a range
+// with millions of pairs costs the caller one row of memory.
+@Repository
+public class PairSumRepository {
+
+    private static final String PAIR_SUMS =
+            "SELECT u1, u2, SUM(share) AS net, COUNT(*) AS transaction_count, MAX(updated_at) AS last_changed FROM (" +
+                    " SELECT paid_by AS u1, owed_by AS u2, -amount AS share, updated_at FROM transactions" +
+                    " WHERE paid_by >= ? AND paid_by < ? AND paid_by < owed_by AND status = 'ACTIVE'" +
+                    " UNION ALL" +
+                    " SELECT owed_by AS u1, paid_by AS u2, amount AS share, updated_at FROM transactions" +
+                    " WHERE owed_by >= ? AND owed_by < ? AND owed_by < paid_by AND status = 'ACTIVE'" +
+                    ") pair_shares GROUP BY u1, u2 ORDER BY u1, u2";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @PostConstruct
+    void initStreamingJdbcTemplate() {
+        streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    // Pairs whose lower user ID is in [fromUser, toUser), in (user1, user2) order. Signs follow
+    // calculateBalanceBetweenUsers: what user1 paid counts against what user1 owes.
+    // Self-transactions (paid_by = owed_by) belong to no pair and are left out.
+    public void streamPairSums(long fromUser, long toUser, Consumer<PairSum> consumer) {
+        streamingJdbcTemplate.query(PAIR_SUMS, (RowCallbackHandler) rs -> consumer.accept(new PairSum(
+                        rs.getLong("u1"),
+                        rs.getLong("u2"),
+                        rs.getBigDecimal("net"),
+                        rs.getLong("transaction_count"),
+                        rs.getObject("last_changed", LocalDateTime.class))),
+                fromUser, toUser, fromUser, toUser);
+    }
+}
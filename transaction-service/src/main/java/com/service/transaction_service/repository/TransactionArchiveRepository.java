@@ -0,0 +1,156 @@
+package com.service.transaction_service.repository;
+
+import com.service.transaction_service.dto.TransactionResponse;
+import com.service.transaction_service.entity.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Cold store for old CANCELLED/SETTLED transactions: transactions_archive has the same columns
+// as transactions (created with CREATE TABLE ... LIKE) but uses compressed InnoDB rows.
+// Plain JDBC: archived rows are read-only history and are only ever read as responses.
+@Repository
+public class TransactionArchiveRepository {
+
+    public static final String ARCHIVE_TABLE = "transactions_archive";
+
+    // Columns copied on archive; keep in step with the Transaction entity
+    private static final String COLUMNS = "id, paid_by, owed_by, amount, description, category, total_amount, " +
+            "transaction_date, created_by, group_id, legacy_group_id, split_group_id, status, split_type, created_at, updated_at, notes";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public void createArchiveTableIfMissing() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ARCHIVE_TABLE + " LIKE transactions");
+        String rowFormat = jdbcTemplate.queryForObject(
+                "SELECT row_format FROM information_schema.tables " +
+                        "WHERE table_schema = DATABASE() AND table_name = ?",
+                String.class, ARCHIVE_TABLE);
+        if (!"Compressed".equalsIgnoreCase(rowFormat)) {
+            jdbcTemplate.execute("ALTER TABLE " + ARCHIVE_TABLE + " ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8");
+        }
+    }
+
+    // Rows that may move: the same condition is checked again inside moveToArchive
+    private static final String ARCHIVABLE = "status IN ('CANCELLED', 'SETTLED') AND transaction_date < :cutoff";
+
+    // Served by idx_transactions_status_date
+    public List<Long> findArchivableIds(LocalDateTime cutoff, int limit) {
+        return namedJdbcTemplate.queryForList(
+                "SELECT id FROM transactions WHERE " + ARCHIVABLE + " ORDER BY transaction_date LIMIT :limit",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", limit), Long.class);
+    }
+
+    // Copy then delete in the caller's transaction. The candidates are locked and re-checked first:
+    // a row reactivated since findArchivableIds must stay put, and nothing can change it between
+    // the copy and the delete. A plain INSERT fails on an ID already in the archive instead of
+    // skipping it (and then deleting the only live copy); any mismatch rolls the batch back.
+    public int moveToArchive(List<Long> ids, LocalDateTime cutoff) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                .addValue("cutoff", Timestamp.valueOf(cutoff));
+        List<Long> locked = namedJdbcTemplate.queryForList(
+                "SELECT id FROM transactions WHERE id IN (:ids) AND " + ARCHIVABLE + " FOR UPDATE", params, Long.class);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        params.addValue("ids", locked);
+        int copied = namedJdbcTemplate.update("INSERT INTO " + ARCHIVE_TABLE + " (" + COLUMNS + ") " +
+                "SELECT " + COLUMNS + " FROM transactions WHERE id IN (:ids) AND " + ARCHIVABLE, params);
+        if (copied != locked.size()) {
+            throw new IllegalStateException("Archive batch mismatch: locked " + locked.size() + ", copied " + copied);
+        }
+        int deleted = namedJdbcTemplate.update(
+                "DELETE FROM transactions WHERE id IN (:ids) AND " + ARCHIVABLE, params);
+        if (deleted != copied) {
+            throw new IllegalStateException("Archive batch mismatch: copied " + copied + ", deleted " + deleted);
+        }
+        return deleted;
+    }
+
+    public Optional<TransactionResponse> findById(Long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + ARCHIVE_TABLE + " WHERE id = ?",
+                RESPONSE_MAPPER, id).stream().findFirst();
+    }
+
+    public List<TransactionResponse> findByUser(Long userId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + ARCHIVE_TABLE +
+                " WHERE paid_by = ? OR owed_by = ? ORDER BY transaction_date DESC", RESPONSE_MAPPER, userId, userId);
+    }
+
+    public List<TransactionResponse> findBetweenUsers(Long userId1, Long userId2) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + ARCHIVE_TABLE +
+                        " WHERE (paid_by = ? AND owed_by = ?) OR (paid_by = ? AND owed_by = ?) " +
+                        "ORDER BY transaction_date DESC",
+                RESPONSE_MAPPER, userId1, userId2, userId2, userId1);
+    }
+
+    // Approximate row count and on-disk sizes (InnoDB statistics) of the hot and cold tables
+    public List<TableStats> getTableStats() {
+        return jdbcTemplate.query(
+                "SELECT table_name, table_rows, data_length, index_length FROM information_schema.tables " +
+                        "WHERE table_schema = DATABASE() AND table_name IN ('transactions', ?)",
+                (rs, rowNum) -> new TableStats(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+                ARCHIVE_TABLE);
+    }
+
+    private static final RowMapper<TransactionResponse> RESPONSE_MAPPER = (rs, rowNum) -> new TransactionResponse(
+            rs.getLong("id"),
+            rs.getLong("paid_by"),
+            rs.getLong("owed_by"),
+            rs.getBigDecimal("amount"),
+            rs.getString("description"),
+            rs.getString("category"),
+            rs.getBigDecimal("total_amount"),
+            rs.getObject("transaction_date", LocalDateTime.class),
+            rs.getObject("created_by", Long.class),
+            rs.getObject("group_id", Long.class),
+            rs.getString("legacy_group_id"),
+            rs.getObject("split_group_id", Long.class),
+            rs.getString("status") != null ? Transaction.TransactionStatus.valueOf(rs.getString("status")) : null,
+            rs.getString("split_type") != null ? Transaction.SplitType.valueOf(rs.getString("split_type")) : null,
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class),
+            rs.getString("notes"));
+
+    public static class TableStats {
+        private final String table;
+        private final long approximateRows;
+        private final long dataBytes;
+        private final long indexBytes;
+
+        public TableStats(String table, long approximateRows, long dataBytes, long indexBytes) {
+            this.table = table;
+            this.approximateRows = approximateRows;
+            this.dataBytes = dataBytes;
+            this.indexBytes = indexBytes;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public long getApproximateRows() {
+            return approximateRows;
+        }
+
+        public long getDataBytes() {
+            return dataBytes;
+        }
+
+        public long getIndexBytes() {
+            return indexBytes;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.service.transaction_service.repository;
 
+import com.service.transaction_service.dto.TransactionResponse;
 import com.service.transaction_service.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +15,33 @@ import java.util.List;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    // Select list for TransactionResponse projections on list endpoints
+    String TRANSACTION_RESPONSE = "SELECT new com.service.transaction_service.dto.TransactionResponse(" +
+            "t.id, t.paidBy, t.owedBy, t.amount, t.description, t.category, t.totalAmount, t.transactionDate, " +
+            "t.createdBy, t.groupId, t.legacyGroupId, t.splitGroupId, t.status, t.splitType, t.createdAt, " +
+            "t.updatedAt, t.notes) " +
+            "FROM Transaction t ";
+
+    @Query(TRANSACTION_RESPONSE + "WHERE t.paidBy = :userId OR t.owedBy = :userId ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUser(@Param("userId") Long userId);
+
+    @Query(TRANSACTION_RESPONSE + "WHERE t.paidBy = :userId OR t.owedBy = :userId ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUser(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(TRANSACTION_RESPONSE + "WHERE (t.paidBy = :userId1 AND t.owedBy = :userId2) OR " +
+            "(t.paidBy = :userId2 AND t.owedBy = :userId1) ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesBetweenUsers(@Param("userId1") Long userId1,
+                                                        @Param("userId2") Long userId2);
+
+    @Query(TRANSACTION_RESPONSE + "WHERE t.category = :category ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByCategory(@Param("category") String category);
+
+    @Query(TRANSACTION_RESPONSE + "WHERE t.splitGroupId = :splitGroupId ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesBySplitGroup(@Param("splitGroupId") Long splitGroupId, Pageable pageable);
+
+    @Query("SELECT MAX(t.transactionDate) FROM Transaction t WHERE t.paidBy = :userId OR t.owedBy = :userId")
+    LocalDateTime findLastTransactionDateByUser(@Param("userId") Long userId);
+
     @Query("SELECT t FROM Transaction t WHERE t.paidBy = :userId OR t.owedBy = :userId ORDER BY t.transactionDate DESC")
     List<Transaction> findTransactionsByUser(@Param("userId") Long userId);
 
@@ -29,7 +58,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByCategoryOrderByTransactionDateDesc(String category);
 
-    List<Transaction> findByGroupIdOrderByTransactionDateDesc(String groupId);
+    List<Transaction> findByGroupIdOrderByTransactionDateDesc(Long groupId);
 
     List<Transaction> findByStatusOrderByTransactionDateDesc(Transaction.TransactionStatus status);
 
@@ -64,9 +93,21 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             "ORDER BY t.transactionDate DESC")
     List<Transaction> findRecentTransactionsByUser(@Param("userId") Long userId);
 
-    @Query("SELECT t FROM Transaction t WHERE LOWER(t.description) LIKE LOWER(CONCAT('%', :description, '%')) " +
-            "ORDER BY t.transactionDate DESC")
-    List<Transaction> findByDescriptionContainingIgnoreCase(@Param("description") String description);
+    // User-scoped full-text search over ft_transactions_text (see FullTextIndexInitializer).
+    // :query is a BOOLEAN MODE expression; best matches first, then newest.
+    @Query(value = "SELECT t.* FROM transactions t " +
+            "WHERE (t.paid_by = :userId OR t.owed_by = :userId) " +
+            "AND MATCH(t.description, t.category, t.notes) AGAINST (:query IN BOOLEAN MODE) " +
+            "AND (:fromDate IS NULL OR t.transaction_date >= :fromDate) " +
+            "AND (:toDate IS NULL OR t.transaction_date < :toDate) " +
+            "ORDER BY MATCH(t.description, t.category, t.notes) AGAINST (:query IN BOOLEAN MODE) DESC, " +
+            "t.transaction_date DESC",
+            nativeQuery = true)
+    List<Transaction> searchByUser(@Param("userId") Long userId,
+                                   @Param("query") String query,
+                                   @Param("fromDate") LocalDateTime fromDate,
+                                   @Param("toDate") LocalDateTime toDate,
+                                   Pageable pageable);
 
     @Query("SELECT t FROM Transaction t ORDER BY t.amount DESC")
     List<Transaction> findLargestTransactions();
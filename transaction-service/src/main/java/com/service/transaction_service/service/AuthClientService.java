@@ -56,8 +56,9 @@ public class AuthClientService {
 
     public UserInfo getUserInfo(Long userId) {
         try {
-            String url = AUTH_SERVICE_URL + "/users/" + userId;
-            ResponseEntity<UserInfo> response = restTemplate.getForEntity(url, UserInfo.class);
+            // URI template keeps the http.client.requests uri tag to one value for all users
+            String url = AUTH_SERVICE_URL + "/users/{userId}";
+            ResponseEntity<UserInfo> response = restTemplate.getForEntity(url, UserInfo.class, userId);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 return response.getBody();
             } else {
@@ -0,0 +1,280 @@
+package com.service.transaction_service.service;
+
+import com.service.transaction_service.dto.GroupRequest;
+import com.service.transaction_service.dto.GroupResponse;
+import com.service.transaction_service.entity.GroupMembership;
+import com.service.transaction_service.entity.SplitGroup;
+import com.service.transaction_service.entity.Transaction;
+import com.service.transaction_service.repository.GroupMembershipRepository;
+import com.service.transaction_service.repository.GroupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Member names come from auth-service, so responses that carry them are built inside a
+// TransactionTemplate and named after it has committed (see TransactionService). A group's
+// details, ledger and expenses are only shown to its members.
+@Service
+@Transactional
+public class GroupService {
+
+    private static final BigDecimal SETTLE_THRESHOLD = new BigDecimal("0.01");
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupMembershipRepository membershipRepository;
+
+    @Autowired
+    private AuthClientService authClientService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void initTransactionTemplates() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public GroupResponse createGroup(GroupRequest request, Long createdByUserId) {
+        return addMemberNames(writeTransaction.execute(status -> {
+            SplitGroup group = groupRepository.save(
+                    new SplitGroup(request.getName().trim(), request.getDescription(), createdByUserId));
+
+            // Creator is always a member; ignore duplicates in the requested list
+            Set<Long> memberIds = new LinkedHashSet<>();
+            memberIds.add(createdByUserId);
+            if (request.getMemberIds() != null) {
+                memberIds.addAll(request.getMemberIds());
+            }
+            List<GroupMembership> memberships = memberIds.stream()
+                    .map(userId -> new GroupMembership(group.getId(), userId))
+                    .collect(Collectors.toList());
+            membershipRepository.saveAll(memberships);
+            group.setMemberCount(memberships.size());
+
+            return toResponse(group, memberships);
+        }));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public GroupResponse getGroup(Long groupId, Long requesterId) {
+        return addMemberNames(readTransaction.execute(status -> {
+            SplitGroup group = findGroup(groupId);
+            requireMember(groupId, requesterId);
+            return toResponse(group, membershipRepository.findByGroupIdOrderByJoinedAtAsc(groupId));
+        }));
+    }
+
+    @Transactional(readOnly = true)
+    public List<GroupResponse> getUserGroups(Long userId) {
+        return groupRepository.findGroupsByMember(userId).stream()
+                .map(GroupResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public GroupResponse addMember(Long groupId, Long userId, Long requesterId) {
+        return addMemberNames(writeTransaction.execute(status -> {
+            findGroup(groupId);
+            requireMember(groupId, requesterId);
+            if (membershipRepository.existsByGroupIdAndUserId(groupId, userId)) {
+                throw new RuntimeException("User " + userId + " is already a member of this group");
+            }
+            membershipRepository.save(new GroupMembership(groupId, userId));
+            // Atomic increment in SQL; the count is read back rather than set on the entity
+            groupRepository.adjustMemberCount(groupId, 1);
+            return toResponse(findGroup(groupId), membershipRepository.findByGroupIdOrderByJoinedAtAsc(groupId));
+        }));
+    }
+
+    // Per-member net positions come straight from the ledger: O(members), no transaction scan
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<GroupResponse.MemberPosition> getGroupBalances(Long groupId, Long requesterId) {
+        return addNames(readTransaction.execute(status -> {
+            findGroup(groupId);
+            requireMember(groupId, requesterId);
+            return toMemberPositions(membershipRepository.findByGroupIdOrderByJoinedAtAsc(groupId));
+        }));
+    }
+
+    @Transactional(readOnly = true)
+    public GroupSettlementPlan optimizeGroup(Long groupId, Long requesterId) {
+        findGroup(groupId);
+        requireMember(groupId, requesterId);
+        List<GroupMembership> members = membershipRepository.findByGroupIdOrderByJoinedAtAsc(groupId);
+
+        // Debtors have negative positions, creditors positive ones
+        List<GroupMembership> debtors = members.stream()
+                .filter(m -> m.getNetPosition().compareTo(BigDecimal.ZERO) < 0)
+                .sorted(Comparator.comparing(GroupMembership::getNetPosition))
+                .collect(Collectors.toList());
+        List<GroupMembership> creditors = members.stream()
+                .filter(m -> m.getNetPosition().compareTo(BigDecimal.ZERO) > 0)
+                .sorted(Comparator.comparing(GroupMembership::getNetPosition).reversed())
+                .collect(Collectors.toList());
+
+        List<GroupSettlementPlan.Payment> payments = new ArrayList<>();
+        int debtorIndex = 0;
+        int creditorIndex = 0;
+        BigDecimal debtLeft = debtors.isEmpty() ? BigDecimal.ZERO : debtors.get(0).getNetPosition().abs();
+        BigDecimal creditLeft = creditors.isEmpty() ? BigDecimal.ZERO : creditors.get(0).getNetPosition();
+
+        while (debtorIndex < debtors.size() && creditorIndex < creditors.size()) {
+            BigDecimal paymentAmount = debtLeft.min(creditLeft);
+            if (paymentAmount.compareTo(SETTLE_THRESHOLD) >= 0) {
+                payments.add(new GroupSettlementPlan.Payment(
+                        debtors.get(debtorIndex).getUserId(),
+                        creditors.get(creditorIndex).getUserId(),
+                        paymentAmount.setScale(2, RoundingMode.HALF_UP)));
+            }
+            debtLeft = debtLeft.subtract(paymentAmount);
+            creditLeft = creditLeft.subtract(paymentAmount);
+            if (debtLeft.compareTo(SETTLE_THRESHOLD) < 0 && ++debtorIndex < debtors.size()) {
+                debtLeft = debtors.get(debtorIndex).getNetPosition().abs();
+            }
+            if (creditLeft.compareTo(SETTLE_THRESHOLD) < 0 && ++creditorIndex < creditors.size()) {
+                creditLeft = creditors.get(creditorIndex).getNetPosition();
+            }
+        }
+        return new GroupSettlementPlan(groupId, payments);
+    }
+
+    // Ensure an expense tagged with a group only involves its members
+    @Transactional(readOnly = true)
+    public void validateExpenseParticipants(Long groupId, Collection<Long> userIds) {
+        findGroup(groupId);
+        Set<Long> distinct = new HashSet<>(userIds);
+        List<Long> members = membershipRepository.findMemberIdsAmong(groupId, distinct);
+        if (members.size() != distinct.size()) {
+            distinct.removeAll(members);
+            throw new RuntimeException("Users " + distinct + " are not members of group " + groupId);
+        }
+    }
+
+    // Apply (sign = 1) or reverse (sign = -1) expense rows in their group ledgers.
+    // Deltas are coalesced per member so each expense costs at most one UPDATE per participant.
+    public void applyToLedger(List<Transaction> transactions, int sign) {
+        Map<Long, Map<Long, BigDecimal>> deltasByGroup = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getSplitGroupId() == null || transaction.isSelfTransaction()) {
+                continue;
+            }
+            BigDecimal amount = sign < 0 ? transaction.getAmount().negate() : transaction.getAmount();
+            Map<Long, BigDecimal> deltas = deltasByGroup.computeIfAbsent(
+                    transaction.getSplitGroupId(), id -> new HashMap<>());
+            deltas.merge(transaction.getPaidBy(), amount, BigDecimal::add);
+            deltas.merge(transaction.getOwedBy(), amount.negate(), BigDecimal::add);
+        }
+        deltasByGroup.forEach((groupId, deltas) -> deltas.forEach((userId, delta) -> {
+            if (delta.signum() != 0) {
+                membershipRepository.adjustNetPosition(groupId, userId, delta);
+            }
+        }));
+    }
+
+    public void requireMember(Long groupId, Long userId) {
+        if (!membershipRepository.existsByGroupIdAndUserId(groupId, userId)) {
+            throw new NotAMemberException("User " + userId + " is not a member of group " + groupId);
+        }
+    }
+
+    // Private helper methods
+    private SplitGroup findGroup(Long groupId) {
+        return groupRepository.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found with ID: " + groupId));
+    }
+
+    // Member names are filled in by addMemberNames once the transaction is over
+    private GroupResponse toResponse(SplitGroup group, List<GroupMembership> memberships) {
+        GroupResponse response = new GroupResponse(group);
+        response.setMembers(toMemberPositions(memberships));
+        return response;
+    }
+
+    private List<GroupResponse.MemberPosition> toMemberPositions(List<GroupMembership> memberships) {
+        return memberships.stream()
+                .map(m -> new GroupResponse.MemberPosition(m, null))
+                .collect(Collectors.toList());
+    }
+
+    private GroupResponse addMemberNames(GroupResponse response) {
+        addNames(response.getMembers());
+        return response;
+    }
+
+    private List<GroupResponse.MemberPosition> addNames(List<GroupResponse.MemberPosition> members) {
+        for (GroupResponse.MemberPosition member : members) {
+            member.setUserName(getUserName(member.getUserId()));
+        }
+        return members;
+    }
+
+    private String getUserName(Long userId) {
+        try {
+            AuthClientService.UserInfo userInfo = authClientService.getUserInfo(userId);
+            return userInfo.getName();
+        } catch (Exception e) {
+            return "User " + userId; // Fallback if we can't get the name
+        }
+    }
+
+    // Answered with 403
+    public static class NotAMemberException extends RuntimeException {
+        public NotAMemberException(String message) {
+            super(message);
+        }
+    }
+
+    public static class GroupSettlementPlan {
+        private Long groupId;
+        private List<Payment> payments;
+        private BigDecimal totalAmount;
+
+        public GroupSettlementPlan(Long groupId, List<Payment> payments) {
+            this.groupId = groupId;
+            this.payments = payments;
+            this.totalAmount = payments.stream()
+                    .map(Payment::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        // Getters
+        public Long getGroupId() { return groupId; }
+        public List<Payment> getPayments() { return payments; }
+        public BigDecimal getTotalAmount() { return totalAmount; }
+
+        public static class Payment {
+            private Long fromUserId;
+            private Long toUserId;
+            private BigDecimal amount;
+
+            public Payment(Long fromUserId, Long toUserId, BigDecimal amount) {
+                this.fromUserId = fromUserId;
+                this.toUserId = toUserId;
+                this.amount = amount;
+            }
+
+            // Getters
+            public Long getFromUserId() { return fromUserId; }
+            public Long getToUserId() { return toUserId; }
+            public BigDecimal getAmount() { return amount; }
+        }
+    }
+}
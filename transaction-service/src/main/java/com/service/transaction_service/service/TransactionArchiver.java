@@ -0,0 +1,90 @@
+package com.service.transaction_service.service;
+
+import com.service.transaction_service.repository.TransactionArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Keeps the hot transactions table bounded: CANCELLED/SETTLED rows older than the cutoff are
+// moved to transactions_archive in small batches (one short transaction each). ACTIVE rows
+// never move, whatever their age, since they still count toward balances.
+@Component
+public class TransactionArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    @Autowired
+    private TransactionArchiveRepository archiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${transaction.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.archive.cutoff-days:180}")
+    private int cutoffDays;
+
+    @Value("${transaction.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${transaction.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private Counter archived;
+    private volatile boolean archiveTableReady;
+
+    @PostConstruct
+    void initMetrics() {
+        archived = meterRegistry.counter("transaction.archive.moved");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareArchiveTable() {
+        archiveRepository.createArchiveTableIfMissing();
+        archiveTableReady = true;
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.archive.interval-ms:3600000}",
+            initialDelayString = "${transaction.archive.initial-delay-ms:60000}")
+    public void archiveSettledHistory() {
+        if (!enabled || !archiveTableReady) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(cutoffDays);
+        TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+        int moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            // [candidates, moved]: a candidate changed since it was selected stays behind, so
+            // only a short candidate list means the backlog is done
+            int[] counts = batchTransaction.execute(status -> {
+                List<Long> ids = archiveRepository.findArchivableIds(cutoff, batchSize);
+                return new int[]{ids.size(), ids.isEmpty() ? 0 : archiveRepository.moveToArchive(ids, cutoff)};
+            });
+            moved += counts[1];
+            archived.increment(counts[1]);
+            if (counts[0] < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} transactions older than {}", moved, cutoff.toLocalDate());
+        }
+    }
+}
@@ -1,39 +1,84 @@
 package com.service.transaction_service.service;
 
+import com.service.common.events.DomainEventPublisher;
+import com.service.transaction_service.dto.PairSum;
 import com.service.transaction_service.dto.TransactionRequest;
 import com.service.transaction_service.dto.TransactionResponse;
 import com.service.transaction_service.dto.TransactionSummary;
 import com.service.transaction_service.entity.Transaction;
+import com.service.transaction_service.events.ExpenseCancelled;
+import com.service.transaction_service.events.ExpenseCreated;
+import com.service.transaction_service.repository.PairSumRepository;
+import com.service.transaction_service.repository.TransactionArchiveRepository;
 import com.service.transaction_service.repository.TransactionRepository;
+import com.service.transaction_service.util.SnowflakeIdGenerator;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+// Methods that call other services (user names) are NOT_SUPPORTED and run only their database
+// work in a TransactionTemplate, so no pooled connection is held while waiting on the network.
+// Balance Service learns about new and cancelled expenses from the ExpenseCreated/ExpenseCancelled
+// events, asynchronously; they are written to the outbox in the transaction that makes the change.
 @Service
 @Transactional
+@Observed(name = "transaction.service")  // Timer + span per public method (tagged with the method name)
 public class TransactionService {
 
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionArchiveRepository archiveRepository;
+
+    @Autowired
+    private PairSumRepository pairSumRepository;
+
     @Autowired
     private AuthClientService authClientService;
 
-    // RestTemplate for Balance Service communication
     @Autowired
-    private RestTemplate restTemplate;
+    private GroupService groupService;
 
-    private static final String BALANCE_SERVICE_URL = "http://balance-service";
+    @Autowired
+    private SnowflakeIdGenerator expenseIdGenerator;
+
+    @Autowired
+    private DomainEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readTransaction;
+
+    private static final int MAX_SEARCH_TERMS = 8;
 
     @Value("${transaction.rules.max-amount:100000.00}")
     private BigDecimal maxTransactionAmount;
@@ -44,17 +89,28 @@ public class TransactionService {
     @Value("${transaction.rules.max-participants:20}")
     private int maxParticipants;
 
+    @PostConstruct
+    void initTransactionTemplates() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TransactionResponse> createTransaction(TransactionRequest request, Long createdByUserId) {
 
         // Validate request
-        validateTransactionRequest(request);
+        step("validate", () -> {
+            validateTransactionRequest(request);
+            return null;
+        });
 
         // Calculate individual amounts based on split type
         List<TransactionRequest.ParticipantShare> calculatedShares = calculateShares(request);
 
         // Create individual transaction records
         List<Transaction> transactions = new ArrayList<>();
-        String groupId = generateGroupId();
+        Long groupId = expenseIdGenerator.nextId();
 
         for (TransactionRequest.ParticipantShare participant : calculatedShares) {
             Transaction transaction = new Transaction();
@@ -63,152 +119,207 @@ public class TransactionService {
             transaction.setAmount(participant.getAmount());
             transaction.setDescription(request.getDescription());
             transaction.setCategory(request.getCategory());
+            transaction.setNotes(request.getNotes());
             transaction.setTotalAmount(request.getTotalAmount());
             transaction.setTransactionDate(request.getTransactionDate() != null ?
                     request.getTransactionDate() : LocalDateTime.now());
             transaction.setCreatedBy(createdByUserId);
             transaction.setGroupId(groupId);
+            transaction.setSplitGroupId(request.getSplitGroupId());
             transaction.setSplitType(request.getSplitType());
-            transaction.setNotes(request.getNotes());
             transactions.add(transaction);
         }
 
-        // Save all transactions
-        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
-
-        // Automatically update balances in Balance Service
-        updateBalancesForTransactions(savedTransactions);
+        // Save all transactions, keep the group ledger current and record the event for Balance
+        // Service, all in the same DB transaction
+        List<Transaction> savedTransactions = step("save", () -> writeTransaction.execute(status -> {
+            List<Transaction> saved = transactionRepository.saveAll(transactions);
+            groupService.applyToLedger(saved, 1);
+            step("publish-event", () -> {
+                publish(ExpenseCreated.TYPE, groupId, new ExpenseCreated(saved));
+                return null;
+            });
+            return saved;
+        }));
 
         // Convert to responses with user names
-        return savedTransactions.stream()
-                .map(this::convertToResponseWithUserNames)
-                .collect(Collectors.toList());
+        return step("user-names", () -> addUserNames(savedTransactions.stream()
+                .map(TransactionResponse::new)
+                .collect(Collectors.toList())));
     }
 
-    // Update balances when transactions are created
-    private void updateBalancesForTransactions(List<Transaction> transactions) {
-        for (Transaction transaction : transactions) {
-            if (!transaction.getPaidBy().equals(transaction.getOwedBy())) {
-                updateSingleBalance(transaction);
-            }
-        }
+    // One child span/timer (transaction.create.step, tagged step=...) per phase of createTransaction
+    private <T> T step(String name, Supplier<T> work) {
+        return Observation.createNotStarted("transaction.create.step", observationRegistry)
+                .lowCardinalityKeyValue("step", name)
+                .observe(work);
     }
 
-    // Update balance for a single transaction
-    private void updateSingleBalance(Transaction transaction) {
-        try {
-            BalanceUpdateRequest request = new BalanceUpdateRequest();
-            request.setPaidBy(transaction.getPaidBy());
-            request.setOwedBy(transaction.getOwedBy());
-            request.setAmount(transaction.getAmount());
-            request.setTransactionId(transaction.getId());
-
-            String url = BALANCE_SERVICE_URL + "/update";
-            restTemplate.postForObject(url, request, String.class);
-            System.out.println(" Balance updated for transaction: " + transaction.getId() +
-                    " (Paid by: " + transaction.getPaidBy() +
-                    ", Owed by: " + transaction.getOwedBy() +
-                    ", Amount: $" + transaction.getAmount() + ")");
-        } catch (Exception e) {
-            System.err.println(" Failed to update balance for transaction " +
-                    transaction.getId() + ": " + e.getMessage());
-            // In production, you might want to add this to a retry queue
-        }
+    // Inside the transaction making the change: a failure to record the event rolls it back
+    private void publish(String type, Long expenseId, Object payload) {
+        eventPublisher.publish(type, String.valueOf(expenseId), payload);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransactionResponse getTransaction(Long transactionId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with ID: " + transactionId));
-
-        return convertToResponseWithUserNames(transaction);
+        TransactionResponse response = readTransaction.execute(status -> {
+            Optional<Transaction> transaction = transactionRepository.findById(transactionId);
+            if (transaction.isPresent()) {
+                return new TransactionResponse(transaction.get());
+            }
+            // Old settled/cancelled transactions live in the archive
+            return archiveRepository.findById(transactionId)
+                    .orElseThrow(() -> new RuntimeException("Transaction not found with ID: " + transactionId));
+        });
+        return addUserNames(List.of(response)).get(0);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TransactionResponse> getUserTransactions(Long userId) {
-        List<Transaction> transactions = transactionRepository.findTransactionsByUser(userId);
-        return transactions.stream()
-                .map(this::convertToResponseWithUserNames)
-                .collect(Collectors.toList());
+        return addUserNames(readTransaction.execute(status -> mergeHistory(
+                transactionRepository.findResponsesByUser(userId), archiveRepository.findByUser(userId))));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TransactionResponse> getTransactionsBetweenUsers(Long userId1, Long userId2) {
-        List<Transaction> transactions = transactionRepository.findTransactionsBetweenUsers(userId1, userId2);
-        return transactions.stream()
-                .map(this::convertToResponseWithUserNames)
-                .collect(Collectors.toList());
+        return addUserNames(readTransaction.execute(status -> mergeHistory(
+                transactionRepository.findResponsesBetweenUsers(userId1, userId2),
+                archiveRepository.findBetweenUsers(userId1, userId2))));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransactionSummary getUserTransactionSummary(Long userId) {
-        BigDecimal totalPaid = transactionRepository.calculateTotalPaidByUser(userId);
-        BigDecimal totalOwed = transactionRepository.calculateTotalOwedByUser(userId);
-        Long transactionCount = transactionRepository.countTransactionsByUser(userId);
-
-        // Get user name
-        String userName = getUserName(userId);
+        TransactionSummary summary = readTransaction.execute(status -> {
+            BigDecimal totalPaid = transactionRepository.calculateTotalPaidByUser(userId);
+            BigDecimal totalOwed = transactionRepository.calculateTotalOwedByUser(userId);
+            Long transactionCount = transactionRepository.countTransactionsByUser(userId);
+            TransactionSummary totals = new TransactionSummary(userId, null, totalPaid, totalOwed, transactionCount);
 
-        TransactionSummary summary = new TransactionSummary(userId, userName, totalPaid, totalOwed, transactionCount);
+            // Set last transaction date
+            totals.setLastTransactionDate(transactionRepository.findLastTransactionDateByUser(userId));
+            return totals;
+        });
 
-        // Set last transaction date
-        List<Transaction> recentTransactions = transactionRepository.findRecentTransactionsByUser(userId);
-        if (!recentTransactions.isEmpty()) {
-            summary.setLastTransactionDate(recentTransactions.get(0).getTransactionDate());
-        }
+        // Get user name
+        summary.setUserName(getUserName(userId));
         return summary;
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal calculateBalanceBetweenUsers(Long userId1, Long userId2) {
         return transactionRepository.calculateBalanceBetweenUsers(userId1, userId2);
     }
 
+    // Per-pair sums for lower user IDs in [fromUser, toUser), handed to the consumer as the query
+    // returns them; read-only, so on the replica when there is one
+    @Transactional(readOnly = true)
+    public void streamPairSums(long fromUser, long toUser, Consumer<PairSum> consumer) {
+        pairSumRepository.streamPairSums(fromUser, toUser, consumer);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TransactionResponse> getTransactionsByCategory(String category) {
-        List<Transaction> transactions = transactionRepository.findByCategoryOrderByTransactionDateDesc(category);
-        return transactions.stream()
-                .map(this::convertToResponseWithUserNames)
-                .collect(Collectors.toList());
+        return addUserNames(readTransaction.execute(status -> transactionRepository.findResponsesByCategory(category)));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TransactionResponse> searchTransactions(Long userId, String query, LocalDateTime from,
+                                                       LocalDateTime to, int page, int size) {
+        String booleanQuery = toBooleanPrefixQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return List.of();
+        }
+        List<TransactionResponse> responses = readTransaction.execute(status -> transactionRepository
+                .searchByUser(userId, booleanQuery, from, to, PageRequest.of(page, size)).stream()
+                .map(TransactionResponse::new)
+                .collect(Collectors.toList()));
+        return addUserNames(responses);
     }
 
-    public List<TransactionResponse> searchTransactions(String description) {
-        List<Transaction> transactions = transactionRepository.findByDescriptionContainingIgnoreCase(description);
-        return transactions.stream()
-                .map(this::convertToResponseWithUserNames)
-                .collect(Collectors.toList());
+    // "din pizz" -> "+din* +pizz*": every word must match, each as a prefix. Boolean-mode
+    // operators in user input are treated as separators.
+    // Package-private for TransactionServiceSearchTest
+    static String toBooleanPrefixQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Arrays.stream(query.split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransactionResponse updateTransactionStatus(Long transactionId, Transaction.TransactionStatus status, Long userId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with ID: " + transactionId));
+        Transaction updatedTransaction = writeTransaction.execute(txStatus -> {
+            Transaction transaction = transactionRepository.findById(transactionId)
+                    .orElseThrow(() -> new RuntimeException("Transaction not found with ID: " + transactionId));
 
-        // Check if user has permission to modify this transaction
-        if (!canUserModifyTransaction(transaction, userId)) {
-            throw new RuntimeException("You don't have permission to modify this transaction");
-        }
-        transaction.setStatus(status);
-        Transaction updatedTransaction = transactionRepository.save(transaction);
-        return convertToResponseWithUserNames(updatedTransaction);
+            // Check if user has permission to modify this transaction
+            if (!canUserModifyTransaction(transaction, userId)) {
+                throw new RuntimeException("You don't have permission to modify this transaction");
+            }
+            // Balance Service can only take a transaction out of a balance once (see ExpenseCancelled)
+            if (status == Transaction.TransactionStatus.ACTIVE
+                    && transaction.getStatus() != Transaction.TransactionStatus.ACTIVE) {
+                throw new RuntimeException("A cancelled or settled transaction can't be made active again; record a new expense instead");
+            }
+            boolean reversed = leavesBalances(transaction, status);
+            adjustLedgerForStatusChange(transaction, status);
+            transaction.setStatus(status);
+            Transaction saved = transactionRepository.save(transaction);
+            if (reversed) {
+                publish(ExpenseCancelled.TYPE, saved.getGroupId(), new ExpenseCancelled(saved));
+            }
+            return saved;
+        });
+        return addUserNames(List.of(new TransactionResponse(updatedTransaction))).get(0);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteTransaction(Long transactionId, Long userId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with ID: " + transactionId));
-        // Check if user has permission to delete this transaction
-        if (!canUserModifyTransaction(transaction, userId)) {
-            throw new RuntimeException("You don't have permission to delete this transaction");
-        }
-        transaction.setStatus(Transaction.TransactionStatus.CANCELLED);
-        transactionRepository.save(transaction);
+        writeTransaction.executeWithoutResult(txStatus -> {
+            Transaction transaction = transactionRepository.findById(transactionId)
+                    .orElseThrow(() -> new RuntimeException("Transaction not found with ID: " + transactionId));
+            // Check if user has permission to delete this transaction
+            if (!canUserModifyTransaction(transaction, userId)) {
+                throw new RuntimeException("You don't have permission to delete this transaction");
+            }
+            boolean reversed = leavesBalances(transaction, Transaction.TransactionStatus.CANCELLED);
+            adjustLedgerForStatusChange(transaction, Transaction.TransactionStatus.CANCELLED);
+            transaction.setStatus(Transaction.TransactionStatus.CANCELLED);
+            Transaction deleted = transactionRepository.save(transaction);
+            if (reversed) {
+                publish(ExpenseCancelled.TYPE, deleted.getGroupId(), new ExpenseCancelled(deleted));
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TransactionResponse> getGroupTransactions(Long splitGroupId, Long requesterId, int page, int size) {
+        return addUserNames(readTransaction.execute(status -> {
+            groupService.requireMember(splitGroupId, requesterId);
+            return transactionRepository.findResponsesBySplitGroup(splitGroupId, PageRequest.of(page, size));
+        }));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransactionArchiveRepository.TableStats> getStorageStats() {
+        return archiveRepository.getTableStats();
     }
 
+    @Transactional(readOnly = true)
     public TransactionStats getTransactionStats() {
         Long totalTransactions = transactionRepository.countActiveTransactions();
         BigDecimal totalVolume = transactionRepository.getTotalTransactionVolume();
         return new TransactionStats(totalTransactions, totalVolume);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TransactionResponse> getRecentTransactions(Long userId, int limit) {
-        List<Transaction> transactions = transactionRepository.findRecentTransactionsByUser(userId);
-        return transactions.stream()
-                .limit(limit)
-                .map(this::convertToResponseWithUserNames)
-                .collect(Collectors.toList());
+        return addUserNames(readTransaction.execute(status ->
+                transactionRepository.findResponsesByUser(userId, PageRequest.of(0, limit))));
     }
 
     // Private helper methods
@@ -239,6 +350,14 @@ public class TransactionService {
             throw new RuntimeException("The person who paid must be included in the participants");
         }
 
+        // Group expenses may only involve members of that group
+        if (request.getSplitGroupId() != null) {
+            groupService.validateExpenseParticipants(request.getSplitGroupId(),
+                    request.getParticipants().stream()
+                            .map(TransactionRequest.ParticipantShare::getUserId)
+                            .collect(Collectors.toList()));
+        }
+
         // Validate exact amounts sum up to total (for EXACT split type)
         if (request.getSplitType() == Transaction.SplitType.EXACT) {
             BigDecimal totalSpecified = request.getParticipants().stream()
@@ -260,7 +379,25 @@ public class TransactionService {
         }
     }
 
-    private List<TransactionRequest.ParticipantShare> calculateShares(TransactionRequest request) {
+    // Only ACTIVE transactions count toward balances, so leaving ACTIVE (cancelled, deleted or
+    // marked settled) is what Balance Service has to reverse. A SETTLED transaction that is then
+    // cancelled or deleted was reversed when it was settled, and is not reversed again.
+    private boolean leavesBalances(Transaction transaction, Transaction.TransactionStatus newStatus) {
+        return transaction.getStatus() == Transaction.TransactionStatus.ACTIVE
+                && newStatus != Transaction.TransactionStatus.ACTIVE;
+    }
+
+    // Only ACTIVE expenses count toward the group ledger
+    private void adjustLedgerForStatusChange(Transaction transaction, Transaction.TransactionStatus newStatus) {
+        boolean wasActive = transaction.getStatus() == Transaction.TransactionStatus.ACTIVE;
+        boolean isActive = newStatus == Transaction.TransactionStatus.ACTIVE;
+        if (wasActive != isActive) {
+            groupService.applyToLedger(List.of(transaction), isActive ? 1 : -1);
+        }
+    }
+
+    // Package-private for CalculateSharesBenchmark (benchmarks module)
+    List<TransactionRequest.ParticipantShare> calculateShares(TransactionRequest request) {
         List<TransactionRequest.ParticipantShare> calculatedShares = new ArrayList<>();
         switch (request.getSplitType()) {
             case EQUAL:
@@ -294,24 +431,30 @@ public class TransactionService {
         return calculatedShares;
     }
 
-    private String generateGroupId() {
-        return "TXN_" + System.currentTimeMillis() + "_" + (int)(Math.random() * 1000);
+    // Hot and archived rows for the same history, newest first
+    private List<TransactionResponse> mergeHistory(List<TransactionResponse> hot, List<TransactionResponse> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<TransactionResponse> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(TransactionResponse::getTransactionDate,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged;
     }
 
-    private TransactionResponse convertToResponseWithUserNames(Transaction transaction) {
-        TransactionResponse response = new TransactionResponse(transaction);
-        // Get user names
-        try {
-            response.setPaidByName(getUserName(transaction.getPaidBy()));
-            response.setOwedByName(getUserName(transaction.getOwedBy()));
-            if (transaction.getCreatedBy() != null) {
-                response.setCreatedByName(getUserName(transaction.getCreatedBy()));
+    // Fill in user names for a list of responses; each distinct user is looked up once
+    private List<TransactionResponse> addUserNames(List<TransactionResponse> responses) {
+        Map<Long, String> names = new HashMap<>();
+        for (TransactionResponse response : responses) {
+            response.setPaidByName(names.computeIfAbsent(response.getPaidBy(), this::getUserName));
+            response.setOwedByName(names.computeIfAbsent(response.getOwedBy(), this::getUserName));
+            if (response.getCreatedBy() != null) {
+                response.setCreatedByName(names.computeIfAbsent(response.getCreatedBy(), this::getUserName));
             }
-        } catch (Exception e) {
-            // If we can't get user names, that's okay - we'll just show IDs
-            System.err.println("Warning: Could not fetch user names: " + e.getMessage());
         }
-        return response;
+        return responses;
     }
 
     private String getUserName(Long userId) {
@@ -330,30 +473,6 @@ public class TransactionService {
                 userId.equals(transaction.getOwedBy());
     }
 
-    // DTO for Balance Service communication
-    public static class BalanceUpdateRequest {
-        private Long paidBy;
-        private Long owedBy;
-        private BigDecimal amount;
-        private Long transactionId;
-        public BalanceUpdateRequest() {}
-        public BalanceUpdateRequest(Long paidBy, Long owedBy, BigDecimal amount, Long transactionId) {
-            this.paidBy = paidBy;
-            this.owedBy = owedBy;
-            this.amount = amount;
-            this.transactionId = transactionId;
-        }
-
-        public Long getPaidBy() { return paidBy; }
-        public void setPaidBy(Long paidBy) { this.paidBy = paidBy; }
-        public Long getOwedBy() { return owedBy; }
-        public void setOwedBy(Long owedBy) { this.owedBy = owedBy; }
-        public BigDecimal getAmount() { return amount; }
-        public void setAmount(BigDecimal amount) { this.amount = amount; }
-        public Long getTransactionId() { return transactionId; }
-        public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
-    }
-
     public static class TransactionStats {
         private Long totalTransactions;
         private BigDecimal totalVolume;
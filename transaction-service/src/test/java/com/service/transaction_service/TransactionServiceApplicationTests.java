@@ -3,7 +3,7 @@ package com.service.transaction_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "transaction.id.node-id=0")
 class TransactionServiceApplicationTests {
 
 	@Test
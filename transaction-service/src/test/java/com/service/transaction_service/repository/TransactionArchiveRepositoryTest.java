@@ -0,0 +1,99 @@
+package com.service.transaction_service.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveRepositoryTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String ARCHIVABLE = "status IN ('CANCELLED', 'SETTLED') AND transaction_date < :cutoff";
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @InjectMocks
+    private TransactionArchiveRepository archiveRepository;
+
+    @Test
+    void movesOnlyTheRowsThatStillQualifyAfterLocking() {
+        // Row 2 was reactivated between findArchivableIds and the move
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(1L, 3L));
+        when(namedJdbcTemplate.update(startsWith("INSERT"), any(SqlParameterSource.class))).thenReturn(2);
+        when(namedJdbcTemplate.update(startsWith("DELETE"), any(SqlParameterSource.class))).thenReturn(2);
+
+        assertThat(archiveRepository.moveToArchive(List.of(1L, 2L, 3L), CUTOFF)).isEqualTo(2);
+
+        ArgumentCaptor<String> lockSql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> lockParams = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedJdbcTemplate).queryForList(lockSql.capture(), lockParams.capture(), eq(Long.class));
+        assertThat(lockSql.getValue()).contains(ARCHIVABLE).endsWith("FOR UPDATE");
+
+        ArgumentCaptor<String> writeSql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> writeParams = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedJdbcTemplate, times(2)).update(writeSql.capture(), writeParams.capture());
+        assertThat(writeSql.getAllValues()).allMatch(sql -> sql.endsWith("WHERE id IN (:ids) AND " + ARCHIVABLE));
+        assertThat(writeSql.getAllValues().get(0)).startsWith("INSERT INTO transactions_archive").doesNotContain("IGNORE");
+        for (MapSqlParameterSource params : writeParams.getAllValues()) {
+            assertThat(params.getValue("ids")).isEqualTo(List.of(1L, 3L));
+            assertThat(params.getValue("cutoff")).isEqualTo(Timestamp.valueOf(CUTOFF));
+        }
+    }
+
+    @Test
+    void nothingIsWrittenWhenNoCandidateStillQualifies() {
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of());
+
+        assertThat(archiveRepository.moveToArchive(List.of(1L, 2L), CUTOFF)).isZero();
+
+        verify(namedJdbcTemplate, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void copyAndDeleteCountMismatchAbortsTheBatch() {
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(namedJdbcTemplate.update(startsWith("INSERT"), any(SqlParameterSource.class))).thenReturn(2);
+        when(namedJdbcTemplate.update(startsWith("DELETE"), any(SqlParameterSource.class))).thenReturn(1);
+
+        assertThatThrownBy(() -> archiveRepository.moveToArchive(List.of(1L, 2L), CUTOFF))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("copied 2, deleted 1");
+    }
+
+    @Test
+    void partialCopyAbortsBeforeDeletingAnything() {
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(namedJdbcTemplate.update(startsWith("INSERT"), any(SqlParameterSource.class))).thenReturn(1);
+
+        assertThatThrownBy(() -> archiveRepository.moveToArchive(List.of(1L, 2L), CUTOFF))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("locked 2, copied 1");
+        verify(namedJdbcTemplate, never()).update(startsWith("DELETE"), any(SqlParameterSource.class));
+    }
+}
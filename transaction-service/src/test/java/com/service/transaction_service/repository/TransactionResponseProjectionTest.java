@@ -0,0 +1,75 @@
+package com.service.transaction_service.repository;
+
+import com.service.transaction_service.dto.TransactionResponse;
+import com.service.transaction_service.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The list endpoints read TransactionResponse straight from JPQL "SELECT new" projections; each one
+// must fill in the same fields as new TransactionResponse(transaction) on the entity it replaces
+class TransactionResponseProjectionTest {
+
+    private static final Pattern SELECT_NEW = Pattern.compile("SELECT new [\\w.]+\\((.*?)\\) FROM");
+
+    @Test
+    void everyListQueryProjectsTheSameFieldsAsTheEntity() {
+        Transaction transaction = transaction();
+        List<String> queries = Arrays.stream(TransactionRepository.class.getMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .map(method -> method.getAnnotation(Query.class).value())
+                .filter(jpql -> jpql.contains("new " + TransactionResponse.class.getName() + "("))
+                .toList();
+
+        assertThat(queries).isNotEmpty().allMatch(jpql -> jpql.startsWith(TransactionRepository.TRANSACTION_RESPONSE));
+        TransactionResponse projected = project(TransactionRepository.TRANSACTION_RESPONSE, transaction);
+        assertThat(projected).usingRecursiveComparison().isEqualTo(new TransactionResponse(transaction));
+        // Only the names, which are filled in after the query, are left out
+        assertThat(projected).hasNoNullFieldsOrPropertiesExcept("paidByName", "owedByName", "createdByName");
+    }
+
+    // Evaluates the select list against the entity, column by column, as Hibernate does for a row
+    private static TransactionResponse project(String jpql, Transaction transaction) {
+        Matcher select = SELECT_NEW.matcher(jpql);
+        assertThat(select.find()).as(jpql).isTrue();
+        Object[] columns = Arrays.stream(select.group(1).split(","))
+                .map(String::trim)
+                .map(column -> ReflectionTestUtils.getField(transaction, column.substring(column.indexOf('.') + 1)))
+                .toArray();
+        Constructor<?> constructor = Arrays.stream(TransactionResponse.class.getConstructors())
+                .filter(candidate -> candidate.getParameterCount() == columns.length)
+                .findFirst()
+                .orElseThrow();
+        return (TransactionResponse) BeanUtils.instantiateClass(constructor, columns);
+    }
+
+    // Every field set, and no two of the same type equal, so a swapped column shows up
+    private static Transaction transaction() {
+        Transaction transaction = new Transaction(11L, 12L, new BigDecimal("10.00"), "Dinner");
+        transaction.setId(1L);
+        ReflectionTestUtils.setField(transaction, "category", "Food");
+        ReflectionTestUtils.setField(transaction, "totalAmount", new BigDecimal("30.00"));
+        ReflectionTestUtils.setField(transaction, "transactionDate", LocalDateTime.of(2025, 3, 1, 19, 30));
+        ReflectionTestUtils.setField(transaction, "createdBy", 13L);
+        ReflectionTestUtils.setField(transaction, "groupId", 14L);
+        ReflectionTestUtils.setField(transaction, "legacyGroupId", "TXN_1700000000000_ab12");
+        ReflectionTestUtils.setField(transaction, "splitGroupId", 15L);
+        ReflectionTestUtils.setField(transaction, "status", Transaction.TransactionStatus.SETTLED);
+        ReflectionTestUtils.setField(transaction, "splitType", Transaction.SplitType.EXACT);
+        ReflectionTestUtils.setField(transaction, "createdAt", LocalDateTime.of(2025, 3, 1, 20, 0));
+        ReflectionTestUtils.setField(transaction, "updatedAt", LocalDateTime.of(2025, 3, 2, 8, 15));
+        ReflectionTestUtils.setField(transaction, "notes", "Birthday");
+        return transaction;
+    }
+}
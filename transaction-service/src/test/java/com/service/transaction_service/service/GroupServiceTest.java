@@ -0,0 +1,204 @@
+package com.service.transaction_service.service;
+
+import com.service.transaction_service.dto.GroupResponse;
+import com.service.transaction_service.entity.GroupMembership;
+import com.service.transaction_service.entity.SplitGroup;
+import com.service.transaction_service.entity.Transaction;
+import com.service.transaction_service.repository.GroupMembershipRepository;
+import com.service.transaction_service.repository.GroupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GroupServiceTest {
+
+    private static final Long GROUP_ID = 7L;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private GroupMembershipRepository membershipRepository;
+
+    @Mock
+    private AuthClientService authClientService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private GroupService groupService;
+
+    // Net positions as adjustNetPosition leaves them
+    private final Map<Long, BigDecimal> ledger = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        groupService.initTransactionTemplates();
+        lenient().when(groupRepository.findById(GROUP_ID))
+                .thenReturn(Optional.of(new SplitGroup("Trip", null, 1L)));
+        lenient().when(membershipRepository.adjustNetPosition(eq(GROUP_ID), anyLong(), any(BigDecimal.class)))
+                .thenAnswer(invocation -> {
+                    ledger.merge(invocation.getArgument(1), invocation.getArgument(2), BigDecimal::add);
+                    return 1;
+                });
+    }
+
+    @Test
+    void creatingAnExpenseCreditsThePayerAndDebitsEachShare() {
+        // User 1 paid 30.00 for users 1, 2 and 3; their own share doesn't move the ledger
+        groupService.applyToLedger(expense(), 1);
+
+        assertThat(ledger).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(ledger.get(1L)).isEqualByComparingTo("20.00");
+        assertThat(ledger.get(2L)).isEqualByComparingTo("-10.00");
+        assertThat(ledger.get(3L)).isEqualByComparingTo("-10.00");
+        // One UPDATE per participant, not per row
+        verify(membershipRepository, times(3)).adjustNetPosition(eq(GROUP_ID), anyLong(), any(BigDecimal.class));
+    }
+
+    @Test
+    void cancellingAnExpenseTakesItBackOutOfTheLedger() {
+        List<Transaction> expense = expense();
+        groupService.applyToLedger(expense, 1);
+
+        groupService.applyToLedger(expense, -1);
+
+        assertThat(ledger.values()).allSatisfy(position -> assertThat(position).isEqualByComparingTo("0"));
+    }
+
+    @Test
+    void settlingOneShareOnlyTakesThatShareOutOfTheLedger() {
+        List<Transaction> expense = expense();
+        groupService.applyToLedger(expense, 1);
+
+        // User 2 paid user 1 back
+        groupService.applyToLedger(List.of(expense.get(1)), -1);
+
+        assertThat(ledger.get(1L)).isEqualByComparingTo("10.00");
+        assertThat(ledger.get(2L)).isEqualByComparingTo("0");
+        assertThat(ledger.get(3L)).isEqualByComparingTo("-10.00");
+    }
+
+    @Test
+    void expensesOutsideAGroupAreNotInAnyLedger() {
+        Transaction ungrouped = share(1L, 2L, "10.00");
+        ungrouped.setSplitGroupId(null);
+
+        groupService.applyToLedger(List.of(ungrouped), 1);
+
+        verify(membershipRepository, never()).adjustNetPosition(any(), any(), any());
+    }
+
+    @Test
+    void optimizingMatchesTheLargestDebtsWithTheLargestCredits() {
+        // Users 1 and 2 are owed 40.00 and 10.00; users 3 and 4 owe 30.00 and 20.00; user 5 is even
+        when(membershipRepository.existsByGroupIdAndUserId(GROUP_ID, 1L)).thenReturn(true);
+        when(membershipRepository.findByGroupIdOrderByJoinedAtAsc(GROUP_ID)).thenReturn(List.of(
+                member(1L, "40.00"), member(2L, "10.00"), member(3L, "-30.00"),
+                member(4L, "-20.00"), member(5L, "0.00")));
+
+        GroupService.GroupSettlementPlan plan = groupService.optimizeGroup(GROUP_ID, 1L);
+
+        assertThat(plan.getGroupId()).isEqualTo(GROUP_ID);
+        assertThat(plan.getPayments())
+                .extracting(GroupService.GroupSettlementPlan.Payment::getFromUserId,
+                        GroupService.GroupSettlementPlan.Payment::getToUserId,
+                        GroupService.GroupSettlementPlan.Payment::getAmount)
+                .containsExactly(
+                        tuple(3L, 1L, new BigDecimal("30.00")),
+                        tuple(4L, 1L, new BigDecimal("10.00")),
+                        tuple(4L, 2L, new BigDecimal("10.00")));
+        assertThat(plan.getTotalAmount()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void optimizingASettledGroupNeedsNoPayments() {
+        when(membershipRepository.existsByGroupIdAndUserId(GROUP_ID, 1L)).thenReturn(true);
+        when(membershipRepository.findByGroupIdOrderByJoinedAtAsc(GROUP_ID)).thenReturn(List.of(
+                member(1L, "0.00"), member(2L, "0.00")));
+
+        assertThat(groupService.optimizeGroup(GROUP_ID, 1L).getPayments()).isEmpty();
+    }
+
+    @Test
+    void membersCanReadTheirGroup() {
+        when(membershipRepository.existsByGroupIdAndUserId(GROUP_ID, 2L)).thenReturn(true);
+        when(membershipRepository.findByGroupIdOrderByJoinedAtAsc(GROUP_ID)).thenReturn(List.of(
+                member(1L, "5.00"), member(2L, "-5.00")));
+
+        GroupResponse group = groupService.getGroup(GROUP_ID, 2L);
+        List<GroupResponse.MemberPosition> balances = groupService.getGroupBalances(GROUP_ID, 2L);
+
+        assertThat(group.getMembers()).extracting(GroupResponse.MemberPosition::getUserId).containsExactly(1L, 2L);
+        assertThat(balances).extracting(GroupResponse.MemberPosition::getNetPosition)
+                .containsExactly(new BigDecimal("5.00"), new BigDecimal("-5.00"));
+    }
+
+    @Test
+    void nonMembersCannotReadOrChangeTheGroup() {
+        when(membershipRepository.existsByGroupIdAndUserId(GROUP_ID, 9L)).thenReturn(false);
+        String message = "User 9 is not a member of group " + GROUP_ID;
+
+        assertThatThrownBy(() -> groupService.getGroup(GROUP_ID, 9L))
+                .isInstanceOf(GroupService.NotAMemberException.class).hasMessage(message);
+        assertThatThrownBy(() -> groupService.getGroupBalances(GROUP_ID, 9L))
+                .isInstanceOf(GroupService.NotAMemberException.class).hasMessage(message);
+        assertThatThrownBy(() -> groupService.optimizeGroup(GROUP_ID, 9L))
+                .isInstanceOf(GroupService.NotAMemberException.class).hasMessage(message);
+        assertThatThrownBy(() -> groupService.addMember(GROUP_ID, 9L, 9L))
+                .isInstanceOf(GroupService.NotAMemberException.class).hasMessage(message);
+        verify(membershipRepository, never()).findByGroupIdOrderByJoinedAtAsc(any());
+        verify(membershipRepository, never()).save(any());
+    }
+
+    @Test
+    void anUnknownGroupIsNotFoundBeforeMembershipIsChecked() {
+        when(groupRepository.findById(8L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> groupService.getGroup(8L, 9L))
+                .isNotInstanceOf(GroupService.NotAMemberException.class)
+                .hasMessage("Group not found with ID: 8");
+        verify(membershipRepository, never()).existsByGroupIdAndUserId(any(), any());
+    }
+
+    // User 1 paid 30.00 split three ways, one row per share as TransactionService saves them
+    private static List<Transaction> expense() {
+        return List.of(share(1L, 1L, "10.00"), share(1L, 2L, "10.00"), share(1L, 3L, "10.00"));
+    }
+
+    private static Transaction share(Long paidBy, Long owedBy, String amount) {
+        Transaction transaction = new Transaction(paidBy, owedBy, new BigDecimal(amount), "Dinner");
+        transaction.setSplitGroupId(GROUP_ID);
+        return transaction;
+    }
+
+    private static GroupMembership member(Long userId, String netPosition) {
+        GroupMembership membership = new GroupMembership(GROUP_ID, userId);
+        membership.setNetPosition(new BigDecimal(netPosition));
+        return membership;
+    }
+}
@@ -0,0 +1,93 @@
+package com.service.transaction_service.service;
+
+import com.service.transaction_service.repository.TransactionArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiverTest {
+
+    @Mock
+    private TransactionArchiveRepository archiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TransactionArchiver archiver;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(archiver, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(archiver, "enabled", true);
+        ReflectionTestUtils.setField(archiver, "cutoffDays", 180);
+        ReflectionTestUtils.setField(archiver, "batchSize", 2);
+        ReflectionTestUtils.setField(archiver, "maxBatchesPerRun", 10);
+        archiver.initMetrics();
+        archiver.prepareArchiveTable();
+    }
+
+    @Test
+    void keepsGoingWhileBatchesAreFullEvenIfSomeCandidatesStayBehind() {
+        when(archiveRepository.findArchivableIds(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        // Row 2 was reactivated mid-batch, so the first batch moves only one row
+        when(archiveRepository.moveToArchive(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(1);
+        when(archiveRepository.moveToArchive(eq(List.of(3L, 4L)), any(LocalDateTime.class))).thenReturn(2);
+        when(archiveRepository.moveToArchive(eq(List.of(5L)), any(LocalDateTime.class))).thenReturn(1);
+
+        archiver.archiveSettledHistory();
+
+        verify(archiveRepository, times(3)).findArchivableIds(any(LocalDateTime.class), anyInt());
+        assertThat(meterRegistry.counter("transaction.archive.moved").count()).isEqualTo(4);
+    }
+
+    @Test
+    void movesAreCheckedAgainstTheSameCutoffTheyWereSelectedWith() {
+        when(archiveRepository.findArchivableIds(any(LocalDateTime.class), eq(2))).thenReturn(List.of(1L));
+        when(archiveRepository.moveToArchive(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(1);
+
+        archiver.archiveSettledHistory();
+
+        ArgumentCaptor<LocalDateTime> selected = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> moved = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(archiveRepository).findArchivableIds(selected.capture(), anyInt());
+        verify(archiveRepository).moveToArchive(anyList(), moved.capture());
+        assertThat(moved.getValue()).isEqualTo(selected.getValue());
+        assertThat(selected.getValue()).isBefore(LocalDateTime.now().minusDays(179));
+    }
+
+    @Test
+    void emptyBacklogWritesNothing() {
+        when(archiveRepository.findArchivableIds(any(LocalDateTime.class), eq(2))).thenReturn(List.of());
+
+        archiver.archiveSettledHistory();
+
+        verify(archiveRepository, never()).moveToArchive(anyList(), any());
+        assertThat(meterRegistry.counter("transaction.archive.moved").count()).isZero();
+    }
+}
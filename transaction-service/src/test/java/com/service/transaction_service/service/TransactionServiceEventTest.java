@@ -0,0 +1,181 @@
+package com.service.transaction_service.service;
+
+import com.service.common.events.DomainEventPublisher;
+import com.service.transaction_service.dto.TransactionRequest;
+import com.service.transaction_service.entity.Transaction;
+import com.service.transaction_service.events.ExpenseCancelled;
+import com.service.transaction_service.events.ExpenseCreated;
+import com.service.transaction_service.repository.TransactionRepository;
+import com.service.transaction_service.util.SnowflakeIdGenerator;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Events go into the outbox inside the transaction that makes the change, so they commit or roll
+// back with it
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceEventTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AuthClientService authClientService;
+
+    @Mock
+    private GroupService groupService;
+
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionService, "observationRegistry", ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(transactionService, "expenseIdGenerator", new SnowflakeIdGenerator(1));
+        ReflectionTestUtils.setField(transactionService, "minTransactionAmount", new BigDecimal("0.01"));
+        ReflectionTestUtils.setField(transactionService, "maxTransactionAmount", new BigDecimal("100000.00"));
+        ReflectionTestUtils.setField(transactionService, "maxParticipants", 20);
+        transactionService.initTransactionTemplates();
+    }
+
+    @Test
+    void expenseCreatedIsRecordedBeforeTheSaveCommits() {
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.createTransaction(equalSplit(), 1L);
+
+        InOrder inOrder = inOrder(transactionRepository, eventPublisher, transactionManager);
+        inOrder.verify(transactionRepository).saveAll(anyList());
+        inOrder.verify(eventPublisher).publish(eq(ExpenseCreated.TYPE), anyString(), any(ExpenseCreated.class));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void anExpenseWhoseEventCannotBeRecordedIsNotSaved() {
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("Could not serialize ExpenseCreated event"))
+                .when(eventPublisher).publish(anyString(), anyString(), any());
+
+        assertThatThrownBy(() -> transactionService.createTransaction(equalSplit(), 1L))
+                .hasMessage("Could not serialize ExpenseCreated event");
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void cancellingAnActiveTransactionRecordsTheReversalInTheSameTransaction() {
+        Transaction transaction = transaction(Transaction.TransactionStatus.ACTIVE);
+        when(transactionRepository.findById(5L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+        transactionService.updateTransactionStatus(5L, Transaction.TransactionStatus.CANCELLED, 1L);
+
+        InOrder inOrder = inOrder(transactionRepository, eventPublisher, transactionManager);
+        inOrder.verify(transactionRepository).save(transaction);
+        inOrder.verify(eventPublisher).publish(eq(ExpenseCancelled.TYPE), eq("77"), any(ExpenseCancelled.class));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void settlingAnActiveTransactionTakesItOutOfTheGroupLedger() {
+        Transaction transaction = transaction(Transaction.TransactionStatus.ACTIVE);
+        when(transactionRepository.findById(5L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+        transactionService.updateTransactionStatus(5L, Transaction.TransactionStatus.SETTLED, 1L);
+
+        verify(groupService).applyToLedger(List.of(transaction), -1);
+        verify(eventPublisher).publish(eq(ExpenseCancelled.TYPE), eq("77"), any(ExpenseCancelled.class));
+    }
+
+    @Test
+    void onlyMembersCanListAGroupsExpenses() {
+        doThrow(new GroupService.NotAMemberException("User 9 is not a member of group 3"))
+                .when(groupService).requireMember(3L, 9L);
+
+        assertThatThrownBy(() -> transactionService.getGroupTransactions(3L, 9L, 0, 20))
+                .isInstanceOf(GroupService.NotAMemberException.class);
+        verify(transactionRepository, never()).findResponsesBySplitGroup(any(), any());
+    }
+
+    @Test
+    void deletingAnActiveTransactionRollsBackWhenItsEventCannotBeRecorded() {
+        Transaction transaction = transaction(Transaction.TransactionStatus.ACTIVE);
+        when(transactionRepository.findById(5L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+        doThrow(new IllegalStateException("No existing transaction found"))
+                .when(eventPublisher).publish(anyString(), anyString(), any());
+
+        assertThatThrownBy(() -> transactionService.deleteTransaction(5L, 1L))
+                .hasMessage("No existing transaction found");
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void cancellingASettledTransactionDoesNotReverseItAgain() {
+        // Marking it SETTLED already took it out of the balance
+        Transaction transaction = transaction(Transaction.TransactionStatus.SETTLED);
+        when(transactionRepository.findById(5L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+        transactionService.updateTransactionStatus(5L, Transaction.TransactionStatus.CANCELLED, 1L);
+        transactionService.deleteTransaction(5L, 1L);
+
+        verify(eventPublisher, never()).publish(anyString(), anyString(), any());
+        verify(groupService, never()).applyToLedger(anyList(), anyInt());
+    }
+
+    private static Transaction transaction(Transaction.TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setId(5L);
+        transaction.setGroupId(77L);
+        transaction.setPaidBy(1L);
+        transaction.setOwedBy(2L);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setStatus(status);
+        return transaction;
+    }
+
+    private static TransactionRequest equalSplit() {
+        TransactionRequest request = new TransactionRequest();
+        request.setPaidBy(1L);
+        request.setTotalAmount(new BigDecimal("30.00"));
+        request.setDescription("Dinner");
+        request.setSplitType(Transaction.SplitType.EQUAL);
+        request.setParticipants(List.of(
+                new TransactionRequest.ParticipantShare(1L),
+                new TransactionRequest.ParticipantShare(2L),
+                new TransactionRequest.ParticipantShare(3L)));
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package com.service.transaction_service.service;
+
+import com.service.common.events.DomainEventPublisher;
+import com.service.transaction_service.dto.TransactionRequest;
+import com.service.transaction_service.entity.Transaction;
+import com.service.transaction_service.events.ExpenseCreated;
+import com.service.transaction_service.repository.TransactionRepository;
+import com.service.transaction_service.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceObservationTest {
+
+    private static final String STEP_TIMER = "transaction.create.step";
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AuthClientService authClientService;
+
+    @Mock
+    private GroupService groupService;
+
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+
+        ReflectionTestUtils.setField(transactionService, "observationRegistry", observationRegistry);
+        ReflectionTestUtils.setField(transactionService, "expenseIdGenerator", new SnowflakeIdGenerator(1));
+        ReflectionTestUtils.setField(transactionService, "minTransactionAmount", new BigDecimal("0.01"));
+        ReflectionTestUtils.setField(transactionService, "maxTransactionAmount", new BigDecimal("100000.00"));
+        ReflectionTestUtils.setField(transactionService, "maxParticipants", 20);
+        transactionService.initTransactionTemplates();
+    }
+
+    @Test
+    void createTransactionRecordsEveryStep() {
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.createTransaction(equalSplit(new BigDecimal("30.00")), 1L);
+
+        for (String step : List.of("validate", "save", "publish-event", "user-names")) {
+            Timer timer = meterRegistry.find(STEP_TIMER).tag("step", step).timer();
+            assertThat(timer).as("step " + step).isNotNull();
+            assertThat(timer.count()).isEqualTo(1);
+        }
+        verify(eventPublisher).publish(eq(ExpenseCreated.TYPE), any(), any(ExpenseCreated.class));
+    }
+
+    @Test
+    void failedValidationStopsAfterTheValidateStep() {
+        assertThatThrownBy(() -> transactionService.createTransaction(equalSplit(BigDecimal.ZERO), 1L))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(meterRegistry.find(STEP_TIMER).tag("step", "validate").tag("error", "RuntimeException").timer())
+                .isNotNull();
+        assertThat(meterRegistry.find(STEP_TIMER).tag("step", "save").timer()).isNull();
+    }
+
+    private static TransactionRequest equalSplit(BigDecimal total) {
+        TransactionRequest request = new TransactionRequest();
+        request.setPaidBy(1L);
+        request.setTotalAmount(total);
+        request.setDescription("Dinner");
+        request.setSplitType(Transaction.SplitType.EQUAL);
+        request.setParticipants(List.of(
+                new TransactionRequest.ParticipantShare(1L),
+                new TransactionRequest.ParticipantShare(2L),
+                new TransactionRequest.ParticipantShare(3L)));
+        return request;
+    }
+}
@@ -0,0 +1,105 @@
+package com.service.transaction_service.service;
+
+import com.service.transaction_service.entity.Transaction;
+import com.service.transaction_service.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// User input goes into MATCH ... AGAINST (... IN BOOLEAN MODE), so none of MySQL's boolean-mode
+// syntax may survive, and a query with no words must never reach the database
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceSearchTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AuthClientService authClientService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService.initTransactionTemplates();
+    }
+
+    @Test
+    void everyWordMustMatchAsAPrefix() {
+        assertThat(TransactionService.toBooleanPrefixQuery("din pizz")).isEqualTo("+din* +pizz*");
+        assertThat(TransactionService.toBooleanPrefixQuery("  Taxi \t to\nairport  "))
+                .isEqualTo("+Taxi* +to* +airport*");
+    }
+
+    @Test
+    void lettersAndDigitsInAnyScriptAreKept() {
+        assertThat(TransactionService.toBooleanPrefixQuery("Café 2024 Zürich")).isEqualTo("+Café* +2024* +Zürich*");
+        assertThat(TransactionService.toBooleanPrefixQuery("寿司")).isEqualTo("+寿司*");
+    }
+
+    @Test
+    void booleanModeOperatorsAreSeparators() {
+        assertThat(TransactionService.toBooleanPrefixQuery("+rent -pizza")).isEqualTo("+rent* +pizza*");
+        assertThat(TransactionService.toBooleanPrefixQuery(">lunch <dinner")).isEqualTo("+lunch* +dinner*");
+        assertThat(TransactionService.toBooleanPrefixQuery("(taxi)~uber")).isEqualTo("+taxi* +uber*");
+        assertThat(TransactionService.toBooleanPrefixQuery("piz*za")).isEqualTo("+piz* +za*");
+        assertThat(TransactionService.toBooleanPrefixQuery("\"hotel room\"")).isEqualTo("+hotel* +room*");
+        assertThat(TransactionService.toBooleanPrefixQuery("\"hotel room\"@3")).isEqualTo("+hotel* +room* +3*");
+        assertThat(TransactionService.toBooleanPrefixQuery("o'brien's bar; DROP TABLE--"))
+                .isEqualTo("+o* +brien* +s* +bar* +DROP* +TABLE*");
+    }
+
+    @Test
+    void onlyOperatorsOrWhitespaceLeaveNoQuery() {
+        assertThat(TransactionService.toBooleanPrefixQuery(null)).isEmpty();
+        assertThat(TransactionService.toBooleanPrefixQuery("")).isEmpty();
+        assertThat(TransactionService.toBooleanPrefixQuery("   \t\n")).isEmpty();
+        assertThat(TransactionService.toBooleanPrefixQuery("+-<>()~*\"@")).isEmpty();
+    }
+
+    @Test
+    void longQueriesAreCutToTheFirstEightWords() {
+        assertThat(TransactionService.toBooleanPrefixQuery("a b c d e f g h i j"))
+                .isEqualTo("+a* +b* +c* +d* +e* +f* +g* +h*");
+    }
+
+    @Test
+    void aQueryWithNoWordsIsNotSentToTheDatabase() {
+        assertThat(transactionService.searchTransactions(1L, " *-\"\" ", null, null, 0, 20)).isEmpty();
+        assertThat(transactionService.searchTransactions(1L, "   ", null, null, 0, 20)).isEmpty();
+
+        verify(transactionRepository, never()).searchByUser(any(), anyString(), any(), any(), any(Pageable.class));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void searchesWithTheSanitizedQuery() {
+        Transaction match = new Transaction(1L, 2L, new BigDecimal("12.00"), "Pizza night");
+        when(transactionRepository.searchByUser(eq(1L), eq("+pizz* +night*"), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(match));
+
+        assertThat(transactionService.searchTransactions(1L, "pizz -night", null, null, 0, 20))
+                .extracting("description").containsExactly("Pizza night");
+    }
+}
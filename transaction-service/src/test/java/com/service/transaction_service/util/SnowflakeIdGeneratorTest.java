@@ -0,0 +1,139 @@
+package com.service.transaction_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long START = SnowflakeIdGenerator.EPOCH + 1_000_000L;
+    private static final int SEQUENCE_PER_MILLI = 4096;
+
+    @Test
+    void idsAreStrictlyIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void encodesTimestampAndNode() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42, () -> START);
+
+        long id = generator.nextId();
+
+        assertThat(SnowflakeIdGenerator.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(START));
+        assertThat(SnowflakeIdGenerator.nodeIdOf(id)).isEqualTo(42);
+        assertThat(id).isGreaterThanOrEqualTo(SnowflakeIdGenerator.minIdAt(Instant.ofEpochMilli(START)));
+    }
+
+    @Test
+    void fullSequenceRollsIntoTheNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> START);
+
+        long last = 0;
+        for (int i = 0; i < SEQUENCE_PER_MILLI; i++) {
+            last = generator.nextId();
+            assertThat(SnowflakeIdGenerator.timestampOf(last)).isEqualTo(Instant.ofEpochMilli(START));
+        }
+        long rolled = generator.nextId();
+
+        assertThat(rolled).isGreaterThan(last);
+        assertThat(SnowflakeIdGenerator.timestampOf(rolled)).isEqualTo(Instant.ofEpochMilli(START + 1));
+        assertThat(SnowflakeIdGenerator.nodeIdOf(rolled)).isEqualTo(1);
+    }
+
+    @Test
+    void newMillisecondRestartsTheSequence() {
+        AtomicLong clock = new AtomicLong(START);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+        generator.nextId();
+        generator.nextId();
+
+        clock.set(START + 5);
+        long id = generator.nextId();
+
+        assertThat(id).isEqualTo(SnowflakeIdGenerator.minIdAt(Instant.ofEpochMilli(START + 5)) | (1L << 12));
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(START);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::get);
+        long beforeStep = generator.nextId();
+
+        clock.set(START - 10_000);
+        long afterStep = generator.nextId();
+        long next = generator.nextId();
+
+        assertThat(afterStep).isGreaterThan(beforeStep);
+        assertThat(next).isGreaterThan(afterStep);
+        // Still stamped with the last good millisecond rather than the stepped-back clock
+        assertThat(SnowflakeIdGenerator.timestampOf(afterStep)).isEqualTo(Instant.ofEpochMilli(START));
+    }
+
+    @Test
+    void concurrentCallersNeverReceiveTheSameId() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5);
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<long[]> task = () -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                for (long id : future.get()) {
+                    assertThat(seen.add(id)).as("duplicate id %d", id).isTrue();
+                }
+            }
+            assertThat(seen).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void differentNodesNeverCollideInTheSameMillisecond() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, () -> START);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, () -> START);
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(seen.add(first.nextId())).isTrue();
+            assertThat(seen.add(second.nextId())).isTrue();
+        }
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTheNodeField() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,18 +1,27 @@
 package com.service.user_service;
 
+import com.service.common.events.EventConsumingConfiguration;
+import com.service.common.metrics.QueryMetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling  // Read replica lag checks, lastActive write-behind, event consumer discovery
+@Import({EventConsumingConfiguration.class, QueryMetricsConfig.class})
 public class UserServiceApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(UserServiceApplication.class);
+
 	public static void main(String[] args) {
-		System.out.println("Starting Simple User Service...");
 		SpringApplication.run(UserServiceApplication.class, args);
-		System.out.println("User Service started successfully!");
-		System.out.println("Service available at: http://localhost:8082");
-		System.out.println("Access via API Gateway: http://localhost:8080/api/users/*");
+		log.info("User Service started successfully!");
+		log.info("Service available at: http://localhost:8082");
+		log.info("Access via API Gateway: http://localhost:8080/api/users/*");
 	}
 }
\ No newline at end of file
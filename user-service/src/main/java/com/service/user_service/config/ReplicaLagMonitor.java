@@ -0,0 +1,87 @@
+package com.service.user_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Polls the replica's lag; read-only transactions fall back to the primary while the replica
+// is too far behind, unreachable, or not replicating
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replicaDataSource;
+
+    @Value("${app.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource) {
+        this.replicaDataSource = replicaDataSource;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        String problem;
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            problem = replicationProblem(status);
+        } catch (Exception e) {
+            problem = "unreachable: " + e.getMessage();
+        }
+        boolean usable = problem == null;
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Read replica in use");
+            } else {
+                log.warn("Read replica {}, reading from primary", problem);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    // null when every replication channel is running and within max-lag-seconds. No rows means the
+    // server isn't a replica at all: nothing written to the primary would ever show up there.
+    private String replicationProblem(ResultSet status) throws SQLException {
+        if (!status.next()) {
+            return "is not replicating (SHOW REPLICA STATUS is empty)";
+        }
+        do {
+            // MySQL 8.0.22+ column names, with the MariaDB / older MySQL names as fallback
+            String ioRunning = column(status, "Replica_IO_Running", "Slave_IO_Running");
+            String sqlRunning = column(status, "Replica_SQL_Running", "Slave_SQL_Running");
+            if (!"Yes".equalsIgnoreCase(ioRunning) || !"Yes".equalsIgnoreCase(sqlRunning)) {
+                return "replication stopped (IO thread " + ioRunning + ", SQL thread " + sqlRunning + ")";
+            }
+            String lag = column(status, "Seconds_Behind_Source", "Seconds_Behind_Master");
+            if (lag == null) {
+                return "replication stopped (no lag reported)";
+            }
+            if (Long.parseLong(lag) > maxLagSeconds) {
+                return "lagging " + lag + "s behind";
+            }
+        } while (status.next());
+        return null;
+    }
+
+    private static String column(ResultSet status, String name, String legacyName) throws SQLException {
+        try {
+            return status.getString(name);
+        } catch (SQLException e) {
+            return status.getString(legacyName);
+        }
+    }
+}
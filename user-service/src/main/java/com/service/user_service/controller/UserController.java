@@ -99,14 +99,16 @@ public class UserController {
     }
 
     @GetMapping("/search/email")
-    public ResponseEntity<List<UserProfileResponse>> searchByEmail(@RequestParam("q") String email) {
-        List<UserProfileResponse> results = userService.searchByEmail(email);
+    public ResponseEntity<List<UserProfileResponse>> searchByEmail(@RequestParam("q") String email,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        List<UserProfileResponse> results = userService.searchByEmail(email, limit);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/search/name")
-    public ResponseEntity<List<UserProfileResponse>> searchByName(@RequestParam("q") String name) {
-        List<UserProfileResponse> results = userService.searchByName(name);
+    public ResponseEntity<List<UserProfileResponse>> searchByName(@RequestParam("q") String name,
+                                                                  @RequestParam(defaultValue = "10") int limit) {
+        List<UserProfileResponse> results = userService.searchByName(name, limit);
         return ResponseEntity.ok(results);
     }
 
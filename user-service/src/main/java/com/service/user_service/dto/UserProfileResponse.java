@@ -44,6 +44,30 @@ public class UserProfileResponse {
         this.updatedAt = profile.getUpdatedAt();
     }
 
+    // Constructor for JPQL projections (UserProfileRepository.PROFILE_RESPONSE): built straight
+    // from the selected columns, so no managed UserProfile is loaded
+    public UserProfileResponse(Long userId, String email, String name, String phone, String bio, String location,
+                               String profilePictureUrl, LocalDateTime dateOfBirth, Boolean notificationEnabled,
+                               Boolean emailNotifications, UserProfile.PrivacyLevel privacyLevel,
+                               Boolean profileCompleted, LocalDateTime lastActive, LocalDateTime createdAt,
+                               LocalDateTime updatedAt) {
+        this.userId = userId;
+        this.email = email;
+        this.name = name;
+        this.phone = phone;
+        this.bio = bio;
+        this.location = location;
+        this.profilePictureUrl = profilePictureUrl;
+        this.dateOfBirth = dateOfBirth;
+        this.notificationEnabled = notificationEnabled;
+        this.emailNotifications = emailNotifications;
+        this.privacyLevel = privacyLevel;
+        this.profileCompleted = profileCompleted;
+        this.lastActive = lastActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getUserId() {
         return userId;
@@ -1,11 +1,15 @@
 package com.service.user_service.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "user_profiles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-profiles")  // Second-level cache (see application.conf)
 public class UserProfile {
 
     @Id
@@ -0,0 +1,22 @@
+package com.service.user_service.events;
+
+// Auth Service's event for a new account (see AuthEventHandler)
+public class UserRegistered {
+    public static final String TYPE = "UserRegistered";
+
+    private Long userId;
+    private String email;
+    private String name;
+
+    // Default constructor
+    public UserRegistered() {
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
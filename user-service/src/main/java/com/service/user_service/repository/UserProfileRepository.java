@@ -1,21 +1,43 @@
 package com.service.user_service.repository;
 
+import com.service.user_service.dto.UserProfileResponse;
 import com.service.user_service.entity.UserProfile;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
 
+    // Select list for UserProfileResponse projections on list endpoints
+    String PROFILE_RESPONSE = "SELECT new com.service.user_service.dto.UserProfileResponse(" +
+            "up.userId, up.email, up.name, up.phone, up.bio, up.location, up.profilePictureUrl, up.dateOfBirth, " +
+            "up.notificationEnabled, up.emailNotifications, up.privacyLevel, up.profileCompleted, up.lastActive, " +
+            "up.createdAt, up.updatedAt) FROM UserProfile up ";
+
+    // For read-modify-write: always reads the primary row (never the second-level cache, which
+    // may also predate a LastActiveTracker flush) and holds it until commit, since the update
+    // writes every column back
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT up FROM UserProfile up WHERE up.userId = :userId")
+    Optional<UserProfile> findByIdForUpdate(@Param("userId") Long userId);
+
     Optional<UserProfile> findByEmail(String email);
 
     @Query("SELECT up FROM UserProfile up WHERE LOWER(up.email) = LOWER(:email)")
     Optional<UserProfile> findByEmailIgnoreCase(@Param("email") String email);
 
+    // Full scans: only used until UserSearchIndex has finished building
     @Query("SELECT up FROM UserProfile up WHERE LOWER(up.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<UserProfile> findByNameContainingIgnoreCase(@Param("name") String name);
 
@@ -30,11 +52,30 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
 
     List<UserProfile> findByPrivacyLevel(UserProfile.PrivacyLevel privacyLevel);
 
+    @Query(PROFILE_RESPONSE + "WHERE up.userId IN :userIds")
+    List<UserProfileResponse> findResponsesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query(PROFILE_RESPONSE + "WHERE LOWER(up.location) = LOWER(:location)")
+    List<UserProfileResponse> findResponsesByLocation(@Param("location") String location);
+
+    @Query(PROFILE_RESPONSE + "WHERE up.profileCompleted = true")
+    List<UserProfileResponse> findCompleteProfileResponses();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT COUNT(up) FROM UserProfile up WHERE up.profileCompleted = true")
+    long countCompleteProfiles();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(up) FROM UserProfile up")
     long countAllProfiles();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(up) FROM UserProfile up WHERE up.phone IS NOT NULL AND up.phone != ''")
     long countProfilesWithPhone();
 
     boolean existsByUserId(Long userId);
+
+    // Keyset pages of [userId, name, email] for building the search index
+    @Query("SELECT up.userId, up.name, up.email FROM UserProfile up WHERE up.userId > :afterUserId ORDER BY up.userId")
+    List<Object[]> findSearchFieldsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
 }
\ No newline at end of file
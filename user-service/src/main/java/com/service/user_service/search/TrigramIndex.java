@@ -0,0 +1,250 @@
+package com.service.user_service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Trigram inverted index over one text field (name or email). Values are lower-cased with
+// punctuation folded to spaces, so "john.smith@x.com" matches "smith" and "jo" alike.
+// Not thread-safe: UserSearchIndex guards every call with its read/write lock.
+class TrigramIndex {
+
+    // Trigrams this common are useless for fuzzy scoring and expensive to count
+    private static final int FUZZY_MAX_POSTINGS = 50_000;
+    private static final double FUZZY_MIN_OVERLAP = 0.6;
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator
+            .comparingDouble(Hit::getScore)
+            .thenComparingInt(Hit::getLength)
+            .thenComparingLong(Hit::getId);
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String> values = new HashMap<>();
+
+    void put(long id, String rawValue) {
+        remove(id);
+        String value = normalize(rawValue);
+        if (value.isEmpty()) {
+            return;
+        }
+        values.put(id, value);
+        for (String trigram : trigrams(" " + value + " ")) {
+            postings.computeIfAbsent(trigram, k -> new Postings()).add(id);
+        }
+    }
+
+    void remove(long id) {
+        String old = values.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String trigram : trigrams(" " + old + " ")) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    // Ranked top-K: exact, then prefix, then word-prefix, then substring, then fuzzy
+    // (trigram overlap) matches; ties go to the shorter value
+    List<Hit> search(String rawQuery, int limit) {
+        String query = normalize(rawQuery);
+        if (query.length() < 2 || limit <= 0) {
+            return List.of();
+        }
+        // Two characters can't form a trigram on their own: match them as a word prefix
+        boolean wordPrefixOnly = query.length() == 2;
+        Set<String> grams = wordPrefixOnly ? Set.of(" " + query) : trigrams(query);
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(BEST_FIRST.reversed());
+        Set<Long> matched = new HashSet<>();
+        for (long id : intersect(grams)) {
+            String value = values.get(id);
+            int rank = rank(value, query, wordPrefixOnly);
+            if (rank >= 0) {
+                matched.add(id);
+                offer(top, new Hit(id, rank, value.length()), limit);
+            }
+        }
+
+        if (top.size() < limit && !wordPrefixOnly && query.length() >= 4) {
+            collectFuzzy(grams, matched, top, limit);
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(BEST_FIRST);
+        return hits;
+    }
+
+    // 0 exact, 1 prefix, 2 word prefix, 3 substring, -1 trigram false positive
+    private int rank(String value, String query, boolean wordPrefixOnly) {
+        if (value.equals(query)) {
+            return 0;
+        }
+        if (value.startsWith(query)) {
+            return 1;
+        }
+        if (value.contains(" " + query)) {
+            return 2;
+        }
+        return !wordPrefixOnly && value.contains(query) ? 3 : -1;
+    }
+
+    // Typo tolerance: values sharing most of the query's trigrams, scored after all
+    // substring matches by how much of the query they cover
+    private void collectFuzzy(Set<String> grams, Set<Long> matched, PriorityQueue<Hit> top, int limit) {
+        Map<Long, Integer> overlap = new HashMap<>();
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null || list.size > FUZZY_MAX_POSTINGS) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                overlap.merge(list.ids[i], 1, Integer::sum);
+            }
+        }
+        int threshold = Math.max(2, (int) Math.ceil(grams.size() * FUZZY_MIN_OVERLAP));
+        for (Map.Entry<Long, Integer> entry : overlap.entrySet()) {
+            if (entry.getValue() >= threshold && !matched.contains(entry.getKey())) {
+                double score = 4 + (1 - (double) entry.getValue() / grams.size());
+                offer(top, new Hit(entry.getKey(), score, values.get(entry.getKey()).length()), limit);
+            }
+        }
+    }
+
+    private void offer(PriorityQueue<Hit> top, Hit hit, int limit) {
+        if (top.size() < limit) {
+            top.add(hit);
+        } else if (BEST_FIRST.compare(hit, top.peek()) < 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    // Walk the shortest posting list and probe the others by binary search
+    private long[] intersect(Set<String> grams) {
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings shortest = lists.get(0);
+        long[] result = new long[shortest.size];
+        int count = 0;
+        outer:
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) {
+                    continue outer;
+                }
+            }
+            result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static String normalize(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(raw.length());
+        boolean pendingSpace = false;
+        for (char c : raw.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    static class Hit {
+        private final long id;
+        private final double score;
+        private final int length;
+
+        Hit(long id, double score, int length) {
+            this.id = id;
+            this.score = score;
+            this.length = length;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        double getScore() {
+            return score;
+        }
+
+        int getLength() {
+            return length;
+        }
+    }
+
+    // Sorted growable array of user IDs; ascending inserts (the startup build) are appends
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int pos = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                pos = -pos - 1;
+            } else if (pos < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.service.user_service.search;
+
+import com.service.user_service.entity.UserProfile;
+import com.service.user_service.repository.UserProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// In-memory name/email search for autocomplete, built at startup and kept current on every
+// profile write so keystroke lookups never scan user_profiles
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Value("${user.search.build-batch-size:5000}")
+    private int buildBatchSize;
+
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex emails = new TrigramIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Profiles written while the initial build is running; the build must not overwrite them
+    private final Set<Long> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long afterUserId = Long.MIN_VALUE;
+        List<Object[]> batch;
+        do {
+            batch = userProfileRepository.findSearchFieldsAfter(afterUserId, PageRequest.of(0, buildBatchSize));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : batch) {
+                    Long userId = (Long) row[0];
+                    if (!touchedDuringBuild.contains(userId)) {
+                        names.put(userId, (String) row[1]);
+                        emails.put(userId, (String) row[2]);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                afterUserId = (Long) batch.get(batch.size() - 1)[0];
+            }
+        } while (batch.size() == buildBatchSize);
+        ready = true;
+        touchedDuringBuild.clear();
+        log.info("User search index built: {} profiles", size());
+    }
+
+    // False until the startup build finishes; callers fall back to the database until then
+    public boolean isReady() {
+        return ready;
+    }
+
+    // User IDs ranked best first
+    public List<Long> searchNames(String query, int limit) {
+        return search(names, query, limit);
+    }
+
+    public List<Long> searchEmails(String query, int limit) {
+        return search(emails, query, limit);
+    }
+
+    // (Re)index a profile once the surrounding transaction commits
+    public void index(UserProfile profile) {
+        Long userId = profile.getUserId();
+        String name = profile.getName();
+        String email = profile.getEmail();
+        afterCommit(userId, () -> {
+            names.put(userId, name);
+            emails.put(userId, email);
+        });
+    }
+
+    public void remove(Long userId) {
+        afterCommit(userId, () -> {
+            names.remove(userId);
+            emails.remove(userId);
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> search(TrigramIndex index, String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit).stream()
+                    .map(TrigramIndex.Hit::getId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Long userId, Runnable change) {
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                if (!ready) {
+                    touchedDuringBuild.add(userId);
+                }
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.service.user_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.common.events.DomainEvent;
+import com.service.common.events.DomainEventHandler;
+import com.service.user_service.events.UserRegistered;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Auth Service events: every new account gets its profile
+@Component
+public class AuthEventHandler implements DomainEventHandler {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getSource() {
+        return "auth-service";
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        if (!UserRegistered.TYPE.equals(event.getType())) {
+            return;
+        }
+        try {
+            UserRegistered registered = objectMapper.treeToValue(event.getPayload(), UserRegistered.class);
+            userService.createProfileIfAbsent(registered.getUserId(), registered.getEmail(), registered.getName());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable UserRegistered event " + event.getEventId(), e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.service.user_service.service;
+
+import com.service.user_service.entity.UserProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Write-behind for user_profiles.last_active: reads only touch an in-memory map (one entry per
+// user, latest timestamp wins) and a scheduled flush writes the survivors in one JDBC batch.
+// Coalescing ratio = user.last_active.touches / user.last_active.flushed.
+@Component
+public class LastActiveTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(LastActiveTracker.class);
+
+    // Never moves last_active backwards if another instance flushed a newer value first
+    private static final String FLUSH_SQL = "UPDATE user_profiles SET last_active = ? " +
+            "WHERE user_id = ? AND (last_active IS NULL OR last_active < ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private Counter touches;
+    private Counter flushed;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        touches = meterRegistry.counter("user.last_active.touches");
+        flushed = meterRegistry.counter("user.last_active.flushed");
+        flushTimer = meterRegistry.timer("user.last_active.flush");
+        Gauge.builder("user.last_active.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void touch(Long userId) {
+        touches.increment();
+        pending.merge(userId, LocalDateTime.now(), (current, latest) -> latest.isAfter(current) ? latest : current);
+    }
+
+    @Scheduled(fixedDelayString = "${user.last-active.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Take each entry only if it hasn't been touched again since we read it; a newer
+        // touch stays in the map for the next flush
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                Timestamp lastActive = Timestamp.valueOf(entry.getValue());
+                batch.add(new Object[]{lastActive, entry.getKey(), lastActive});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            flushed.increment(batch.size());
+            // The JDBC batch bypasses Hibernate, so drop the now-stale second-level cache entries
+            for (Object[] row : batch) {
+                entityManagerFactory.getCache().evict(UserProfile.class, row[1]);
+            }
+        } catch (RuntimeException e) {
+            // Put the batch back (keeping any newer touch) and retry on the next tick
+            for (Object[] row : batch) {
+                LocalDateTime lastActive = ((Timestamp) row[0]).toLocalDateTime();
+                pending.merge((Long) row[1], lastActive, (current, failed) -> current.isAfter(failed) ? current : failed);
+            }
+            log.warn("Could not flush {} lastActive updates: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
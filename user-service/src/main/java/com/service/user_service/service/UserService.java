@@ -6,24 +6,44 @@ import com.service.user_service.dto.UserProfileRequest;
 import com.service.user_service.dto.UserProfileResponse;
 import com.service.user_service.entity.UserProfile;
 import com.service.user_service.repository.UserProfileRepository;
+import com.service.user_service.search.UserSearchIndex;
+import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Observed(name = "user.service")  // Timer + span per public method (tagged with the method name)
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     @Autowired
     private UserProfileRepository userProfileRepository;
 
     @Autowired
     private AuthClientService authClientService;
 
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private LastActiveTracker lastActiveTracker;
+
+    @Value("${user.search.max-results:50}")
+    private int maxSearchResults;
+
     public UserProfileResponse createProfile(UserProfileRequest request) {
         // Check if profile already exists
         if (userProfileRepository.existsByUserId(request.getUserId())) {
@@ -38,22 +58,36 @@ public class UserService {
         );
 
         UserProfile savedProfile = userProfileRepository.save(profile);
+        searchIndex.index(savedProfile);
         return new UserProfileResponse(savedProfile);
     }
 
+    // From Auth Service's UserRegistered event. A redelivered event, or a profile already created
+    // with POST /profiles, changes nothing.
+    public void createProfileIfAbsent(Long userId, String email, String name) {
+        if (userProfileRepository.existsByUserId(userId)) {
+            return;
+        }
+        UserProfile savedProfile = userProfileRepository.save(new UserProfile(userId, email, name));
+        searchIndex.index(savedProfile);
+        log.debug("User profile created for user {}", userId);
+    }
+
+    @Transactional(readOnly = true)
     public UserProfileResponse getProfile(Long userId) {
         UserProfile profile = userProfileRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Profile not found for user ID: " + userId));
 
-        // Update last active time
-        profile.setLastActive(LocalDateTime.now());
-        userProfileRepository.save(profile);
+        // Update last active time (written behind in batches, see LastActiveTracker)
+        lastActiveTracker.touch(userId);
 
-        return new UserProfileResponse(profile);
+        UserProfileResponse response = new UserProfileResponse(profile);
+        response.setLastActive(LocalDateTime.now());
+        return response;
     }
 
     public UserProfileResponse updateProfile(Long userId, UpdateProfileRequest request) {
-        UserProfile profile = userProfileRepository.findById(userId)
+        UserProfile profile = userProfileRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new RuntimeException("Profile not found for user ID: " + userId));
 
         // Update fields if provided
@@ -97,12 +131,13 @@ public class UserService {
         profile.setProfileCompleted(profile.isProfileComplete());
 
         UserProfile updatedProfile = userProfileRepository.save(profile);
+        searchIndex.index(updatedProfile);
         return new UserProfileResponse(updatedProfile);
     }
 
     // Sync user data from Auth Service
     public UserProfileResponse syncUserData(Long userId, UserController.UserSyncRequest request) {
-        UserProfile profile = userProfileRepository.findById(userId)
+        UserProfile profile = userProfileRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new RuntimeException("Profile not found for user ID: " + userId));
         // Update synchronized fields
         if (request.getEmail() != null && !request.getEmail().trim().isEmpty()) {
@@ -113,36 +148,56 @@ public class UserService {
         }
         profile.setUpdatedAt(LocalDateTime.now());
         UserProfile updatedProfile = userProfileRepository.save(profile);
-        System.out.println(" User profile synced for user: " + userId);
+        searchIndex.index(updatedProfile);
+        log.debug("User profile synced for user {}", userId);
         return new UserProfileResponse(updatedProfile);
     }
 
-    public List<UserProfileResponse> searchByEmail(String email) {
-        List<UserProfile> profiles = userProfileRepository.findByEmailContainingIgnoreCase(email);
-        return profiles.stream()
-                .map(UserProfileResponse::new)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<UserProfileResponse> searchByEmail(String email, int limit) {
+        int cappedLimit = Math.min(Math.max(limit, 1), maxSearchResults);
+        if (!searchIndex.isReady()) {
+            return userProfileRepository.findByEmailContainingIgnoreCase(email).stream()
+                    .limit(cappedLimit)
+                    .map(UserProfileResponse::new)
+                    .collect(Collectors.toList());
+        }
+        return loadRanked(searchIndex.searchEmails(email, cappedLimit));
     }
 
-    public List<UserProfileResponse> searchByName(String name) {
-        List<UserProfile> profiles = userProfileRepository.findByNameContainingIgnoreCase(name);
-        return profiles.stream()
-                .map(UserProfileResponse::new)
+    @Transactional(readOnly = true)
+    public List<UserProfileResponse> searchByName(String name, int limit) {
+        int cappedLimit = Math.min(Math.max(limit, 1), maxSearchResults);
+        if (!searchIndex.isReady()) {
+            return userProfileRepository.findByNameContainingIgnoreCase(name).stream()
+                    .limit(cappedLimit)
+                    .map(UserProfileResponse::new)
+                    .collect(Collectors.toList());
+        }
+        return loadRanked(searchIndex.searchNames(name, cappedLimit));
+    }
+
+    // Primary-key fetch of the top-K hits, kept in the index's rank order
+    private List<UserProfileResponse> loadRanked(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserProfileResponse> profiles = userProfileRepository.findResponsesByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserProfileResponse::getUserId, Function.identity()));
+        return userIds.stream()
+                .map(profiles::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<UserProfileResponse> getUsersByLocation(String location) {
-        List<UserProfile> profiles = userProfileRepository.findByLocation(location);
-        return profiles.stream()
-                .map(UserProfileResponse::new)
-                .collect(Collectors.toList());
+        return userProfileRepository.findResponsesByLocation(location);
     }
 
+    @Transactional(readOnly = true)
     public List<UserProfileResponse> getUsersWithCompleteProfiles() {
-        List<UserProfile> profiles = userProfileRepository.findUsersWithCompleteProfiles();
-        return profiles.stream()
-                .map(UserProfileResponse::new)
-                .collect(Collectors.toList());
+        return userProfileRepository.findCompleteProfileResponses();
     }
 
     public void deleteProfile(Long userId) {
@@ -150,16 +205,19 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Profile not found for user ID: " + userId));
 
         userProfileRepository.delete(profile);
+        searchIndex.remove(userId);
     }
 
+    @Transactional(readOnly = true)
     public ProfileStats getProfileStats() {
         long totalProfiles = userProfileRepository.countAllProfiles();
         long profilesWithPhone = userProfileRepository.countProfilesWithPhone();
-        long completeProfiles = userProfileRepository.findUsersWithCompleteProfiles().size();
+        long completeProfiles = userProfileRepository.countCompleteProfiles();
 
         return new ProfileStats(totalProfiles, profilesWithPhone, completeProfiles);
     }
 
+    @Transactional(readOnly = true)
     public boolean canAccessProfile(Long profileOwnerId, Long requesterId) {
         // User can always access their own profile
         if (profileOwnerId.equals(requesterId)) {
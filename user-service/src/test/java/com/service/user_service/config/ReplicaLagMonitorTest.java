@@ -0,0 +1,124 @@
+package com.service.user_service.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private DataSource replicaDataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet status;
+
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        monitor = new ReplicaLagMonitor(replicaDataSource);
+        ReflectionTestUtils.setField(monitor, "maxLagSeconds", 5L);
+        lenient().when(replicaDataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.createStatement()).thenReturn(statement);
+        lenient().when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(status);
+    }
+
+    @Test
+    void runningReplicaWithinMaxLagIsUsed() throws SQLException {
+        replicaStatus("Yes", "Yes", "2");
+
+        monitor.checkLag();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void serverThatIsNotReplicatingIsNeverUsed() throws SQLException {
+        when(status.next()).thenReturn(false);
+
+        monitor.checkLag();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void stoppedReplicationThreadsMakeTheReplicaUnusable() throws SQLException {
+        replicaStatus("Yes", "No", "0");
+
+        monitor.checkLag();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void replicaBeyondMaxLagIsUnusable() throws SQLException {
+        replicaStatus("Yes", "Yes", "6");
+
+        monitor.checkLag();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void unknownLagIsUnusable() throws SQLException {
+        replicaStatus("Yes", "Yes", null);
+
+        monitor.checkLag();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void legacyStatusColumnNamesAreUnderstood() throws SQLException {
+        when(status.next()).thenReturn(true, false);
+        when(status.getString("Replica_IO_Running")).thenThrow(new SQLException("Column not found"));
+        when(status.getString("Slave_IO_Running")).thenReturn("Yes");
+        when(status.getString("Replica_SQL_Running")).thenThrow(new SQLException("Column not found"));
+        when(status.getString("Slave_SQL_Running")).thenReturn("Yes");
+        when(status.getString("Seconds_Behind_Source")).thenThrow(new SQLException("Column not found"));
+        when(status.getString("Seconds_Behind_Master")).thenReturn("0");
+
+        monitor.checkLag();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void unreachableReplicaIsUnusable() throws SQLException {
+        replicaStatus("Yes", "Yes", "0");
+        monitor.checkLag();
+        when(replicaDataSource.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+
+        monitor.checkLag();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    private void replicaStatus(String ioRunning, String sqlRunning, String lag) throws SQLException {
+        when(status.next()).thenReturn(true, false);
+        when(status.getString("Replica_IO_Running")).thenReturn(ioRunning);
+        when(status.getString("Replica_SQL_Running")).thenReturn(sqlRunning);
+        lenient().when(status.getString("Seconds_Behind_Source")).thenReturn(lag);
+    }
+}
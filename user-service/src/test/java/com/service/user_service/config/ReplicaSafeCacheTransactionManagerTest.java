@@ -0,0 +1,88 @@
+package com.service.user_service.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaSafeCacheTransactionManagerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityTransaction entityTransaction;
+
+    @Mock
+    private Session session;
+
+    private ReplicaRoutingDataSourceConfig.ReplicaSafeCacheTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = new ReplicaRoutingDataSourceConfig.ReplicaSafeCacheTransactionManager();
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(entityManager.isOpen()).thenReturn(true);
+        lenient().when(entityTransaction.isActive()).thenReturn(true);
+        lenient().when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+    }
+
+    @Test
+    void readOnlyTransactionsOnlyReadTheSecondLevelCache() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> verify(session).setCacheMode(CacheMode.GET));
+
+        // Restored before the EntityManager is closed, in case it outlives the transaction
+        InOrder order = inOrder(session, entityManager);
+        order.verify(session).setCacheMode(CacheMode.NORMAL);
+        order.verify(entityManager).close();
+    }
+
+    @Test
+    void readWriteTransactionsKeepTheDefaultCacheMode() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> { });
+
+        verify(session, never()).setCacheMode(CacheMode.GET);
+        verify(entityTransaction).commit();
+    }
+
+    @Test
+    void nestedReadWriteTransactionDoesNotUndoTheOuterReadOnlyMode() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        readOnly.executeWithoutResult(status -> {
+            requiresNew.executeWithoutResult(inner -> { });
+            // The inner transaction pushed and popped its own (no-op) entry
+            verify(session, never()).setCacheMode(CacheMode.NORMAL);
+        });
+
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+}
@@ -0,0 +1,72 @@
+package com.service.user_service.repository;
+
+import com.service.user_service.dto.UserProfileResponse;
+import com.service.user_service.entity.UserProfile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Constructor;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Profile search, location and complete-profile lists read UserProfileResponse straight from JPQL
+// "SELECT new" projections; each one must fill in the same fields as new UserProfileResponse(profile)
+class UserProfileResponseProjectionTest {
+
+    private static final Pattern SELECT_NEW = Pattern.compile("SELECT new [\\w.]+\\((.*?)\\) FROM");
+
+    @Test
+    void everyListQueryProjectsTheSameFieldsAsTheEntity() {
+        UserProfile profile = profile();
+        List<String> queries = Arrays.stream(UserProfileRepository.class.getMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .map(method -> method.getAnnotation(Query.class).value())
+                .filter(jpql -> jpql.contains("new " + UserProfileResponse.class.getName() + "("))
+                .toList();
+
+        assertThat(queries).isNotEmpty().allMatch(jpql -> jpql.startsWith(UserProfileRepository.PROFILE_RESPONSE));
+        UserProfileResponse projected = project(UserProfileRepository.PROFILE_RESPONSE, profile);
+        assertThat(projected).usingRecursiveComparison().isEqualTo(new UserProfileResponse(profile));
+        assertThat(projected).hasNoNullFieldsOrProperties();
+    }
+
+    // Evaluates the select list against the entity, column by column, as Hibernate does for a row
+    private static UserProfileResponse project(String jpql, UserProfile profile) {
+        Matcher select = SELECT_NEW.matcher(jpql);
+        assertThat(select.find()).as(jpql).isTrue();
+        Object[] columns = Arrays.stream(select.group(1).split(","))
+                .map(String::trim)
+                .map(column -> ReflectionTestUtils.getField(profile, column.substring(column.indexOf('.') + 1)))
+                .toArray();
+        Constructor<?> constructor = Arrays.stream(UserProfileResponse.class.getConstructors())
+                .filter(candidate -> candidate.getParameterCount() == columns.length)
+                .findFirst()
+                .orElseThrow();
+        return (UserProfileResponse) BeanUtils.instantiateClass(constructor, columns);
+    }
+
+    // Every field set, and no two of the same type equal, so a swapped column shows up
+    private static UserProfile profile() {
+        UserProfile profile = new UserProfile(1L, "ana@example.com", "Ana");
+        ReflectionTestUtils.setField(profile, "phone", "+34 600 000 000");
+        ReflectionTestUtils.setField(profile, "bio", "Climber");
+        ReflectionTestUtils.setField(profile, "location", "Madrid");
+        ReflectionTestUtils.setField(profile, "profilePictureUrl", "https://example.com/ana.png");
+        ReflectionTestUtils.setField(profile, "dateOfBirth", LocalDateTime.of(1990, 5, 4, 0, 0));
+        ReflectionTestUtils.setField(profile, "notificationEnabled", true);
+        ReflectionTestUtils.setField(profile, "emailNotifications", false);
+        ReflectionTestUtils.setField(profile, "privacyLevel", UserProfile.PrivacyLevel.FRIENDS_ONLY);
+        ReflectionTestUtils.setField(profile, "profileCompleted", true);
+        ReflectionTestUtils.setField(profile, "lastActive", LocalDateTime.of(2025, 3, 3, 9, 0));
+        ReflectionTestUtils.setField(profile, "createdAt", LocalDateTime.of(2025, 1, 1, 12, 0));
+        ReflectionTestUtils.setField(profile, "updatedAt", LocalDateTime.of(2025, 3, 2, 8, 15));
+        return profile;
+    }
+}
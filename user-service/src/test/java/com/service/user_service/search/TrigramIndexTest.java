@@ -0,0 +1,130 @@
+package com.service.user_service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        index.put(1, "Ann Smithers");
+        index.put(2, "Smith");
+        index.put(3, "Bob Smith");
+        index.put(4, "Goldsmith");
+        index.put(5, "Smithson");
+
+        assertThat(ids(index.search("smith", 10))).containsExactly(2L, 5L, 3L, 1L, 4L);
+    }
+
+    @Test
+    void tiesGoToTheShorterValue() {
+        index.put(1, "johnathan");
+        index.put(2, "johnny");
+
+        assertThat(ids(index.search("john", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void emailPunctuationIsFoldedIntoWordBoundaries() {
+        index.put(1, "John.Smith@example.com");
+
+        assertThat(ids(index.search("smith", 10))).containsExactly(1L);
+        assertThat(ids(index.search("SMITH EXAMPLE", 10))).containsExactly(1L);
+        assertThat(TrigramIndex.normalize("  John.Smith@Example.COM ")).isEqualTo("john smith example com");
+    }
+
+    @Test
+    void twoCharacterQueriesMatchOnlyWordPrefixes() {
+        index.put(1, "Joe Bloggs");
+        index.put(2, "Mojo Jones");
+        index.put(3, "Tom Hojo");
+
+        assertThat(ids(index.search("jo", 10))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void tooShortOrEmptyQueriesReturnNothing() {
+        index.put(1, "Joe");
+
+        assertThat(index.search("j", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+        assertThat(index.search(null, 10)).isEmpty();
+        assertThat(index.search("joe", 0)).isEmpty();
+    }
+
+    @Test
+    void typosFallBackToFuzzyMatchesRankedAfterSubstrings() {
+        index.put(1, "Jonathan Richards");
+        index.put(2, "Richardson");
+
+        List<TrigramIndex.Hit> hits = index.search("richrdson", 10);
+
+        // No substring match exists, so the closest trigram overlap comes back with a fuzzy score
+        assertThat(ids(hits)).first().isEqualTo(2L);
+        assertThat(hits.get(0).getScore()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void fuzzyMatchesNeverDisplaceSubstringMatches() {
+        index.put(1, "Richardson");
+        index.put(2, "Richardsen");
+
+        List<TrigramIndex.Hit> hits = index.search("richardson", 1);
+
+        assertThat(ids(hits)).containsExactly(1L);
+        assertThat(hits.get(0).getScore()).isZero();
+    }
+
+    @Test
+    void limitKeepsTheBestHits() {
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, "user" + id);
+        }
+        index.put(100, "user");
+
+        List<TrigramIndex.Hit> hits = index.search("user", 3);
+
+        assertThat(ids(hits)).containsExactly(100L, 1L, 2L);
+    }
+
+    @Test
+    void putReplacesThePreviousValueAndRemoveForgetsIt() {
+        index.put(1, "Alice");
+        index.put(1, "Bob");
+
+        assertThat(index.search("alice", 10)).isEmpty();
+        assertThat(ids(index.search("bob", 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1);
+
+        assertThat(index.search("bob", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void outOfOrderInsertsKeepPostingsSearchable() {
+        long[] order = {50, 3, 27, 1, 99, 42, 3};
+        for (long id : order) {
+            index.put(id, "Carol " + id);
+        }
+        index.remove(27);
+
+        assertThat(ids(index.search("carol", 10))).containsExactlyInAnyOrder(1L, 3L, 42L, 50L, 99L);
+    }
+
+    private static List<Long> ids(List<TrigramIndex.Hit> hits) {
+        return hits.stream().map(TrigramIndex.Hit::getId).toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.service.user_service.service;
+
+import com.service.user_service.entity.UserProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LastActiveTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache secondLevelCache;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    @InjectMocks
+    private LastActiveTracker tracker;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(tracker, "meterRegistry", meterRegistry);
+        tracker.initMetrics();
+        lenient().when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+    }
+
+    @Test
+    void flushWritesOneRowPerUserInASingleBatch() {
+        tracker.touch(1L);
+        tracker.touch(1L);
+        tracker.touch(1L);
+        tracker.touch(2L);
+
+        tracker.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batchCaptor.capture());
+        assertThat(batchCaptor.getValue()).extracting(row -> row[1]).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(meterRegistry.counter("user.last_active.touches").count()).isEqualTo(4);
+        assertThat(meterRegistry.counter("user.last_active.flushed").count()).isEqualTo(2);
+        assertThat(meterRegistry.get("user.last_active.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void flushEvictsOnlyTheFlushedProfiles() {
+        tracker.touch(1L);
+        tracker.touch(2L);
+
+        tracker.flush();
+
+        verify(secondLevelCache).evict(UserProfile.class, 1L);
+        verify(secondLevelCache).evict(UserProfile.class, 2L);
+        verify(secondLevelCache, never()).evict(UserProfile.class);
+        verify(secondLevelCache, never()).evictAll();
+    }
+
+    @Test
+    void flushWithNothingPendingTouchesNothing() {
+        tracker.flush();
+
+        verifyNoInteractions(jdbcTemplate, entityManagerFactory);
+    }
+
+    @Test
+    void failedFlushIsRetriedOnTheNextTick() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new TransientDataAccessResourceException("connection reset"))
+                .thenReturn(new int[]{1});
+        tracker.touch(1L);
+
+        tracker.flush();
+
+        verify(secondLevelCache, never()).evict(any(), any());
+        assertThat(meterRegistry.counter("user.last_active.flushed").count()).isZero();
+        assertThat(meterRegistry.get("user.last_active.pending").gauge().value()).isEqualTo(1);
+
+        tracker.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batchCaptor.capture());
+        assertThat(batchCaptor.getValue()).extracting(row -> row[1]).containsExactly(1L);
+        verify(secondLevelCache).evict(UserProfile.class, 1L);
+        assertThat(meterRegistry.get("user.last_active.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void secondFlushOnlyWritesUsersTouchedSinceTheFirst() {
+        tracker.touch(1L);
+        tracker.flush();
+
+        tracker.touch(2L);
+        tracker.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batchCaptor.capture());
+        assertThat(batchCaptor.getAllValues().get(1)).extracting(row -> row[1]).containsExactly(2L);
+    }
+}